@@ -1,11 +1,16 @@
 package com.smartbudget.app;
 
 import android.app.Application;
-import android.app.NotificationChannel;
-import android.app.NotificationManager;
-import android.os.Build;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.StrictMode;
+import android.os.Trace;
 
-import com.smartbudget.app.data.local.AppDatabase;
+import com.smartbudget.app.startup.AppStartup;
+import com.smartbudget.app.utils.AppPreferences;
+import com.smartbudget.app.utils.EpochDays;
 import com.smartbudget.app.utils.ThemeManager;
 
 public class SmartBudgetApp extends Application {
@@ -16,29 +21,45 @@ public class SmartBudgetApp extends Application {
     @Override
     public void onCreate() {
         super.onCreate();
+        Trace.beginSection("SmartBudgetApp.onCreate");
+        try {
+            if (BuildConfig.DEBUG) {
+                // Flag main-thread disk access (preferences, database) in logcat
+                StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                        .detectDiskReads()
+                        .detectDiskWrites()
+                        .penaltyLog()
+                        .build());
+            }
+
+            // Settings file (theme, biometric lock, streak) loads in the background meanwhile
+            AppPreferences.preload(this);
 
-        // Apply saved theme (Dark Mode)
-        ThemeManager.applyTheme(this);
+            // Rebuild cached zone tables when the device time zone changes
+            registerReceiver(new BroadcastReceiver() {
+                @Override
+                public void onReceive(Context context, Intent intent) {
+                    EpochDays.resetZone();
+                }
+            }, new IntentFilter(Intent.ACTION_TIMEZONE_CHANGED));
 
-        // Initialize database
-        AppDatabase.getDatabase(this);
+            // Database, notification channel, Firebase, AI and receipt maintenance
+            // are initialized lazily / in the background (see AppStartup)
+            AppStartup.init(this);
 
-        // Create notification channel
-        createNotificationChannel();
+            // Apply saved theme (Dark Mode) - must happen before the first activity inflates
+            ThemeManager.applyTheme(this);
+        } finally {
+            Trace.endSection();
+        }
     }
 
-    private void createNotificationChannel() {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            NotificationChannel channel = new NotificationChannel(
-                    CHANNEL_ID,
-                    CHANNEL_NAME,
-                    NotificationManager.IMPORTANCE_DEFAULT);
-            channel.setDescription("Thông báo nhắc nhở ghi chép chi tiêu");
-
-            NotificationManager manager = getSystemService(NotificationManager.class);
-            if (manager != null) {
-                manager.createNotificationChannel(channel);
-            }
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level >= TRIM_MEMORY_UI_HIDDEN) {
+            // App left the foreground: write pending settings instead of waiting for the delay
+            AppPreferences.flushSoon(this);
         }
     }
 }
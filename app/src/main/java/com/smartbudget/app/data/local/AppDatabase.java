@@ -3,6 +3,8 @@ package com.smartbudget.app.data.local;
 import android.content.Context;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
@@ -12,15 +14,31 @@ import androidx.sqlite.db.SupportSQLiteDatabase;
 import com.smartbudget.app.data.local.dao.BudgetDao;
 import com.smartbudget.app.data.local.dao.CategoryDao;
 import com.smartbudget.app.data.local.dao.ChatDao;
+import com.smartbudget.app.data.local.dao.DebtDao;
+import com.smartbudget.app.data.local.dao.ExchangeRateDao;
 import com.smartbudget.app.data.local.dao.ExpenseDao;
+import com.smartbudget.app.data.local.dao.ExpenseTemplateDao;
+import com.smartbudget.app.data.local.dao.LedgerDao;
+import com.smartbudget.app.data.local.dao.LocationTagDao;
 import com.smartbudget.app.data.local.dao.RecurringExpenseDao;
+import com.smartbudget.app.data.local.dao.RecurringReminderDao;
+import com.smartbudget.app.data.local.dao.SavingsContributionDao;
 import com.smartbudget.app.data.local.dao.SavingsGoalDao;
 import com.smartbudget.app.data.local.entity.BudgetEntity;
 import com.smartbudget.app.data.local.entity.CategoryEntity;
 import com.smartbudget.app.data.local.entity.ChatMessageEntity;
+import com.smartbudget.app.data.local.entity.DebtEntity;
+import com.smartbudget.app.data.local.entity.ExchangeRateEntity;
 import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.data.local.entity.ExpenseTemplateEntity;
+import com.smartbudget.app.data.local.entity.LedgerCheckpointEntity;
+import com.smartbudget.app.data.local.entity.LedgerEntryEntity;
+import com.smartbudget.app.data.local.entity.LocationTagEntity;
 import com.smartbudget.app.data.local.entity.RecurringExpenseEntity;
+import com.smartbudget.app.data.local.entity.RecurringReminderEntity;
+import com.smartbudget.app.data.local.entity.SavingsContributionEntity;
 import com.smartbudget.app.data.local.entity.SavingsGoalEntity;
+import com.smartbudget.app.utils.CurrencyConverter;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -33,8 +51,16 @@ import java.util.concurrent.Executors;
         BudgetEntity.class,
         SavingsGoalEntity.class,
         ChatMessageEntity.class,
-        RecurringExpenseEntity.class
-}, version = 5, exportSchema = false)
+        RecurringExpenseEntity.class,
+        LedgerEntryEntity.class,
+        LedgerCheckpointEntity.class,
+        ExchangeRateEntity.class,
+        ExpenseTemplateEntity.class,
+        DebtEntity.class,
+        LocationTagEntity.class,
+        RecurringReminderEntity.class,
+        SavingsContributionEntity.class
+}, version = 10, exportSchema = false)
 public abstract class AppDatabase extends RoomDatabase {
 
     public abstract CategoryDao categoryDao();
@@ -49,6 +75,62 @@ public abstract class AppDatabase extends RoomDatabase {
 
     public abstract RecurringExpenseDao recurringExpenseDao();
 
+    public abstract LedgerDao ledgerDao();
+
+    public abstract ExchangeRateDao exchangeRateDao();
+
+    public abstract ExpenseTemplateDao expenseTemplateDao();
+
+    public abstract DebtDao debtDao();
+
+    public abstract LocationTagDao locationTagDao();
+
+    public abstract RecurringReminderDao recurringReminderDao();
+
+    public abstract SavingsContributionDao savingsContributionDao();
+
+    private volatile ExpenseLedger expenseLedger;
+
+    /** Expense writes that must be recorded in the audit ledger go through this. */
+    public ExpenseLedger expenseLedger() {
+        if (expenseLedger == null) {
+            synchronized (this) {
+                if (expenseLedger == null) {
+                    expenseLedger = new ExpenseLedger(this);
+                }
+            }
+        }
+        return expenseLedger;
+    }
+
+    private volatile ExchangeRates exchangeRates;
+
+    /** Cached rate lookups for converting single expenses to the base currency. */
+    public ExchangeRates exchangeRates() {
+        if (exchangeRates == null) {
+            synchronized (this) {
+                if (exchangeRates == null) {
+                    exchangeRates = new ExchangeRates(this);
+                }
+            }
+        }
+        return exchangeRates;
+    }
+
+    private volatile SavingsContributions savingsContributions;
+
+    /** Savings goal deposits go through this, so the contribution history matches the balances. */
+    public SavingsContributions savingsContributions() {
+        if (savingsContributions == null) {
+            synchronized (this) {
+                if (savingsContributions == null) {
+                    savingsContributions = new SavingsContributions(this);
+                }
+            }
+        }
+        return savingsContributions;
+    }
+
     private static volatile AppDatabase INSTANCE;
     private static final int NUMBER_OF_THREADS = 4;
     public static final ExecutorService databaseWriteExecutor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
@@ -62,11 +144,21 @@ public abstract class AppDatabase extends RoomDatabase {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
                 if (INSTANCE == null) {
+                    Context appContext = context.getApplicationContext();
                     INSTANCE = Room.databaseBuilder(
-                            context.getApplicationContext(),
+                            appContext,
                             AppDatabase.class,
                             "smartbudget_database")
                             .addCallback(sRoomDatabaseCallback)
+                            .addCallback(new RoomDatabase.Callback() {
+                                // The 8 -> 9 import has committed once the database is open
+                                @Override
+                                public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                                    LegacyPrefsImport.deleteImported(appContext);
+                                }
+                            })
+                            .addMigrations(MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8,
+                                    migration8To9(appContext), MIGRATION_9_10)
                             .fallbackToDestructiveMigration()
                             .build();
                 }
@@ -75,6 +167,155 @@ public abstract class AppDatabase extends RoomDatabase {
         return INSTANCE;
     }
 
+    /**
+     * 5 -> 6: recurring expenses are materialized into expenses.
+     * Adds expenses.recurringId with a unique (recurringId, date) index (the idempotency key)
+     * and the (isActive, nextDueDate) index for the due lookup.
+     */
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE expenses ADD COLUMN recurringId INTEGER");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS index_expenses_recurringId_date "
+                    + "ON expenses (recurringId, date)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_recurring_expenses_isActive_nextDueDate "
+                    + "ON recurring_expenses (isActive, nextDueDate)");
+        }
+    };
+
+    /**
+     * 6 -> 7: expense audit ledger (hash chain entries and verified checkpoints).
+     * The chain starts empty; expenses written before the upgrade are not in it.
+     */
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS ledger_entries (seq INTEGER NOT NULL, "
+                    + "expenseId INTEGER NOT NULL, op INTEGER NOT NULL, createdAt INTEGER NOT NULL, "
+                    + "payload BLOB NOT NULL, hash BLOB NOT NULL, PRIMARY KEY(seq))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_ledger_entries_expenseId "
+                    + "ON ledger_entries (expenseId)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS ledger_checkpoints (seq INTEGER NOT NULL, "
+                    + "hash BLOB NOT NULL, verifiedAt INTEGER NOT NULL, PRIMARY KEY(seq))");
+        }
+    };
+
+    /**
+     * 7 -> 8: multi-currency expenses. expenses.amount (REAL) becomes amountMinor (INTEGER, minor
+     * units) plus currency; SQLite cannot drop a column, so the table is rebuilt with ids kept
+     * (the ledger refers to them). Every existing row is VND, which has no minor unit.
+     * Adds exchange_rates, seeded with the built-in rates.
+     */
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS expenses_new (id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "amountMinor INTEGER NOT NULL, currency TEXT NOT NULL, categoryId INTEGER, "
+                    + "date INTEGER NOT NULL, note TEXT, receiptImagePath TEXT, createdAt INTEGER NOT NULL, "
+                    + "updatedAt INTEGER NOT NULL, isSynced INTEGER NOT NULL, tags TEXT, recurringId INTEGER, "
+                    + "FOREIGN KEY(categoryId) REFERENCES categories(id) ON UPDATE NO ACTION ON DELETE SET NULL)");
+            db.execSQL("INSERT INTO expenses_new (id, amountMinor, currency, categoryId, date, note, "
+                    + "receiptImagePath, createdAt, updatedAt, isSynced, tags, recurringId) "
+                    + "SELECT id, CAST(ROUND(amount) AS INTEGER), '" + CurrencyConverter.BASE_CURRENCY + "', "
+                    + "categoryId, date, note, receiptImagePath, createdAt, updatedAt, isSynced, tags, recurringId "
+                    + "FROM expenses");
+            db.execSQL("DROP TABLE expenses");
+            db.execSQL("ALTER TABLE expenses_new RENAME TO expenses");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_expenses_categoryId ON expenses (categoryId)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS index_expenses_recurringId_date "
+                    + "ON expenses (recurringId, date)");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS exchange_rates (currency TEXT NOT NULL, "
+                    + "effectiveFrom INTEGER NOT NULL, rateMicros INTEGER NOT NULL, source TEXT, "
+                    + "fetchedAt INTEGER NOT NULL, PRIMARY KEY(currency, effectiveFrom))");
+            for (ExchangeRateEntity rate : ExchangeRates.defaultRates()) {
+                db.execSQL("INSERT OR REPLACE INTO exchange_rates "
+                                + "(currency, effectiveFrom, rateMicros, source, fetchedAt) VALUES (?, ?, ?, ?, ?)",
+                        new Object[]{rate.getCurrency(), rate.getEffectiveFrom(), rate.getRateMicros(),
+                                rate.getSource(), rate.getFetchedAt()});
+            }
+        }
+    };
+
+    /**
+     * 8 -> 9: the collections the SharedPreferences managers stored as one Gson string
+     * (templates, debts, location tags, bill reminders, custom categories, goals) become rows.
+     * New tables for the first four; custom categories go to categories, which gains
+     * usageCount, and goals to savings_goals. The old data is copied in the same transaction.
+     */
+    static Migration migration8To9(@NonNull Context context) {
+        return new Migration(8, 9) {
+            @Override
+            public void migrate(@NonNull SupportSQLiteDatabase db) {
+                db.execSQL("CREATE TABLE IF NOT EXISTS expense_templates (id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                        + "name TEXT, emoji TEXT, amount REAL NOT NULL, category TEXT, note TEXT, "
+                        + "usageCount INTEGER NOT NULL, createdAt INTEGER NOT NULL)");
+                db.execSQL("CREATE INDEX IF NOT EXISTS index_expense_templates_usageCount "
+                        + "ON expense_templates (usageCount DESC)");
+
+                db.execSQL("CREATE TABLE IF NOT EXISTS debts (id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                        + "name TEXT, type TEXT, originalAmount REAL NOT NULL, remainingAmount REAL NOT NULL, "
+                        + "interestRate REAL NOT NULL, minimumPayment REAL NOT NULL, dayOfMonth INTEGER NOT NULL, "
+                        + "createdAt INTEGER NOT NULL)");
+                db.execSQL("CREATE INDEX IF NOT EXISTS index_debts_interestRate ON debts (interestRate DESC)");
+                db.execSQL("CREATE INDEX IF NOT EXISTS index_debts_remainingAmount ON debts (remainingAmount)");
+
+                db.execSQL("CREATE TABLE IF NOT EXISTS location_tags (id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                        + "name TEXT, emoji TEXT, category TEXT, usageCount INTEGER NOT NULL, "
+                        + "totalSpend REAL NOT NULL)");
+                db.execSQL("CREATE INDEX IF NOT EXISTS index_location_tags_totalSpend "
+                        + "ON location_tags (totalSpend DESC)");
+
+                db.execSQL("CREATE TABLE IF NOT EXISTS recurring_reminders (id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                        + "name TEXT, emoji TEXT, amount REAL NOT NULL, category TEXT, frequency TEXT, "
+                        + "dayOfMonth INTEGER NOT NULL, nextDueDate INTEGER NOT NULL, isActive INTEGER NOT NULL, "
+                        + "autoAdd INTEGER NOT NULL)");
+                db.execSQL("CREATE INDEX IF NOT EXISTS index_recurring_reminders_isActive_nextDueDate "
+                        + "ON recurring_reminders (isActive, nextDueDate)");
+
+                db.execSQL("ALTER TABLE categories ADD COLUMN usageCount INTEGER NOT NULL DEFAULT 0");
+                db.execSQL("CREATE INDEX IF NOT EXISTS index_categories_name_type ON categories (name, type)");
+                db.execSQL("CREATE INDEX IF NOT EXISTS index_categories_type_usageCount "
+                        + "ON categories (type ASC, usageCount DESC)");
+
+                LegacyPrefsImport.importAll(context, db);
+            }
+        };
+    }
+
+    /**
+     * 9 -> 10: contribution history of savings goals, indexed by (goalId, date). Each goal that
+     * already holds money gets one opening contribution dated at its creation, so the history
+     * sums to currentAmount from the start. Opening rows are flagged so they do not count as
+     * saving pace.
+     */
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS savings_contributions (id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "goalId INTEGER NOT NULL, amount REAL NOT NULL, date INTEGER NOT NULL, "
+                    + "runningTotal REAL NOT NULL, createdAt INTEGER NOT NULL, "
+                    + "opening INTEGER NOT NULL DEFAULT 0, "
+                    + "FOREIGN KEY(goalId) REFERENCES savings_goals(id) ON UPDATE NO ACTION ON DELETE CASCADE)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_savings_contributions_goalId_date "
+                    + "ON savings_contributions (goalId, date)");
+            db.execSQL("INSERT INTO savings_contributions (goalId, amount, date, runningTotal, createdAt, opening) "
+                    + "SELECT id, currentAmount, createdAt, currentAmount, ?, 1 FROM savings_goals "
+                    + "WHERE currentAmount != 0", new Object[]{System.currentTimeMillis()});
+        }
+    };
+
+    /**
+     * Replaces the singleton, e.g. with an in-memory database in unit tests and the DAO
+     * benchmarks. Pass null to go back to the on-disk database.
+     */
+    @VisibleForTesting
+    public static void setInstanceForTesting(@Nullable AppDatabase database) {
+        synchronized (AppDatabase.class) {
+            INSTANCE = database;
+        }
+    }
+
     /**
      * Clear all data from all tables. Used when switching accounts.
      */
@@ -82,9 +323,15 @@ public abstract class AppDatabase extends RoomDatabase {
         databaseWriteExecutor.execute(() -> {
             expenseDao().deleteAll();
             budgetDao().deleteAll();
+            savingsContributionDao().deleteAll();
             savingsGoalDao().deleteAll();
             chatDao().clearMessages();
             recurringExpenseDao().deleteAll();
+            expenseTemplateDao().deleteAll();
+            debtDao().deleteAll();
+            locationTagDao().deleteAll();
+            recurringReminderDao().deleteAll();
+            expenseLedger().clear();
             // Keep categories as they are default data
         });
     }
@@ -102,6 +349,7 @@ public abstract class AppDatabase extends RoomDatabase {
     }
 
     private static final RoomDatabase.Callback sRoomDatabaseCallback = new RoomDatabase.Callback() {
+        // Default categories are only needed when the tables are (re)created, not on every open
         @Override
         public void onCreate(@NonNull SupportSQLiteDatabase db) {
             super.onCreate(db);
@@ -109,8 +357,8 @@ public abstract class AppDatabase extends RoomDatabase {
         }
 
         @Override
-        public void onOpen(@NonNull SupportSQLiteDatabase db) {
-            super.onOpen(db);
+        public void onDestructiveMigration(@NonNull SupportSQLiteDatabase db) {
+            super.onDestructiveMigration(db);
             populateDatabase();
         }
     };
@@ -123,6 +371,7 @@ public abstract class AppDatabase extends RoomDatabase {
                     List<CategoryEntity> defaultCategories = getDefaultCategories();
                     dao.insertAll(defaultCategories);
                 }
+                INSTANCE.exchangeRates().seedDefaults();
             }
         });
     }
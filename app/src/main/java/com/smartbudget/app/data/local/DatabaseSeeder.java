@@ -47,7 +47,7 @@ public class DatabaseSeeder {
             salary.setDate(startOfMonth + (2 * 24 * 60 * 60 * 1000L));
             salary.setCategoryId(9L); // Income category ID
             // TransactionType is not part of ExpenseEntity, relying on Category type
-            db.expenseDao().insert(salary);
+            db.expenseLedger().insert(salary);
 
             // 2. Expenses
             createExpense(db, 5000000.0, "Tiền thuê nhà", startOfMonth + (5 * 86400000L), 7L);
@@ -68,6 +68,6 @@ public class DatabaseSeeder {
         expense.setNote(note);
         expense.setDate(date);
         expense.setCategoryId(categoryId);
-        db.expenseDao().insert(expense);
+        db.expenseLedger().insert(expense);
     }
 }
@@ -0,0 +1,141 @@
+package com.smartbudget.app.data.local;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import com.smartbudget.app.data.local.dao.ExchangeRateDao;
+import com.smartbudget.app.data.local.entity.ExchangeRateEntity;
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.utils.CurrencyConverter;
+import com.smartbudget.app.utils.EpochDays;
+import com.smartbudget.app.utils.RateCache;
+import com.smartbudget.app.utils.RateSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exchange rates for converting single expenses to the base currency in Java, e.g. the budget
+ * alert deltas. Aggregates convert in SQL instead ({@code ExpenseDao.BASE_AMOUNT}); both use
+ * the rate in effect on the expense date and round the same way.
+ *
+ * <p>Resolved rates are kept in a {@link RateCache} per (currency, day), so converting a write
+ * costs a hash lookup; the cache is cleared whenever the table changes through here.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public class ExchangeRates {
+
+    private static final String TAG = "ExchangeRates";
+
+    /** Source name of the rows seeded from {@link CurrencyConverter#CURRENCIES} */
+    static final String SOURCE_DEFAULT = "default";
+
+    private final ExchangeRateDao rateDao;
+    private final RateCache cache = new RateCache(1024);
+
+    ExchangeRates(AppDatabase database) {
+        this.rateDao = database.exchangeRateDao();
+    }
+
+    // ==================== Conversion ====================
+
+    /**
+     * rateMicros in effect at {@code date}, or -1 if the currency has no rate.
+     */
+    @WorkerThread
+    public long rateMicros(@NonNull String currency, long date) {
+        if (CurrencyConverter.BASE_CURRENCY.equals(currency)) {
+            return CurrencyConverter.RATE_SCALE;
+        }
+        int key = CurrencyConverter.currencyKey(currency);
+        int day = EpochDays.dayIndex(date);
+        long cached = cache.get(key, day);
+        if (cached != RateCache.MISSING) {
+            return cached;
+        }
+        // Rates start at local midnight, so the rate at the end of the day holds all day
+        Long rate = rateDao.getRateAt(currency, EpochDays.endOfDay(day));
+        long resolved = rate != null ? rate : -1;
+        cache.put(key, day, resolved);
+        return resolved;
+    }
+
+    /**
+     * Base-currency minor units of an amount. A currency without rates counts as 0, as in
+     * the SQL aggregates.
+     */
+    @WorkerThread
+    public long toBaseMinor(@NonNull String currency, long amountMinor, long date) {
+        long rate = rateMicros(currency, date);
+        if (rate < 0) {
+            Log.w(TAG, "No exchange rate for " + currency);
+            return 0;
+        }
+        return rate == CurrencyConverter.RATE_SCALE
+                ? amountMinor : CurrencyConverter.applyRate(amountMinor, rate);
+    }
+
+    /** The expense amount in the base currency. */
+    @WorkerThread
+    public double toBase(@NonNull ExpenseEntity expense) {
+        long baseMinor = toBaseMinor(expense.getCurrency(), expense.getAmountMinor(), expense.getDate());
+        return CurrencyConverter.fromMinor(baseMinor, CurrencyConverter.BASE_CURRENCY);
+    }
+
+    // ==================== Updates ====================
+
+    /**
+     * Stores every quote of {@code source} in one statement (all or nothing). A quote for a day
+     * already in the table replaces it, so refreshing twice is harmless.
+     *
+     * @return Number of quotes stored
+     * @throws IOException if the source fails; nothing is stored then
+     */
+    @WorkerThread
+    public int refresh(@NonNull RateSource source) throws IOException {
+        List<RateSource.Quote> quotes = source.fetch();
+        long now = System.currentTimeMillis();
+        List<ExchangeRateEntity> rows = new ArrayList<>(quotes.size());
+        for (RateSource.Quote quote : quotes) {
+            if (CurrencyConverter.BASE_CURRENCY.equals(quote.currency)) continue;
+            rows.add(new ExchangeRateEntity(quote.currency, EpochDays.startOfDay(quote.day),
+                    CurrencyConverter.rateMicros(quote.rate, quote.currency), source.name(), now));
+        }
+        if (!rows.isEmpty()) {
+            rateDao.insertAll(rows);
+            cache.clear();
+        }
+        return rows.size();
+    }
+
+    /**
+     * Seeds the built-in 2024 rates, effective from the epoch, so every supported currency
+     * converts before the first refresh. Runs on database creation.
+     */
+    @WorkerThread
+    void seedDefaults() {
+        if (rateDao.getRateCount() > 0) return;
+        rateDao.insertAll(defaultRates());
+        cache.clear();
+    }
+
+    static List<ExchangeRateEntity> defaultRates() {
+        List<ExchangeRateEntity> rows = new ArrayList<>();
+        for (CurrencyConverter.Currency currency : CurrencyConverter.CURRENCIES) {
+            if (CurrencyConverter.BASE_CURRENCY.equals(currency.code)) continue;
+            rows.add(new ExchangeRateEntity(currency.code, 0,
+                    CurrencyConverter.defaultRateMicros(currency.code), SOURCE_DEFAULT, 0));
+        }
+        return rows;
+    }
+
+    /** Drops cached rates; for writes to exchange_rates that bypass this class. */
+    public void clearCache() {
+        cache.clear();
+    }
+}
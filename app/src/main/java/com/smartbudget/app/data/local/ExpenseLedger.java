@@ -0,0 +1,277 @@
+package com.smartbudget.app.data.local;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.smartbudget.app.data.local.dao.ExpenseDao;
+import com.smartbudget.app.data.local.dao.LedgerDao;
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.data.local.entity.LedgerCheckpointEntity;
+import com.smartbudget.app.data.local.entity.LedgerEntryEntity;
+import com.smartbudget.app.utils.LedgerChain;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Append-only audit chain over expense writes.
+ *
+ * <p>Every expense insert, update and delete made through this class appends a
+ * {@link LedgerEntryEntity} in the same Room transaction, so the expense row and its ledger
+ * entry commit or roll back together. Bulk writes (import, restore, sync, recurring expenses)
+ * read the chain tail once and hash the whole batch with one {@link LedgerChain}.</p>
+ *
+ * <p>Verification walks the chain in pages. {@link #verifyTail()} starts from the newest
+ * {@link LedgerCheckpointEntity}, so after the first full pass it only rehashes entries
+ * appended since; a new checkpoint is stored every {@link #CHECKPOINT_INTERVAL} verified
+ * entries. {@link #verifyAll()} rechecks from the start.</p>
+ *
+ * <p>Tamper-evident, not tamper-proof: someone who can rewrite the database file can also
+ * rehash the chain. It catches edits that bypass the app, partial restores and corruption.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public class ExpenseLedger {
+
+    private static final String TAG = "ExpenseLedger";
+
+    /**
+     * First byte of every payload; bump when the encoding changes. 2: amountMinor and currency
+     * instead of the double amount. Stored payloads are only rehashed, never re-encoded, so
+     * entries of older versions keep verifying.
+     */
+    static final int PAYLOAD_VERSION = 2;
+    public static final int CHECKPOINT_INTERVAL = 1024;
+    private static final int VERIFY_PAGE_SIZE = 512;
+
+    private final AppDatabase database;
+    private final ExpenseDao expenseDao;
+    private final LedgerDao ledgerDao;
+    // Reused digest and buffers; guarded by itself
+    private final LedgerChain chain = new LedgerChain();
+
+    public ExpenseLedger(@NonNull AppDatabase database) {
+        this.database = database;
+        this.expenseDao = database.expenseDao();
+        this.ledgerDao = database.ledgerDao();
+    }
+
+    /** Outcome of a verification pass */
+    public static final class Verification {
+        /** Entries after this seq were checked (0 = from the start) */
+        public final long fromSeq;
+        /** Last seq that verified */
+        public final long lastValidSeq;
+        public final int entriesChecked;
+        /** First entry that does not verify, or null if the chain is intact */
+        @Nullable
+        public final Long firstInvalidSeq;
+
+        Verification(long fromSeq, long lastValidSeq, int entriesChecked, @Nullable Long firstInvalidSeq) {
+            this.fromSeq = fromSeq;
+            this.lastValidSeq = lastValidSeq;
+            this.entriesChecked = entriesChecked;
+            this.firstInvalidSeq = firstInvalidSeq;
+        }
+
+        public boolean isValid() {
+            return firstInvalidSeq == null;
+        }
+    }
+
+    // ==================== Expense Writes ====================
+
+    /** Inserts an expense and its ledger entry in one transaction. Returns the new id. */
+    @WorkerThread
+    public long insert(@NonNull ExpenseEntity expense) {
+        return database.runInTransaction(() -> {
+            long id = expenseDao.insert(expense);
+            append(LedgerEntryEntity.OP_INSERT, Collections.singletonList(expense), new long[]{id});
+            return id;
+        });
+    }
+
+    /** Inserts a batch in one transaction with one ledger append. Returns the new ids. */
+    @WorkerThread
+    @NonNull
+    public long[] insertAll(@NonNull List<ExpenseEntity> expenses) {
+        if (expenses.isEmpty()) return new long[0];
+        return database.runInTransaction(() -> {
+            long[] ids = expenseDao.insertAll(expenses);
+            append(LedgerEntryEntity.OP_INSERT, expenses, ids);
+            return ids;
+        });
+    }
+
+    /**
+     * Updates an expense and records the new state.
+     *
+     * @return The row as it was before, or null if it does not exist (nothing written)
+     */
+    @WorkerThread
+    @Nullable
+    public ExpenseEntity update(@NonNull ExpenseEntity expense) {
+        return database.runInTransaction(() -> {
+            ExpenseEntity before = expenseDao.getExpenseById(expense.getId());
+            if (before == null) return null;
+            expenseDao.update(expense);
+            append(LedgerEntryEntity.OP_UPDATE, Collections.singletonList(expense), new long[]{expense.getId()});
+            return before;
+        });
+    }
+
+    /**
+     * Deletes an expense and records the deleted row.
+     *
+     * @return The deleted row, or null if it did not exist
+     */
+    @WorkerThread
+    @Nullable
+    public ExpenseEntity delete(long id) {
+        return database.runInTransaction(() -> {
+            ExpenseEntity before = expenseDao.getExpenseById(id);
+            if (before == null) return null;
+            expenseDao.deleteById(id);
+            append(LedgerEntryEntity.OP_DELETE, Collections.singletonList(before), new long[]{id});
+            return before;
+        });
+    }
+
+    /**
+     * Records rows the caller inserted in its own transaction (e.g. with a conflict strategy).
+     *
+     * @param rowIds Ids returned by the insert; -1 (ignored row) is skipped
+     */
+    @WorkerThread
+    public void recordInserted(@NonNull List<ExpenseEntity> rows, @NonNull long[] rowIds) {
+        append(LedgerEntryEntity.OP_INSERT, rows, rowIds);
+    }
+
+    private void append(int op, List<ExpenseEntity> rows, long[] ids) {
+        if (!database.inTransaction()) {
+            throw new IllegalStateException("Ledger appends must run in the expense write's transaction");
+        }
+        long now = System.currentTimeMillis();
+        List<LedgerEntryEntity> entries = new ArrayList<>(rows.size());
+        synchronized (chain) {
+            // Room serializes write transactions, so the tail cannot move until we commit
+            LedgerEntryEntity last = ledgerDao.getLastEntry();
+            long seq = last == null ? 0 : last.getSeq();
+            byte[] hash = last == null ? LedgerChain.GENESIS : last.getHash();
+            for (int i = 0; i < rows.size(); i++) {
+                if (ids[i] == -1) continue;
+                byte[] payload = encode(chain.payload(), op, ids[i], rows.get(i));
+                hash = chain.next(hash, ++seq, payload);
+                entries.add(new LedgerEntryEntity(seq, ids[i], op, now, payload, hash));
+            }
+        }
+        if (!entries.isEmpty()) {
+            ledgerDao.insertEntries(entries);
+        }
+    }
+
+    /**
+     * Canonical record of one write. The sync flag is left out: it changes without the
+     * expense changing.
+     */
+    static byte[] encode(LedgerChain.PayloadWriter out, int op, long id, ExpenseEntity expense) {
+        return out.putByte(PAYLOAD_VERSION)
+                .putByte(op)
+                .putLong(id)
+                .putLong(expense.getAmountMinor())
+                .putString(expense.getCurrency())
+                .putLong(expense.getCategoryId())
+                .putLong(expense.getDate())
+                .putString(expense.getNote())
+                .putString(expense.getTags())
+                .putString(expense.getReceiptImagePath())
+                .putLong(expense.getRecurringId())
+                .putLong(expense.getCreatedAt())
+                .putLong(expense.getUpdatedAt())
+                .toByteArray();
+    }
+
+    // ==================== Verification ====================
+
+    /**
+     * Checks the newest checkpoint still matches its entry, then the entries after it.
+     */
+    @WorkerThread
+    @NonNull
+    public Verification verifyTail() {
+        LedgerCheckpointEntity checkpoint = ledgerDao.getLatestCheckpoint();
+        if (checkpoint == null) {
+            return verifyFrom(0, LedgerChain.GENESIS);
+        }
+        LedgerEntryEntity anchor = ledgerDao.getEntry(checkpoint.getSeq());
+        if (anchor == null || !MessageDigest.isEqual(anchor.getHash(), checkpoint.getHash())) {
+            Log.e(TAG, "Ledger checkpoint " + checkpoint.getSeq() + " no longer matches");
+            return new Verification(checkpoint.getSeq(), checkpoint.getSeq() - 1, 0, checkpoint.getSeq());
+        }
+        return verifyFrom(checkpoint.getSeq(), checkpoint.getHash());
+    }
+
+    /** Rehashes the whole chain. */
+    @WorkerThread
+    @NonNull
+    public Verification verifyAll() {
+        return verifyFrom(0, LedgerChain.GENESIS);
+    }
+
+    private Verification verifyFrom(long fromSeq, byte[] fromHash) {
+        long seq = fromSeq;
+        byte[] hash = fromHash;
+        long checkpointSeq = fromSeq;
+        int checked = 0;
+        List<LedgerEntryEntity> page;
+        while (!(page = ledgerDao.getEntriesAfter(seq, VERIFY_PAGE_SIZE)).isEmpty()) {
+            int n = page.size();
+            long[] seqs = new long[n];
+            byte[][] payloads = new byte[n][];
+            byte[][] hashes = new byte[n][];
+            for (int i = 0; i < n; i++) {
+                LedgerEntryEntity entry = page.get(i);
+                seqs[i] = entry.getSeq();
+                payloads[i] = entry.getPayload();
+                hashes[i] = entry.getHash();
+                if (seqs[i] != seq + 1 + i) {
+                    // A removed entry
+                    return invalid(fromSeq, seq + i, checked + i, seq + 1 + i);
+                }
+            }
+            int bad;
+            synchronized (chain) {
+                bad = chain.verify(hash, seqs, payloads, hashes);
+            }
+            if (bad >= 0) {
+                return invalid(fromSeq, seq + bad, checked + bad, seqs[bad]);
+            }
+            seq = seqs[n - 1];
+            hash = hashes[n - 1];
+            checked += n;
+            if (seq - checkpointSeq >= CHECKPOINT_INTERVAL) {
+                ledgerDao.insertCheckpoint(new LedgerCheckpointEntity(seq, hash, System.currentTimeMillis()));
+                checkpointSeq = seq;
+            }
+        }
+        return new Verification(fromSeq, seq, checked, null);
+    }
+
+    private static Verification invalid(long fromSeq, long lastValidSeq, int checked, long badSeq) {
+        Log.e(TAG, "Ledger entry " + badSeq + " does not verify");
+        return new Verification(fromSeq, lastValidSeq, checked, badSeq);
+    }
+
+    /** Drops the chain, with all expenses (account switch). Caller runs it on a worker thread. */
+    @WorkerThread
+    void clear() {
+        ledgerDao.deleteAllEntries();
+        ledgerDao.deleteAllCheckpoints();
+    }
+}
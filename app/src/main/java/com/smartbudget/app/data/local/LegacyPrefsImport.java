@@ -0,0 +1,229 @@
+package com.smartbudget.app.data.local;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One-time move of the collections the old managers (CategoryManager, ExpenseTemplateManager,
+ * DebtTracker, LocationTagManager, RecurringExpenseTracker, BudgetGoalsTracker) kept as a
+ * single Gson string in SharedPreferences.
+ *
+ * <p>{@link #importAll} runs inside the 8 -> 9 migration, so the rows land in the same
+ * transaction as the new tables and the import happens exactly once. The preference files are
+ * deleted only after the database opened, i.e. after the migration committed; if the app dies
+ * in between they are merely left behind.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+final class LegacyPrefsImport {
+
+    private static final String TAG = "LegacyPrefsImport";
+
+    /** Preference file and key of each old collection */
+    private static final String[][] SOURCES = {
+            {"category_prefs", "custom_categories"},
+            {"expense_templates", "templates"},
+            {"debt_prefs", "debts"},
+            {"location_tags", "locations"},
+            {"recurring_expenses", "expenses"},
+            {"budget_goals", "goals"}
+    };
+
+    /** Files copied by {@link #importAll} in this process, waiting for deletion */
+    private static final Set<String> importedFiles = ConcurrentHashMap.newKeySet();
+
+    private LegacyPrefsImport() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // ==================== Import ====================
+
+    /**
+     * Copies every old collection into its table. A collection that does not parse is skipped
+     * (and its file kept), so one corrupt file cannot fail the whole upgrade.
+     */
+    static void importAll(@NonNull Context context, @NonNull SupportSQLiteDatabase db) {
+        long now = System.currentTimeMillis();
+        importCategories(db, read(context, 0));
+        importTemplates(db, read(context, 1), now);
+        importDebts(db, read(context, 2), now);
+        importLocations(db, read(context, 3));
+        importReminders(db, read(context, 4));
+        importGoals(db, read(context, 5), now);
+    }
+
+    /** Deletes the imported preference files; a no-op unless this process ran the import. */
+    static void deleteImported(@NonNull Context context) {
+        for (String name : importedFiles) {
+            context.deleteSharedPreferences(name);
+            importedFiles.remove(name);
+        }
+    }
+
+    private static void importCategories(SupportSQLiteDatabase db, @Nullable JsonArray items) {
+        if (items == null) return;
+        for (JsonElement item : items) {
+            JsonObject o = item.getAsJsonObject();
+            String name = string(o, "name");
+            if (name == null || categoryExists(db, name)) continue;
+            ContentValues values = new ContentValues();
+            values.put("name", name);
+            values.put("icon", string(o, "emoji"));
+            values.put("color", string(o, "color"));
+            values.put("type", 0);
+            values.put("isCustom", 1);
+            values.put("usageCount", integer(o, "usageCount"));
+            db.insert("categories", SQLiteDatabase.CONFLICT_NONE, values);
+        }
+    }
+
+    private static void importTemplates(SupportSQLiteDatabase db, @Nullable JsonArray items, long now) {
+        if (items == null) return;
+        for (JsonElement item : items) {
+            JsonObject o = item.getAsJsonObject();
+            ContentValues values = new ContentValues();
+            values.put("name", string(o, "name"));
+            values.put("emoji", string(o, "emoji"));
+            values.put("amount", number(o, "amount"));
+            values.put("category", string(o, "category"));
+            values.put("note", string(o, "note"));
+            values.put("usageCount", integer(o, "usageCount"));
+            values.put("createdAt", now);
+            db.insert("expense_templates", SQLiteDatabase.CONFLICT_NONE, values);
+        }
+    }
+
+    private static void importDebts(SupportSQLiteDatabase db, @Nullable JsonArray items, long now) {
+        if (items == null) return;
+        for (JsonElement item : items) {
+            JsonObject o = item.getAsJsonObject();
+            ContentValues values = new ContentValues();
+            values.put("name", string(o, "name"));
+            values.put("type", string(o, "type"));
+            values.put("originalAmount", number(o, "originalAmount"));
+            values.put("remainingAmount", number(o, "remainingAmount"));
+            values.put("interestRate", number(o, "interestRate"));
+            values.put("minimumPayment", number(o, "minimumPayment"));
+            values.put("dayOfMonth", integer(o, "dayOfMonth"));
+            long createdAt = (long) number(o, "createdAt");
+            values.put("createdAt", createdAt > 0 ? createdAt : now);
+            db.insert("debts", SQLiteDatabase.CONFLICT_NONE, values);
+        }
+    }
+
+    private static void importLocations(SupportSQLiteDatabase db, @Nullable JsonArray items) {
+        if (items == null) return;
+        for (JsonElement item : items) {
+            JsonObject o = item.getAsJsonObject();
+            ContentValues values = new ContentValues();
+            values.put("name", string(o, "name"));
+            values.put("emoji", string(o, "emoji"));
+            values.put("category", string(o, "category"));
+            values.put("usageCount", integer(o, "usageCount"));
+            values.put("totalSpend", number(o, "totalSpend"));
+            db.insert("location_tags", SQLiteDatabase.CONFLICT_NONE, values);
+        }
+    }
+
+    private static void importReminders(SupportSQLiteDatabase db, @Nullable JsonArray items) {
+        if (items == null) return;
+        for (JsonElement item : items) {
+            JsonObject o = item.getAsJsonObject();
+            ContentValues values = new ContentValues();
+            values.put("name", string(o, "name"));
+            values.put("emoji", string(o, "emoji"));
+            values.put("amount", number(o, "amount"));
+            values.put("category", string(o, "category"));
+            values.put("frequency", string(o, "frequency"));
+            values.put("dayOfMonth", integer(o, "dayOfMonth"));
+            values.put("nextDueDate", (long) number(o, "nextDueDate"));
+            values.put("isActive", bool(o, "isActive") ? 1 : 0);
+            values.put("autoAdd", bool(o, "autoAdd") ? 1 : 0);
+            db.insert("recurring_reminders", SQLiteDatabase.CONFLICT_NONE, values);
+        }
+    }
+
+    private static void importGoals(SupportSQLiteDatabase db, @Nullable JsonArray items, long now) {
+        if (items == null) return;
+        for (JsonElement item : items) {
+            JsonObject o = item.getAsJsonObject();
+            ContentValues values = new ContentValues();
+            values.put("name", string(o, "name"));
+            values.put("icon", string(o, "emoji"));
+            values.put("targetAmount", number(o, "targetAmount"));
+            values.put("currentAmount", number(o, "currentAmount"));
+            values.put("deadline", (long) number(o, "deadline"));
+            long createdAt = (long) number(o, "createdAt");
+            values.put("createdAt", createdAt > 0 ? createdAt : now);
+            values.put("isCompleted", bool(o, "isCompleted") ? 1 : 0);
+            db.insert("savings_goals", SQLiteDatabase.CONFLICT_NONE, values);
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    @Nullable
+    private static JsonArray read(Context context, int source) {
+        String json = context.getSharedPreferences(SOURCES[source][0], Context.MODE_PRIVATE)
+                .getString(SOURCES[source][1], null);
+        if (json == null) return null;
+        try {
+            JsonElement parsed = new Gson().fromJson(json, JsonElement.class);
+            if (parsed != null && parsed.isJsonArray()) {
+                for (JsonElement item : parsed.getAsJsonArray()) {
+                    if (!item.isJsonObject()) throw new JsonParseException("not an object: " + item);
+                }
+                importedFiles.add(SOURCES[source][0]);
+                return parsed.getAsJsonArray();
+            }
+            Log.w(TAG, "Skipping " + SOURCES[source][0] + ": not a list");
+        } catch (JsonParseException e) {
+            Log.w(TAG, "Skipping unreadable " + SOURCES[source][0], e);
+        }
+        return null;
+    }
+
+    private static boolean categoryExists(SupportSQLiteDatabase db, String name) {
+        try (Cursor cursor = db.query("SELECT 1 FROM categories WHERE name = ? AND type = 0 LIMIT 1",
+                new Object[]{name})) {
+            return cursor.moveToFirst();
+        }
+    }
+
+    @Nullable
+    private static String string(JsonObject o, String field) {
+        JsonElement e = o.get(field);
+        return e != null && e.isJsonPrimitive() ? e.getAsString() : null;
+    }
+
+    private static double number(JsonObject o, String field) {
+        JsonElement e = o.get(field);
+        return e != null && e.isJsonPrimitive() && e.getAsJsonPrimitive().isNumber() ? e.getAsDouble() : 0;
+    }
+
+    private static int integer(JsonObject o, String field) {
+        return (int) number(o, field);
+    }
+
+    private static boolean bool(JsonObject o, String field) {
+        JsonElement e = o.get(field);
+        return e != null && e.isJsonPrimitive() && e.getAsBoolean();
+    }
+}
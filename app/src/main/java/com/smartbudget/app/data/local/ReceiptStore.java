@@ -0,0 +1,328 @@
+package com.smartbudget.app.data.local;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.smartbudget.app.utils.ReceiptImagePipeline;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Content-addressed store for receipt images.
+ *
+ * <p>Each scanned receipt is re-encoded once to a bounded-resolution WebP ("original", what
+ * {@code ExpenseEntity.receiptImagePath} points at) plus a small thumbnail for lists and the
+ * gallery. Files are named by the SHA-256 of the source bytes, so re-scanning the same image
+ * reuses the stored blob.</p>
+ *
+ * <p>Housekeeping ({@link #runMaintenance}): blobs no expense references are deleted, and
+ * originals beyond {@link #DEFAULT_QUOTA_BYTES} are evicted least-recently-used first.
+ * Thumbnails are kept, so an evicted receipt still shows in lists.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public class ReceiptStore {
+
+    private static final String TAG = "ReceiptStore";
+
+    public static final int ORIGINAL_MAX_EDGE = 1600;
+    public static final int THUMBNAIL_MAX_EDGE = 320;
+    public static final long DEFAULT_QUOTA_BYTES = 64L * 1024 * 1024;
+
+    private static final int ORIGINAL_QUALITY = 75;
+    private static final int THUMBNAIL_QUALITY = 70;
+    private static final String EXTENSION = ".webp";
+    private static final String THUMBNAIL_DIR = "thumbs";
+    /** Camera captures are written here, outside the store, until they are imported */
+    private static final String CAMERA_DIR = "camera";
+    // Blobs younger than this survive GC: the expense referencing them may not be saved yet
+    private static final long GC_GRACE_MILLIS = 24L * 60 * 60 * 1000;
+
+    private static final ExecutorService STORE_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static volatile ReceiptStore INSTANCE;
+
+    private final Context appContext;
+    private final File originalsDir;
+    private final File thumbnailsDir;
+    private final ReceiptImagePipeline pipeline;
+    private final long quotaBytes;
+
+    private ReceiptStore(Context context, long quotaBytes) {
+        this.appContext = context.getApplicationContext();
+        this.originalsDir = new File(appContext.getFilesDir(), "receipts");
+        this.thumbnailsDir = new File(originalsDir, THUMBNAIL_DIR);
+        this.pipeline = new ReceiptImagePipeline(appContext);
+        this.quotaBytes = quotaBytes;
+    }
+
+    public static ReceiptStore getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (ReceiptStore.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new ReceiptStore(context, DEFAULT_QUOTA_BYTES);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    // ==================== STORE ====================
+
+    public interface StoreCallback {
+        /** Called on the main thread with the stored path, or null if the import failed */
+        void onStored(@Nullable String receiptPath);
+    }
+
+    /**
+     * {@link #store} on the store's background thread.
+     */
+    public void storeAsync(@NonNull Uri source, @NonNull StoreCallback callback) {
+        STORE_EXECUTOR.execute(() -> {
+            String path = null;
+            try {
+                path = store(source);
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Failed to store receipt " + source, e);
+            }
+            final String stored = path;
+            MAIN_HANDLER.post(() -> callback.onStored(stored));
+        });
+    }
+
+    /**
+     * Imports a receipt image and returns the stored original's path.
+     * A source whose bytes were already imported returns the existing blob.
+     */
+    @WorkerThread
+    @NonNull
+    public synchronized String store(@NonNull Uri source) throws IOException {
+        ensureDirs();
+        String key = contentHash(source);
+        File original = new File(originalsDir, key + EXTENSION);
+        File thumbnail = new File(thumbnailsDir, key + EXTENSION);
+
+        if (thumbnail.exists()) {
+            if (original.exists()) {
+                original.setLastModified(System.currentTimeMillis());
+                return original.getAbsolutePath();
+            }
+            // Original was evicted by the quota - re-encode it from the source
+        }
+
+        ReceiptImagePipeline.Result result = pipeline.processSync(source,
+                new ReceiptImagePipeline.Options().setMaxLongEdge(ORIGINAL_MAX_EDGE));
+        try {
+            writeAtomically(result.bitmap, original, ORIGINAL_QUALITY);
+            if (!thumbnail.exists()) {
+                Bitmap thumb = scaleToFit(result.bitmap, THUMBNAIL_MAX_EDGE);
+                writeAtomically(thumb, thumbnail, THUMBNAIL_QUALITY);
+                if (thumb != result.bitmap) thumb.recycle();
+            }
+        } finally {
+            pipeline.recycle(result.bitmap);
+        }
+
+        enforceQuota();
+        return original.getAbsolutePath();
+    }
+
+    /**
+     * Directory camera captures should be written to before {@link #store} imports them.
+     */
+    @NonNull
+    public File getCameraDir() {
+        File dir = new File(appContext.getCacheDir(), CAMERA_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.w(TAG, "Cannot create " + dir);
+        }
+        return dir;
+    }
+
+    // ==================== LOOKUP ====================
+
+    /**
+     * Thumbnail of a stored receipt (same name in the thumbs directory).
+     */
+    @NonNull
+    public static File thumbnailFor(@NonNull String receiptPath) {
+        File original = new File(receiptPath);
+        return new File(new File(original.getParentFile(), THUMBNAIL_DIR), original.getName());
+    }
+
+    /**
+     * Best available file for full-size display: the original if it is still stored
+     * (marking it recently used), otherwise its thumbnail; null if neither exists.
+     */
+    @Nullable
+    public File resolveForDisplay(@Nullable String receiptPath) {
+        if (receiptPath == null) return null;
+        File original = new File(receiptPath);
+        if (original.exists()) {
+            original.setLastModified(System.currentTimeMillis());
+            return original;
+        }
+        File thumbnail = thumbnailFor(receiptPath);
+        return thumbnail.exists() ? thumbnail : null;
+    }
+
+    // ==================== MAINTENANCE ====================
+
+    /**
+     * Garbage-collects unreferenced blobs and enforces the quota.
+     *
+     * @param referencedPaths Every non-null {@code receiptImagePath} in the database
+     */
+    @WorkerThread
+    public synchronized void runMaintenance(@NonNull Collection<String> referencedPaths) {
+        int removed = collectGarbage(referencedPaths, System.currentTimeMillis());
+        long evicted = enforceQuota();
+        if (removed > 0 || evicted > 0) {
+            Log.d(TAG, "Removed " + removed + " orphaned receipts, evicted " + evicted + " bytes");
+        }
+    }
+
+    private int collectGarbage(Collection<String> referencedPaths, long now) {
+        Set<String> referenced = new HashSet<>();
+        for (String path : referencedPaths) {
+            if (path != null) referenced.add(new File(path).getName());
+        }
+
+        int removed = 0;
+        File[] originals = originalsDir.listFiles(File::isFile);
+        if (originals != null) {
+            for (File file : originals) {
+                if (!referenced.contains(file.getName()) && now - file.lastModified() > GC_GRACE_MILLIS) {
+                    if (file.delete()) removed++;
+                }
+            }
+        }
+        File[] thumbnails = thumbnailsDir.listFiles(File::isFile);
+        if (thumbnails != null) {
+            for (File file : thumbnails) {
+                if (!referenced.contains(file.getName()) && now - file.lastModified() > GC_GRACE_MILLIS) {
+                    file.delete();
+                }
+            }
+        }
+
+        // Leftover camera captures, including the full-size JPEGs older versions kept
+        deleteOlderThan(new File(appContext.getCacheDir(), CAMERA_DIR), now - GC_GRACE_MILLIS);
+        deleteOlderThan(appContext.getExternalFilesDir("receipts"), now - GC_GRACE_MILLIS);
+        return removed;
+    }
+
+    /**
+     * Evicts least-recently-used originals until they fit the quota. Returns bytes freed.
+     */
+    private long enforceQuota() {
+        File[] originals = originalsDir.listFiles(File::isFile);
+        if (originals == null) return 0;
+
+        long total = 0;
+        for (File file : originals) total += file.length();
+        if (total <= quotaBytes) return 0;
+
+        Arrays.sort(originals, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        long freed = 0;
+        for (File file : originals) {
+            if (total - freed <= quotaBytes) break;
+            long size = file.length();
+            if (file.delete()) freed += size;
+        }
+        return freed;
+    }
+
+    private static void deleteOlderThan(@Nullable File dir, long cutoff) {
+        File[] files = dir != null ? dir.listFiles(File::isFile) : null;
+        if (files == null) return;
+        for (File file : files) {
+            if (file.lastModified() < cutoff) {
+                file.delete();
+            }
+        }
+    }
+
+    // ==================== ENCODING ====================
+
+    private void ensureDirs() throws IOException {
+        if (!thumbnailsDir.exists() && !thumbnailsDir.mkdirs()) {
+            throw new IOException("Cannot create " + thumbnailsDir);
+        }
+    }
+
+    private String contentHash(Uri source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        try (InputStream in = appContext.getContentResolver().openInputStream(source)) {
+            if (in == null) throw new IOException("Cannot open " + source);
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat webpFormat() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? Bitmap.CompressFormat.WEBP_LOSSY
+                : Bitmap.CompressFormat.WEBP;
+    }
+
+    private static void writeAtomically(Bitmap bitmap, File target, int quality) throws IOException {
+        File tmp = new File(target.getParentFile(), target.getName() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            if (!bitmap.compress(webpFormat(), quality, out)) {
+                throw new IOException("Failed to encode " + target);
+            }
+        }
+        if (!tmp.renameTo(target)) {
+            tmp.delete();
+            throw new IOException("Failed to write " + target);
+        }
+    }
+
+    private static Bitmap scaleToFit(Bitmap source, int maxEdge) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int longEdge = Math.max(width, height);
+        if (longEdge <= maxEdge) return source;
+        float scale = maxEdge / (float) longEdge;
+        return Bitmap.createScaledBitmap(source,
+                Math.max(1, Math.round(width * scale)), Math.max(1, Math.round(height * scale)), true);
+    }
+}
@@ -0,0 +1,129 @@
+package com.smartbudget.app.data.local;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import com.smartbudget.app.data.local.dao.RecurringExpenseDao;
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.data.local.entity.RecurringExpenseEntity;
+import com.smartbudget.app.utils.RecurrenceSchedule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns due recurring expenses into real expenses.
+ *
+ * <p>Every occurrence between a recurring expense's {@code nextDueDate} and now becomes one
+ * {@link ExpenseEntity} with {@code recurringId} set and {@code date} = the occurrence. A whole
+ * catch-up (e.g. a year of 50 subscriptions) is one transaction: the due rows are read through
+ * the {@code (isActive, nextDueDate)} index, all occurrences are inserted in one batch, and each
+ * {@code nextDueDate} is advanced in the same transaction.</p>
+ *
+ * <p>Reruns are idempotent: the unique {@code (recurringId, date)} index makes the insert skip
+ * occurrences that already exist, and {@code nextDueDate} is only advanced from the value that
+ * was read, so a schedule edited in the meantime is left alone. The inserted rows are
+ * appended to the {@link ExpenseLedger} in the same transaction.</p>
+ *
+ * <p>Runs from the daily maintenance job ({@code DailyMaintenanceWorker}) and at app start.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public class RecurringExpenseMaterializer {
+
+    private static final String TAG = "RecurringMaterializer";
+
+    private final AppDatabase database;
+
+    public RecurringExpenseMaterializer(@NonNull AppDatabase database) {
+        this.database = database;
+    }
+
+    /** Outcome of one run */
+    public static final class Result {
+        /** Expenses created */
+        public final int inserted;
+        /** Occurrences that already existed (a previous run was interrupted) */
+        public final int skipped;
+        /** Recurring expenses whose nextDueDate moved forward */
+        public final int advanced;
+
+        Result(int inserted, int skipped, int advanced) {
+            this.inserted = inserted;
+            this.skipped = skipped;
+            this.advanced = advanced;
+        }
+
+        static final Result NOTHING_DUE = new Result(0, 0, 0);
+    }
+
+    /**
+     * Materializes every occurrence due up to {@code now} in one transaction.
+     */
+    @WorkerThread
+    @NonNull
+    public Result materializeDue(long now) {
+        Result result = database.runInTransaction(() -> materializeInTransaction(now));
+        if (result.inserted > 0 || result.skipped > 0) {
+            Log.d(TAG, "Materialized " + result.inserted + " expenses (" + result.skipped
+                    + " already present) from " + result.advanced + " recurring");
+        }
+        return result;
+    }
+
+    private Result materializeInTransaction(long now) {
+        RecurringExpenseDao dao = database.recurringExpenseDao();
+        List<RecurringExpenseEntity> due = dao.getDueExpenses(now);
+        if (due.isEmpty()) {
+            return Result.NOTHING_DUE;
+        }
+
+        List<ExpenseEntity> occurrences = new ArrayList<>();
+        long[] nextDue = new long[due.size()];
+        for (int i = 0; i < due.size(); i++) {
+            RecurringExpenseEntity recurring = due.get(i);
+            long[] dates = RecurrenceSchedule.occurrencesUntil(recurring.getNextDueDate(), now,
+                    recurring.getFrequency(), recurring.getDayOfMonth(), RecurrenceSchedule.MAX_CATCH_UP);
+            for (long date : dates) {
+                occurrences.add(toExpense(recurring, date, now));
+            }
+            // Anything past MAX_CATCH_UP stays due and is picked up by the next run
+            nextDue[i] = dates.length == 0 ? recurring.getNextDueDate()
+                    : RecurrenceSchedule.next(dates[dates.length - 1],
+                    recurring.getFrequency(), recurring.getDayOfMonth());
+        }
+
+        long[] rowIds = dao.insertOccurrences(occurrences);
+        int inserted = 0;
+        for (long rowId : rowIds) {
+            if (rowId != -1) inserted++;
+        }
+        database.expenseLedger().recordInserted(occurrences, rowIds);
+
+        int advanced = 0;
+        for (int i = 0; i < due.size(); i++) {
+            RecurringExpenseEntity recurring = due.get(i);
+            if (nextDue[i] != recurring.getNextDueDate()) {
+                advanced += dao.advanceNextDueDate(recurring.getId(), recurring.getNextDueDate(), nextDue[i]);
+            }
+        }
+        return new Result(inserted, occurrences.size() - inserted, advanced);
+    }
+
+    private static ExpenseEntity toExpense(RecurringExpenseEntity recurring, long date, long now) {
+        ExpenseEntity expense = new ExpenseEntity();
+        expense.setAmount(recurring.getAmount());
+        expense.setCategoryId(recurring.getCategoryId());
+        expense.setDate(date);
+        expense.setNote(recurring.getNote() == null || recurring.getNote().isEmpty()
+                ? recurring.getName()
+                : recurring.getName() + " - " + recurring.getNote());
+        expense.setRecurringId(recurring.getId());
+        expense.setCreatedAt(now);
+        expense.setUpdatedAt(now);
+        return expense;
+    }
+}
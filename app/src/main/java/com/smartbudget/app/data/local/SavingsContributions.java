@@ -0,0 +1,69 @@
+package com.smartbudget.app.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.smartbudget.app.data.local.dao.SavingsContributionDao;
+import com.smartbudget.app.data.local.dao.SavingsGoalDao;
+import com.smartbudget.app.data.local.entity.SavingsContributionEntity;
+import com.smartbudget.app.data.local.entity.SavingsGoalEntity;
+
+/**
+ * Writes to savings goal balances.
+ *
+ * <p>Each deposit adds a {@link SavingsContributionEntity} and moves the goal's currentAmount in
+ * the same Room transaction, so the history always sums to the balance; the row stores the
+ * resulting balance as its running total, and the goal completes once the target is reached.
+ * A goal inserted with money already in it (backup restore) gets an opening contribution, which
+ * is left out of the saving pace.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public class SavingsContributions {
+
+    private final AppDatabase database;
+    private final SavingsGoalDao goalDao;
+    private final SavingsContributionDao contributionDao;
+
+    public SavingsContributions(@NonNull AppDatabase database) {
+        this.database = database;
+        this.goalDao = database.savingsGoalDao();
+        this.contributionDao = database.savingsContributionDao();
+    }
+
+    /**
+     * Adds {@code amount} to the goal, dated {@code date}.
+     *
+     * @return The goal after the write (check {@code isCompleted()}), or null if it does not exist
+     */
+    @WorkerThread
+    @Nullable
+    public SavingsGoalEntity add(long goalId, double amount, long date) {
+        return database.runInTransaction(() -> {
+            if (goalDao.getGoalById(goalId) == null) return null;
+            goalDao.addProgress(goalId, amount);
+            SavingsGoalEntity after = goalDao.getGoalById(goalId);
+            contributionDao.insert(new SavingsContributionEntity(goalId, amount, date,
+                    after.getCurrentAmount(), System.currentTimeMillis(), false));
+            return after;
+        });
+    }
+
+    /**
+     * Inserts a goal; a starting balance is recorded as a contribution dated at the goal's
+     * creation. Returns the new id.
+     */
+    @WorkerThread
+    public long insertGoal(@NonNull SavingsGoalEntity goal) {
+        return database.runInTransaction(() -> {
+            long id = goalDao.insert(goal);
+            if (goal.getCurrentAmount() != 0) {
+                contributionDao.insert(new SavingsContributionEntity(id, goal.getCurrentAmount(),
+                        goal.getCreatedAt(), goal.getCurrentAmount(), System.currentTimeMillis(), true));
+            }
+            return id;
+        });
+    }
+}
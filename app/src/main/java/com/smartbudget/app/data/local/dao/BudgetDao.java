@@ -33,7 +33,7 @@ public interface BudgetDao {
     void delete(BudgetEntity budget);
 
     @Query("SELECT b.*, " +
-           "(SELECT COALESCE(SUM(amount), 0) FROM expenses e " +
+           "(SELECT COALESCE(SUM(" + ExpenseDao.BASE_AMOUNT + "), 0) FROM expenses e " +
            "WHERE e.categoryId = b.categoryId " +
            "AND strftime('%m', datetime(e.date/1000, 'unixepoch', 'localtime')) = printf('%02d', :month) " +
            "AND strftime('%Y', datetime(e.date/1000, 'unixepoch', 'localtime')) = printf('%d', :year)) as spentAmount " +
@@ -41,7 +41,7 @@ public interface BudgetDao {
     LiveData<List<BudgetEntity>> getBudgetsByMonthYear(int month, int year);
 
     @Query("SELECT b.id, b.categoryId, b.limitAmount, b.month, b.year, " +
-           "(SELECT COALESCE(SUM(e.amount), 0) FROM expenses e " +
+           "(SELECT COALESCE(SUM(" + ExpenseDao.BASE_AMOUNT + "), 0) FROM expenses e " +
            "INNER JOIN categories c ON e.categoryId = c.id " +
            "WHERE c.type = 0 " +  // Only expense categories, not income
            "AND strftime('%m', datetime(e.date/1000, 'unixepoch', 'localtime')) = printf('%02d', :month) " +
@@ -50,7 +50,7 @@ public interface BudgetDao {
     BudgetEntity getTotalBudget(int month, int year);
 
     @Query("SELECT b.id, b.categoryId, b.limitAmount, b.month, b.year, " +
-           "(SELECT COALESCE(SUM(e.amount), 0) FROM expenses e " +
+           "(SELECT COALESCE(SUM(" + ExpenseDao.BASE_AMOUNT + "), 0) FROM expenses e " +
            "INNER JOIN categories c ON e.categoryId = c.id " +
            "WHERE c.type = 0 " +  // Only expense categories, not income
            "AND strftime('%m', datetime(e.date/1000, 'unixepoch', 'localtime')) = printf('%02d', :month) " +
@@ -59,7 +59,7 @@ public interface BudgetDao {
     LiveData<BudgetEntity> getTotalBudgetLive(int month, int year);
 
     @Query("SELECT b.id, b.categoryId, b.limitAmount, b.month, b.year, " +
-           "(SELECT COALESCE(SUM(amount), 0) FROM expenses e " +
+           "(SELECT COALESCE(SUM(" + ExpenseDao.BASE_AMOUNT + "), 0) FROM expenses e " +
            "WHERE e.categoryId = :categoryId " +
            "AND strftime('%m', datetime(e.date/1000, 'unixepoch', 'localtime')) = printf('%02d', :month) " +
            "AND strftime('%Y', datetime(e.date/1000, 'unixepoch', 'localtime')) = printf('%d', :year)) as spentAmount " +
@@ -67,7 +67,7 @@ public interface BudgetDao {
     BudgetEntity getBudgetByCategory(long categoryId, int month, int year);
 
     @Query("SELECT b.id, b.categoryId, b.limitAmount, b.month, b.year, " +
-           "(SELECT COALESCE(SUM(amount), 0) FROM expenses e " +
+           "(SELECT COALESCE(SUM(" + ExpenseDao.BASE_AMOUNT + "), 0) FROM expenses e " +
            "WHERE e.categoryId = :categoryId " +
            "AND strftime('%m', datetime(e.date/1000, 'unixepoch', 'localtime')) = printf('%02d', :month) " +
            "AND strftime('%Y', datetime(e.date/1000, 'unixepoch', 'localtime')) = printf('%d', :year)) as spentAmount " +
@@ -80,6 +80,10 @@ public interface BudgetDao {
     @Query("DELETE FROM budgets WHERE month = :month AND year = :year")
     void deleteBudgetsByMonthYear(int month, int year);
 
+    // Limits only; spentAmount is not computed (see BudgetAlertService)
+    @Query("SELECT * FROM budgets WHERE month = :month AND year = :year")
+    List<BudgetEntity> getBudgetsForMonthSync(int month, int year);
+
     @Query("SELECT * FROM budgets WHERE id = :id")
     BudgetEntity getBudgetById(long id);
 
@@ -52,4 +52,27 @@ public interface CategoryDao {
 
     @Query("SELECT * FROM categories ORDER BY type, name")
     List<CategoryEntity> getAllCategoriesSync();
+
+    @Query("SELECT * FROM categories WHERE type = :type ORDER BY name")
+    List<CategoryEntity> getCategoriesByTypeSync(int type);
+
+    @Query("SELECT * FROM categories WHERE isCustom = 1 ORDER BY name")
+    List<CategoryEntity> getCustomCategoriesSync();
+
+    // Served by index_categories_type_usageCount
+    @Query("SELECT * FROM categories WHERE type = :type ORDER BY usageCount DESC LIMIT :limit")
+    List<CategoryEntity> getMostUsed(int type, int limit);
+
+    @Query("SELECT * FROM categories WHERE name = :name AND type = :type LIMIT 1")
+    CategoryEntity findByName(String name, int type);
+
+    @Query("UPDATE categories SET usageCount = usageCount + 1 WHERE name = :name AND type = :type")
+    void incrementUsage(String name, int type);
+
+    @Query("UPDATE categories SET name = :name, icon = :icon, color = :color WHERE id = :id")
+    void updateAppearance(long id, String name, String icon, String color);
+
+    /** Default categories are kept; returns the number of rows deleted (0 or 1) */
+    @Query("DELETE FROM categories WHERE id = :id AND isCustom = 1")
+    int deleteCustomById(long id);
 }
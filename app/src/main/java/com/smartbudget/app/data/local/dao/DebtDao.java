@@ -0,0 +1,42 @@
+package com.smartbudget.app.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import com.smartbudget.app.data.local.entity.DebtEntity;
+
+import java.util.List;
+
+@Dao
+public interface DebtDao {
+
+    @Insert
+    long insert(DebtEntity debt);
+
+    @Query("SELECT * FROM debts ORDER BY createdAt")
+    List<DebtEntity> getAllSync();
+
+    // Avalanche payoff order, served by index_debts_interestRate
+    @Query("SELECT * FROM debts ORDER BY interestRate DESC")
+    List<DebtEntity> getByInterestRateDesc();
+
+    // Snowball payoff order, served by index_debts_remainingAmount
+    @Query("SELECT * FROM debts ORDER BY remainingAmount ASC")
+    List<DebtEntity> getByRemainingAmountAsc();
+
+    @Query("UPDATE debts SET remainingAmount = MAX(0, remainingAmount - :amount) WHERE id = :id")
+    void makePayment(long id, double amount);
+
+    @Query("DELETE FROM debts WHERE id = :id")
+    void deleteById(long id);
+
+    @Query("SELECT COALESCE(SUM(remainingAmount), 0) FROM debts")
+    double getTotalRemaining();
+
+    @Query("SELECT COALESCE(SUM(minimumPayment), 0) FROM debts")
+    double getTotalMinimumPayments();
+
+    @Query("DELETE FROM debts")
+    void deleteAll();
+}
@@ -0,0 +1,37 @@
+package com.smartbudget.app.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.smartbudget.app.data.local.entity.ExchangeRateEntity;
+
+import java.util.List;
+
+/**
+ * Dated exchange rates. Writes go through {@code ExchangeRates}, which also clears its cache.
+ */
+@Dao
+public interface ExchangeRateDao {
+
+    /** A re-fetched quote for the same currency and day replaces the old one */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<ExchangeRateEntity> rates);
+
+    /** Rate in effect at {@code date}, or null if the currency has none that early */
+    @Query("SELECT rateMicros FROM exchange_rates WHERE currency = :currency AND effectiveFrom <= :date " +
+           "ORDER BY effectiveFrom DESC LIMIT 1")
+    Long getRateAt(String currency, long date);
+
+    /** Newest rate of every currency */
+    @Query("SELECT r.* FROM exchange_rates r WHERE r.effectiveFrom = " +
+           "(SELECT MAX(effectiveFrom) FROM exchange_rates WHERE currency = r.currency) ORDER BY r.currency")
+    List<ExchangeRateEntity> getLatestRates();
+
+    @Query("SELECT * FROM exchange_rates WHERE currency = :currency ORDER BY effectiveFrom")
+    List<ExchangeRateEntity> getHistory(String currency);
+
+    @Query("SELECT COUNT(*) FROM exchange_rates")
+    int getRateCount();
+}
@@ -1,5 +1,7 @@
 package com.smartbudget.app.data.local.dao;
 
+import android.database.Cursor;
+
 import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
@@ -8,15 +10,31 @@ import androidx.room.Query;
 import androidx.room.Update;
 
 import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.utils.CurrencyConverter;
 
 import java.util.List;
 
 @Dao
 public interface ExpenseDao {
 
+    /**
+     * Amount of expense row {@code e} in base-currency minor units (VND), converted in SQL with
+     * the rate in effect on the expense date (the exchange_rates primary key serves the
+     * lookup). Rounds exactly like {@link CurrencyConverter#applyRate}. A currency without any
+     * rate gives NULL, which SUM skips. All amount aggregates below sum this.
+     */
+    String BASE_AMOUNT = "(CASE WHEN e.currency = '" + CurrencyConverter.BASE_CURRENCY + "' THEN e.amountMinor " +
+            "ELSE (e.amountMinor * (SELECT r.rateMicros FROM exchange_rates r " +
+            "WHERE r.currency = e.currency AND r.effectiveFrom <= e.date " +
+            "ORDER BY r.effectiveFrom DESC LIMIT 1) + " + CurrencyConverter.RATE_SCALE / 2 + ") / " +
+            CurrencyConverter.RATE_SCALE + " END)";
+
     @Insert
     long insert(ExpenseEntity expense);
 
+    @Insert
+    long[] insertAll(List<ExpenseEntity> expenses);
+
     @Update
     void update(ExpenseEntity expense);
 
@@ -45,40 +63,86 @@ public interface ExpenseDao {
     LiveData<List<ExpenseEntity>> getRecentExpenses(int limit);
 
     // Aggregation queries - only count EXPENSE categories (type=0), not income
-    @Query("SELECT SUM(e.amount) FROM expenses e " +
+    @Query("SELECT SUM(" + BASE_AMOUNT + ") FROM expenses e " +
            "INNER JOIN categories c ON e.categoryId = c.id " +
            "WHERE c.type = 0 AND e.date >= :startDate AND e.date <= :endDate")
     LiveData<Double> getTotalExpenseByDateRange(long startDate, long endDate);
 
     // Total INCOME (category type=1)
-    @Query("SELECT SUM(e.amount) FROM expenses e " +
+    @Query("SELECT SUM(" + BASE_AMOUNT + ") FROM expenses e " +
            "INNER JOIN categories c ON e.categoryId = c.id " +
            "WHERE c.type = 1 AND e.date >= :startDate AND e.date <= :endDate")
     LiveData<Double> getTotalIncomeByDateRange(long startDate, long endDate);
 
-    @Query("SELECT SUM(amount) FROM expenses WHERE categoryId = :categoryId AND date >= :startDate AND date <= :endDate")
+    @Query("SELECT SUM(" + BASE_AMOUNT + ") FROM expenses e " +
+           "WHERE e.categoryId = :categoryId AND e.date >= :startDate AND e.date <= :endDate")
     double getTotalByCategoryAndDateRange(long categoryId, long startDate, long endDate);
 
-    @Query("SELECT SUM(e.amount) FROM expenses e " +
+    @Query("SELECT SUM(" + BASE_AMOUNT + ") FROM expenses e " +
            "INNER JOIN categories c ON e.categoryId = c.id " +
            "WHERE c.type = 0 AND e.date >= :startDate AND e.date <= :endDate")
     double getTotalByDateRange(long startDate, long endDate);
 
     // Sync version of income query (for background thread)
-    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM expenses e " +
+    @Query("SELECT COALESCE(SUM(" + BASE_AMOUNT + "), 0) FROM expenses e " +
            "INNER JOIN categories c ON e.categoryId = c.id " +
            "WHERE c.type = 1 AND e.date >= :startDate AND e.date <= :endDate")
     double getTotalIncomeSync(long startDate, long endDate);
 
     // For chart data - group by EXPENSE categories only
-    @Query("SELECT e.categoryId, SUM(e.amount) as total FROM expenses e " +
+    @Query("SELECT e.categoryId, SUM(" + BASE_AMOUNT + ") as total FROM expenses e " +
            "INNER JOIN categories c ON e.categoryId = c.id " +
            "WHERE c.type = 0 AND e.date >= :startDate AND e.date <= :endDate GROUP BY e.categoryId")
     LiveData<List<CategoryTotal>> getExpenseTotalsByCategory(long startDate, long endDate);
 
+    // Month spend per category, all category types (seeds the budget alert evaluator)
+    @Query("SELECT e.categoryId, SUM(" + BASE_AMOUNT + ") AS total FROM expenses e " +
+           "WHERE e.categoryId IS NOT NULL AND e.date >= :startDate AND e.date <= :endDate GROUP BY e.categoryId")
+    List<CategoryTotal> getTotalsByCategorySync(long startDate, long endDate);
+
+    // Time-series aggregation - EXPENSE categories only, bucketed in SQL.
+    // :offset is the local zone offset in ms so buckets align to local midnight.
+    // Day bucket = epoch day; week bucket = ISO week index (epoch day 0 is a Thursday,
+    // so +3 moves week boundaries to Monday); month bucket = year * 12 + (month - 1).
+    @Query("SELECT (e.date + :offset) / 86400000 AS bucket, SUM(" + BASE_AMOUNT + ") AS total FROM expenses e " +
+           "INNER JOIN categories c ON e.categoryId = c.id " +
+           "WHERE c.type = 0 AND e.date >= :startDate AND e.date <= :endDate " +
+           "GROUP BY bucket ORDER BY bucket")
+    LiveData<List<TimeBucketTotal>> getDailyExpenseTotals(long startDate, long endDate, long offset);
+
+    @Query("SELECT ((e.date + :offset) / 86400000 + 3) / 7 AS bucket, SUM(" + BASE_AMOUNT + ") AS total FROM expenses e " +
+           "INNER JOIN categories c ON e.categoryId = c.id " +
+           "WHERE c.type = 0 AND e.date >= :startDate AND e.date <= :endDate " +
+           "GROUP BY bucket ORDER BY bucket")
+    LiveData<List<TimeBucketTotal>> getWeeklyExpenseTotals(long startDate, long endDate, long offset);
+
+    @Query("SELECT CAST(strftime('%Y', (e.date + :offset) / 1000, 'unixepoch') AS INTEGER) * 12 + " +
+           "CAST(strftime('%m', (e.date + :offset) / 1000, 'unixepoch') AS INTEGER) - 1 AS bucket, " +
+           "SUM(" + BASE_AMOUNT + ") AS total FROM expenses e " +
+           "INNER JOIN categories c ON e.categoryId = c.id " +
+           "WHERE c.type = 0 AND e.date >= :startDate AND e.date <= :endDate " +
+           "GROUP BY bucket ORDER BY bucket")
+    LiveData<List<TimeBucketTotal>> getMonthlyExpenseTotals(long startDate, long endDate, long offset);
+
     @Query("SELECT * FROM expenses ORDER BY date DESC, createdAt DESC")
     List<ExpenseEntity> getAllExpensesSync();
 
+    // Raw columns for TransactionFrame (analytics), oldest first; amount in base currency
+    @Query("SELECT e.date, " + BASE_AMOUNT + " AS amount, e.categoryId FROM expenses e " +
+           "WHERE e.date >= :startDate AND e.date <= :endDate ORDER BY e.date ASC")
+    Cursor getAnalyticsCursor(long startDate, long endDate);
+
+    // Category uses for SuggestionEngine; one pass over the table when the ranking is seeded
+    @Query("SELECT categoryId, date FROM expenses WHERE categoryId IS NOT NULL AND date >= :since")
+    List<CategoryUse> getCategoryUsesSince(long since);
+
+    // Receipts
+    @Query("SELECT * FROM expenses WHERE receiptImagePath IS NOT NULL ORDER BY date DESC")
+    LiveData<List<ExpenseEntity>> getExpensesWithReceipts();
+
+    @Query("SELECT receiptImagePath FROM expenses WHERE receiptImagePath IS NOT NULL")
+    List<String> getReceiptPathsSync();
+
     // For sync
     @Query("SELECT * FROM expenses WHERE isSynced = 0")
     List<ExpenseEntity> getUnsyncedExpenses();
@@ -94,4 +158,16 @@ public interface ExpenseDao {
         public Long categoryId;
         public double total;
     }
+
+    // Helper class for category usage
+    class CategoryUse {
+        public long categoryId;
+        public long date;
+    }
+
+    // Helper class for time-series aggregation
+    class TimeBucketTotal {
+        public long bucket;
+        public double total;
+    }
 }
@@ -0,0 +1,35 @@
+package com.smartbudget.app.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import com.smartbudget.app.data.local.entity.ExpenseTemplateEntity;
+
+import java.util.List;
+
+@Dao
+public interface ExpenseTemplateDao {
+
+    @Insert
+    long insert(ExpenseTemplateEntity template);
+
+    @Query("SELECT * FROM expense_templates ORDER BY createdAt")
+    List<ExpenseTemplateEntity> getAllSync();
+
+    // Served by index_expense_templates_usageCount
+    @Query("SELECT * FROM expense_templates ORDER BY usageCount DESC LIMIT :limit")
+    List<ExpenseTemplateEntity> getMostUsed(int limit);
+
+    @Query("UPDATE expense_templates SET usageCount = usageCount + 1 WHERE id = :id")
+    void incrementUsage(long id);
+
+    @Query("DELETE FROM expense_templates WHERE id = :id")
+    void deleteById(long id);
+
+    @Query("SELECT COUNT(*) FROM expense_templates")
+    int getCount();
+
+    @Query("DELETE FROM expense_templates")
+    void deleteAll();
+}
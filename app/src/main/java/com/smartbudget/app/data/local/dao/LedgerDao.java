@@ -0,0 +1,51 @@
+package com.smartbudget.app.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.smartbudget.app.data.local.entity.LedgerCheckpointEntity;
+import com.smartbudget.app.data.local.entity.LedgerEntryEntity;
+
+import java.util.List;
+
+/**
+ * Append-only access to the expense audit ledger; there is no update. Writes go through
+ * {@code ExpenseLedger}, inside the expense write's transaction.
+ */
+@Dao
+public interface LedgerDao {
+
+    /** Fails on a duplicate seq: two appenders raced, and the transaction must roll back */
+    @Insert(onConflict = OnConflictStrategy.ABORT)
+    void insertEntries(List<LedgerEntryEntity> entries);
+
+    @Query("SELECT * FROM ledger_entries ORDER BY seq DESC LIMIT 1")
+    LedgerEntryEntity getLastEntry();
+
+    @Query("SELECT * FROM ledger_entries WHERE seq = :seq")
+    LedgerEntryEntity getEntry(long seq);
+
+    /** One page of entries after {@code afterSeq}, in chain order */
+    @Query("SELECT * FROM ledger_entries WHERE seq > :afterSeq ORDER BY seq LIMIT :limit")
+    List<LedgerEntryEntity> getEntriesAfter(long afterSeq, int limit);
+
+    @Query("SELECT * FROM ledger_entries WHERE expenseId = :expenseId ORDER BY seq")
+    List<LedgerEntryEntity> getHistory(long expenseId);
+
+    @Query("SELECT COUNT(*) FROM ledger_entries")
+    int getEntryCount();
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertCheckpoint(LedgerCheckpointEntity checkpoint);
+
+    @Query("SELECT * FROM ledger_checkpoints ORDER BY seq DESC LIMIT 1")
+    LedgerCheckpointEntity getLatestCheckpoint();
+
+    @Query("DELETE FROM ledger_entries")
+    void deleteAllEntries();
+
+    @Query("DELETE FROM ledger_checkpoints")
+    void deleteAllCheckpoints();
+}
@@ -0,0 +1,33 @@
+package com.smartbudget.app.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import com.smartbudget.app.data.local.entity.LocationTagEntity;
+
+import java.util.List;
+
+@Dao
+public interface LocationTagDao {
+
+    @Insert
+    long insert(LocationTagEntity location);
+
+    @Query("SELECT * FROM location_tags ORDER BY id")
+    List<LocationTagEntity> getAllSync();
+
+    // Served by index_location_tags_totalSpend
+    @Query("SELECT * FROM location_tags ORDER BY totalSpend DESC LIMIT :limit")
+    List<LocationTagEntity> getTopSpending(int limit);
+
+    @Query("UPDATE location_tags SET usageCount = usageCount + 1, totalSpend = totalSpend + :amount "
+            + "WHERE id = :id")
+    void recordSpend(long id, double amount);
+
+    @Query("DELETE FROM location_tags WHERE id = :id")
+    void deleteById(long id);
+
+    @Query("DELETE FROM location_tags")
+    void deleteAll();
+}
@@ -4,9 +4,11 @@ import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Update;
 
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
 import com.smartbudget.app.data.local.entity.RecurringExpenseEntity;
 
 import java.util.List;
@@ -32,12 +34,27 @@ public interface RecurringExpenseDao {
     @Query("SELECT * FROM recurring_expenses WHERE id = :id")
     RecurringExpenseEntity getById(long id);
 
-    @Query("SELECT * FROM recurring_expenses WHERE nextDueDate <= :date AND isActive = 1")
+    // Served by index_recurring_expenses_isActive_nextDueDate
+    @Query("SELECT * FROM recurring_expenses WHERE isActive = 1 AND nextDueDate <= :date")
     List<RecurringExpenseEntity> getDueExpenses(long date);
 
     @Query("UPDATE recurring_expenses SET nextDueDate = :nextDate WHERE id = :id")
     void updateNextDueDate(long id, long nextDate);
 
+    /**
+     * Moves nextDueDate forward only if it still is {@code expectedDate}, so a concurrent
+     * edit of the schedule is not overwritten. Returns the number of rows updated (0 or 1).
+     */
+    @Query("UPDATE recurring_expenses SET nextDueDate = :nextDate WHERE id = :id AND nextDueDate = :expectedDate")
+    int advanceNextDueDate(long id, long expectedDate, long nextDate);
+
+    /**
+     * Inserts materialized occurrences. An occurrence already present for the same
+     * (recurringId, date) is skipped (row id -1), which makes a rerun after a crash harmless.
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long[] insertOccurrences(List<ExpenseEntity> occurrences);
+
     @Query("UPDATE recurring_expenses SET isActive = :active WHERE id = :id")
     void setActive(long id, boolean active);
 
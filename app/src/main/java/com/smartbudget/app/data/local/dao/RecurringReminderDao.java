@@ -0,0 +1,44 @@
+package com.smartbudget.app.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import com.smartbudget.app.data.local.entity.RecurringReminderEntity;
+
+import java.util.List;
+
+@Dao
+public interface RecurringReminderDao {
+
+    @Insert
+    long insert(RecurringReminderEntity reminder);
+
+    @Query("SELECT * FROM recurring_reminders ORDER BY nextDueDate")
+    List<RecurringReminderEntity> getAllSync();
+
+    @Query("SELECT * FROM recurring_reminders WHERE id = :id")
+    RecurringReminderEntity getById(long id);
+
+    // Served by index_recurring_reminders_isActive_nextDueDate
+    @Query("SELECT * FROM recurring_reminders WHERE isActive = 1 "
+            + "AND nextDueDate >= :from AND nextDueDate < :until ORDER BY nextDueDate")
+    List<RecurringReminderEntity> getActiveDueBetween(long from, long until);
+
+    @Query("UPDATE recurring_reminders SET nextDueDate = :nextDate WHERE id = :id")
+    void updateNextDueDate(long id, long nextDate);
+
+    @Query("DELETE FROM recurring_reminders WHERE id = :id")
+    void deleteById(long id);
+
+    /** Active reminders per month: daily x30, weekly x4, biweekly x2, quarterly /3, yearly /12 */
+    @Query("SELECT COALESCE(SUM(CASE frequency "
+            + "WHEN 'DAILY' THEN amount * 30 WHEN 'WEEKLY' THEN amount * 4 "
+            + "WHEN 'BIWEEKLY' THEN amount * 2 WHEN 'MONTHLY' THEN amount "
+            + "WHEN 'QUARTERLY' THEN amount / 3 WHEN 'YEARLY' THEN amount / 12 ELSE 0 END), 0) "
+            + "FROM recurring_reminders WHERE isActive = 1")
+    double getMonthlyTotal();
+
+    @Query("DELETE FROM recurring_reminders")
+    void deleteAll();
+}
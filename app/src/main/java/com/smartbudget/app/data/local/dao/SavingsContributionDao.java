@@ -0,0 +1,33 @@
+package com.smartbudget.app.data.local.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import com.smartbudget.app.data.local.entity.SavingsContributionEntity;
+
+import java.util.List;
+
+/**
+ * Contribution history of savings goals. Inserts go through {@code SavingsContributions},
+ * which keeps the goal's currentAmount and the running totals in step.
+ */
+@Dao
+public interface SavingsContributionDao {
+
+    @Insert
+    long insert(SavingsContributionEntity contribution);
+
+    @Query("SELECT * FROM savings_contributions WHERE goalId = :goalId ORDER BY date DESC, id DESC")
+    LiveData<List<SavingsContributionEntity>> getContributions(long goalId);
+
+    @Query("SELECT * FROM savings_contributions WHERE goalId = :goalId ORDER BY date DESC, id DESC")
+    List<SavingsContributionEntity> getContributionsSync(long goalId);
+
+    @Query("SELECT COALESCE(SUM(amount), 0) FROM savings_contributions WHERE goalId = :goalId AND date >= :since")
+    double getTotalSince(long goalId, long since);
+
+    @Query("DELETE FROM savings_contributions")
+    void deleteAll();
+}
@@ -3,6 +3,7 @@ package com.smartbudget.app.data.local.dao;
 import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
+import androidx.room.Embedded;
 import androidx.room.Insert;
 import androidx.room.Query;
 import androidx.room.Update;
@@ -38,9 +39,6 @@ public interface SavingsGoalDao {
     @Query("SELECT * FROM savings_goals WHERE id = :id")
     LiveData<SavingsGoalEntity> getGoalByIdLive(long id);
 
-    @Query("UPDATE savings_goals SET currentAmount = currentAmount + :amount WHERE id = :goalId")
-    void addSavings(long goalId, double amount);
-
     @Query("UPDATE savings_goals SET isCompleted = 1 WHERE id = :goalId")
     void markAsCompleted(long goalId);
 
@@ -60,9 +58,46 @@ public interface SavingsGoalDao {
     @Query("SELECT SUM(currentAmount) FROM savings_goals")
     Double getTotalSavedSync();
 
-    @Query("UPDATE savings_goals SET currentAmount = :amount, isCompleted = :isCompleted WHERE id = :goalId")
-    void updateProgress(long goalId, double amount, boolean isCompleted);
+    /**
+     * Adds to the goal and completes it once the target is reached, in one statement.
+     * Only {@code SavingsContributions} calls this, together with the contribution row.
+     */
+    @Query("UPDATE savings_goals SET currentAmount = currentAmount + :amount, "
+            + "isCompleted = CASE WHEN currentAmount + :amount >= targetAmount THEN 1 ELSE isCompleted END "
+            + "WHERE id = :goalId")
+    void addProgress(long goalId, double amount);
+
+    @Query("SELECT COALESCE(SUM(MAX(0, targetAmount - currentAmount)), 0) FROM savings_goals WHERE isCompleted = 0")
+    double getTotalRemainingSync();
+
+    @Query("SELECT COUNT(*) FROM savings_goals WHERE isCompleted = 0")
+    int getActiveGoalCountSync();
+
+    /** Active goal with the highest progress above zero, or null */
+    @Query("SELECT * FROM savings_goals WHERE isCompleted = 0 AND targetAmount > 0 AND currentAmount > 0 "
+            + "ORDER BY currentAmount / targetAmount DESC LIMIT 1")
+    SavingsGoalEntity getClosestActiveGoal();
+
+    /**
+     * Every goal with the sum of its contributions dated at or after {@code since}, opening
+     * balances excluded, in screen order; one query for the whole savings snapshot. Re-emits when
+     * goals or contributions change.
+     */
+    @Query("SELECT g.*, COALESCE((SELECT SUM(c.amount) FROM savings_contributions c "
+            + "WHERE c.goalId = g.id AND c.date >= :since AND c.opening = 0), 0) AS recentAmount "
+            + "FROM savings_goals g ORDER BY g.isCompleted ASC, g.deadline ASC")
+    LiveData<List<GoalProgress>> getGoalProgress(long since);
+
+    @Query("DELETE FROM savings_goals WHERE id = :goalId")
+    void deleteById(long goalId);
 
     @Query("DELETE FROM savings_goals")
     void deleteAll();
+
+    // Goal row plus its recent (non-opening) contributions
+    class GoalProgress {
+        @Embedded
+        public SavingsGoalEntity goal;
+        public double recentAmount;
+    }
 }
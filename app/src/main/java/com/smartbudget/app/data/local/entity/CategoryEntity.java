@@ -1,6 +1,8 @@
 package com.smartbudget.app.data.local.entity;
 
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 import java.io.Serializable;
@@ -27,6 +29,7 @@ import java.util.Objects;
  * - color: Hex color code for visual distinction in charts/UI
  * - type: 0 = Expense category, 1 = Income category
  * - isCustom: true if user-created, false if system default
+ * - usageCount: expenses entered with the category, for "most used" ordering
  * 
  * Relationships:
  * - Referenced by ExpenseEntity (Many-to-One)
@@ -38,7 +41,12 @@ import java.util.Objects;
  * @see ExpenseEntity
  * @see BudgetEntity
  */
-@Entity(tableName = "categories")
+@Entity(tableName = "categories",
+        indices = {
+                // Lookup by name (CategoryManager), most used first per type
+                @Index({"name", "type"}),
+                @Index(value = {"type", "usageCount"}, orders = {Index.Order.ASC, Index.Order.DESC})
+        })
 public class CategoryEntity implements Serializable {
 
     /** Serial version UID for serialization compatibility */
@@ -94,6 +102,13 @@ public class CategoryEntity implements Serializable {
      */
     private boolean isCustom;
 
+    /**
+     * How often the category was picked, for "most used" ordering.
+     * Column added in database version 9, hence the SQL default.
+     */
+    @ColumnInfo(defaultValue = "0")
+    private int usageCount;
+
     // ==================== Constructors ====================
 
     /**
@@ -264,6 +279,24 @@ public class CategoryEntity implements Serializable {
         isCustom = custom;
     }
 
+    /**
+     * Gets how often this category was picked.
+     * 
+     * @return Usage count
+     */
+    public int getUsageCount() {
+        return usageCount;
+    }
+
+    /**
+     * Sets the usage count.
+     * 
+     * @param usageCount Usage count
+     */
+    public void setUsageCount(int usageCount) {
+        this.usageCount = usageCount;
+    }
+
     // ==================== Convenience Methods ====================
 
     /**
@@ -0,0 +1,91 @@
+package com.smartbudget.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * A debt being paid off (card, loan, ...). Type is a {@code DebtTracker.DebtType} name.
+ */
+@Entity(tableName = "debts",
+        indices = {
+                // Payoff order: avalanche = interestRate DESC, snowball = remainingAmount ASC
+                @Index(value = "interestRate", orders = Index.Order.DESC),
+                @Index("remainingAmount")
+        })
+public class DebtEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private String name;
+    private String type;
+    private double originalAmount;
+    private double remainingAmount;
+    private double interestRate; // Annual %
+    private double minimumPayment;
+    private int dayOfMonth; // Payment due day
+    private long createdAt;
+
+    public DebtEntity() {
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    @Ignore
+    public DebtEntity(String name, String type, double originalAmount,
+                      double interestRate, double minimumPayment, int dayOfMonth) {
+        this();
+        this.name = name;
+        this.type = type;
+        this.originalAmount = originalAmount;
+        this.remainingAmount = originalAmount;
+        this.interestRate = interestRate;
+        this.minimumPayment = minimumPayment;
+        this.dayOfMonth = dayOfMonth;
+    }
+
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public double getOriginalAmount() { return originalAmount; }
+    public void setOriginalAmount(double originalAmount) { this.originalAmount = originalAmount; }
+
+    public double getRemainingAmount() { return remainingAmount; }
+    public void setRemainingAmount(double remainingAmount) { this.remainingAmount = remainingAmount; }
+
+    public double getInterestRate() { return interestRate; }
+    public void setInterestRate(double interestRate) { this.interestRate = interestRate; }
+
+    public double getMinimumPayment() { return minimumPayment; }
+    public void setMinimumPayment(double minimumPayment) { this.minimumPayment = minimumPayment; }
+
+    public int getDayOfMonth() { return dayOfMonth; }
+    public void setDayOfMonth(int dayOfMonth) { this.dayOfMonth = dayOfMonth; }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+
+    // Helper methods
+    public double getMonthlyInterest() {
+        return remainingAmount * (interestRate / 100 / 12);
+    }
+
+    public int getMonthsToPayoff() {
+        if (minimumPayment <= getMonthlyInterest()) return -1; // Never
+        double monthlyPrincipal = minimumPayment - getMonthlyInterest();
+        return (int) Math.ceil(remainingAmount / monthlyPrincipal);
+    }
+
+    public double getProgressPercent() {
+        if (originalAmount <= 0) return 100;
+        return ((originalAmount - remainingAmount) / originalAmount) * 100;
+    }
+}
@@ -0,0 +1,47 @@
+package com.smartbudget.app.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * Rate of one currency from {@link #effectiveFrom} until the next row of that currency.
+ * {@link #rateMicros} is base-currency minor units per one minor unit, times 1,000,000
+ * (see {@code CurrencyConverter}). The primary key doubles as the index of the
+ * "latest rate at or before a date" lookup that expense aggregates run in SQL.
+ */
+@Entity(tableName = "exchange_rates", primaryKeys = {"currency", "effectiveFrom"})
+public class ExchangeRateEntity {
+
+    @NonNull
+    private String currency;
+    private long effectiveFrom;
+    private long rateMicros;
+    private String source; // RateSource name, "default" for the built-in table
+    private long fetchedAt;
+
+    public ExchangeRateEntity(@NonNull String currency, long effectiveFrom, long rateMicros,
+                              String source, long fetchedAt) {
+        this.currency = currency;
+        this.effectiveFrom = effectiveFrom;
+        this.rateMicros = rateMicros;
+        this.source = source;
+        this.fetchedAt = fetchedAt;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getCurrency() { return currency; }
+    public void setCurrency(@NonNull String currency) { this.currency = currency; }
+
+    public long getEffectiveFrom() { return effectiveFrom; }
+    public void setEffectiveFrom(long effectiveFrom) { this.effectiveFrom = effectiveFrom; }
+
+    public long getRateMicros() { return rateMicros; }
+    public void setRateMicros(long rateMicros) { this.rateMicros = rateMicros; }
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public long getFetchedAt() { return fetchedAt; }
+    public void setFetchedAt(long fetchedAt) { this.fetchedAt = fetchedAt; }
+}
@@ -1,18 +1,25 @@
 package com.smartbudget.app.data.local.entity;
 
+import androidx.annotation.NonNull;
 import androidx.room.Entity;
 import androidx.room.ForeignKey;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import com.smartbudget.app.utils.CurrencyConverter;
+
 @Entity(tableName = "expenses", foreignKeys = @ForeignKey(entity = CategoryEntity.class, parentColumns = "id", childColumns = "categoryId", onDelete = ForeignKey.SET_NULL), indices = {
-        @Index("categoryId") })
+        @Index("categoryId"),
+        // One row per occurrence of a recurring expense; NULLs (manual entries) never collide
+        @Index(value = { "recurringId", "date" }, unique = true) })
 public class ExpenseEntity {
 
     @PrimaryKey(autoGenerate = true)
     private long id;
 
-    private double amount;
+    private long amountMinor; // In minor units of currency (VND has none), exact in SUM()
+    @NonNull
+    private String currency = CurrencyConverter.BASE_CURRENCY;
     private Long categoryId;
     private long date;
     private String note;
@@ -21,6 +28,7 @@ public class ExpenseEntity {
     private long updatedAt;
     private boolean isSynced;
     private String tags; // Comma-separated tags
+    private Long recurringId; // RecurringExpenseEntity this occurrence was created from
 
     public ExpenseEntity() {
         this.createdAt = System.currentTimeMillis();
@@ -46,12 +54,32 @@ public class ExpenseEntity {
         this.id = id;
     }
 
+    /** Amount in major units of {@link #getCurrency()}; derived from amountMinor. */
     public double getAmount() {
-        return amount;
+        return CurrencyConverter.fromMinor(amountMinor, currency);
     }
 
+    /** Rounds to the currency's minor unit; set the currency first. */
     public void setAmount(double amount) {
-        this.amount = amount;
+        this.amountMinor = CurrencyConverter.toMinor(amount, currency);
+    }
+
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public void setAmountMinor(long amountMinor) {
+        this.amountMinor = amountMinor;
+    }
+
+    @NonNull
+    public String getCurrency() {
+        return currency;
+    }
+
+    /** ISO 4217 code. Does not rescale amountMinor. */
+    public void setCurrency(@NonNull String currency) {
+        this.currency = currency;
     }
 
     public Long getCategoryId() {
@@ -117,4 +145,12 @@ public class ExpenseEntity {
     public void setTags(String tags) {
         this.tags = tags;
     }
+
+    public Long getRecurringId() {
+        return recurringId;
+    }
+
+    public void setRecurringId(Long recurringId) {
+        this.recurringId = recurringId;
+    }
 }
@@ -0,0 +1,68 @@
+package com.smartbudget.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Saved expense pattern ("Cà phê sáng", 35.000₫) for one-tap entry.
+ * Category is the category name, as typed when the template was saved.
+ */
+@Entity(tableName = "expense_templates",
+        indices = {
+                // getMostUsedTemplates: ORDER BY usageCount DESC LIMIT :limit
+                @Index(value = "usageCount", orders = Index.Order.DESC)
+        })
+public class ExpenseTemplateEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private String name;
+    private String emoji;
+    private double amount;
+    private String category;
+    private String note;
+    private int usageCount;
+    private long createdAt;
+
+    public ExpenseTemplateEntity() {
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    @Ignore
+    public ExpenseTemplateEntity(String name, String emoji, double amount, String category, String note) {
+        this();
+        this.name = name;
+        this.emoji = emoji;
+        this.amount = amount;
+        this.category = category;
+        this.note = note;
+    }
+
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getEmoji() { return emoji; }
+    public void setEmoji(String emoji) { this.emoji = emoji; }
+
+    public double getAmount() { return amount; }
+    public void setAmount(double amount) { this.amount = amount; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getNote() { return note; }
+    public void setNote(String note) { this.note = note; }
+
+    public int getUsageCount() { return usageCount; }
+    public void setUsageCount(int usageCount) { this.usageCount = usageCount; }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+}
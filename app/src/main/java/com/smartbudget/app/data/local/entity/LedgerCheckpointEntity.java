@@ -0,0 +1,37 @@
+package com.smartbudget.app.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * A verified point of the expense ledger: the chain up to {@link #seq} was checked and ended
+ * in {@link #hash}. Verification after that only needs the entries past the newest checkpoint.
+ */
+@Entity(tableName = "ledger_checkpoints")
+public class LedgerCheckpointEntity {
+
+    @PrimaryKey
+    private long seq;
+
+    @NonNull
+    private byte[] hash;
+    private long verifiedAt;
+
+    public LedgerCheckpointEntity(long seq, @NonNull byte[] hash, long verifiedAt) {
+        this.seq = seq;
+        this.hash = hash;
+        this.verifiedAt = verifiedAt;
+    }
+
+    // Getters and Setters
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+
+    @NonNull
+    public byte[] getHash() { return hash; }
+    public void setHash(@NonNull byte[] hash) { this.hash = hash; }
+
+    public long getVerifiedAt() { return verifiedAt; }
+    public void setVerifiedAt(long verifiedAt) { this.verifiedAt = verifiedAt; }
+}
@@ -0,0 +1,64 @@
+package com.smartbudget.app.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * One entry of the expense audit ledger: an insert, update or delete of an expense, in the
+ * canonical encoding of {@code ExpenseLedger}, chained to the previous entry by {@link #hash}.
+ * Entries are append-only; seq is assigned by the ledger (1, 2, 3, ...), not by SQLite.
+ */
+@Entity(tableName = "ledger_entries",
+        indices = @Index("expenseId"))
+public class LedgerEntryEntity {
+
+    public static final int OP_INSERT = 1;
+    public static final int OP_UPDATE = 2;
+    public static final int OP_DELETE = 3;
+
+    @PrimaryKey
+    private long seq;
+
+    private long expenseId;
+    private int op;
+    private long createdAt;
+    /** The expense as written (as it was, for a delete) */
+    @NonNull
+    private byte[] payload;
+    /** SHA-256 over the previous hash, seq and payload */
+    @NonNull
+    private byte[] hash;
+
+    public LedgerEntryEntity(long seq, long expenseId, int op, long createdAt,
+                             @NonNull byte[] payload, @NonNull byte[] hash) {
+        this.seq = seq;
+        this.expenseId = expenseId;
+        this.op = op;
+        this.createdAt = createdAt;
+        this.payload = payload;
+        this.hash = hash;
+    }
+
+    // Getters and Setters
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+
+    public long getExpenseId() { return expenseId; }
+    public void setExpenseId(long expenseId) { this.expenseId = expenseId; }
+
+    public int getOp() { return op; }
+    public void setOp(int op) { this.op = op; }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+
+    @NonNull
+    public byte[] getPayload() { return payload; }
+    public void setPayload(@NonNull byte[] payload) { this.payload = payload; }
+
+    @NonNull
+    public byte[] getHash() { return hash; }
+    public void setHash(@NonNull byte[] hash) { this.hash = hash; }
+}
@@ -0,0 +1,59 @@
+package com.smartbudget.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Custom place expenses are tagged with, with running spend totals.
+ */
+@Entity(tableName = "location_tags",
+        indices = {
+                // getTopSpendingLocations: ORDER BY totalSpend DESC LIMIT :limit
+                @Index(value = "totalSpend", orders = Index.Order.DESC)
+        })
+public class LocationTagEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private String name;
+    private String emoji;
+    private String category; // Auto-suggested category for this location
+    private int usageCount;
+    private double totalSpend;
+
+    public LocationTagEntity() {
+    }
+
+    @Ignore
+    public LocationTagEntity(String name, String emoji) {
+        this.name = name;
+        this.emoji = emoji;
+    }
+
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getEmoji() { return emoji; }
+    public void setEmoji(String emoji) { this.emoji = emoji; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public int getUsageCount() { return usageCount; }
+    public void setUsageCount(int usageCount) { this.usageCount = usageCount; }
+
+    public double getTotalSpend() { return totalSpend; }
+    public void setTotalSpend(double totalSpend) { this.totalSpend = totalSpend; }
+
+    // Helper methods
+    public double getAverageSpend() {
+        return usageCount > 0 ? totalSpend / usageCount : 0;
+    }
+}
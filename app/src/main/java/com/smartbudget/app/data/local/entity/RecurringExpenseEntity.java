@@ -15,7 +15,11 @@ import androidx.room.PrimaryKey;
                 parentColumns = "id",
                 childColumns = "categoryId",
                 onDelete = ForeignKey.SET_NULL),
-        indices = {@Index("categoryId")})
+        indices = {
+                @Index("categoryId"),
+                // Due lookup: WHERE isActive = 1 AND nextDueDate <= :now
+                @Index({"isActive", "nextDueDate"})
+        })
 public class RecurringExpenseEntity {
 
     @PrimaryKey(autoGenerate = true)
@@ -0,0 +1,93 @@
+package com.smartbudget.app.data.local.entity;
+
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Bill reminder from RecurringExpenseTracker (electricity, Netflix, ...). Unlike
+ * {@link RecurringExpenseEntity} nothing is added to expenses automatically; the user marks
+ * it paid. Frequency is a {@code RecurringExpenseTracker.Frequency} name.
+ */
+@Entity(tableName = "recurring_reminders",
+        indices = {
+                // Due and upcoming: WHERE isActive = 1 AND nextDueDate < :until
+                @Index({"isActive", "nextDueDate"})
+        })
+public class RecurringReminderEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private String name;
+    private String emoji;
+    private double amount;
+    private String category;
+    private String frequency;
+    private int dayOfMonth; // For monthly reminders
+    private long nextDueDate;
+    private boolean isActive;
+    private boolean autoAdd;
+
+    public RecurringReminderEntity() {
+        this.isActive = true;
+    }
+
+    @Ignore
+    public RecurringReminderEntity(String name, String emoji, double amount,
+                                   String category, String frequency, int dayOfMonth) {
+        this();
+        this.name = name;
+        this.emoji = emoji;
+        this.amount = amount;
+        this.category = category;
+        this.frequency = frequency;
+        this.dayOfMonth = dayOfMonth;
+    }
+
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getEmoji() { return emoji; }
+    public void setEmoji(String emoji) { this.emoji = emoji; }
+
+    public double getAmount() { return amount; }
+    public void setAmount(double amount) { this.amount = amount; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getFrequency() { return frequency; }
+    public void setFrequency(String frequency) { this.frequency = frequency; }
+
+    public int getDayOfMonth() { return dayOfMonth; }
+    public void setDayOfMonth(int dayOfMonth) { this.dayOfMonth = dayOfMonth; }
+
+    public long getNextDueDate() { return nextDueDate; }
+    public void setNextDueDate(long nextDueDate) { this.nextDueDate = nextDueDate; }
+
+    public boolean isActive() { return isActive; }
+    public void setActive(boolean active) { isActive = active; }
+
+    public boolean isAutoAdd() { return autoAdd; }
+    public void setAutoAdd(boolean autoAdd) { this.autoAdd = autoAdd; }
+
+    // Helper methods
+    public int getDaysUntilDue() {
+        long diff = nextDueDate - System.currentTimeMillis();
+        return (int) (diff / (24 * 60 * 60 * 1000));
+    }
+
+    public boolean isDueToday() {
+        return getDaysUntilDue() == 0;
+    }
+
+    public boolean isOverdue() {
+        return getDaysUntilDue() < 0;
+    }
+}
@@ -0,0 +1,67 @@
+package com.smartbudget.app.data.local.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * One deposit into (or, negative, withdrawal from) a savings goal. Written only through
+ * {@code SavingsContributions}, in the same transaction that moves the goal's currentAmount;
+ * {@link #runningTotal} is the goal's currentAmount right after this row was written.
+ * An {@link #opening} row carries a balance the goal already had when its history began (a
+ * restored goal, or one that existed before contributions were recorded); it counts towards the
+ * balance but not towards the saving pace.
+ * The (goalId, date) index serves the per-goal history and the recent-pace sums of the
+ * savings snapshot.
+ */
+@Entity(tableName = "savings_contributions",
+        foreignKeys = @ForeignKey(entity = SavingsGoalEntity.class, parentColumns = "id",
+                childColumns = "goalId", onDelete = ForeignKey.CASCADE),
+        indices = @Index(value = { "goalId", "date" }))
+public class SavingsContributionEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private long goalId;
+    private double amount;
+    private long date;
+    private double runningTotal;
+    private long createdAt;
+    @ColumnInfo(defaultValue = "0")
+    private boolean opening;
+
+    public SavingsContributionEntity(long goalId, double amount, long date, double runningTotal,
+                                     long createdAt, boolean opening) {
+        this.goalId = goalId;
+        this.amount = amount;
+        this.date = date;
+        this.runningTotal = runningTotal;
+        this.createdAt = createdAt;
+        this.opening = opening;
+    }
+
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public long getGoalId() { return goalId; }
+    public void setGoalId(long goalId) { this.goalId = goalId; }
+
+    public double getAmount() { return amount; }
+    public void setAmount(double amount) { this.amount = amount; }
+
+    public long getDate() { return date; }
+    public void setDate(long date) { this.date = date; }
+
+    public double getRunningTotal() { return runningTotal; }
+    public void setRunningTotal(double runningTotal) { this.runningTotal = runningTotal; }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+
+    public boolean isOpening() { return opening; }
+    public void setOpening(boolean opening) { this.opening = opening; }
+}
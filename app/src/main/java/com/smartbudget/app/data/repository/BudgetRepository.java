@@ -7,16 +7,19 @@ import androidx.lifecycle.LiveData;
 import com.smartbudget.app.data.local.AppDatabase;
 import com.smartbudget.app.data.local.dao.BudgetDao;
 import com.smartbudget.app.data.local.entity.BudgetEntity;
+import com.smartbudget.app.utils.BudgetAlertService;
 
 import java.util.List;
 
 public class BudgetRepository {
 
     private final BudgetDao budgetDao;
+    private final BudgetAlertService budgetAlerts;
 
     public BudgetRepository(Application application) {
         AppDatabase database = AppDatabase.getDatabase(application);
         budgetDao = database.budgetDao();
+        budgetAlerts = BudgetAlertService.getInstance(application);
     }
 
     // Insert or Update - properly handle existing budgets
@@ -37,6 +40,7 @@ public class BudgetRepository {
                 // Insert new budget
                 budgetDao.insert(budget);
             }
+            budgetAlerts.invalidate();
         });
     }
 
@@ -44,6 +48,7 @@ public class BudgetRepository {
     public void delete(BudgetEntity budget) {
         AppDatabase.databaseWriteExecutor.execute(() -> {
             budgetDao.delete(budget);
+            budgetAlerts.invalidate();
         });
     }
 
@@ -7,22 +7,32 @@ import androidx.lifecycle.LiveData;
 import com.smartbudget.app.data.local.AppDatabase;
 import com.smartbudget.app.data.local.dao.CategoryDao;
 import com.smartbudget.app.data.local.entity.CategoryEntity;
+import com.smartbudget.app.utils.BudgetAlertService;
+import com.smartbudget.app.utils.SuggestionEngine;
 
 import java.util.List;
 
 public class CategoryRepository {
 
     private final CategoryDao categoryDao;
+    // Names and expense category ids change: reload the quick-add ranking
+    private final SuggestionEngine suggestions;
+    // Category types and deletes (expenses become SET NULL) change the budget running sums
+    private final BudgetAlertService budgetAlerts;
 
     public CategoryRepository(Application application) {
         AppDatabase database = AppDatabase.getDatabase(application);
         categoryDao = database.categoryDao();
+        suggestions = SuggestionEngine.getInstance(application);
+        budgetAlerts = BudgetAlertService.getInstance(application);
     }
 
     // Insert
     public void insert(CategoryEntity category) {
         AppDatabase.databaseWriteExecutor.execute(() -> {
             categoryDao.insert(category);
+            suggestions.invalidate();
+            budgetAlerts.invalidate();
         });
     }
 
@@ -30,6 +40,8 @@ public class CategoryRepository {
     public void update(CategoryEntity category) {
         AppDatabase.databaseWriteExecutor.execute(() -> {
             categoryDao.update(category);
+            suggestions.invalidate();
+            budgetAlerts.invalidate();
         });
     }
 
@@ -37,6 +49,8 @@ public class CategoryRepository {
     public void delete(CategoryEntity category) {
         AppDatabase.databaseWriteExecutor.execute(() -> {
             categoryDao.delete(category);
+            suggestions.invalidate();
+            budgetAlerts.invalidate();
         });
     }
 
@@ -5,55 +5,114 @@ import android.app.Application;
 import androidx.lifecycle.LiveData;
 
 import com.smartbudget.app.data.local.AppDatabase;
+import com.smartbudget.app.data.local.ExpenseLedger;
+import com.smartbudget.app.data.local.dao.CategoryDao;
 import com.smartbudget.app.data.local.dao.ExpenseDao;
 import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.utils.BudgetAlertService;
+import com.smartbudget.app.utils.EpochDays;
+import com.smartbudget.app.utils.SuggestionEngine;
+import com.smartbudget.app.utils.TransactionFrame;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ExpenseRepository {
 
+    // Bucket size for time-series queries
+    public enum Granularity {
+        DAY, WEEK, MONTH
+    }
+
+    private static final int TIME_SERIES_CACHE_SIZE = 8;
+
     private final ExpenseDao expenseDao;
+    private final CategoryDao categoryDao;
+    // All expense writes: the row and its audit ledger entry commit together
+    private final ExpenseLedger ledger;
+    // Notified after every committed write (budget thresholds)
+    private final BudgetAlertService budgetAlerts;
+    // Notified after every committed write (quick-add category ranking)
+    private final SuggestionEngine suggestions;
+
+    // Recently used time-series keyed by (range, granularity). Room LiveData keeps its last
+    // value, so switching back to a cached range re-emits immediately while it refreshes.
+    private final Map<String, LiveData<List<ExpenseDao.TimeBucketTotal>>> timeSeriesCache =
+            new LinkedHashMap<String, LiveData<List<ExpenseDao.TimeBucketTotal>>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<String, LiveData<List<ExpenseDao.TimeBucketTotal>>> eldest) {
+                    return size() > TIME_SERIES_CACHE_SIZE;
+                }
+            };
 
     public ExpenseRepository(Application application) {
         AppDatabase database = AppDatabase.getDatabase(application);
         expenseDao = database.expenseDao();
+        categoryDao = database.categoryDao();
+        ledger = database.expenseLedger();
+        budgetAlerts = BudgetAlertService.getInstance(application);
+        suggestions = SuggestionEngine.getInstance(application);
     }
 
     // Insert
     public void insert(ExpenseEntity expense) {
         AppDatabase.databaseWriteExecutor.execute(() -> {
-            expenseDao.insert(expense);
+            ledger.insert(expense);
+            budgetAlerts.onExpenseWritten(null, expense);
+            suggestions.onExpenseWritten(null, expense);
         });
     }
 
     public void insert(ExpenseEntity expense, OnExpenseInsertedListener listener) {
         AppDatabase.databaseWriteExecutor.execute(() -> {
-            long id = expenseDao.insert(expense);
+            long id = ledger.insert(expense);
+            budgetAlerts.onExpenseWritten(null, expense);
+            suggestions.onExpenseWritten(null, expense);
             if (listener != null) {
                 listener.onExpenseInserted(id);
             }
         });
     }
 
+    // Insert a reviewed batch (batch receipt scan): one transaction and one ledger append
+    public void insertAll(List<ExpenseEntity> expenses) {
+        if (expenses.isEmpty()) return;
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            ledger.insertAll(expenses);
+            for (ExpenseEntity expense : expenses) {
+                budgetAlerts.onExpenseWritten(null, expense);
+                suggestions.onExpenseWritten(null, expense);
+            }
+        });
+    }
+
     // Update
     public void update(ExpenseEntity expense) {
         expense.setUpdatedAt(System.currentTimeMillis());
         expense.setSynced(false);
         AppDatabase.databaseWriteExecutor.execute(() -> {
-            expenseDao.update(expense);
+            ExpenseEntity before = ledger.update(expense);
+            if (before != null) {
+                budgetAlerts.onExpenseWritten(before, expense);
+                suggestions.onExpenseWritten(before, expense);
+            }
         });
     }
 
     // Delete
     public void delete(ExpenseEntity expense) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            expenseDao.delete(expense);
-        });
+        deleteById(expense.getId());
     }
 
     public void deleteById(long id) {
         AppDatabase.databaseWriteExecutor.execute(() -> {
-            expenseDao.deleteById(id);
+            ExpenseEntity before = ledger.delete(id);
+            if (before != null) {
+                budgetAlerts.onExpenseWritten(before, null);
+                suggestions.onExpenseWritten(before, null);
+            }
         });
     }
 
@@ -97,6 +156,58 @@ public class ExpenseRepository {
         return expenseDao.getTotalIncomeByDateRange(startDate, endDate);
     }
 
+    // Get expense totals bucketed by day / ISO week / month
+    public LiveData<List<ExpenseDao.TimeBucketTotal>> getExpenseTimeSeries(long startDate, long endDate,
+                                                                           Granularity granularity) {
+        String key = startDate + ":" + endDate + ":" + granularity;
+        LiveData<List<ExpenseDao.TimeBucketTotal>> cached = timeSeriesCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long offset = getZoneOffset(startDate);
+        LiveData<List<ExpenseDao.TimeBucketTotal>> series;
+        switch (granularity) {
+            case WEEK:
+                series = expenseDao.getWeeklyExpenseTotals(startDate, endDate, offset);
+                break;
+            case MONTH:
+                series = expenseDao.getMonthlyExpenseTotals(startDate, endDate, offset);
+                break;
+            case DAY:
+            default:
+                series = expenseDao.getDailyExpenseTotals(startDate, endDate, offset);
+                break;
+        }
+        timeSeriesCache.put(key, series);
+        return series;
+    }
+
+    // Expenses that have a stored receipt image, newest first
+    public LiveData<List<ExpenseEntity>> getExpensesWithReceipts() {
+        return expenseDao.getExpensesWithReceipts();
+    }
+
+    // Receipt paths still referenced (must be called on a background thread)
+    public List<String> getReceiptPathsSync() {
+        return expenseDao.getReceiptPathsSync();
+    }
+
+    // Load a columnar analytics frame (must be called on a background thread)
+    public TransactionFrame loadTransactionFrame(long startDate, long endDate) {
+        return TransactionFrame.fromCursor(
+                expenseDao.getAnalyticsCursor(startDate, endDate),
+                categoryDao.getAllCategoriesSync());
+    }
+
+    /**
+     * Local zone offset applied to bucket math. A single offset is used for the whole range,
+     * so on DST transitions a few rows near midnight can land in the neighbouring bucket.
+     */
+    public static long getZoneOffset(long timestamp) {
+        return EpochDays.offsetAt(timestamp);
+    }
+
     // Callback interface
     public interface OnExpenseInsertedListener {
         void onExpenseInserted(long id);
@@ -2,13 +2,23 @@ package com.smartbudget.app.data.repository;
 
 import android.app.Application;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 
 import com.smartbudget.app.data.local.AppDatabase;
+import com.smartbudget.app.data.local.SavingsContributions;
 import com.smartbudget.app.data.local.dao.SavingsGoalDao;
 import com.smartbudget.app.data.local.entity.SavingsGoalEntity;
+import com.smartbudget.app.utils.SavingsProjection;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -23,7 +33,9 @@ import java.util.concurrent.Executors;
  * - LiveData support for reactive UI updates
  * - Background thread execution for database operations
  * - Goal progress tracking and completion management
+ * - Contribution history (deposits go through {@link SavingsContributions})
  * - Total savings calculation
+ * - One snapshot of goals, totals and projections for the savings screen
  * 
  * @author SmartBudget Development Team
  * @version 1.0
@@ -33,6 +45,9 @@ public class SavingsGoalRepository {
 
     /** Data Access Object for savings goals */
     private final SavingsGoalDao savingsGoalDao;
+
+    /** Deposits: contribution row and goal balance in one transaction */
+    private final SavingsContributions contributions;
     
     /** Executor service for background database operations */
     private final ExecutorService executorService;
@@ -52,6 +67,12 @@ public class SavingsGoalRepository {
     /** LiveData containing count of active goals */
     private final LiveData<Integer> activeGoalCount;
 
+    /** Pace window start of the snapshot query; moved by {@link #refreshSnapshotWindow} */
+    private final MutableLiveData<Long> snapshotWindow;
+
+    /** Goals, totals and projections for the savings screen */
+    private final LiveData<Snapshot> snapshot;
+
     /**
      * Constructor initializes the repository with application context.
      * Sets up the DAO and fetches initial LiveData objects.
@@ -61,6 +82,7 @@ public class SavingsGoalRepository {
     public SavingsGoalRepository(Application application) {
         AppDatabase database = AppDatabase.getInstance(application);
         savingsGoalDao = database.savingsGoalDao();
+        contributions = database.savingsContributions();
         executorService = Executors.newFixedThreadPool(2);
         
         allGoals = savingsGoalDao.getAllGoals();
@@ -68,6 +90,11 @@ public class SavingsGoalRepository {
         completedGoals = savingsGoalDao.getCompletedGoals();
         totalSavings = savingsGoalDao.getTotalSavings();
         activeGoalCount = savingsGoalDao.getActiveGoalCount();
+
+        snapshotWindow = new MutableLiveData<>(SavingsProjection.windowStart(System.currentTimeMillis()));
+        snapshot = Transformations.switchMap(snapshotWindow, since -> Transformations.map(
+                savingsGoalDao.getGoalProgress(since),
+                rows -> Snapshot.of(rows, since, System.currentTimeMillis())));
     }
 
     // ==================== CREATE Operations ====================
@@ -79,7 +106,7 @@ public class SavingsGoalRepository {
      * @param goal The SavingsGoalEntity to insert
      */
     public void insert(SavingsGoalEntity goal) {
-        executorService.execute(() -> savingsGoalDao.insert(goal));
+        executorService.execute(() -> contributions.insertGoal(goal));
     }
 
     /**
@@ -91,7 +118,7 @@ public class SavingsGoalRepository {
      */
     public void insertWithCallback(SavingsGoalEntity goal, InsertCallback callback) {
         executorService.execute(() -> {
-            long id = savingsGoalDao.insert(goal);
+            long id = contributions.insertGoal(goal);
             if (callback != null) {
                 callback.onInserted(id);
             }
@@ -167,6 +194,29 @@ public class SavingsGoalRepository {
         return activeGoalCount;
     }
 
+    /**
+     * Goals, totals and projections for the savings screen, from one query. Re-emits whenever a
+     * goal or contribution changes; each emission projects with the window start its sums were
+     * queried with.
+     *
+     * @return LiveData of the current snapshot
+     */
+    public LiveData<Snapshot> getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Re-queries the snapshot if its pace window has moved (a day has passed since the last
+     * query). Call on the main thread when the savings screen comes back to the foreground.
+     */
+    public void refreshSnapshotWindow() {
+        long since = SavingsProjection.windowStart(System.currentTimeMillis());
+        Long current = snapshotWindow.getValue();
+        if (current == null || current != since) {
+            snapshotWindow.setValue(since);
+        }
+    }
+
     // ==================== UPDATE Operations ====================
 
     /**
@@ -181,27 +231,20 @@ public class SavingsGoalRepository {
 
     /**
      * Adds a specified amount to a goal's current savings.
-     * This is the primary method for recording savings contributions.
+     * This is the primary method for recording savings contributions: the deposit is kept in
+     * the goal's history and the goal completes once the target is reached.
      * 
      * @param goalId The ID of the goal to contribute to
      * @param amount The amount to add to current savings
+     * @param callback Receives the goal after the deposit (null if it no longer exists); may be null
      */
-    public void addSavings(long goalId, double amount) {
-        executorService.execute(() -> savingsGoalDao.addSavings(goalId, amount));
-    }
-
-    /**
-     * Updates goal progress with new amount and completion status.
-     * Handles both the savings amount update and completion flag.
-     * 
-     * @param goalId The ID of the goal to update
-     * @param newAmount The new total saved amount
-     * @param isCompleted Whether the goal should be marked as completed
-     */
-    public void updateProgress(long goalId, double newAmount, boolean isCompleted) {
-        executorService.execute(() -> 
-            savingsGoalDao.updateProgress(goalId, newAmount, isCompleted)
-        );
+    public void addSavings(long goalId, double amount, @Nullable ContributionCallback callback) {
+        executorService.execute(() -> {
+            SavingsGoalEntity goal = contributions.add(goalId, amount, System.currentTimeMillis());
+            if (callback != null) {
+                callback.onContributed(goal);
+            }
+        });
     }
 
     /**
@@ -386,4 +429,64 @@ public class SavingsGoalRepository {
          */
         void onInserted(long id);
     }
+
+    /**
+     * Callback interface for deposits.
+     */
+    public interface ContributionCallback {
+        /**
+         * Called on a background thread when the deposit is written.
+         * 
+         * @param goal The goal after the deposit, or null if it was deleted meanwhile
+         */
+        void onContributed(@Nullable SavingsGoalEntity goal);
+    }
+
+    // ==================== Snapshot ====================
+
+    /**
+     * Everything the savings screen shows, built in one pass over the goal rows.
+     */
+    public static final class Snapshot {
+        /** Active goals, nearest deadline first */
+        public final List<SavingsGoalEntity> activeGoals;
+        /** Completed goals */
+        public final List<SavingsGoalEntity> completedGoals;
+        /** Saved across all goals */
+        public final double totalSaved;
+        /** Projection per goal id */
+        public final Map<Long, SavingsProjection> projections;
+
+        private Snapshot(List<SavingsGoalEntity> activeGoals, List<SavingsGoalEntity> completedGoals,
+                         double totalSaved, Map<Long, SavingsProjection> projections) {
+            this.activeGoals = Collections.unmodifiableList(activeGoals);
+            this.completedGoals = Collections.unmodifiableList(completedGoals);
+            this.totalSaved = totalSaved;
+            this.projections = Collections.unmodifiableMap(projections);
+        }
+
+        @NonNull
+        static Snapshot of(@Nullable List<SavingsGoalDao.GoalProgress> rows, long since, long now) {
+            List<SavingsGoalEntity> active = new ArrayList<>();
+            List<SavingsGoalEntity> completed = new ArrayList<>();
+            Map<Long, SavingsProjection> projections = new HashMap<>();
+            double totalSaved = 0;
+            if (rows != null) {
+                for (SavingsGoalDao.GoalProgress row : rows) {
+                    SavingsGoalEntity goal = row.goal;
+                    (goal.isCompleted() ? completed : active).add(goal);
+                    totalSaved += goal.getCurrentAmount();
+                    projections.put(goal.getId(), SavingsProjection.project(goal.getId(),
+                            goal.getTargetAmount(), goal.getCurrentAmount(), goal.isCompleted(),
+                            goal.getCreatedAt(), goal.getDeadline(), row.recentAmount, since, now));
+                }
+            }
+            return new Snapshot(active, completed, totalSaved, projections);
+        }
+
+        @Nullable
+        public SavingsProjection projectionOf(long goalId) {
+            return projections.get(goalId);
+        }
+    }
 }
@@ -3,8 +3,7 @@ package com.smartbudget.app.presentation;
 import android.annotation.SuppressLint;
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
+import android.os.Trace;
 import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.OvershootInterpolator;
 import android.content.SharedPreferences;
@@ -12,40 +11,52 @@ import android.content.SharedPreferences;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.smartbudget.app.databinding.ActivitySplashBinding;
+import com.smartbudget.app.startup.AppStartup;
 
 /**
  * Animated Splash Screen.
- * Shows app branding with smooth animations before navigating to MainActivity.
+ * Shows app branding with smooth animations until the first dashboard snapshot is
+ * loaded (see {@link AppStartup}), then navigates to MainActivity.
  */
 @SuppressLint("CustomSplashScreen")
 public class SplashActivity extends AppCompatActivity {
 
-    private static final long SPLASH_DURATION = 2000L;
+    // Upper bound on the splash when startup is unusually slow (first launch, old device)
+    private static final long MAX_SPLASH_MILLIS = 3000L;
     private ActivitySplashBinding binding;
+    private boolean navigated;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        Trace.beginSection("SplashActivity.onCreate");
         binding = ActivitySplashBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
         // Start animations
         animateLogo();
         animateText();
+        Trace.endSection();
 
-        // Navigate to MainActivity or Onboarding after delay
-        new Handler(Looper.getMainLooper()).postDelayed(() -> {
-            SharedPreferences prefs = getSharedPreferences("app_prefs", MODE_PRIVATE);
-            boolean isOnboardingCompleted = prefs.getBoolean("onboarding_completed", false);
+        // Leave as soon as the dashboard has its first data, instead of a fixed delay
+        SharedPreferences prefs = getSharedPreferences("app_prefs", MODE_PRIVATE);
+        boolean isOnboardingCompleted = prefs.getBoolean("onboarding_completed", false);
+        if (isOnboardingCompleted) {
+            AppStartup.whenReady(AppStartup.DASHBOARD_SNAPSHOT, MAX_SPLASH_MILLIS,
+                    () -> navigate(MainActivity.class));
+        } else {
+            // Onboarding does not read the database
+            binding.getRoot().post(() -> navigate(
+                    com.smartbudget.app.presentation.onboarding.OnboardingActivity.class));
+        }
+    }
 
-            if (isOnboardingCompleted) {
-                startActivity(new Intent(this, MainActivity.class));
-            } else {
-                startActivity(new Intent(this, com.smartbudget.app.presentation.onboarding.OnboardingActivity.class));
-            }
-            overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
-            finish();
-        }, SPLASH_DURATION);
+    private void navigate(Class<?> target) {
+        if (navigated || isFinishing() || isDestroyed()) return;
+        navigated = true;
+        startActivity(new Intent(this, target));
+        overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
+        finish();
     }
 
     private void animateLogo() {
@@ -7,8 +7,6 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.DiffUtil;
-import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.progressindicator.LinearProgressIndicator;
@@ -17,32 +15,99 @@ import com.smartbudget.app.data.local.entity.BudgetEntity;
 import com.smartbudget.app.data.local.entity.CategoryEntity;
 import com.smartbudget.app.utils.CurrencyUtils;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
-public class BudgetAdapter extends ListAdapter<BudgetEntity, BudgetAdapter.BudgetViewHolder> {
+public class BudgetAdapter extends DiffListAdapter<BudgetAdapter.BudgetRow, BudgetAdapter.BudgetViewHolder> {
+
+    // Row parts, reported by the row callback for partial rebinds
+    private static final int PART_CATEGORY = 1;
+    private static final int PART_PROGRESS = 1 << 1;
+    private static final int PART_AMOUNTS = 1 << 2;
+
+    private static final String TOTAL_ICON = "💰";
+    private static final String TOTAL_NAME = "Tổng ngân sách";
+
+    private static final int COLOR_OVER = Color.parseColor("#E74C3C");    // Red
+    private static final int COLOR_WARNING = Color.parseColor("#F39C12"); // Orange
+    private static final int COLOR_NORMAL = Color.parseColor("#1E3A5F");  // Primary
+    private static final int COLOR_NORMAL_TEXT = Color.parseColor("#6C757D");
 
     private Map<Long, CategoryEntity> categoryMap;
+    private List<BudgetEntity> currentBudgets;
 
     public BudgetAdapter(Map<Long, CategoryEntity> categoryMap) {
-        super(DIFF_CALLBACK);
+        super(ROW_CALLBACK);
         this.categoryMap = categoryMap;
     }
 
+    /**
+     * Shows the given budgets; rows are resolved against the current category map.
+     */
+    public void submitBudgets(List<BudgetEntity> budgets) {
+        currentBudgets = budgets == null ? null : new ArrayList<>(budgets);
+        submitList(buildRows());
+    }
+
     public void setCategoryMap(Map<Long, CategoryEntity> categoryMap) {
+        // Category edits reach the diff through the rows' icon/name, no full refresh needed
         this.categoryMap = categoryMap;
-        notifyDataSetChanged();
+        if (currentBudgets != null) {
+            submitList(buildRows());
+        }
+    }
+
+    private List<BudgetRow> buildRows() {
+        if (currentBudgets == null) return null;
+        List<BudgetRow> rows = new ArrayList<>(currentBudgets.size());
+        for (BudgetEntity budget : currentBudgets) {
+            CategoryEntity category = null;
+            if (budget.getCategoryId() != null && categoryMap != null) {
+                category = categoryMap.get(budget.getCategoryId());
+            }
+            rows.add(new BudgetRow(budget, category));
+        }
+        return rows;
+    }
+
+    /**
+     * Budget plus the category fields its row displays.
+     */
+    public static final class BudgetRow {
+        public final BudgetEntity budget;
+        final String icon;
+        final String categoryName;
+
+        BudgetRow(BudgetEntity budget, CategoryEntity category) {
+            this.budget = budget;
+            this.icon = category != null ? category.getIcon() : TOTAL_ICON;
+            this.categoryName = category != null ? category.getName() : TOTAL_NAME;
+        }
     }
 
-    private static final DiffUtil.ItemCallback<BudgetEntity> DIFF_CALLBACK = new DiffUtil.ItemCallback<BudgetEntity>() {
+    private static final RowCallback<BudgetRow> ROW_CALLBACK = new RowCallback<BudgetRow>() {
         @Override
-        public boolean areItemsTheSame(@NonNull BudgetEntity oldItem, @NonNull BudgetEntity newItem) {
-            return oldItem.getId() == newItem.getId();
+        public long getId(@NonNull BudgetRow item) {
+            return item.budget.getId();
         }
 
         @Override
-        public boolean areContentsTheSame(@NonNull BudgetEntity oldItem, @NonNull BudgetEntity newItem) {
-            return oldItem.getLimitAmount() == newItem.getLimitAmount() &&
-                    oldItem.getSpentAmount() == newItem.getSpentAmount();
+        public int getChanges(@NonNull BudgetRow oldItem, @NonNull BudgetRow newItem) {
+            int changes = 0;
+            if (!Objects.equals(oldItem.icon, newItem.icon) ||
+                    !Objects.equals(oldItem.categoryName, newItem.categoryName)) {
+                changes |= PART_CATEGORY;
+            }
+            if (oldItem.budget.getPercentageUsed() != newItem.budget.getPercentageUsed()) {
+                changes |= PART_PROGRESS;
+            }
+            if (oldItem.budget.getSpentAmount() != newItem.budget.getSpentAmount() ||
+                    oldItem.budget.getLimitAmount() != newItem.budget.getLimitAmount()) {
+                changes |= PART_AMOUNTS;
+            }
+            return changes;
         }
     };
 
@@ -55,9 +120,8 @@ public class BudgetAdapter extends ListAdapter<BudgetEntity, BudgetAdapter.Budge
     }
 
     @Override
-    public void onBindViewHolder(@NonNull BudgetViewHolder holder, int position) {
-        BudgetEntity budget = getItem(position);
-        holder.bind(budget, categoryMap);
+    protected void onBind(@NonNull BudgetViewHolder holder, @NonNull BudgetRow row, int changes) {
+        holder.bind(row, changes);
     }
 
     static class BudgetViewHolder extends RecyclerView.ViewHolder {
@@ -79,43 +143,40 @@ public class BudgetAdapter extends ListAdapter<BudgetEntity, BudgetAdapter.Budge
             tvLimit = itemView.findViewById(R.id.tv_limit);
         }
 
-        public void bind(BudgetEntity budget, Map<Long, CategoryEntity> categoryMap) {
-            // Get category info
-            CategoryEntity category = null;
-            if (budget.getCategoryId() != null && categoryMap != null) {
-                category = categoryMap.get(budget.getCategoryId());
-            }
+        public void bind(BudgetRow row, int changes) {
+            BudgetEntity budget = row.budget;
 
-            if (category != null) {
-                tvIcon.setText(category.getIcon());
-                tvCategory.setText(category.getName());
-            } else {
-                tvIcon.setText("💰");
-                tvCategory.setText("Tổng ngân sách");
+            if ((changes & PART_CATEGORY) != 0) {
+                tvIcon.setText(row.icon);
+                tvCategory.setText(row.categoryName);
             }
 
-            // Set percentage
-            int percentage = budget.getPercentageUsed();
-            tvPercentage.setText(percentage + "%");
-
-            // Set progress
-            progressBudget.setProgress(Math.min(percentage, 100));
-
-            // Set progress color based on usage
-            if (percentage >= 100) {
-                progressBudget.setIndicatorColor(Color.parseColor("#E74C3C")); // Red
-                tvPercentage.setTextColor(Color.parseColor("#E74C3C"));
-            } else if (percentage >= 80) {
-                progressBudget.setIndicatorColor(Color.parseColor("#F39C12")); // Orange
-                tvPercentage.setTextColor(Color.parseColor("#F39C12"));
-            } else {
-                progressBudget.setIndicatorColor(Color.parseColor("#1E3A5F")); // Primary
-                tvPercentage.setTextColor(Color.parseColor("#6C757D"));
+            if ((changes & PART_PROGRESS) != 0) {
+                // Set percentage
+                int percentage = budget.getPercentageUsed();
+                tvPercentage.setText(percentage + "%");
+
+                // Set progress
+                progressBudget.setProgress(Math.min(percentage, 100));
+
+                // Set progress color based on usage
+                if (percentage >= 100) {
+                    progressBudget.setIndicatorColor(COLOR_OVER);
+                    tvPercentage.setTextColor(COLOR_OVER);
+                } else if (percentage >= 80) {
+                    progressBudget.setIndicatorColor(COLOR_WARNING);
+                    tvPercentage.setTextColor(COLOR_WARNING);
+                } else {
+                    progressBudget.setIndicatorColor(COLOR_NORMAL);
+                    tvPercentage.setTextColor(COLOR_NORMAL_TEXT);
+                }
             }
 
             // Set amounts
-            tvSpent.setText("Đã chi: " + CurrencyUtils.formatVND(budget.getSpentAmount()));
-            tvLimit.setText("Giới hạn: " + CurrencyUtils.formatVND(budget.getLimitAmount()));
+            if ((changes & PART_AMOUNTS) != 0) {
+                tvSpent.setText("Đã chi: " + CurrencyUtils.formatVND(budget.getSpentAmount()));
+                tvLimit.setText("Giới hạn: " + CurrencyUtils.formatVND(budget.getLimitAmount()));
+            }
         }
     }
 }
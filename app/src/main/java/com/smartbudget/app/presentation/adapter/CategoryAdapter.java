@@ -9,14 +9,25 @@ import android.widget.FrameLayout;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.DiffUtil;
-import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.smartbudget.app.R;
 import com.smartbudget.app.data.local.entity.CategoryEntity;
 
-public class CategoryAdapter extends ListAdapter<CategoryEntity, CategoryAdapter.CategoryViewHolder> {
+import java.util.List;
+import java.util.Objects;
+
+public class CategoryAdapter extends DiffListAdapter<CategoryEntity, CategoryAdapter.CategoryViewHolder> {
+
+    // Row parts, reported by the row callback for partial rebinds
+    private static final int PART_NAME = 1;
+    private static final int PART_ICON = 1 << 1;
+    /** Selection only depends on the adapter, so it is refreshed through notifyPartChanged */
+    private static final int PART_SELECTION = 1 << 2;
+
+    private static final int COLOR_FALLBACK = Color.parseColor("#E0E0E0");
+    private static final int COLOR_SELECTED_TEXT = Color.parseColor("#1E3A5F");
+    private static final int COLOR_TEXT = Color.parseColor("#6C757D");
 
     private OnCategorySelectedListener listener;
     private long selectedCategoryId = -1;
@@ -26,7 +37,7 @@ public class CategoryAdapter extends ListAdapter<CategoryEntity, CategoryAdapter
     }
 
     public CategoryAdapter() {
-        super(DIFF_CALLBACK);
+        super(ROW_CALLBACK);
     }
 
     public void setOnCategorySelectedListener(OnCategorySelectedListener listener) {
@@ -37,25 +48,33 @@ public class CategoryAdapter extends ListAdapter<CategoryEntity, CategoryAdapter
         long oldSelected = this.selectedCategoryId;
         this.selectedCategoryId = categoryId;
 
-        // Notify changed items
-        for (int i = 0; i < getCurrentList().size(); i++) {
-            CategoryEntity cat = getItem(i);
-            if (cat.getId() == oldSelected || cat.getId() == categoryId) {
-                notifyItemChanged(i);
+        // Only the two affected rows restyle their selection state
+        List<CategoryEntity> categories = getCurrentList();
+        for (int i = 0; i < categories.size(); i++) {
+            long id = categories.get(i).getId();
+            if (id == oldSelected || id == categoryId) {
+                notifyPartChanged(i, PART_SELECTION);
             }
         }
     }
 
-    private static final DiffUtil.ItemCallback<CategoryEntity> DIFF_CALLBACK = new DiffUtil.ItemCallback<CategoryEntity>() {
+    private static final RowCallback<CategoryEntity> ROW_CALLBACK = new RowCallback<CategoryEntity>() {
         @Override
-        public boolean areItemsTheSame(@NonNull CategoryEntity oldItem, @NonNull CategoryEntity newItem) {
-            return oldItem.getId() == newItem.getId();
+        public long getId(@NonNull CategoryEntity item) {
+            return item.getId();
         }
 
         @Override
-        public boolean areContentsTheSame(@NonNull CategoryEntity oldItem, @NonNull CategoryEntity newItem) {
-            return oldItem.getName().equals(newItem.getName()) &&
-                    oldItem.getIcon().equals(newItem.getIcon());
+        public int getChanges(@NonNull CategoryEntity oldItem, @NonNull CategoryEntity newItem) {
+            int changes = 0;
+            if (!Objects.equals(oldItem.getName(), newItem.getName())) {
+                changes |= PART_NAME;
+            }
+            if (!Objects.equals(oldItem.getIcon(), newItem.getIcon()) ||
+                    !Objects.equals(oldItem.getColor(), newItem.getColor())) {
+                changes |= PART_ICON;
+            }
+            return changes;
         }
     };
 
@@ -64,14 +83,21 @@ public class CategoryAdapter extends ListAdapter<CategoryEntity, CategoryAdapter
     public CategoryViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_category, parent, false);
-        return new CategoryViewHolder(view);
+        CategoryViewHolder holder = new CategoryViewHolder(view);
+        view.setOnClickListener(v -> {
+            CategoryEntity category = getItemAt(holder);
+            if (category == null) return;
+            setSelectedCategoryId(category.getId());
+            if (listener != null) {
+                listener.onCategorySelected(category);
+            }
+        });
+        return holder;
     }
 
     @Override
-    public void onBindViewHolder(@NonNull CategoryViewHolder holder, int position) {
-        CategoryEntity category = getItem(position);
-        boolean isSelected = category.getId() == selectedCategoryId;
-        holder.bind(category, isSelected, listener, this);
+    protected void onBind(@NonNull CategoryViewHolder holder, @NonNull CategoryEntity category, int changes) {
+        holder.bind(category, category.getId() == selectedCategoryId, changes);
     }
 
     static class CategoryViewHolder extends RecyclerView.ViewHolder {
@@ -80,45 +106,47 @@ public class CategoryAdapter extends ListAdapter<CategoryEntity, CategoryAdapter
         private final TextView tvName;
         private final FrameLayout flIconBg;
 
+        // One background per holder, recolored on bind
+        private final GradientDrawable iconDrawable = new GradientDrawable();
+
         public CategoryViewHolder(@NonNull View itemView) {
             super(itemView);
             tvIcon = itemView.findViewById(R.id.tv_icon);
             tvName = itemView.findViewById(R.id.tv_name);
             flIconBg = itemView.findViewById(R.id.fl_icon_bg);
+            iconDrawable.setShape(GradientDrawable.OVAL);
+            flIconBg.setBackground(iconDrawable);
         }
 
-        public void bind(CategoryEntity category, boolean isSelected,
-                OnCategorySelectedListener listener, CategoryAdapter adapter) {
-            tvIcon.setText(category.getIcon());
-            tvName.setText(category.getName());
-
-            // Set background color
-            GradientDrawable drawable = new GradientDrawable();
-            drawable.setShape(GradientDrawable.OVAL);
-
-            try {
-                int color = Color.parseColor(category.getColor());
-                if (isSelected) {
-                    drawable.setColor(color);
-                    drawable.setStroke(4, color);
-                } else {
-                    drawable.setColor(color & 0x33FFFFFF | 0x33000000); // 20% opacity
-                }
-            } catch (Exception e) {
-                drawable.setColor(Color.parseColor("#E0E0E0"));
+        public void bind(CategoryEntity category, boolean isSelected, int changes) {
+            if ((changes & PART_ICON) != 0) {
+                tvIcon.setText(category.getIcon());
+            }
+            if ((changes & PART_NAME) != 0) {
+                tvName.setText(category.getName());
             }
 
-            flIconBg.setBackground(drawable);
+            if ((changes & (PART_ICON | PART_SELECTION)) != 0) {
+                // Set background color
+                try {
+                    int color = Color.parseColor(category.getColor());
+                    if (isSelected) {
+                        iconDrawable.setColor(color);
+                        iconDrawable.setStroke(4, color);
+                    } else {
+                        iconDrawable.setColor(color & 0x33FFFFFF | 0x33000000); // 20% opacity
+                        iconDrawable.setStroke(0, Color.TRANSPARENT);
+                    }
+                } catch (Exception e) {
+                    iconDrawable.setColor(COLOR_FALLBACK);
+                    iconDrawable.setStroke(0, Color.TRANSPARENT);
+                }
+            }
 
             // Text color based on selection
-            tvName.setTextColor(isSelected ? Color.parseColor("#1E3A5F") : Color.parseColor("#6C757D"));
-
-            itemView.setOnClickListener(v -> {
-                adapter.setSelectedCategoryId(category.getId());
-                if (listener != null) {
-                    listener.onCategorySelected(category);
-                }
-            });
+            if ((changes & PART_SELECTION) != 0) {
+                tvName.setTextColor(isSelected ? COLOR_SELECTED_TEXT : COLOR_TEXT);
+            }
         }
     }
 }
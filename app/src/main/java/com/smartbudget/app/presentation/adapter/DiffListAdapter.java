@@ -0,0 +1,183 @@
+package com.smartbudget.app.presentation.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Base adapter for every list in the app: diffs on a background thread and rebinds only the
+ * parts of a row that actually changed.
+ *
+ * <p>Subclasses describe their rows with a {@link RowCallback}: a stable id per item and a
+ * bitmask of changed parts between two versions of the same item. The mask is both the
+ * content-equality check (0 = unchanged) and the change payload, so {@link #onBind} receives
+ * exactly which parts to refresh - {@link #CHANGED_ALL} on a fresh bind.</p>
+ *
+ * <h3>Usage:</h3>
+ * <pre>
+ * class GoalAdapter extends DiffListAdapter&lt;SavingsGoalEntity, GoalViewHolder&gt; {
+ *     GoalAdapter() { super(CALLBACK); }
+ *     protected void onBind(GoalViewHolder holder, SavingsGoalEntity goal, int changes) {
+ *         if ((changes &amp; PART_PROGRESS) != 0) holder.bindProgress(goal);
+ *     }
+ * }
+ * </pre>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public abstract class DiffListAdapter<T, VH extends RecyclerView.ViewHolder> extends RecyclerView.Adapter<VH> {
+
+    /** Change mask passed to {@link #onBind} when the whole row must be bound */
+    public static final int CHANGED_ALL = ~0;
+
+    // Shared by all adapters; two daemon threads like ListAdapter's default, but created once
+    private static final ExecutorService DIFF_EXECUTOR = Executors.newFixedThreadPool(2, new ThreadFactory() {
+        private int count;
+
+        @Override
+        public synchronized Thread newThread(@NonNull Runnable r) {
+            Thread thread = new Thread(r, "list-diff-" + (++count));
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    });
+
+    private final AsyncListDiffer<T> differ;
+    private final RowCallback<T> callback;
+
+    protected DiffListAdapter(@NonNull RowCallback<T> callback) {
+        this.callback = callback;
+        this.differ = new AsyncListDiffer<>(new AdapterListUpdateCallback(this),
+                new AsyncDifferConfig.Builder<>(callback)
+                        .setBackgroundThreadExecutor(DIFF_EXECUTOR)
+                        .build());
+        setHasStableIds(true);
+    }
+
+    // ==================== LIST ====================
+
+    /**
+     * Submits a new list; the diff runs in the background and is dispatched on the main thread.
+     * The list must not be mutated afterwards.
+     */
+    public void submitList(@Nullable List<T> list) {
+        differ.submitList(list);
+    }
+
+    /**
+     * Same as {@link #submitList(List)}, running {@code commitCallback} once the list is displayed.
+     */
+    public void submitList(@Nullable List<T> list, @Nullable Runnable commitCallback) {
+        differ.submitList(list, commitCallback);
+    }
+
+    @NonNull
+    public List<T> getCurrentList() {
+        return differ.getCurrentList();
+    }
+
+    protected T getItem(int position) {
+        return differ.getCurrentList().get(position);
+    }
+
+    @Override
+    public int getItemCount() {
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public final long getItemId(int position) {
+        return callback.getId(getItem(position));
+    }
+
+    /**
+     * Item at the holder's current adapter position, or null if the holder is being removed.
+     * Lets one click listener per holder serve every item it is rebound to.
+     */
+    @Nullable
+    protected T getItemAt(@NonNull RecyclerView.ViewHolder holder) {
+        int position = holder.getAdapterPosition();
+        if (position == RecyclerView.NO_POSITION || position >= getItemCount()) {
+            return null;
+        }
+        return getItem(position);
+    }
+
+    // ==================== BINDING ====================
+
+    @Override
+    public final void onBindViewHolder(@NonNull VH holder, int position) {
+        onBind(holder, getItem(position), CHANGED_ALL);
+    }
+
+    @Override
+    public final void onBindViewHolder(@NonNull VH holder, int position, @NonNull List<Object> payloads) {
+        int changes = 0;
+        for (Object payload : payloads) {
+            if (!(payload instanceof Integer)) {
+                changes = CHANGED_ALL;
+                break;
+            }
+            changes |= (Integer) payload;
+        }
+        onBind(holder, getItem(position), payloads.isEmpty() ? CHANGED_ALL : changes);
+    }
+
+    /**
+     * Binds the parts of {@code item} selected by {@code changes}.
+     *
+     * @param changes Bitmask from {@link RowCallback#getChanges}, or {@link #CHANGED_ALL}
+     */
+    protected abstract void onBind(@NonNull VH holder, @NonNull T item, int changes);
+
+    /**
+     * Rebinds only the given parts of the row at {@code position}.
+     */
+    protected void notifyPartChanged(int position, int parts) {
+        notifyItemChanged(position, parts);
+    }
+
+    // ==================== CALLBACK ====================
+
+    /**
+     * Identity and content comparison for one row type.
+     */
+    public abstract static class RowCallback<T> extends DiffUtil.ItemCallback<T> {
+
+        /** Stable id of an item, used for both identity and {@link RecyclerView.Adapter#getItemId}. */
+        public abstract long getId(@NonNull T item);
+
+        /**
+         * Bitmask of the rendered parts that differ between two versions of the same item;
+         * 0 means the row looks the same. Must cover every field the row displays.
+         */
+        public abstract int getChanges(@NonNull T oldItem, @NonNull T newItem);
+
+        @Override
+        public final boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+            return getId(oldItem) == getId(newItem);
+        }
+
+        @Override
+        public final boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+            return getChanges(oldItem, newItem) == 0;
+        }
+
+        @Nullable
+        @Override
+        public final Object getChangePayload(@NonNull T oldItem, @NonNull T newItem) {
+            return getChanges(oldItem, newItem);
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.smartbudget.app.presentation.adapter;
 
-import android.graphics.Color;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.graphics.drawable.Drawable;
 import android.graphics.drawable.GradientDrawable;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,21 +15,29 @@ import android.widget.FrameLayout;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.DiffUtil;
-import androidx.recyclerview.widget.ListAdapter;
+import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.smartbudget.app.R;
 import com.smartbudget.app.data.local.entity.CategoryEntity;
 import com.smartbudget.app.data.local.entity.ExpenseEntity;
-import com.smartbudget.app.utils.CurrencyUtils;
-import com.smartbudget.app.utils.DateUtils;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-public class ExpenseAdapter extends ListAdapter<ExpenseEntity, ExpenseAdapter.ExpenseViewHolder> {
+public class ExpenseAdapter extends DiffListAdapter<ExpenseRowModel, ExpenseAdapter.ExpenseViewHolder> {
+
+    // Row mapping (formatting, color parsing) runs off the main thread, one batch at a time
+    private static final ExecutorService MAPPING_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
 
     private Map<Long, CategoryEntity> categoryMap;
+    private List<ExpenseEntity> currentExpenses;
+    private int mappingGeneration;
     private OnItemClickListener listener;
 
     public interface OnItemClickListener {
@@ -36,19 +50,73 @@ public class ExpenseAdapter extends ListAdapter<ExpenseEntity, ExpenseAdapter.Ex
 
     private OnItemSwipeListener swipeListener;
 
+    // "Hôm nay" / "Hôm qua" shift at midnight and on clock or zone changes; rebind the dates.
+    // Posted so the app's zone reset (SmartBudgetApp) has run before the labels are rebuilt.
+    private final BroadcastReceiver dayChangeReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            MAIN_HANDLER.post(() -> rebindDates());
+        }
+    };
+    // Listens only while the list is on screen; fragments drop their views without detaching adapters
+    private final View.OnAttachStateChangeListener windowListener = new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(@NonNull View v) {
+            registerDayChanges(v.getContext());
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(@NonNull View v) {
+            unregisterDayChanges();
+        }
+    };
+    private Context receiverContext;
+
+    // Single listener shared by every row; resolves the row from the holder position
+    private final View.OnClickListener rowClickListener = v -> {
+        if (!(v.getParent() instanceof RecyclerView)) return;
+        RecyclerView.ViewHolder holder = ((RecyclerView) v.getParent()).findContainingViewHolder(v);
+        ExpenseRowModel row = holder != null ? getItemAt(holder) : null;
+        if (listener != null && row != null) {
+            listener.onItemClick(row.expense);
+        }
+    };
+
     public ExpenseAdapter(Map<Long, CategoryEntity> categoryMap) {
-        super(DIFF_CALLBACK);
+        super(ROW_CALLBACK);
         this.categoryMap = categoryMap;
     }
 
     public void setCategoryMap(Map<Long, CategoryEntity> categoryMap) {
-        this.categoryMap = categoryMap;
-        notifyDataSetChanged();
+        // Snapshot so the background mapper never sees the caller mutating the map
+        this.categoryMap = new HashMap<>(categoryMap);
+        if (currentExpenses != null) {
+            remap();
+        }
     }
 
-    public void updateExpenses(java.util.List<ExpenseEntity> expenses) {
-        // Create new list to force DiffUtil to properly detect changes
-        submitList(expenses == null ? null : new java.util.ArrayList<>(expenses));
+    public void updateExpenses(List<ExpenseEntity> expenses) {
+        currentExpenses = expenses == null ? null : new ArrayList<>(expenses);
+        remap();
+    }
+
+    private void remap() {
+        final int generation = ++mappingGeneration;
+        final List<ExpenseEntity> expenses = currentExpenses;
+        final Map<Long, CategoryEntity> categories = categoryMap;
+        if (expenses == null) {
+            submitList(null);
+            return;
+        }
+        MAPPING_EXECUTOR.execute(() -> {
+            List<ExpenseRowModel> rows = ExpenseRowModel.mapAll(expenses, categories);
+            MAIN_HANDLER.post(() -> {
+                // Drop results superseded by a newer update
+                if (generation == mappingGeneration) {
+                    submitList(rows);
+                }
+            });
+        });
     }
 
     public void setOnItemClickListener(OnItemClickListener listener) {
@@ -60,39 +128,79 @@ public class ExpenseAdapter extends ListAdapter<ExpenseEntity, ExpenseAdapter.Ex
     }
 
     public ExpenseEntity getExpenseAt(int position) {
-        return getItem(position);
+        return getItem(position).expense;
     }
 
-    private static final DiffUtil.ItemCallback<ExpenseEntity> DIFF_CALLBACK = new DiffUtil.ItemCallback<ExpenseEntity>() {
+    private static final RowCallback<ExpenseRowModel> ROW_CALLBACK = new RowCallback<ExpenseRowModel>() {
         @Override
-        public boolean areItemsTheSame(@NonNull ExpenseEntity oldItem, @NonNull ExpenseEntity newItem) {
-            return oldItem.getId() == newItem.getId();
+        public long getId(@NonNull ExpenseRowModel item) {
+            return item.id;
         }
 
         @Override
-        public boolean areContentsTheSame(@NonNull ExpenseEntity oldItem, @NonNull ExpenseEntity newItem) {
-            return oldItem.getAmount() == newItem.getAmount() &&
-                    oldItem.getDate() == newItem.getDate() &&
-                    (oldItem.getNote() == null ? newItem.getNote() == null
-                            : oldItem.getNote().equals(newItem.getNote()));
+        public int getChanges(@NonNull ExpenseRowModel oldItem, @NonNull ExpenseRowModel newItem) {
+            return newItem.changesFrom(oldItem);
         }
     };
 
+    // ==================== Day Changes ====================
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        recyclerView.addOnAttachStateChangeListener(windowListener);
+        if (recyclerView.isAttachedToWindow()) {
+            registerDayChanges(recyclerView.getContext());
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        recyclerView.removeOnAttachStateChangeListener(windowListener);
+        unregisterDayChanges();
+    }
+
+    private void registerDayChanges(Context context) {
+        if (receiverContext != null) return;
+        IntentFilter filter = new IntentFilter(Intent.ACTION_DATE_CHANGED);
+        filter.addAction(Intent.ACTION_TIME_CHANGED);
+        filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        receiverContext = context;
+        receiverContext.registerReceiver(dayChangeReceiver, filter);
+        // The day may have changed while the list was off screen
+        rebindDates();
+    }
+
+    private void unregisterDayChanges() {
+        if (receiverContext == null) return;
+        receiverContext.unregisterReceiver(dayChangeReceiver);
+        receiverContext = null;
+    }
+
+    private void rebindDates() {
+        if (getItemCount() > 0) {
+            notifyItemRangeChanged(0, getItemCount(), ExpenseRowModel.PART_DATE);
+        }
+    }
+
     @NonNull
     @Override
     public ExpenseViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_expense, parent, false);
+        view.setOnClickListener(rowClickListener);
         return new ExpenseViewHolder(view);
     }
 
     @Override
-    public void onBindViewHolder(@NonNull ExpenseViewHolder holder, int position) {
-        ExpenseEntity expense = getItem(position);
-        holder.bind(expense, categoryMap, listener);
-        
-        // Add staggered animation
-        com.smartbudget.app.utils.AnimationHelper.animateListItem(holder, position);
+    protected void onBind(@NonNull ExpenseViewHolder holder, @NonNull ExpenseRowModel row, int changes) {
+        holder.bind(row, changes);
+
+        // Add staggered animation (full binds only - partial updates must not replay it)
+        if (changes == CHANGED_ALL) {
+            com.smartbudget.app.utils.AnimationHelper.animateListItem(holder, holder.getAdapterPosition());
+        }
     }
 
     static class ExpenseViewHolder extends RecyclerView.ViewHolder {
@@ -104,6 +212,13 @@ public class ExpenseAdapter extends ListAdapter<ExpenseEntity, ExpenseAdapter.Ex
         private final TextView tvDate;
         private final FrameLayout iconBackground;
 
+        // Resolved once per holder instead of per bind
+        private final Drawable defaultIconBackground;
+        private final GradientDrawable tintedIconBackground;
+        private final int expenseColor;
+        private final int incomeColor;
+        private final int neutralColor;
+
         public ExpenseViewHolder(@NonNull View itemView) {
             super(itemView);
             tvCategoryIcon = itemView.findViewById(R.id.tv_category_icon);
@@ -112,64 +227,59 @@ public class ExpenseAdapter extends ListAdapter<ExpenseEntity, ExpenseAdapter.Ex
             tvAmount = itemView.findViewById(R.id.tv_amount);
             tvDate = itemView.findViewById(R.id.tv_date);
             iconBackground = (FrameLayout) tvCategoryIcon.getParent();
+
+            defaultIconBackground = iconBackground.getBackground();
+            tintedIconBackground = new GradientDrawable();
+            tintedIconBackground.setShape(GradientDrawable.OVAL);
+            expenseColor = ContextCompat.getColor(itemView.getContext(), R.color.expense_color);
+            incomeColor = ContextCompat.getColor(itemView.getContext(), R.color.income_color);
+            neutralColor = tvAmount.getCurrentTextColor();
         }
 
-        public void bind(ExpenseEntity expense, Map<Long, CategoryEntity> categoryMap,
-                OnItemClickListener listener) {
-            // Get category info
-            CategoryEntity category = null;
-            if (expense.getCategoryId() != null && categoryMap != null) {
-                category = categoryMap.get(expense.getCategoryId());
-            }
+        public void bind(ExpenseRowModel row, int changes) {
+            if ((changes & ExpenseRowModel.PART_ICON) != 0) {
+                tvCategoryIcon.setText(row.icon);
 
-            if (category != null) {
-                tvCategoryIcon.setText(category.getIcon());
-                tvCategoryName.setText(category.getName());
-
-                // Set icon background color
-                try {
-                    GradientDrawable drawable = new GradientDrawable();
-                    drawable.setShape(GradientDrawable.OVAL);
-                    drawable.setColor(Color.parseColor(category.getColor()) & 0x33FFFFFF | 0x33000000);
-                    iconBackground.setBackground(drawable);
-                } catch (Exception e) {
-                    // Use default background
+                // Icon background: reuse this holder's drawable, only the color changes
+                if (row.hasIconTint) {
+                    tintedIconBackground.setColor(row.iconTint);
+                    if (iconBackground.getBackground() != tintedIconBackground) {
+                        iconBackground.setBackground(tintedIconBackground);
+                    }
+                } else if (iconBackground.getBackground() != defaultIconBackground) {
+                    iconBackground.setBackground(defaultIconBackground);
                 }
+            }
+
+            if ((changes & ExpenseRowModel.PART_NAME) != 0) {
+                tvCategoryName.setText(row.categoryName);
+            }
 
-                // Set amount color based on type
-                if (category.isExpense()) {
-                    tvAmount.setText(CurrencyUtils.formatVNDWithSign(expense.getAmount(), true));
-                    tvAmount.setTextColor(androidx.core.content.ContextCompat.getColor(
-                            itemView.getContext(), R.color.expense_color));
+            if ((changes & ExpenseRowModel.PART_AMOUNT) != 0) {
+                tvAmount.setText(row.amountText);
+                if (row.amountType == ExpenseRowModel.AMOUNT_EXPENSE) {
+                    tvAmount.setTextColor(expenseColor);
+                } else if (row.amountType == ExpenseRowModel.AMOUNT_INCOME) {
+                    tvAmount.setTextColor(incomeColor);
                 } else {
-                    tvAmount.setText(CurrencyUtils.formatVNDWithSign(expense.getAmount(), false));
-                    tvAmount.setTextColor(androidx.core.content.ContextCompat.getColor(
-                            itemView.getContext(), R.color.income_color));
+                    tvAmount.setTextColor(neutralColor);
                 }
-            } else {
-                tvCategoryIcon.setText("📦");
-                tvCategoryName.setText("Khác");
-                tvAmount.setText(CurrencyUtils.formatVND(expense.getAmount()));
             }
 
             // Set note
-            String note = expense.getNote();
-            if (note != null && !note.isEmpty()) {
-                tvNote.setText(note);
-                tvNote.setVisibility(View.VISIBLE);
-            } else {
-                tvNote.setVisibility(View.GONE);
+            if ((changes & ExpenseRowModel.PART_NOTE) != 0) {
+                if (row.note != null) {
+                    tvNote.setText(row.note);
+                    tvNote.setVisibility(View.VISIBLE);
+                } else {
+                    tvNote.setVisibility(View.GONE);
+                }
             }
 
             // Set date
-            tvDate.setText(DateUtils.getRelativeDate(expense.getDate()));
-
-            // Click listener
-            itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onItemClick(expense);
-                }
-            });
+            if ((changes & ExpenseRowModel.PART_DATE) != 0) {
+                tvDate.setText(row.dateLabel());
+            }
         }
     }
 }
@@ -0,0 +1,160 @@
+package com.smartbudget.app.presentation.adapter;
+
+import android.graphics.Color;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.smartbudget.app.data.local.entity.CategoryEntity;
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.utils.CurrencyConverter;
+import com.smartbudget.app.utils.CurrencyUtils;
+import com.smartbudget.app.utils.EpochDays;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, display-ready row for {@link ExpenseAdapter}.
+ *
+ * <p>Everything bind() needs - formatted amount, local day, category icon/name and the
+ * parsed icon tint - is computed once by {@link #mapAll} on a background thread, so binding
+ * a row only assigns precomputed values to views. The relative date label ("Hôm nay") is the
+ * exception: it depends on the current day, so {@link #dateLabel()} resolves it at bind time
+ * from the cached label table.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class ExpenseRowModel {
+
+    /** Amount shown as "-x ₫" in the expense color */
+    public static final int AMOUNT_EXPENSE = 0;
+    /** Amount shown as "+x ₫" in the income color */
+    public static final int AMOUNT_INCOME = 1;
+    /** Uncategorized row, amount shown without sign */
+    public static final int AMOUNT_NEUTRAL = 2;
+
+    // Row parts, reported by changesFrom() for partial rebinds
+    public static final int PART_ICON = 1;
+    public static final int PART_NAME = 1 << 1;
+    public static final int PART_NOTE = 1 << 2;
+    public static final int PART_AMOUNT = 1 << 3;
+    public static final int PART_DATE = 1 << 4;
+
+    private static final String DEFAULT_ICON = "📦";
+    private static final String DEFAULT_NAME = "Khác";
+
+    /** Source entity, handed back to click / swipe callbacks */
+    public final ExpenseEntity expense;
+    public final long id;
+    public final String icon;
+    public final String categoryName;
+    @Nullable
+    public final String note;
+    public final String amountText;
+    public final int amountType;
+    /** Local day index of the expense ({@link EpochDays#dayIndex}) */
+    public final int day;
+    public final boolean hasIconTint;
+    public final int iconTint;
+
+    private ExpenseRowModel(ExpenseEntity expense, String icon, String categoryName, String amountText,
+                            int amountType, boolean hasIconTint, int iconTint) {
+        this.expense = expense;
+        this.id = expense.getId();
+        this.icon = icon;
+        this.categoryName = categoryName;
+        String rawNote = expense.getNote();
+        this.note = rawNote != null && !rawNote.isEmpty() ? rawNote : null;
+        this.amountText = amountText;
+        this.amountType = amountType;
+        this.day = EpochDays.dayIndex(expense.getDate());
+        this.hasIconTint = hasIconTint;
+        this.iconTint = iconTint;
+    }
+
+    /**
+     * Maps entities to row models. Category colors are parsed once per category per batch.
+     * Safe to call off the main thread.
+     */
+    @NonNull
+    public static List<ExpenseRowModel> mapAll(@NonNull List<ExpenseEntity> expenses,
+                                               @Nullable Map<Long, CategoryEntity> categoryMap) {
+        List<ExpenseRowModel> rows = new ArrayList<>(expenses.size());
+        Map<Long, Integer> tints = new HashMap<>();
+        for (ExpenseEntity expense : expenses) {
+            CategoryEntity category = null;
+            if (expense.getCategoryId() != null && categoryMap != null) {
+                category = categoryMap.get(expense.getCategoryId());
+            }
+            rows.add(create(expense, category, tints));
+        }
+        return rows;
+    }
+
+    private static ExpenseRowModel create(ExpenseEntity expense, @Nullable CategoryEntity category,
+                                          Map<Long, Integer> tints) {
+        if (category == null) {
+            return new ExpenseRowModel(expense, DEFAULT_ICON, DEFAULT_NAME,
+                    formatAmount(expense, null), AMOUNT_NEUTRAL, false, 0);
+        }
+
+        Integer tint = tints.get(category.getId());
+        if (tint == null) {
+            tint = parseTint(category.getColor());
+            tints.put(category.getId(), tint);
+        }
+
+        boolean isExpense = category.isExpense();
+        return new ExpenseRowModel(expense, category.getIcon(), category.getName(),
+                formatAmount(expense, isExpense),
+                isExpense ? AMOUNT_EXPENSE : AMOUNT_INCOME,
+                tint != Color.TRANSPARENT, tint);
+    }
+
+    /** In the expense's own currency; {@code isExpense} null for no sign. */
+    private static String formatAmount(ExpenseEntity expense, @Nullable Boolean isExpense) {
+        if (CurrencyConverter.BASE_CURRENCY.equals(expense.getCurrency())) {
+            return isExpense == null ? CurrencyUtils.formatVND(expense.getAmount())
+                    : CurrencyUtils.formatVNDWithSign(expense.getAmount(), isExpense);
+        }
+        String amount = CurrencyConverter.formatMinor(Math.abs(expense.getAmountMinor()), expense.getCurrency());
+        return isExpense == null ? amount : (isExpense ? "-" : "+") + amount;
+    }
+
+    // Category color at 20% alpha, TRANSPARENT when the hex string is invalid
+    private static int parseTint(String color) {
+        try {
+            return Color.parseColor(color) & 0x33FFFFFF | 0x33000000;
+        } catch (Exception e) {
+            return Color.TRANSPARENT;
+        }
+    }
+
+    /**
+     * Bitmask of the PART_* values that render differently from {@code old}; 0 when the rows
+     * look the same. Used by DiffUtil as both content check and change payload.
+     */
+    public int changesFrom(@NonNull ExpenseRowModel old) {
+        int changes = 0;
+        if (hasIconTint != old.hasIconTint || iconTint != old.iconTint || !Objects.equals(icon, old.icon)) {
+            changes |= PART_ICON;
+        }
+        if (!Objects.equals(categoryName, old.categoryName)) changes |= PART_NAME;
+        if (!Objects.equals(note, old.note)) changes |= PART_NOTE;
+        if (amountType != old.amountType || !Objects.equals(amountText, old.amountText)) {
+            changes |= PART_AMOUNT;
+        }
+        if (day != old.day) changes |= PART_DATE;
+        return changes;
+    }
+
+    /** "Hôm nay", "Hôm qua" or "dd/MM/yyyy", relative to the current day. */
+    public String dateLabel() {
+        return EpochDays.relativeLabelOfDay(day);
+    }
+}
@@ -3,6 +3,8 @@ package com.smartbudget.app.presentation.addexpense;
 import android.app.DatePickerDialog;
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -44,7 +46,11 @@ public class AddExpenseFragment extends Fragment {
                     String merchant = data.getStringExtra("merchant");
                     String note = data.getStringExtra("note");
                     long date = data.getLongExtra("date", 0);
+                    String receiptPath = data.getStringExtra("receipt_path");
                     
+                    if (receiptPath != null) {
+                        viewModel.setReceiptPath(receiptPath);
+                    }
                     if (amount > 0) {
                         binding.etAmount.setText(String.valueOf((long) amount));
                     }
@@ -102,7 +108,11 @@ public class AddExpenseFragment extends Fragment {
                 double initialAmount = getArguments().getDouble("initialAmount", 0);
                 String initialNote = getArguments().getString("initialNote");
                 long initialDate = getArguments().getLong("initialDate", 0);
+                String receiptPath = getArguments().getString("receiptPath");
                 
+                if (receiptPath != null) {
+                    viewModel.setReceiptPath(receiptPath);
+                }
                 if (initialAmount > 0) {
                     binding.etAmount.setText(String.valueOf((long) initialAmount));
                 }
@@ -147,6 +157,22 @@ public class AddExpenseFragment extends Fragment {
             }
         });
 
+        // Note keywords re-rank the categories on every keystroke (in-memory, no query)
+        binding.etNote.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                viewModel.setNoteText(s.toString());
+            }
+        });
+
         // Date picker
         binding.etDate.setOnClickListener(v -> showDatePicker());
 
@@ -162,8 +188,8 @@ public class AddExpenseFragment extends Fragment {
 
     private void observeData() {
         // Observe categories - uses switchMap in ViewModel, auto-switches based on type
-        // NO NESTED OBSERVERS - single observation, automatic updates
-        viewModel.getCurrentCategories().observe(getViewLifecycleOwner(), categories -> {
+        // NO NESTED OBSERVERS - single observation, automatic updates; suggestions come first
+        viewModel.getRankedCategories().observe(getViewLifecycleOwner(), categories -> {
             if (categories != null) {
                 categoryAdapter.submitList(categories);
             }
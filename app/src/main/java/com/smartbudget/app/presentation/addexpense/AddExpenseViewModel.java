@@ -13,6 +13,7 @@ import com.smartbudget.app.data.local.entity.CategoryEntity;
 import com.smartbudget.app.data.local.entity.ExpenseEntity;
 import com.smartbudget.app.data.repository.CategoryRepository;
 import com.smartbudget.app.data.repository.ExpenseRepository;
+import com.smartbudget.app.utils.SuggestionEngine;
 
 import java.util.List;
 
@@ -22,20 +23,31 @@ import java.util.List;
  */
 public class AddExpenseViewModel extends AndroidViewModel {
 
+    // Suggested categories moved to the front: one row of the 4-column grid
+    static final int SUGGESTED_CATEGORIES = 4;
+
     private final ExpenseRepository expenseRepository;
     private final CategoryRepository categoryRepository;
+    private final SuggestionEngine suggestions;
 
     private final MutableLiveData<Boolean> isExpenseType = new MutableLiveData<>(true);
     private final MutableLiveData<Long> selectedCategoryId = new MutableLiveData<>();
     private final MutableLiveData<Long> selectedDate = new MutableLiveData<>(System.currentTimeMillis());
     private final MutableLiveData<Boolean> saveSuccess = new MutableLiveData<>();
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
+    private final MutableLiveData<String> noteText = new MutableLiveData<>("");
 
     /**
      * Categories LiveData that automatically switches based on isExpenseType.
      * Uses Transformations.switchMap to avoid nested observers (memory leak).
      */
     private final LiveData<List<CategoryEntity>> currentCategories;
+
+    /**
+     * currentCategories with the usage-ranked suggestions first, re-ranked as the note changes
+     * and when the ranking finishes loading.
+     */
+    private final MediatorLiveData<List<CategoryEntity>> rankedCategories = new MediatorLiveData<>();
     
     /**
      * MediatorLiveData for loading expense to edit - prevents observeForever memory leaks.
@@ -43,11 +55,14 @@ public class AddExpenseViewModel extends AndroidViewModel {
     private final MediatorLiveData<ExpenseEntity> expenseToEdit = new MediatorLiveData<>();
 
     private long editingExpenseId = -1;
+    // Stored receipt image (ReceiptStore path) attached to the expense being edited
+    private String receiptPath;
 
     public AddExpenseViewModel(@NonNull Application application) {
         super(application);
         expenseRepository = new ExpenseRepository(application);
         categoryRepository = new CategoryRepository(application);
+        suggestions = SuggestionEngine.getInstance(application);
         
         // Initialize currentCategories with switchMap - auto-switches when isExpenseType changes
         currentCategories = Transformations.switchMap(isExpenseType, isExpense -> {
@@ -57,6 +72,19 @@ public class AddExpenseViewModel extends AndroidViewModel {
                 return categoryRepository.getIncomeCategories();
             }
         });
+
+        rankedCategories.addSource(currentCategories, categories -> rankCategories());
+        rankedCategories.addSource(noteText, note -> rankCategories());
+        rankedCategories.addSource(suggestions.getUpdates(), loadedAt -> rankCategories());
+        suggestions.warmUp();
+    }
+
+    private void rankCategories() {
+        List<CategoryEntity> categories = currentCategories.getValue();
+        if (categories != null) {
+            rankedCategories.setValue(suggestions.orderCategories(categories, noteText.getValue(),
+                    SUGGESTED_CATEGORIES));
+        }
     }
     
     /**
@@ -69,6 +97,18 @@ public class AddExpenseViewModel extends AndroidViewModel {
         return currentCategories;
     }
 
+    /**
+     * Current categories, most likely first (history, time of day and weekday, note keywords).
+     */
+    public LiveData<List<CategoryEntity>> getRankedCategories() {
+        return rankedCategories;
+    }
+
+    /** Note typed so far; re-ranks the categories. */
+    public void setNoteText(String note) {
+        noteText.setValue(note);
+    }
+
     public LiveData<List<CategoryEntity>> getExpenseCategories() {
         return categoryRepository.getExpenseCategories();
     }
@@ -105,6 +145,10 @@ public class AddExpenseViewModel extends AndroidViewModel {
         selectedDate.setValue(date);
     }
 
+    public void setReceiptPath(String receiptPath) {
+        this.receiptPath = receiptPath;
+    }
+
     public MutableLiveData<Boolean> getSaveSuccess() {
         return saveSuccess;
     }
@@ -131,6 +175,7 @@ public class AddExpenseViewModel extends AndroidViewModel {
                 editingExpenseId = expense.getId();
                 selectedCategoryId.setValue(expense.getCategoryId());
                 selectedDate.setValue(expense.getDate());
+                receiptPath = expense.getReceiptImagePath();
                 // Remove source after loading to prevent memory leak
                 expenseToEdit.removeSource(source);
             }
@@ -160,6 +205,7 @@ public class AddExpenseViewModel extends AndroidViewModel {
         expense.setCategoryId(categoryId);
         expense.setDate(date);
         expense.setNote(note);
+        expense.setReceiptImagePath(receiptPath);
 
         if (editingExpenseId > 0) {
             expense.setId(editingExpenseId);
@@ -103,7 +103,7 @@ public class BudgetFragment extends Fragment {
                         categoryBudgets.add(b);
                     }
                 }
-                budgetAdapter.submitList(categoryBudgets);
+                budgetAdapter.submitBudgets(categoryBudgets);
                 
                 // Show/hide empty state
                 if (binding.tvEmptyCategory != null) {
@@ -10,39 +10,50 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
 import androidx.core.content.ContextCompat;
-import androidx.recyclerview.widget.DiffUtil;
-import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.smartbudget.app.R;
 import com.smartbudget.app.data.local.entity.ChatMessageEntity;
+import com.smartbudget.app.presentation.adapter.DiffListAdapter;
+
+import java.util.Objects;
 
 /**
- * ListAdapter for chat messages with DiffUtil for efficient updates.
+ * Adapter for chat messages, diffed in the background with partial rebinds.
  * Replaces the old RecyclerView.Adapter with notifyDataSetChanged().
  */
-public class ChatAdapter extends ListAdapter<ChatMessageEntity, ChatAdapter.MessageViewHolder> {
+public class ChatAdapter extends DiffListAdapter<ChatMessageEntity, ChatAdapter.MessageViewHolder> {
+
+    // Row parts, reported by the row callback for partial rebinds
+    private static final int PART_CONTENT = 1;
+    private static final int PART_ROLE = 1 << 1;
 
     /**
-     * DiffUtil callback for efficient list updates.
+     * Row callback for efficient list updates.
      */
-    private static final DiffUtil.ItemCallback<ChatMessageEntity> DIFF_CALLBACK = 
-        new DiffUtil.ItemCallback<ChatMessageEntity>() {
+    private static final RowCallback<ChatMessageEntity> ROW_CALLBACK =
+        new RowCallback<ChatMessageEntity>() {
             @Override
-            public boolean areItemsTheSame(@NonNull ChatMessageEntity oldItem, @NonNull ChatMessageEntity newItem) {
-                // Compare by timestamp since messages are unique by time
-                return oldItem.timestamp == newItem.timestamp;
+            public long getId(@NonNull ChatMessageEntity item) {
+                // Messages are unique by time
+                return item.timestamp;
             }
 
             @Override
-            public boolean areContentsTheSame(@NonNull ChatMessageEntity oldItem, @NonNull ChatMessageEntity newItem) {
-                return oldItem.content.equals(newItem.content) && 
-                       oldItem.role.equals(newItem.role);
+            public int getChanges(@NonNull ChatMessageEntity oldItem, @NonNull ChatMessageEntity newItem) {
+                int changes = 0;
+                if (!Objects.equals(oldItem.content, newItem.content)) {
+                    changes |= PART_CONTENT;
+                }
+                if (!Objects.equals(oldItem.role, newItem.role)) {
+                    changes |= PART_ROLE;
+                }
+                return changes;
             }
         };
 
     public ChatAdapter() {
-        super(DIFF_CALLBACK);
+        super(ROW_CALLBACK);
     }
 
     @NonNull
@@ -54,9 +65,8 @@ public class ChatAdapter extends ListAdapter<ChatMessageEntity, ChatAdapter.Mess
     }
 
     @Override
-    public void onBindViewHolder(@NonNull MessageViewHolder holder, int position) {
-        ChatMessageEntity message = getItem(position);
-        holder.bind(message);
+    protected void onBind(@NonNull MessageViewHolder holder, @NonNull ChatMessageEntity message, int changes) {
+        holder.bind(message, changes);
     }
 
     static class MessageViewHolder extends RecyclerView.ViewHolder {
@@ -76,8 +86,13 @@ public class ChatAdapter extends ListAdapter<ChatMessageEntity, ChatAdapter.Mess
             container = itemView.findViewById(R.id.container);
         }
 
-        void bind(ChatMessageEntity message) {
-            tvMessage.setText(message.content);
+        void bind(ChatMessageEntity message, int changes) {
+            if ((changes & PART_CONTENT) != 0) {
+                tvMessage.setText(message.content);
+            }
+            if ((changes & PART_ROLE) == 0) {
+                return; // Timestamp is the row id, the rest only depends on the sender
+            }
             tvTime.setText(TIME_FORMAT.format(new java.util.Date(message.timestamp)));
 
             // Style based on sender
@@ -15,9 +15,6 @@ import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.github.mikephil.charting.charts.PieChart;
-import com.github.mikephil.charting.data.PieData;
-import com.github.mikephil.charting.data.PieDataSet;
-import com.github.mikephil.charting.data.PieEntry;
 import com.smartbudget.app.R;
 import com.smartbudget.app.data.local.entity.CategoryEntity;
 import com.smartbudget.app.data.local.entity.ExpenseEntity;
@@ -26,6 +23,7 @@ import com.smartbudget.app.presentation.adapter.ExpenseAdapter;
 import com.smartbudget.app.presentation.chat.ChatActivity;
 import com.smartbudget.app.presentation.scan.ScanReceiptActivity;
 import com.smartbudget.app.utils.CurrencyUtils;
+import com.smartbudget.app.utils.PieChartUpdater;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -49,6 +47,7 @@ public class DashboardFragment extends Fragment {
     }
 
     private List<com.smartbudget.app.data.local.dao.ExpenseDao.CategoryTotal> currentTotals;
+    private PieChartUpdater pieUpdater;
 
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
@@ -226,6 +225,7 @@ public class DashboardFragment extends Fragment {
                     args.putDouble("initialAmount", amount);
                     args.putString("initialNote", note);
                     args.putLong("initialDate", date);
+                    args.putString("receiptPath", data.getStringExtra("receipt_path"));
                     
                     Navigation.findNavController(requireView())
                             .navigate(R.id.action_dashboard_to_addExpense, args);
@@ -343,9 +343,13 @@ public class DashboardFragment extends Fragment {
         chart.getLegend().setEnabled(false); 
         chart.setDrawEntryLabels(false); // Clean look
         
-        // Animation
-        chart.animateY(1400, com.github.mikephil.charting.animation.Easing.EaseInOutQuad);
-        
+        // Animation plays once, on the first data; later totals update the slices in place
+        pieUpdater = new PieChartUpdater(chart, 1400, dataSet -> {
+            dataSet.setSliceSpace(3f); // Space between slices
+            dataSet.setSelectionShift(8f); // Shift on tap
+            dataSet.setDrawValues(false); // Hide values on chart, show in list below
+        });
+
         // Touch
         chart.setTouchEnabled(true);
         chart.setHighlightPerTapEnabled(true);
@@ -443,8 +447,7 @@ public class DashboardFragment extends Fragment {
      * @param totals List of category totals from database
      */
     private void updatePieChart(List<com.smartbudget.app.data.local.dao.ExpenseDao.CategoryTotal> totals) {
-        List<PieEntry> entries = new ArrayList<>();
-        List<Integer> colors = new ArrayList<>();
+        List<PieChartUpdater.Slice> slices = new ArrayList<>(totals.size());
 
         // Use centralized chart colors from ChartColorUtils
         int[] chartColors = com.smartbudget.app.utils.ChartColorUtils.getChartColors(requireContext());
@@ -453,27 +456,22 @@ public class DashboardFragment extends Fragment {
         for (com.smartbudget.app.data.local.dao.ExpenseDao.CategoryTotal total : totals) {
             CategoryEntity cat = categoryMap.get(total.categoryId);
             String label = cat != null ? cat.getName() : getString(R.string.cat_other);
-            entries.add(new PieEntry((float) total.total, label));
 
             // Use category color or fallback to chart colors
+            int color;
             if (cat != null && cat.getColor() != null) {
-                colors.add(com.smartbudget.app.utils.ChartColorUtils.parseColorSafe(
-                        cat.getColor(), requireContext()));
+                color = com.smartbudget.app.utils.ChartColorUtils.parseColorSafe(
+                        cat.getColor(), requireContext());
             } else {
-                colors.add(chartColors[colorIndex % chartColors.length]);
+                color = chartColors[colorIndex % chartColors.length];
             }
             colorIndex++;
-        }
 
-        PieDataSet dataSet = new PieDataSet(entries, "");
-        dataSet.setColors(colors);
-        dataSet.setSliceSpace(3f); // Space between slices
-        dataSet.setSelectionShift(8f); // Shift on tap
-        dataSet.setDrawValues(false); // Hide values on chart, show in list below
+            long key = total.categoryId != null ? total.categoryId : -1L;
+            slices.add(new PieChartUpdater.Slice(key, (float) total.total, label, color));
+        }
 
-        PieData data = new PieData(dataSet);
-        binding.pieChart.setData(data);
-        binding.pieChart.invalidate();
+        pieUpdater.update(slices, false);
     }
 
     @Override
@@ -12,6 +12,7 @@ import com.smartbudget.app.data.local.entity.CategoryEntity;
 import com.smartbudget.app.data.local.entity.ExpenseEntity;
 import com.smartbudget.app.data.repository.CategoryRepository;
 import com.smartbudget.app.data.repository.ExpenseRepository;
+import com.smartbudget.app.startup.AppStartup;
 import com.smartbudget.app.utils.DateUtils;
 
 import java.util.List;
@@ -67,6 +68,12 @@ public class DashboardViewModel extends AndroidViewModel {
         monthlyIncome = expenseRepository.getTotalIncomeByDateRange(startOfMonth, endOfMonth);
         monthlyExpense = expenseRepository.getTotalExpenseByDateRange(startOfMonth, endOfMonth);
         
+        // Show the totals loaded during startup until the queries above return
+        AppStartup.DashboardSnapshot snapshot = AppStartup.getDashboardSnapshot();
+        if (snapshot != null) {
+            balance.setValue(snapshot.income - snapshot.expense);
+        }
+
         // Calculate balance = income - expense
         balance.addSource(monthlyIncome, income -> updateBalance());
         balance.addSource(monthlyExpense, expense -> updateBalance());
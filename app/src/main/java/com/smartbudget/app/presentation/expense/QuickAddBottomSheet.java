@@ -1,6 +1,8 @@
 package com.smartbudget.app.presentation.expense;
 
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -13,21 +15,46 @@ import androidx.annotation.Nullable;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 import com.google.android.material.chip.Chip;
 import com.smartbudget.app.R;
+import com.smartbudget.app.data.local.AppDatabase;
 import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.data.local.entity.ExpenseTemplateEntity;
 import com.smartbudget.app.data.repository.ExpenseRepository;
 import com.smartbudget.app.databinding.BottomSheetQuickAddBinding;
+import com.smartbudget.app.utils.ExpenseTemplateManager;
 import com.smartbudget.app.utils.HapticHelper;
+import com.smartbudget.app.utils.SuggestionEngine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Quick add expense bottom sheet.
  * Allows fast expense entry with predefined amounts and categories.
+ * Categories and templates are ordered by SuggestionEngine (usage history, time of day,
+ * note keywords); the top category is preselected until the user picks one.
  */
 public class QuickAddBottomSheet extends BottomSheetDialogFragment {
 
     private BottomSheetQuickAddBinding binding;
     private ExpenseRepository expenseRepository;
+    private SuggestionEngine suggestions;
     private Long selectedCategoryId = null;
     private double selectedAmount = 0;
+    // True once the user tapped a category; suggestions stop changing the selection
+    private boolean categoryPicked;
+    @Nullable
+    private ExpenseTemplateEntity appliedTemplate;
+    private List<ExpenseTemplateEntity> templates = Collections.emptyList();
+    private List<ExpenseTemplateEntity> shownTemplates = Collections.emptyList();
+
+    private static final int SUGGESTED_TEMPLATES = 4;
+
+    // Category chips in default order
+    private final Map<Long, View> categoryChips = new LinkedHashMap<>();
+    private final long[] suggestedIds = new long[5];
 
     // Category IDs (match your database)
     private static final long CAT_FOOD = 1L;
@@ -53,9 +80,11 @@ public class QuickAddBottomSheet extends BottomSheetDialogFragment {
         super.onViewCreated(view, savedInstanceState);
 
         expenseRepository = new ExpenseRepository(requireActivity().getApplication());
+        suggestions = SuggestionEngine.getInstance(requireContext());
 
         setupAmountChips();
         setupCategorySelection();
+        setupSuggestions();
         setupSaveButton();
     }
 
@@ -81,6 +110,7 @@ public class QuickAddBottomSheet extends BottomSheetDialogFragment {
             // Set new selection
             v.setSelected(true);
             HapticHelper.lightClick(v);
+            categoryPicked = true;
 
             if (v.getId() == R.id.cat_food) {
                 selectedCategoryId = CAT_FOOD;
@@ -95,19 +125,122 @@ public class QuickAddBottomSheet extends BottomSheetDialogFragment {
             }
         };
 
-        binding.catFood.setOnClickListener(categoryClickListener);
-        binding.catTransport.setOnClickListener(categoryClickListener);
-        binding.catShopping.setOnClickListener(categoryClickListener);
-        binding.catCoffee.setOnClickListener(categoryClickListener);
-        binding.catEntertainment.setOnClickListener(categoryClickListener);
+        categoryChips.put(CAT_FOOD, binding.catFood);
+        categoryChips.put(CAT_TRANSPORT, binding.catTransport);
+        categoryChips.put(CAT_SHOPPING, binding.catShopping);
+        categoryChips.put(CAT_COFFEE, binding.catCoffee);
+        categoryChips.put(CAT_ENTERTAINMENT, binding.catEntertainment);
+        for (View chip : categoryChips.values()) {
+            chip.setOnClickListener(categoryClickListener);
+        }
     }
 
     private void clearCategorySelection() {
-        binding.catFood.setSelected(false);
-        binding.catTransport.setSelected(false);
-        binding.catShopping.setSelected(false);
-        binding.catCoffee.setSelected(false);
-        binding.catEntertainment.setSelected(false);
+        for (View chip : categoryChips.values()) {
+            chip.setSelected(false);
+        }
+    }
+
+    private void selectCategory(long categoryId) {
+        clearCategorySelection();
+        selectedCategoryId = categoryId;
+        View chip = categoryChips.get(categoryId);
+        if (chip != null) {
+            chip.setSelected(true);
+        }
+    }
+
+    // ==================== Suggestions ====================
+
+    private void setupSuggestions() {
+        // Re-rank on every keystroke: in-memory, no database access
+        binding.etNote.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                applySuggestions();
+            }
+        });
+        suggestions.getUpdates().observe(getViewLifecycleOwner(), loadedAt -> applySuggestions());
+
+        ExpenseTemplateManager templateManager = new ExpenseTemplateManager(requireContext());
+        View root = binding.getRoot();
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            List<ExpenseTemplateEntity> loaded = templateManager.getAllTemplates();
+            root.post(() -> {
+                if (binding == null) return;
+                templates = loaded;
+                applySuggestions();
+            });
+        });
+        applySuggestions();
+    }
+
+    private void applySuggestions() {
+        CharSequence note = binding.etNote.getText();
+        int count = suggestions.suggestCategories(note, suggestedIds.length, suggestedIds);
+        orderCategoryChips(count);
+        if (!categoryPicked && count > 0 && categoryChips.containsKey(suggestedIds[0])) {
+            selectCategory(suggestedIds[0]);
+        }
+        showTemplates(suggestions.suggestTemplates(templates, note, SUGGESTED_TEMPLATES));
+    }
+
+    /** Suggested chips first, the rest in default order; untouched if the order is the same. */
+    private void orderCategoryChips(int count) {
+        List<View> order = new ArrayList<>(categoryChips.size());
+        for (int i = 0; i < count; i++) {
+            View chip = categoryChips.get(suggestedIds[i]);
+            if (chip != null) order.add(chip);
+        }
+        for (View chip : categoryChips.values()) {
+            if (!order.contains(chip)) order.add(chip);
+        }
+
+        ViewGroup row = binding.llCategories;
+        boolean same = row.getChildCount() == order.size();
+        for (int i = 0; same && i < order.size(); i++) {
+            same = row.getChildAt(i) == order.get(i);
+        }
+        if (same) return;
+        row.removeAllViews();
+        for (View chip : order) {
+            row.addView(chip);
+        }
+    }
+
+    private void showTemplates(List<ExpenseTemplateEntity> suggested) {
+        if (suggested.equals(shownTemplates)) return;
+        shownTemplates = suggested;
+        binding.chipGroupTemplates.removeAllViews();
+        for (ExpenseTemplateEntity template : suggested) {
+            Chip chip = new Chip(requireContext());
+            chip.setText(template.getEmoji() + " " + template.getName());
+            chip.setOnClickListener(v -> applyTemplate(template));
+            binding.chipGroupTemplates.addView(chip);
+        }
+        binding.scrollTemplates.setVisibility(suggested.isEmpty() ? View.GONE : View.VISIBLE);
+    }
+
+    private void applyTemplate(ExpenseTemplateEntity template) {
+        HapticHelper.lightClick(binding.getRoot());
+        appliedTemplate = template;
+        selectedAmount = template.getAmount();
+        binding.etAmount.setText(String.valueOf((long) template.getAmount()));
+        Long categoryId = suggestions.categoryIdOf(template.getCategory());
+        if (categoryId != null && categoryChips.containsKey(categoryId)) {
+            categoryPicked = true;
+            selectCategory(categoryId);
+        }
+        // Last: re-ranks with the template's note
+        binding.etNote.setText(template.getNote());
     }
 
     private void setupSaveButton() {
@@ -141,6 +274,11 @@ public class QuickAddBottomSheet extends BottomSheetDialogFragment {
             expense.setDate(System.currentTimeMillis());
 
             expenseRepository.insert(expense);
+            if (appliedTemplate != null && appliedTemplate.getId() > 0) {
+                long templateId = appliedTemplate.getId();
+                ExpenseTemplateManager templateManager = new ExpenseTemplateManager(requireContext());
+                AppDatabase.databaseWriteExecutor.execute(() -> templateManager.incrementUsage(templateId));
+            }
 
             // Success feedback
             HapticHelper.success(requireContext());
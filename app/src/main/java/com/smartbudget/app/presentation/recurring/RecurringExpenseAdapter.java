@@ -7,17 +7,23 @@ import android.widget.ImageButton;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.DiffUtil;
-import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.smartbudget.app.R;
 import com.smartbudget.app.data.local.entity.RecurringExpenseEntity;
+import com.smartbudget.app.presentation.adapter.DiffListAdapter;
 
 import java.text.NumberFormat;
 import java.util.Locale;
+import java.util.Objects;
 
-public class RecurringExpenseAdapter extends ListAdapter<RecurringExpenseEntity, RecurringExpenseAdapter.ViewHolder> {
+public class RecurringExpenseAdapter extends DiffListAdapter<RecurringExpenseEntity, RecurringExpenseAdapter.ViewHolder> {
+
+    // Row parts, reported by the row callback for partial rebinds
+    private static final int PART_NAME = 1;
+    private static final int PART_AMOUNT = 1 << 1;
+    private static final int PART_SCHEDULE = 1 << 2;
+    private static final int PART_STATUS = 1 << 3;
 
     private OnItemClickListener onItemClickListener;
     private OnDeleteClickListener onDeleteClickListener;
@@ -39,21 +45,33 @@ public class RecurringExpenseAdapter extends ListAdapter<RecurringExpenseEntity,
     }
 
     public RecurringExpenseAdapter() {
-        super(DIFF_CALLBACK);
+        super(ROW_CALLBACK);
     }
 
-    private static final DiffUtil.ItemCallback<RecurringExpenseEntity> DIFF_CALLBACK = 
-        new DiffUtil.ItemCallback<RecurringExpenseEntity>() {
+    private static final RowCallback<RecurringExpenseEntity> ROW_CALLBACK =
+        new RowCallback<RecurringExpenseEntity>() {
             @Override
-            public boolean areItemsTheSame(@NonNull RecurringExpenseEntity oldItem, @NonNull RecurringExpenseEntity newItem) {
-                return oldItem.getId() == newItem.getId();
+            public long getId(@NonNull RecurringExpenseEntity item) {
+                return item.getId();
             }
 
             @Override
-            public boolean areContentsTheSame(@NonNull RecurringExpenseEntity oldItem, @NonNull RecurringExpenseEntity newItem) {
-                return oldItem.getName().equals(newItem.getName()) &&
-                       oldItem.getAmount() == newItem.getAmount() &&
-                       oldItem.isActive() == newItem.isActive();
+            public int getChanges(@NonNull RecurringExpenseEntity oldItem, @NonNull RecurringExpenseEntity newItem) {
+                int changes = 0;
+                if (!Objects.equals(oldItem.getName(), newItem.getName())) {
+                    changes |= PART_NAME;
+                }
+                if (oldItem.getAmount() != newItem.getAmount()) {
+                    changes |= PART_AMOUNT;
+                }
+                if (oldItem.getDayOfMonth() != newItem.getDayOfMonth() ||
+                        oldItem.getFrequency() != newItem.getFrequency()) {
+                    changes |= PART_SCHEDULE;
+                }
+                if (oldItem.isActive() != newItem.isActive()) {
+                    changes |= PART_STATUS;
+                }
+                return changes;
             }
         };
 
@@ -62,22 +80,33 @@ public class RecurringExpenseAdapter extends ListAdapter<RecurringExpenseEntity,
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_recurring_expense, parent, false);
-        return new ViewHolder(view);
+        ViewHolder holder = new ViewHolder(view);
+        view.setOnClickListener(v -> {
+            RecurringExpenseEntity entity = getItemAt(holder);
+            if (entity != null && onItemClickListener != null) {
+                onItemClickListener.onItemClick(entity);
+            }
+        });
+        return holder;
     }
 
     @Override
-    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        RecurringExpenseEntity entity = getItem(position);
-        holder.bind(entity);
+    protected void onBind(@NonNull ViewHolder holder, @NonNull RecurringExpenseEntity entity, int changes) {
+        holder.bind(entity, changes);
     }
 
-    class ViewHolder extends RecyclerView.ViewHolder {
+    static class ViewHolder extends RecyclerView.ViewHolder {
         private final TextView tvName;
         private final TextView tvAmount;
         private final TextView tvSchedule;
         private final TextView tvStatus;
         private final View statusIndicator;
 
+        // Resolved once per holder instead of per bind
+        private final NumberFormat formatter = NumberFormat.getInstance(new Locale("vi", "VN"));
+        private final int activeColor;
+        private final int pausedColor;
+
         ViewHolder(@NonNull View itemView) {
             super(itemView);
             tvName = itemView.findViewById(R.id.tv_recurring_name);
@@ -85,31 +114,29 @@ public class RecurringExpenseAdapter extends ListAdapter<RecurringExpenseEntity,
             tvSchedule = itemView.findViewById(R.id.tv_recurring_schedule);
             tvStatus = itemView.findViewById(R.id.tv_recurring_status);
             statusIndicator = itemView.findViewById(R.id.view_status_indicator);
+            activeColor = itemView.getContext().getColor(R.color.success);
+            pausedColor = itemView.getContext().getColor(R.color.text_secondary);
         }
 
-        void bind(RecurringExpenseEntity entity) {
-            tvName.setText(entity.getName());
-            
-            NumberFormat formatter = NumberFormat.getInstance(new Locale("vi", "VN"));
-            tvAmount.setText(formatter.format(entity.getAmount()) + " ₫");
-            
-            tvSchedule.setText("Ngày " + entity.getDayOfMonth() + " " + entity.getFrequencyText());
-            
-            if (entity.isActive()) {
-                tvStatus.setText(R.string.status_active);
-                tvStatus.setTextColor(itemView.getContext().getColor(R.color.success));
-                statusIndicator.setBackgroundColor(itemView.getContext().getColor(R.color.success));
-            } else {
-                tvStatus.setText(R.string.status_paused);
-                tvStatus.setTextColor(itemView.getContext().getColor(R.color.text_secondary));
-                statusIndicator.setBackgroundColor(itemView.getContext().getColor(R.color.text_secondary));
+        void bind(RecurringExpenseEntity entity, int changes) {
+            if ((changes & PART_NAME) != 0) {
+                tvName.setText(entity.getName());
             }
 
-            itemView.setOnClickListener(v -> {
-                if (onItemClickListener != null) {
-                    onItemClickListener.onItemClick(entity);
-                }
-            });
+            if ((changes & PART_AMOUNT) != 0) {
+                tvAmount.setText(formatter.format(entity.getAmount()) + " ₫");
+            }
+
+            if ((changes & PART_SCHEDULE) != 0) {
+                tvSchedule.setText("Ngày " + entity.getDayOfMonth() + " " + entity.getFrequencyText());
+            }
+
+            if ((changes & PART_STATUS) != 0) {
+                int color = entity.isActive() ? activeColor : pausedColor;
+                tvStatus.setText(entity.isActive() ? R.string.status_active : R.string.status_paused);
+                tvStatus.setTextColor(color);
+                statusIndicator.setBackgroundColor(color);
+            }
         }
     }
 }
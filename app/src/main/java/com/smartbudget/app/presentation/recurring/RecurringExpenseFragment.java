@@ -21,10 +21,10 @@ import com.smartbudget.app.data.local.AppDatabase;
 import com.smartbudget.app.data.local.entity.RecurringExpenseEntity;
 import com.smartbudget.app.databinding.FragmentRecurringExpenseBinding;
 import com.smartbudget.app.utils.CurrencyUtils;
+import com.smartbudget.app.utils.RecurrenceSchedule;
 
 import java.text.NumberFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.Executors;
@@ -139,12 +139,8 @@ public class RecurringExpenseFragment extends Fragment {
                     RecurringExpenseEntity entity = new RecurringExpenseEntity(name, amount, day);
                     
                     // Calculate next due date
-                    Calendar nextDue = Calendar.getInstance();
-                    nextDue.set(Calendar.DAY_OF_MONTH, day);
-                    if (nextDue.before(Calendar.getInstance())) {
-                        nextDue.add(Calendar.MONTH, 1);
-                    }
-                    entity.setNextDueDate(nextDue.getTimeInMillis());
+                    entity.setNextDueDate(RecurrenceSchedule.firstAfter(System.currentTimeMillis(),
+                            entity.getFrequency(), day));
                     
                     Executors.newSingleThreadExecutor().execute(() -> {
                         database.recurringExpenseDao().insert(entity);
@@ -14,18 +14,14 @@ import androidx.lifecycle.ViewModelProvider;
 import com.github.mikephil.charting.charts.BarChart;
 import com.github.mikephil.charting.charts.PieChart;
 import com.github.mikephil.charting.components.XAxis;
-import com.github.mikephil.charting.data.BarData;
-import com.github.mikephil.charting.data.BarDataSet;
-import com.github.mikephil.charting.data.BarEntry;
-import com.github.mikephil.charting.data.PieData;
-import com.github.mikephil.charting.data.PieDataSet;
-import com.github.mikephil.charting.data.PieEntry;
-import com.github.mikephil.charting.formatter.IndexAxisValueFormatter;
 import com.smartbudget.app.R;
 import com.smartbudget.app.data.local.dao.ExpenseDao;
 import com.smartbudget.app.data.local.entity.CategoryEntity;
+import com.smartbudget.app.data.repository.ExpenseRepository;
 import com.smartbudget.app.databinding.FragmentReportsBinding;
+import com.smartbudget.app.utils.BarSeriesUpdater;
 import com.smartbudget.app.utils.CurrencyUtils;
+import com.smartbudget.app.utils.PieChartUpdater;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -40,6 +36,12 @@ public class ReportsFragment extends Fragment {
     private Map<Long, CategoryEntity> categoryMap = new HashMap<>();
     private List<ExpenseDao.CategoryTotal> currentTotals;
 
+    // Charts are updated in place; animation replays only when the date range changes
+    private PieChartUpdater pieUpdater;
+    private BarSeriesUpdater barUpdater;
+    private final long[] pieRange = {-1, -1};
+    private final long[] barRange = {-1, -1};
+
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
@@ -80,8 +82,14 @@ public class ReportsFragment extends Fragment {
         pieChart.getLegend().setOrientation(com.github.mikephil.charting.components.Legend.LegendOrientation.HORIZONTAL);
         pieChart.getLegend().setDrawInside(false);
         pieChart.getLegend().setWordWrapEnabled(true);
+        pieUpdater = new PieChartUpdater(pieChart, 1200, dataSet -> {
+            dataSet.setSliceSpace(3f); // Space between slices
+            dataSet.setSelectionShift(8f);
+            dataSet.setValueTextColor(Color.WHITE);
+            dataSet.setValueTextSize(12f);
+            dataSet.setDrawValues(false); // Hide values on chart
+        });
         
-        pieChart.animateY(1200, com.github.mikephil.charting.animation.Easing.EaseInOutQuad);
 
         // Setup Bar Chart
         // Setup Bar Chart
@@ -93,7 +101,6 @@ public class ReportsFragment extends Fragment {
         barChart.setDoubleTapToZoomEnabled(false);
         barChart.setDrawBarShadow(false);
         barChart.getLegend().setEnabled(false);
-        barChart.animateY(1200, com.github.mikephil.charting.animation.Easing.EaseOutQuart);
 
         XAxis xAxis = barChart.getXAxis();
         xAxis.setPosition(XAxis.XAxisPosition.BOTTOM);
@@ -108,6 +115,12 @@ public class ReportsFragment extends Fragment {
         barChart.getAxisLeft().setDrawLabels(false); // Hide Y-axis labels for cleaner look
         
         barChart.getAxisRight().setEnabled(false);
+
+        int barColor = com.smartbudget.app.utils.ChartColorUtils.getPrimaryColor(requireContext());
+        barUpdater = new BarSeriesUpdater(barChart, 1200, dataSet -> {
+            dataSet.setColor(barColor);
+            dataSet.setValueTextSize(10f);
+        });
     }
 
     private void setupListeners() {
@@ -211,7 +224,6 @@ public class ReportsFragment extends Fragment {
                 // Retry chart update if totals arrived before categories
                 if (currentTotals != null) {
                     updatePieChart(currentTotals);
-                    updateBarChart(currentTotals);
                 }
             }
         });
@@ -228,7 +240,13 @@ public class ReportsFragment extends Fragment {
             if (totals != null && !totals.isEmpty()) {
                 currentTotals = totals; // Save for retry
                 updatePieChart(totals);
-                updateBarChart(totals);
+            }
+        });
+
+        // Observe spending over time (bar chart)
+        viewModel.getSpendingSeries().observe(getViewLifecycleOwner(), series -> {
+            if (series != null) {
+                updateBarChart(series);
             }
         });
     }
@@ -240,8 +258,7 @@ public class ReportsFragment extends Fragment {
      * @param totals Danh sách tổng chi tiêu theo danh mục
      */
     private void updatePieChart(List<ExpenseDao.CategoryTotal> totals) {
-        List<PieEntry> entries = new ArrayList<>();
-        List<Integer> colors = new ArrayList<>();
+        List<PieChartUpdater.Slice> slices = new ArrayList<>(totals.size());
 
         // Sử dụng màu từ ChartColorUtils thay vì hardcode
         int[] chartColors = com.smartbudget.app.utils.ChartColorUtils.getChartColors(requireContext());
@@ -250,78 +267,81 @@ public class ReportsFragment extends Fragment {
         for (ExpenseDao.CategoryTotal total : totals) {
             CategoryEntity cat = categoryMap.get(total.categoryId);
             String label = cat != null ? cat.getName() : getString(R.string.cat_other);
-            entries.add(new PieEntry((float) total.total, label));
 
             // Ưu tiên màu từ category, fallback sang chart colors
+            int color;
             if (cat != null && cat.getColor() != null) {
-                colors.add(com.smartbudget.app.utils.ChartColorUtils.parseColorSafe(
-                        cat.getColor(), requireContext()));
+                color = com.smartbudget.app.utils.ChartColorUtils.parseColorSafe(
+                        cat.getColor(), requireContext());
             } else {
-                colors.add(chartColors[colorIndex % chartColors.length]);
+                color = chartColors[colorIndex % chartColors.length];
             }
             colorIndex++;
+
+            long key = total.categoryId != null ? total.categoryId : -1L;
+            slices.add(new PieChartUpdater.Slice(key, (float) total.total, label, color));
         }
 
-        // Create Dataset
-        PieDataSet dataSet = new PieDataSet(entries, ""); // No label
-        dataSet.setColors(colors);
-        dataSet.setSliceSpace(3f); // Space between slices
-        dataSet.setSelectionShift(8f);
-        dataSet.setValueTextColor(Color.WHITE);
-        dataSet.setValueTextSize(12f);
-        dataSet.setDrawValues(false); // Hide values on chart
-        
-        PieData pieData = new PieData(dataSet);
-        
-        // Setup Chart
-        binding.pieChart.setData(pieData);
-        // Don't need to re-set style here as it's done in setupCharts()
-        
-        binding.pieChart.animateY(800, com.github.mikephil.charting.animation.Easing.EaseInOutQuad);
-        binding.pieChart.invalidate();
+        pieUpdater.update(slices, rangeChanged(pieRange));
     }
 
     /**
-     * Cập nhật bar chart với dữ liệu theo danh mục.
-     * Hiển thị top categories dưới dạng cột.
+     * Cập nhật bar chart xu hướng chi tiêu theo thời gian.
+     * Dữ liệu đã được gom nhóm (ngày / tuần / tháng) bằng SQL, các bucket trống được điền 0.
      *
-     * @param totals Danh sách tổng chi tiêu theo danh mục
+     * @param series Tổng chi tiêu theo từng bucket thời gian
      */
-    private void updateBarChart(List<ExpenseDao.CategoryTotal> totals) {
-        List<BarEntry> entries = new ArrayList<>();
-        List<String> labels = new ArrayList<>();
-        List<Integer> colors = new ArrayList<>();
-
-        // Sử dụng màu từ ChartColorUtils
-        int[] chartColors = com.smartbudget.app.utils.ChartColorUtils.getChartColors(requireContext());
-
-        int index = 0;
-        for (ExpenseDao.CategoryTotal total : totals) {
-            entries.add(new BarEntry(index, (float) total.total));
-
-            CategoryEntity cat = categoryMap.get(total.categoryId);
-            labels.add(cat != null ? cat.getName() : getString(R.string.cat_other));
+    private void updateBarChart(List<ExpenseDao.TimeBucketTotal> series) {
+        Long start = viewModel.getStartDate().getValue();
+        Long end = viewModel.getEndDate().getValue();
+        if (start == null || end == null) return;
+
+        ExpenseRepository.Granularity granularity = viewModel.getGranularity();
+        long firstBucket = ReportsViewModel.bucketOf(start, granularity);
+        long lastBucket = ReportsViewModel.bucketOf(end, granularity);
+
+        Map<Long, Double> totalsByBucket = new HashMap<>();
+        for (ExpenseDao.TimeBucketTotal bucket : series) {
+            totalsByBucket.put(bucket.bucket, bucket.total);
+        }
 
-            // Ưu tiên màu từ category
-            if (cat != null && cat.getColor() != null) {
-                colors.add(com.smartbudget.app.utils.ChartColorUtils.parseColorSafe(
-                        cat.getColor(), requireContext()));
-            } else {
-                colors.add(chartColors[index % chartColors.length]);
-            }
-            index++;
+        int count = (int) Math.max(0, lastBucket - firstBucket + 1);
+        float[] values = new float[count];
+        String[] labels = new String[count];
+        for (int i = 0; i < count; i++) {
+            long bucket = firstBucket + i;
+            Double total = totalsByBucket.get(bucket);
+            values[i] = total != null ? total.floatValue() : 0f;
+            labels[i] = formatBucketLabel(bucket, granularity);
         }
 
-        BarDataSet dataSet = new BarDataSet(entries, getString(R.string.expense));
-        dataSet.setColors(colors);
-        dataSet.setValueTextSize(10f);
+        barUpdater.update(values, labels, rangeChanged(barRange));
+    }
 
-        BarData data = new BarData(dataSet);
-        data.setBarWidth(0.6f);
+    /**
+     * True once per chart after the selected date range changed.
+     *
+     * @param seen Range the chart last animated for; updated in place
+     */
+    private boolean rangeChanged(long[] seen) {
+        Long start = viewModel.getStartDate().getValue();
+        Long end = viewModel.getEndDate().getValue();
+        long s = start != null ? start : 0;
+        long e = end != null ? end : 0;
+        if (seen[0] == s && seen[1] == e) return false;
+        boolean firstLoad = seen[0] == -1;
+        seen[0] = s;
+        seen[1] = e;
+        // The updater animates the first load itself
+        return !firstLoad;
+    }
 
-        binding.barChart.getXAxis().setValueFormatter(new IndexAxisValueFormatter(labels));
-        binding.barChart.setData(data);
-        binding.barChart.invalidate();
+    private String formatBucketLabel(long bucket, ExpenseRepository.Granularity granularity) {
+        if (granularity == ExpenseRepository.Granularity.MONTH) {
+            return "T" + (bucket % 12 + 1);
+        }
+        java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("dd/MM", java.util.Locale.getDefault());
+        return sdf.format(new java.util.Date(ReportsViewModel.bucketStart(bucket, granularity)));
     }
 
     @Override
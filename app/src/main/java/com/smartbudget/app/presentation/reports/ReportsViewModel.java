@@ -13,9 +13,9 @@ import com.smartbudget.app.data.local.entity.CategoryEntity;
 import com.smartbudget.app.data.repository.CategoryRepository;
 import com.smartbudget.app.data.repository.ExpenseRepository;
 import com.smartbudget.app.utils.DateUtils;
+import com.smartbudget.app.utils.EpochDays;
 
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.List;
 
 public class ReportsViewModel extends AndroidViewModel {
@@ -32,9 +32,13 @@ public class ReportsViewModel extends AndroidViewModel {
     // Reactive LiveData that updates when date range changes
     private final MediatorLiveData<Double> totalExpense = new MediatorLiveData<>();
     private final MediatorLiveData<List<ExpenseDao.CategoryTotal>> categoryTotals = new MediatorLiveData<>();
+    private final MediatorLiveData<List<ExpenseDao.TimeBucketTotal>> spendingSeries = new MediatorLiveData<>();
     
     private LiveData<Double> currentTotalSource;
     private LiveData<List<ExpenseDao.CategoryTotal>> currentCategorySource;
+    private LiveData<List<ExpenseDao.TimeBucketTotal>> currentSeriesSource;
+
+    private ExpenseRepository.Granularity granularity = ExpenseRepository.Granularity.DAY;
 
     public ReportsViewModel(@NonNull Application application) {
         super(application);
@@ -67,6 +71,9 @@ public class ReportsViewModel extends AndroidViewModel {
         if (currentCategorySource != null) {
             categoryTotals.removeSource(currentCategorySource);
         }
+        if (currentSeriesSource != null) {
+            spendingSeries.removeSource(currentSeriesSource);
+        }
         
         // Add new sources
         currentTotalSource = expenseRepository.getTotalExpenseByDateRange(start, end);
@@ -78,6 +85,59 @@ public class ReportsViewModel extends AndroidViewModel {
         categoryTotals.addSource(currentCategorySource, value -> {
             categoryTotals.setValue(value != null ? value : new ArrayList<>());
         });
+
+        granularity = granularityFor(start, end);
+        currentSeriesSource = expenseRepository.getExpenseTimeSeries(start, end, granularity);
+        spendingSeries.addSource(currentSeriesSource, value -> {
+            spendingSeries.setValue(value != null ? value : new ArrayList<>());
+        });
+    }
+
+    /**
+     * Weekly view -> daily bars, monthly view -> weekly bars, yearly view -> monthly bars.
+     * Custom ranges pick the bucket size from the span.
+     */
+    private ExpenseRepository.Granularity granularityFor(long start, long end) {
+        Integer range = selectedTimeRange.getValue();
+        if (range != null && range == 0) return ExpenseRepository.Granularity.DAY;
+        if (range != null && range == 1) return ExpenseRepository.Granularity.WEEK;
+        if (range != null && range == 2) return ExpenseRepository.Granularity.MONTH;
+
+        long days = (end - start) / EpochDays.DAY_MILLIS;
+        if (days <= 31) return ExpenseRepository.Granularity.DAY;
+        if (days <= 182) return ExpenseRepository.Granularity.WEEK;
+        return ExpenseRepository.Granularity.MONTH;
+    }
+
+    /**
+     * Bucket index of a timestamp, matching the integer math used by the ExpenseDao time-series queries.
+     */
+    public static long bucketOf(long timestamp, ExpenseRepository.Granularity granularity) {
+        int epochDay = EpochDays.dayIndex(timestamp);
+        switch (granularity) {
+            case WEEK:
+                return (epochDay + 3) / 7;
+            case MONTH:
+                return EpochDays.monthIndexOfDay(epochDay);
+            case DAY:
+            default:
+                return epochDay;
+        }
+    }
+
+    /**
+     * Start of a bucket in local time (inverse of {@link #bucketOf}).
+     */
+    public static long bucketStart(long bucket, ExpenseRepository.Granularity granularity) {
+        switch (granularity) {
+            case WEEK:
+                return EpochDays.startOfDay((int) (bucket * 7 - 3));
+            case MONTH:
+                return EpochDays.startOfMonth((int) bucket);
+            case DAY:
+            default:
+                return EpochDays.startOfDay((int) bucket);
+        }
     }
 
     public LiveData<List<CategoryEntity>> getCategories() {
@@ -105,12 +165,9 @@ public class ReportsViewModel extends AndroidViewModel {
     }
 
     private void setWeeklyRange() {
-        Calendar cal = Calendar.getInstance();
-        cal.set(Calendar.DAY_OF_WEEK, cal.getFirstDayOfWeek());
-        long start = DateUtils.getStartOfDay(cal.getTimeInMillis());
-
-        cal.add(Calendar.DAY_OF_WEEK, 6);
-        long end = DateUtils.getEndOfDay(cal.getTimeInMillis());
+        int weekStart = EpochDays.startOfWeek(EpochDays.today());
+        long start = EpochDays.startOfDay(weekStart);
+        long end = EpochDays.endOfDay(weekStart + 6);
         
         startDate.setValue(start);
         endDate.setValue(end);
@@ -148,6 +205,14 @@ public class ReportsViewModel extends AndroidViewModel {
         return categoryTotals;
     }
 
+    public LiveData<List<ExpenseDao.TimeBucketTotal>> getSpendingSeries() {
+        return spendingSeries;
+    }
+
+    public ExpenseRepository.Granularity getGranularity() {
+        return granularity;
+    }
+
     public MutableLiveData<Long> getStartDate() {
         return startDate;
     }
@@ -5,39 +5,97 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.DiffUtil;
-import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.smartbudget.app.data.local.entity.SavingsGoalEntity;
 import com.smartbudget.app.databinding.ItemSavingsGoalBinding;
+import com.smartbudget.app.presentation.adapter.DiffListAdapter;
 import com.smartbudget.app.utils.DateUtils;
+import com.smartbudget.app.utils.EpochDays;
+import com.smartbudget.app.utils.SavingsProjection;
 
 import java.text.NumberFormat;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 
-public class SavingsGoalAdapter extends ListAdapter<SavingsGoalEntity, SavingsGoalAdapter.GoalViewHolder> {
+public class SavingsGoalAdapter extends DiffListAdapter<SavingsGoalEntity, SavingsGoalAdapter.GoalViewHolder> {
+
+    // Row parts, reported by the row callback for partial rebinds
+    private static final int PART_HEADER = 1;
+    private static final int PART_PROGRESS = 1 << 1;
+    private static final int PART_STATE = 1 << 2;
+    // Not from getChanges: projections live outside the goal (see setProjections)
+    private static final int PART_PROJECTION = 1 << 3;
 
     private OnAddMoneyClickListener onAddMoneyClickListener;
+    // From the same snapshot as the list; a deposit changes both
+    private Map<Long, SavingsProjection> projections = Collections.emptyMap();
 
     public SavingsGoalAdapter() {
-        super(DIFF_CALLBACK);
+        super(ROW_CALLBACK);
     }
 
-    private static final DiffUtil.ItemCallback<SavingsGoalEntity> DIFF_CALLBACK = 
-            new DiffUtil.ItemCallback<SavingsGoalEntity>() {
+    private static final RowCallback<SavingsGoalEntity> ROW_CALLBACK = new RowCallback<SavingsGoalEntity>() {
         @Override
-        public boolean areItemsTheSame(@NonNull SavingsGoalEntity oldItem, @NonNull SavingsGoalEntity newItem) {
-            return oldItem.getId() == newItem.getId();
+        public long getId(@NonNull SavingsGoalEntity item) {
+            return item.getId();
         }
 
         @Override
-        public boolean areContentsTheSame(@NonNull SavingsGoalEntity oldItem, @NonNull SavingsGoalEntity newItem) {
-            return oldItem.getCurrentAmount() == newItem.getCurrentAmount() &&
-                   oldItem.isCompleted() == newItem.isCompleted();
+        public int getChanges(@NonNull SavingsGoalEntity oldItem, @NonNull SavingsGoalEntity newItem) {
+            int changes = 0;
+            if (!Objects.equals(oldItem.getIcon(), newItem.getIcon()) ||
+                    !Objects.equals(oldItem.getName(), newItem.getName()) ||
+                    oldItem.getDeadline() != newItem.getDeadline()) {
+                changes |= PART_HEADER;
+            }
+            if (oldItem.getCurrentAmount() != newItem.getCurrentAmount() ||
+                    oldItem.getTargetAmount() != newItem.getTargetAmount()) {
+                changes |= PART_PROGRESS;
+            }
+            if (oldItem.isCompleted() != newItem.isCompleted()) {
+                changes |= PART_STATE;
+            }
+            return changes;
         }
     };
 
+    /**
+     * Set before {@code submitList} with the projections of the same snapshot. Rows whose
+     * forecast reads differently are rebound here: the pace window and recent sums move the
+     * projection without touching the goal, so the list diff alone would keep the old text.
+     */
+    public void setProjections(Map<Long, SavingsProjection> projections) {
+        Map<Long, SavingsProjection> previous = this.projections;
+        this.projections = projections;
+        List<SavingsGoalEntity> shown = getCurrentList();
+        for (int i = 0; i < shown.size(); i++) {
+            long id = shown.get(i).getId();
+            if (!sameForecast(previous.get(id), projections.get(id))) {
+                notifyPartChanged(i, PART_PROJECTION);
+            }
+        }
+    }
+
+    /** True if both projections render the same text (estimates compare by day). */
+    private static boolean sameForecast(SavingsProjection a, SavingsProjection b) {
+        if (a == b) return true;
+        if (a == null || b == null) return false;
+        return (a.remaining == 0) == (b.remaining == 0)
+                && Math.ceil(a.requiredDaily) == Math.ceil(b.requiredDaily)
+                && Math.ceil(a.requiredWeekly) == Math.ceil(b.requiredWeekly)
+                && a.onTrack == b.onTrack
+                && estimateDay(a) == estimateDay(b);
+    }
+
+    private static long estimateDay(SavingsProjection projection) {
+        return projection.estimatedCompletion == SavingsProjection.NO_ESTIMATE
+                ? SavingsProjection.NO_ESTIMATE : EpochDays.dayIndex(projection.estimatedCompletion);
+    }
+
     public void setOnAddMoneyClickListener(OnAddMoneyClickListener listener) {
         this.onAddMoneyClickListener = listener;
     }
@@ -47,15 +105,22 @@ public class SavingsGoalAdapter extends ListAdapter<SavingsGoalEntity, SavingsGo
     public GoalViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         ItemSavingsGoalBinding binding = ItemSavingsGoalBinding.inflate(
                 LayoutInflater.from(parent.getContext()), parent, false);
-        return new GoalViewHolder(binding);
+        GoalViewHolder holder = new GoalViewHolder(binding);
+        binding.btnAddMoney.setOnClickListener(v -> {
+            SavingsGoalEntity goal = getItemAt(holder);
+            if (goal != null && onAddMoneyClickListener != null) {
+                onAddMoneyClickListener.onAddMoneyClick(goal);
+            }
+        });
+        return holder;
     }
 
     @Override
-    public void onBindViewHolder(@NonNull GoalViewHolder holder, int position) {
-        holder.bind(getItem(position));
+    protected void onBind(@NonNull GoalViewHolder holder, @NonNull SavingsGoalEntity goal, int changes) {
+        holder.bind(goal, projections.get(goal.getId()), changes);
     }
 
-    class GoalViewHolder extends RecyclerView.ViewHolder {
+    static class GoalViewHolder extends RecyclerView.ViewHolder {
         private final ItemSavingsGoalBinding binding;
         private final NumberFormat formatter = NumberFormat.getInstance(new Locale("vi", "VN"));
 
@@ -64,30 +129,50 @@ public class SavingsGoalAdapter extends ListAdapter<SavingsGoalEntity, SavingsGo
             this.binding = binding;
         }
 
-        void bind(SavingsGoalEntity goal) {
-            binding.tvIcon.setText(goal.getIcon() != null ? goal.getIcon() : "🎯");
-            binding.tvName.setText(goal.getName());
-            binding.tvDeadline.setText("Hạn: " + DateUtils.formatDate(goal.getDeadline()));
-            
-            int progress = goal.getProgressPercentage();
-            binding.tvPercentage.setText(progress + "%");
-            binding.progressBar.setProgress(progress);
-            
-            binding.tvCurrent.setText("Đã tiết kiệm: " + formatter.format(goal.getCurrentAmount()) + " ₫");
-            binding.tvTarget.setText("Mục tiêu: " + formatter.format(goal.getTargetAmount()) + " ₫");
-            
-            binding.btnAddMoney.setOnClickListener(v -> {
-                if (onAddMoneyClickListener != null) {
-                    onAddMoneyClickListener.onAddMoneyClick(goal);
-                }
-            });
-            
+        void bind(SavingsGoalEntity goal, SavingsProjection projection, int changes) {
+            if ((changes & PART_HEADER) != 0) {
+                binding.tvIcon.setText(goal.getIcon() != null ? goal.getIcon() : "🎯");
+                binding.tvName.setText(goal.getName());
+                binding.tvDeadline.setText("Hạn: " + DateUtils.formatDate(goal.getDeadline()));
+            }
+
+            if ((changes & PART_PROGRESS) != 0) {
+                int progress = goal.getProgressPercentage();
+                binding.tvPercentage.setText(progress + "%");
+                binding.progressBar.setProgress(progress);
+
+                binding.tvCurrent.setText("Đã tiết kiệm: " + formatter.format(goal.getCurrentAmount()) + " ₫");
+                binding.tvTarget.setText("Mục tiêu: " + formatter.format(goal.getTargetAmount()) + " ₫");
+            }
+
+            // Pace and deadline both move the forecast
+            if ((changes & (PART_HEADER | PART_PROGRESS | PART_PROJECTION)) != 0) {
+                bindProjection(goal, projection);
+            }
+
             // Hide add money button if completed
-            if (goal.isCompleted()) {
-                binding.btnAddMoney.setVisibility(View.GONE);
+            if ((changes & PART_STATE) != 0) {
+                binding.btnAddMoney.setVisibility(goal.isCompleted() ? View.GONE : View.VISIBLE);
+            }
+        }
+
+        private void bindProjection(SavingsGoalEntity goal, SavingsProjection projection) {
+            if (projection == null || goal.isCompleted() || projection.remaining == 0) {
+                binding.tvProjection.setVisibility(View.GONE);
+                return;
+            }
+            binding.tvProjection.setVisibility(View.VISIBLE);
+            String rate = "Cần " + formatter.format(Math.ceil(projection.requiredDaily)) + " ₫/ngày · "
+                    + formatter.format(Math.ceil(projection.requiredWeekly)) + " ₫/tuần";
+            String forecast;
+            if (projection.estimatedCompletion == SavingsProjection.NO_ESTIMATE) {
+                forecast = "Chưa đủ dữ liệu để dự kiến";
+            } else if (projection.onTrack) {
+                forecast = "Dự kiến đạt: " + DateUtils.formatDate(projection.estimatedCompletion) + " ✓";
             } else {
-                binding.btnAddMoney.setVisibility(View.VISIBLE);
+                forecast = "Dự kiến đạt: " + DateUtils.formatDate(projection.estimatedCompletion) + " (trễ hạn)";
             }
+            binding.tvProjection.setText(rate + "\n" + forecast);
         }
     }
 
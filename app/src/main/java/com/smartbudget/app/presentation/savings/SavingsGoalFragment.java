@@ -1,5 +1,6 @@
 package com.smartbudget.app.presentation.savings;
 
+import android.app.Activity;
 import android.app.AlertDialog;
 import android.os.Bundle;
 import android.view.LayoutInflater;
@@ -15,22 +16,20 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.smartbudget.app.R;
-import com.smartbudget.app.data.local.AppDatabase;
 import com.smartbudget.app.data.local.entity.SavingsGoalEntity;
+import com.smartbudget.app.data.repository.SavingsGoalRepository;
 import com.smartbudget.app.databinding.FragmentSavingsGoalBinding;
 import com.smartbudget.app.utils.CurrencyUtils;
 
 import java.text.NumberFormat;
 import java.util.Calendar;
-import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.Executors;
 
 public class SavingsGoalFragment extends Fragment {
 
     private FragmentSavingsGoalBinding binding;
     private SavingsGoalAdapter adapter;
-    private AppDatabase database;
+    private SavingsGoalViewModel viewModel;
 
     @Nullable
     @Override
@@ -44,11 +43,11 @@ public class SavingsGoalFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
         
-        database = AppDatabase.getInstance(requireContext());
+        viewModel = new ViewModelProvider(this).get(SavingsGoalViewModel.class);
         
         setupRecyclerView();
         setupListeners();
-        loadGoals();
+        observeGoals();
     }
 
     private void setupRecyclerView() {
@@ -63,30 +62,28 @@ public class SavingsGoalFragment extends Fragment {
         binding.fabAddGoal.setOnClickListener(v -> showAddGoalDialog());
     }
 
-    private void loadGoals() {
-        Executors.newSingleThreadExecutor().execute(() -> {
-            List<SavingsGoalEntity> activeGoals = database.savingsGoalDao().getActiveGoalsSync();
-            List<SavingsGoalEntity> completedGoals = database.savingsGoalDao().getCompletedGoalsSync();
-            Double totalSaved = database.savingsGoalDao().getTotalSavedSync();
-            
-            requireActivity().runOnUiThread(() -> {
-                // Update summary
-                NumberFormat formatter = NumberFormat.getInstance(new Locale("vi", "VN"));
-                binding.tvTotalSaved.setText(formatter.format(totalSaved != null ? totalSaved : 0) + " ₫");
-                binding.tvActiveGoals.setText(activeGoals.size() + " mục tiêu đang thực hiện");
-                binding.tvCompletedGoals.setText(completedGoals.size() + " đã hoàn thành ✓");
-                
-                // Show goals
-                if (activeGoals.isEmpty()) {
-                    binding.rvGoals.setVisibility(View.GONE);
-                    binding.layoutEmpty.setVisibility(View.VISIBLE);
-                } else {
-                    binding.rvGoals.setVisibility(View.VISIBLE);
-                    binding.layoutEmpty.setVisibility(View.GONE);
-                    adapter.submitList(activeGoals);
-                }
-            });
-        });
+    private void observeGoals() {
+        // Goals, totals and projections arrive together; Room re-emits after every write
+        viewModel.getSnapshot().observe(getViewLifecycleOwner(), this::showSnapshot);
+    }
+
+    private void showSnapshot(SavingsGoalRepository.Snapshot snapshot) {
+        // Update summary
+        NumberFormat formatter = NumberFormat.getInstance(new Locale("vi", "VN"));
+        binding.tvTotalSaved.setText(formatter.format(snapshot.totalSaved) + " ₫");
+        binding.tvActiveGoals.setText(snapshot.activeGoals.size() + " mục tiêu đang thực hiện");
+        binding.tvCompletedGoals.setText(snapshot.completedGoals.size() + " đã hoàn thành ✓");
+        
+        // Show goals
+        if (snapshot.activeGoals.isEmpty()) {
+            binding.rvGoals.setVisibility(View.GONE);
+            binding.layoutEmpty.setVisibility(View.VISIBLE);
+        } else {
+            binding.rvGoals.setVisibility(View.VISIBLE);
+            binding.layoutEmpty.setVisibility(View.GONE);
+            adapter.setProjections(snapshot.projections);
+            adapter.submitList(snapshot.activeGoals);
+        }
     }
 
     private void showAddGoalDialog() {
@@ -116,13 +113,8 @@ public class SavingsGoalFragment extends Fragment {
                     SavingsGoalEntity goal = new SavingsGoalEntity(name, amount, deadline.getTimeInMillis());
                     goal.setIcon("🎯");
                     
-                    Executors.newSingleThreadExecutor().execute(() -> {
-                        database.savingsGoalDao().insert(goal);
-                        requireActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Đã thêm mục tiêu!", Toast.LENGTH_SHORT).show();
-                            loadGoals();
-                        });
-                    });
+                    viewModel.addGoal(goal);
+                    Toast.makeText(requireContext(), "Đã thêm mục tiêu!", Toast.LENGTH_SHORT).show();
                 })
                 .setNegativeButton("Hủy", null)
                 .show();
@@ -141,25 +133,29 @@ public class SavingsGoalFragment extends Fragment {
                     if (amountStr.isEmpty()) return;
                     
                     double amount = Double.parseDouble(amountStr);
-                    double newAmount = goal.getCurrentAmount() + amount;
-                    boolean isCompleted = newAmount >= goal.getTargetAmount();
+                    Activity activity = requireActivity();
                     
-                    Executors.newSingleThreadExecutor().execute(() -> {
-                        database.savingsGoalDao().updateProgress(goal.getId(), newAmount, isCompleted);
-                        requireActivity().runOnUiThread(() -> {
-                            if (isCompleted) {
-                                Toast.makeText(requireContext(), "🎉 Chúc mừng! Bạn đã hoàn thành mục tiêu!", Toast.LENGTH_LONG).show();
-                            } else {
-                                Toast.makeText(requireContext(), "Đã thêm tiền!", Toast.LENGTH_SHORT).show();
-                            }
-                            loadGoals();
-                        });
-                    });
+                    // Recorded as a contribution; the goal completes in the same write
+                    viewModel.addSavings(goal.getId(), amount, updated -> activity.runOnUiThread(() -> {
+                        if (updated == null) return;
+                        if (updated.isCompleted() && !goal.isCompleted()) {
+                            Toast.makeText(activity, "🎉 Chúc mừng! Bạn đã hoàn thành mục tiêu!", Toast.LENGTH_LONG).show();
+                        } else {
+                            Toast.makeText(activity, "Đã thêm tiền!", Toast.LENGTH_SHORT).show();
+                        }
+                    }));
                 })
                 .setNegativeButton("Hủy", null)
                 .show();
     }
 
+    @Override
+    public void onResume() {
+        super.onResume();
+        // The pace window is day-aligned; re-query if the screen was left open past midnight
+        viewModel.refreshSnapshotWindow();
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
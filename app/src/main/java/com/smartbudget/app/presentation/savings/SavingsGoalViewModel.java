@@ -0,0 +1,49 @@
+package com.smartbudget.app.presentation.savings;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+
+import com.smartbudget.app.data.local.entity.SavingsGoalEntity;
+import com.smartbudget.app.data.repository.SavingsGoalRepository;
+
+/**
+ * Savings screen state: one snapshot of goals, totals and projections that Room re-emits
+ * after every goal or contribution write, so the screen never reloads by hand.
+ */
+public class SavingsGoalViewModel extends AndroidViewModel {
+
+    private final SavingsGoalRepository repository;
+    private final LiveData<SavingsGoalRepository.Snapshot> snapshot;
+
+    public SavingsGoalViewModel(@NonNull Application application) {
+        super(application);
+        repository = new SavingsGoalRepository(application);
+        snapshot = repository.getSnapshot();
+    }
+
+    public LiveData<SavingsGoalRepository.Snapshot> getSnapshot() {
+        return snapshot;
+    }
+
+    /** Moves the pace window forward if the day changed while the screen was away. */
+    public void refreshSnapshotWindow() {
+        repository.refreshSnapshotWindow();
+    }
+
+    public void addGoal(SavingsGoalEntity goal) {
+        repository.insert(goal);
+    }
+
+    public void addSavings(long goalId, double amount, SavingsGoalRepository.ContributionCallback callback) {
+        repository.addSavings(goalId, amount, callback);
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        repository.shutdown();
+    }
+}
@@ -0,0 +1,147 @@
+package com.smartbudget.app.presentation.scan;
+
+import android.os.Bundle;
+import android.view.View;
+import android.widget.Toast;
+
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AlertDialog;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+
+import com.smartbudget.app.data.local.entity.CategoryEntity;
+import com.smartbudget.app.databinding.ActivityBatchScanBinding;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Batch receipt scanning: pick several images, review the drafts as they come out of the
+ * pipeline and save them in one go.
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public class BatchScanActivity extends AppCompatActivity {
+
+    private ActivityBatchScanBinding binding;
+    private BatchScanViewModel viewModel;
+    private ReceiptDraftAdapter adapter;
+    private List<CategoryEntity> categories = Collections.emptyList();
+
+    private final ActivityResultLauncher<String> pickImagesLauncher = registerForActivityResult(
+            new ActivityResultContracts.GetMultipleContents(),
+            uris -> {
+                if (uris != null && !uris.isEmpty()) {
+                    viewModel.startBatch(uris);
+                }
+            });
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivityBatchScanBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        viewModel = new ViewModelProvider(this).get(BatchScanViewModel.class);
+
+        adapter = new ReceiptDraftAdapter();
+        adapter.setOnDraftActionListener(new ReceiptDraftAdapter.OnDraftActionListener() {
+            @Override
+            public void onSave(ReceiptDraft draft) {
+                viewModel.saveDraft(draft);
+            }
+
+            @Override
+            public void onDiscard(ReceiptDraft draft) {
+                viewModel.discard(draft);
+            }
+
+            @Override
+            public void onPickCategory(ReceiptDraft draft) {
+                showCategoryPicker(draft);
+            }
+        });
+        binding.rvDrafts.setLayoutManager(new LinearLayoutManager(this));
+        binding.rvDrafts.setAdapter(adapter);
+
+        setupListeners();
+        observeViewModel();
+    }
+
+    private void setupListeners() {
+        binding.toolbar.setNavigationOnClickListener(v -> finish());
+        binding.switchAi.setOnCheckedChangeListener((button, checked) -> viewModel.setUseAi(checked));
+        binding.btnPick.setOnClickListener(v -> pickImagesLauncher.launch("image/*"));
+        binding.btnSaveAll.setOnClickListener(v -> viewModel.saveAll());
+        binding.btnCancel.setOnClickListener(v -> viewModel.cancelBatch());
+    }
+
+    private void observeViewModel() {
+        viewModel.getDrafts().observe(this, this::showDrafts);
+        viewModel.getExpenseCategories().observe(this, list ->
+                categories = list != null ? list : Collections.emptyList());
+
+        viewModel.getProgress().observe(this, progress -> {
+            boolean running = progress.isRunning();
+            binding.layoutProgress.setVisibility(running ? View.VISIBLE : View.GONE);
+            binding.progressBatch.setMax(Math.max(progress.total, 1));
+            binding.progressBatch.setProgressCompat(progress.done, true);
+            binding.tvProgress.setText(progress.done + "/" + progress.total);
+            // Switching provider mid-batch would restart the pipeline
+            binding.switchAi.setEnabled(!running);
+            binding.btnPick.setEnabled(!running);
+        });
+
+        viewModel.getSavedCount().observe(this, count -> {
+            if (count != null && count > 0) {
+                Toast.makeText(this, "Đã lưu " + count + " chi tiêu", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private void showCategoryPicker(ReceiptDraft draft) {
+        if (categories.isEmpty()) {
+            Toast.makeText(this, "Chưa có danh mục chi tiêu", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        String[] names = new String[categories.size()];
+        int checked = -1;
+        for (int i = 0; i < categories.size(); i++) {
+            CategoryEntity category = categories.get(i);
+            names[i] = category.getIcon() + " " + category.getName();
+            if (draft.category != null && category.getId() == draft.category.getId()) {
+                checked = i;
+            }
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle("Chọn danh mục")
+                .setSingleChoiceItems(names, checked, (dialog, which) -> {
+                    viewModel.setCategory(draft, categories.get(which));
+                    dialog.dismiss();
+                })
+                .setNegativeButton("Hủy", null)
+                .show();
+    }
+
+    private void showDrafts(List<ReceiptDraft> drafts) {
+        adapter.submitList(drafts);
+        boolean empty = drafts == null || drafts.isEmpty();
+        binding.emptyState.setVisibility(empty ? View.VISIBLE : View.GONE);
+        binding.rvDrafts.setVisibility(empty ? View.GONE : View.VISIBLE);
+
+        boolean anyReady = false;
+        if (drafts != null) {
+            for (ReceiptDraft draft : drafts) {
+                if (!draft.isFailed()) {
+                    anyReady = true;
+                    break;
+                }
+            }
+        }
+        binding.btnSaveAll.setEnabled(anyReady);
+    }
+}
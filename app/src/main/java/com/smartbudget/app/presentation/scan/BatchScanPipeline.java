@@ -0,0 +1,340 @@
+package com.smartbudget.app.presentation.scan;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.mlkit.vision.common.InputImage;
+import com.google.mlkit.vision.text.Text;
+import com.google.mlkit.vision.text.TextRecognition;
+import com.google.mlkit.vision.text.TextRecognizer;
+import com.google.mlkit.vision.text.latin.TextRecognizerOptions;
+import com.smartbudget.app.ai.AICallback;
+import com.smartbudget.app.ai.AIService;
+import com.smartbudget.app.ai.impl.GeminiServiceImpl;
+import com.smartbudget.app.ai.impl.GroqServiceImpl;
+import com.smartbudget.app.data.local.ReceiptStore;
+import com.smartbudget.app.data.local.entity.CategoryEntity;
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.utils.BoundedPipeline;
+import com.smartbudget.app.utils.CategoryManager;
+import com.smartbudget.app.utils.EpochDays;
+import com.smartbudget.app.utils.LocationTagManager;
+import com.smartbudget.app.utils.ReceiptImagePipeline;
+import com.smartbudget.app.utils.ReceiptParser;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Batch receipt scanning: decode → ML Kit OCR → ReceiptParser (+ optional AI refinement) →
+ * draft expense, as concurrent {@link BoundedPipeline} stages.
+ *
+ * <p>Receipts that ReceiptParser reads with high confidence skip the AI call.
+ * Hand-off queues hold {@link #QUEUE_CAPACITY} items, so at most a few decoded bitmaps wait
+ * for OCR; OCR is the single-threaded bottleneck and AI round-trips overlap with it on their
+ * own workers. Drafts are delivered one by one on the main thread as they finish.</p>
+ *
+ * <p>Each draft gets a category suggested from the merchant and note keywords, "Khác" when
+ * none matches, so a saved draft always counts towards totals and budgets.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public class BatchScanPipeline {
+
+    private static final String TAG = "BatchScanPipeline";
+
+    private static final int QUEUE_CAPACITY = 2;
+    // AI refinement is network bound - several requests may overlap OCR of the next receipts
+    private static final int PARSE_WORKERS = 3;
+    private static final long AI_TIMEOUT_SECONDS = 20;
+
+    private static final Pattern DATE_PATTERN = Pattern.compile("(\\d{1,2})[/-](\\d{1,2})[/-](\\d{2,4})");
+
+    public interface Listener {
+        /** A receipt finished (successfully or not). Main thread. */
+        void onDraft(@NonNull ReceiptDraft draft);
+
+        /** Every image of the batch has been processed. Main thread. */
+        void onBatchFinished();
+    }
+
+    private final ReceiptImagePipeline imagePipeline;
+    private final ReceiptStore receiptStore;
+    private final CategoryManager categoryManager;
+    private final LocationTagManager locationTags;
+    private final TextRecognizer textRecognizer;
+    @Nullable
+    private final AIService aiService;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private BoundedPipeline<Uri, ReceiptDraft> running;
+
+    /**
+     * @param useAi Refine locally parsed receipts with the configured AI provider, if any
+     */
+    public BatchScanPipeline(@NonNull Context context, boolean useAi) {
+        Context app = context.getApplicationContext();
+        this.imagePipeline = new ReceiptImagePipeline(app);
+        this.receiptStore = ReceiptStore.getInstance(app);
+        this.categoryManager = new CategoryManager(app);
+        this.locationTags = new LocationTagManager(app);
+        this.textRecognizer = TextRecognition.getClient(TextRecognizerOptions.DEFAULT_OPTIONS);
+        this.aiService = useAi ? pickAiService() : null;
+    }
+
+    // ==================== CONTROL ====================
+
+    /**
+     * Starts processing {@code uris}. A batch already running is cancelled.
+     */
+    public void start(@NonNull List<Uri> uris, @NonNull Listener listener) {
+        cancel();
+        BoundedPipeline<Uri, ReceiptDraft> pipeline = BoundedPipeline.<Uri>builder("batch-scan", QUEUE_CAPACITY)
+                .stage("decode", 1, this::decode)
+                .stage("ocr", 1, this::recognize)
+                .stage("parse", PARSE_WORKERS, this::parse)
+                .stage("draft", 1, this::createDraft)
+                .build(new BoundedPipeline.Listener<ReceiptDraft>() {
+                    @Override
+                    public void onResult(int index, ReceiptDraft draft) {
+                        mainHandler.post(() -> listener.onDraft(draft));
+                    }
+
+                    @Override
+                    public void onError(int index, String stage, Exception error) {
+                        Log.w(TAG, "Receipt " + index + " failed at " + stage, error);
+                        ReceiptDraft draft = ReceiptDraft.failed(uris.get(index), stage + ": " + error.getMessage());
+                        mainHandler.post(() -> listener.onDraft(draft));
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        mainHandler.post(listener::onBatchFinished);
+                    }
+                });
+        running = pipeline;
+        pipeline.start();
+
+        // submit() blocks on backpressure, so feed from a worker thread
+        Thread feeder = new Thread(() -> {
+            try {
+                for (Uri uri : uris) {
+                    if (pipeline.isCancelled()) return;
+                    pipeline.submit(uri);
+                }
+                pipeline.close();
+            } catch (InterruptedException | IllegalStateException e) {
+                // Cancelled while feeding; submit() gives up once the pipeline is cancelled
+            }
+        }, "batch-scan-feeder");
+        feeder.setDaemon(true);
+        feeder.start();
+    }
+
+    public void cancel() {
+        if (running != null) {
+            running.cancel();
+            running = null;
+        }
+    }
+
+    /**
+     * Cancels any batch and releases the recognizer and pooled bitmaps.
+     */
+    public void release() {
+        cancel();
+        textRecognizer.close();
+        imagePipeline.clear();
+    }
+
+    // ==================== STAGES ====================
+
+    private static final class Decoded {
+        final Uri uri;
+        final ReceiptImagePipeline.Result image;
+
+        Decoded(Uri uri, ReceiptImagePipeline.Result image) {
+            this.uri = uri;
+            this.image = image;
+        }
+    }
+
+    private static final class Recognized {
+        final Uri uri;
+        final String text;
+
+        Recognized(Uri uri, String text) {
+            this.uri = uri;
+            this.text = text;
+        }
+    }
+
+    private static final class Parsed {
+        final Uri uri;
+        final ReceiptParser.ReceiptData data;
+        final String note;
+        final boolean aiRefined;
+
+        Parsed(Uri uri, ReceiptParser.ReceiptData data, String note, boolean aiRefined) {
+            this.uri = uri;
+            this.data = data;
+            this.note = note;
+            this.aiRefined = aiRefined;
+        }
+    }
+
+    private Decoded decode(Uri uri) throws IOException {
+        // ML Kit takes the rotation, so skip rotating the bitmap
+        return new Decoded(uri, imagePipeline.processSync(uri,
+                ReceiptImagePipeline.Options.forOcr().setApplyRotation(false)));
+    }
+
+    private Recognized recognize(Decoded decoded) throws Exception {
+        try {
+            InputImage image = InputImage.fromBitmap(decoded.image.bitmap, decoded.image.rotationDegrees);
+            Text text = Tasks.await(textRecognizer.process(image));
+            String raw = text.getText();
+            if (raw.isEmpty()) {
+                throw new IOException("Không tìm thấy chữ trong ảnh");
+            }
+            return new Recognized(decoded.uri, raw);
+        } finally {
+            imagePipeline.recycle(decoded.image.bitmap);
+        }
+    }
+
+    private Parsed parse(Recognized recognized) throws InterruptedException {
+        ReceiptParser.ReceiptData local = ReceiptParser.parse(recognized.text);
+        if (aiService == null || local.isConfident()) {
+            return new Parsed(recognized.uri, local, localNote(local), false);
+        }
+
+        String response = askAi(recognized.text);
+        if (response != null) {
+            try {
+                JSONObject json = new JSONObject(response);
+                ReceiptParser.ReceiptData refined = new ReceiptParser.ReceiptData();
+                refined.setAmount(json.optDouble("amount", local.getAmount()));
+                refined.setMerchant(json.optString("merchant", local.getMerchant()));
+                refined.setDate(json.optString("date", local.getDate()));
+
+                StringBuilder note = new StringBuilder(refined.getMerchant() != null ? refined.getMerchant() : "");
+                JSONArray items = json.optJSONArray("items");
+                if (items != null) {
+                    for (int i = 0; i < items.length(); i++) {
+                        note.append("\n- ").append(items.optString(i));
+                    }
+                }
+                return new Parsed(recognized.uri, refined, note.toString().trim(), true);
+            } catch (JSONException e) {
+                Log.w(TAG, "AI returned invalid JSON, keeping local parse", e);
+            }
+        }
+        return new Parsed(recognized.uri, local, localNote(local), false);
+    }
+
+    private ReceiptDraft createDraft(Parsed parsed) throws IOException {
+        // Keyword match on the merchant and items; findByName falls back to "Khác"
+        String merchant = parsed.data.getMerchant();
+        CategoryEntity category = categoryManager.findByName(
+                locationTags.suggestCategory((merchant != null ? merchant + "\n" : "") + parsed.note));
+        if (category == null) {
+            throw new IOException("Không tìm thấy danh mục \"" + CategoryManager.FALLBACK_CATEGORY + "\"");
+        }
+
+        String receiptPath = null;
+        try {
+            receiptPath = receiptStore.store(parsed.uri);
+        } catch (IOException e) {
+            Log.w(TAG, "Receipt image not stored", e);
+        }
+
+        ExpenseEntity expense = new ExpenseEntity();
+        expense.setAmount(parsed.data.getAmount());
+        expense.setDate(parseDate(parsed.data.getDate()));
+        expense.setNote(parsed.note);
+        expense.setReceiptImagePath(receiptPath);
+        return ReceiptDraft.ready(parsed.uri, expense, merchant, category, parsed.aiRefined);
+    }
+
+    // ==================== HELPERS ====================
+
+    private static String localNote(ReceiptParser.ReceiptData data) {
+        String items = data.getItemsNote();
+        String merchant = data.getMerchant() != null ? data.getMerchant() : "";
+        return items != null ? (merchant + "\n" + items).trim() : merchant;
+    }
+
+    @Nullable
+    private static AIService pickAiService() {
+        AIService service = new GroqServiceImpl();
+        if (!service.isConfigured()) {
+            service = new GeminiServiceImpl();
+        }
+        return service.isConfigured() ? service : null;
+    }
+
+    /**
+     * Blocking AI call for a parse worker; null on error or timeout.
+     */
+    @Nullable
+    private String askAi(String rawText) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<String> result = new AtomicReference<>();
+        aiService.parseReceipt(rawText, new AICallback() {
+            @Override
+            public void onSuccess(String response) {
+                result.set(response);
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(String error, int code) {
+                Log.w(TAG, "AI refinement failed: " + error);
+                latch.countDown();
+            }
+        });
+        latch.await(AI_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        return result.get();
+    }
+
+    /**
+     * Receipt date "dd/MM/yyyy" (or dd-MM-yy) at local noon; now when missing or invalid.
+     */
+    static long parseDate(@Nullable String date) {
+        if (date != null) {
+            Matcher m = DATE_PATTERN.matcher(date);
+            if (m.find()) {
+                int day = Integer.parseInt(m.group(1));
+                int month = Integer.parseInt(m.group(2));
+                int year = Integer.parseInt(m.group(3));
+                if (year < 100) year += 2000;
+                int monthIndex = year * 12 + month - 1;
+                if (month >= 1 && month <= 12 && day >= 1 && day <= EpochDays.daysInMonth(monthIndex)) {
+                    int dayIndex = EpochDays.firstDayOfMonth(monthIndex) + day - 1;
+                    if (dayIndex <= EpochDays.today()) {
+                        return EpochDays.startOfDay(dayIndex) + EpochDays.DAY_MILLIS / 2;
+                    }
+                }
+            }
+        }
+        return System.currentTimeMillis();
+    }
+}
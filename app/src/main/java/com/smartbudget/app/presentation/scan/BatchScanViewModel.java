@@ -0,0 +1,178 @@
+package com.smartbudget.app.presentation.scan;
+
+import android.app.Application;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.smartbudget.app.data.local.entity.CategoryEntity;
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.data.repository.CategoryRepository;
+import com.smartbudget.app.data.repository.ExpenseRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ViewModel for BatchScanActivity: runs the BatchScanPipeline and holds the review queue.
+ * The batch survives rotation; it is cancelled only when the screen is closed.
+ */
+public class BatchScanViewModel extends AndroidViewModel {
+
+    /** Progress of the current batch */
+    public static final class Progress {
+        public final int done;
+        public final int total;
+
+        Progress(int done, int total) {
+            this.done = done;
+            this.total = total;
+        }
+
+        public boolean isRunning() {
+            return done < total;
+        }
+    }
+
+    private final ExpenseRepository expenseRepository;
+    private final LiveData<List<CategoryEntity>> expenseCategories;
+    private final List<ReceiptDraft> queue = new ArrayList<>();
+    private final MutableLiveData<List<ReceiptDraft>> drafts = new MutableLiveData<>(Collections.emptyList());
+    private final MutableLiveData<Progress> progress = new MutableLiveData<>(new Progress(0, 0));
+    private final MutableLiveData<Integer> savedCount = new MutableLiveData<>();
+
+    private BatchScanPipeline pipeline;
+    private boolean useAi = true;
+    private int done;
+    private int total;
+    // Bumped per batch; callbacks of a superseded (cancelled) batch are still queued on the
+    // main thread and must not touch the new batch's progress or queue
+    private int batchGeneration;
+
+    public BatchScanViewModel(@NonNull Application application) {
+        super(application);
+        expenseRepository = new ExpenseRepository(application);
+        expenseCategories = new CategoryRepository(application).getExpenseCategories();
+    }
+
+    public LiveData<List<ReceiptDraft>> getDrafts() {
+        return drafts;
+    }
+
+    public LiveData<Progress> getProgress() {
+        return progress;
+    }
+
+    /** Number of drafts saved by the last save action */
+    public LiveData<Integer> getSavedCount() {
+        return savedCount;
+    }
+
+    /** Choices for the draft category picker */
+    public LiveData<List<CategoryEntity>> getExpenseCategories() {
+        return expenseCategories;
+    }
+
+    public void setUseAi(boolean useAi) {
+        if (this.useAi != useAi && pipeline != null) {
+            pipeline.release();
+            pipeline = null;
+        }
+        this.useAi = useAi;
+    }
+
+    // ==================== BATCH ====================
+
+    /**
+     * Queues the picked images. A batch still running is cancelled; its finished drafts stay,
+     * results it had not delivered yet are dropped.
+     */
+    public void startBatch(@NonNull List<Uri> uris) {
+        if (uris.isEmpty()) return;
+        if (pipeline == null) {
+            pipeline = new BatchScanPipeline(getApplication(), useAi);
+        }
+        final int generation = ++batchGeneration;
+        done = 0;
+        total = uris.size();
+        progress.setValue(new Progress(done, total));
+
+        pipeline.start(uris, new BatchScanPipeline.Listener() {
+            @Override
+            public void onDraft(@NonNull ReceiptDraft draft) {
+                if (generation != batchGeneration) return;
+                queue.add(draft);
+                publish();
+                progress.setValue(new Progress(++done, total));
+            }
+
+            @Override
+            public void onBatchFinished() {
+                if (generation != batchGeneration) return;
+                // Cancelled batches finish early; don't leave the bar spinning
+                done = total;
+                progress.setValue(new Progress(done, total));
+            }
+        });
+    }
+
+    public void cancelBatch() {
+        if (pipeline != null) pipeline.cancel();
+    }
+
+    // ==================== REVIEW QUEUE ====================
+
+    /** Files the draft under {@code category}; it keeps its place in the queue. */
+    public void setCategory(@NonNull ReceiptDraft draft, @NonNull CategoryEntity category) {
+        int index = queue.indexOf(draft);
+        if (index < 0 || draft.isFailed()) return;
+        queue.set(index, draft.withCategory(category));
+        publish();
+    }
+
+    public void saveDraft(@NonNull ReceiptDraft draft) {
+        if (draft.isFailed() || !queue.remove(draft)) return;
+        expenseRepository.insert(draft.toExpense());
+        publish();
+        savedCount.setValue(1);
+    }
+
+    /**
+     * Saves every successful draft in one transaction; failed ones stay in the queue for the
+     * user to discard.
+     */
+    public void saveAll() {
+        List<ExpenseEntity> expenses = new ArrayList<>();
+        for (int i = queue.size() - 1; i >= 0; i--) {
+            ReceiptDraft draft = queue.get(i);
+            if (!draft.isFailed()) {
+                queue.remove(i);
+                expenses.add(draft.toExpense());
+            }
+        }
+        if (expenses.isEmpty()) return;
+        // Queue order, oldest draft first
+        Collections.reverse(expenses);
+        expenseRepository.insertAll(expenses);
+        publish();
+        savedCount.setValue(expenses.size());
+    }
+
+    public void discard(@NonNull ReceiptDraft draft) {
+        if (queue.remove(draft)) publish();
+    }
+
+    private void publish() {
+        drafts.setValue(new ArrayList<>(queue));
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        if (pipeline != null) pipeline.release();
+    }
+}
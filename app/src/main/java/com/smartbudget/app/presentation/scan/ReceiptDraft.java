@@ -0,0 +1,77 @@
+package com.smartbudget.app.presentation.scan;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.smartbudget.app.data.local.entity.CategoryEntity;
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One receipt from a batch scan waiting in the review queue.
+ * Either a ready-to-save draft expense or a failure with its reason.
+ * The category is suggested from the merchant and can be changed in the review queue; it is
+ * applied to the expense only when the draft is saved.
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class ReceiptDraft {
+
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+    /** Unique across batches, used as the list's stable id */
+    public final long id;
+    public final Uri source;
+    /** Draft expense (not yet inserted); null when the scan failed */
+    @Nullable
+    public final ExpenseEntity expense;
+    @Nullable
+    public final String merchant;
+    /** Category the expense is saved under; null only for a failed draft */
+    @Nullable
+    public final CategoryEntity category;
+    /** True when the amount / merchant / date came from AI refinement rather than ReceiptParser */
+    public final boolean aiRefined;
+    /** Failing stage and message; null for a successful draft */
+    @Nullable
+    public final String error;
+
+    private ReceiptDraft(long id, Uri source, @Nullable ExpenseEntity expense, @Nullable String merchant,
+                         @Nullable CategoryEntity category, boolean aiRefined, @Nullable String error) {
+        this.id = id;
+        this.source = source;
+        this.expense = expense;
+        this.merchant = merchant;
+        this.category = category;
+        this.aiRefined = aiRefined;
+        this.error = error;
+    }
+
+    static ReceiptDraft ready(@NonNull Uri source, @NonNull ExpenseEntity expense, @Nullable String merchant,
+                              @NonNull CategoryEntity category, boolean aiRefined) {
+        return new ReceiptDraft(NEXT_ID.getAndIncrement(), source, expense, merchant, category, aiRefined, null);
+    }
+
+    static ReceiptDraft failed(@NonNull Uri source, @NonNull String error) {
+        return new ReceiptDraft(NEXT_ID.getAndIncrement(), source, null, null, null, false, error);
+    }
+
+    /** The same draft (same id and list row) filed under another category */
+    ReceiptDraft withCategory(@NonNull CategoryEntity category) {
+        return new ReceiptDraft(id, source, expense, merchant, category, aiRefined, error);
+    }
+
+    /** The expense to insert, filed under the chosen category */
+    ExpenseEntity toExpense() {
+        expense.setCategoryId(category.getId());
+        return expense;
+    }
+
+    public boolean isFailed() {
+        return expense == null;
+    }
+}
@@ -0,0 +1,113 @@
+package com.smartbudget.app.presentation.scan;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.smartbudget.app.databinding.ItemReceiptDraftBinding;
+import com.smartbudget.app.presentation.adapter.DiffListAdapter;
+import com.smartbudget.app.utils.CurrencyUtils;
+import com.smartbudget.app.utils.EpochDays;
+
+/**
+ * Review queue of a batch scan. Drafts are immutable, so a row only ever binds in full.
+ */
+public class ReceiptDraftAdapter extends DiffListAdapter<ReceiptDraft, ReceiptDraftAdapter.DraftViewHolder> {
+
+    private OnDraftActionListener listener;
+
+    public interface OnDraftActionListener {
+        void onSave(ReceiptDraft draft);
+
+        void onDiscard(ReceiptDraft draft);
+
+        void onPickCategory(ReceiptDraft draft);
+    }
+
+    public ReceiptDraftAdapter() {
+        super(ROW_CALLBACK);
+    }
+
+    public void setOnDraftActionListener(OnDraftActionListener listener) {
+        this.listener = listener;
+    }
+
+    private static final RowCallback<ReceiptDraft> ROW_CALLBACK = new RowCallback<ReceiptDraft>() {
+        @Override
+        public long getId(@NonNull ReceiptDraft item) {
+            return item.id;
+        }
+
+        @Override
+        public int getChanges(@NonNull ReceiptDraft oldItem, @NonNull ReceiptDraft newItem) {
+            return oldItem == newItem ? 0 : CHANGED_ALL;
+        }
+    };
+
+    @NonNull
+    @Override
+    public DraftViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        ItemReceiptDraftBinding binding = ItemReceiptDraftBinding.inflate(
+                LayoutInflater.from(parent.getContext()), parent, false);
+        DraftViewHolder holder = new DraftViewHolder(binding);
+        binding.btnSave.setOnClickListener(v -> {
+            ReceiptDraft draft = getItemAt(holder);
+            if (draft != null && listener != null) listener.onSave(draft);
+        });
+        binding.btnDiscard.setOnClickListener(v -> {
+            ReceiptDraft draft = getItemAt(holder);
+            if (draft != null && listener != null) listener.onDiscard(draft);
+        });
+        binding.btnCategory.setOnClickListener(v -> {
+            ReceiptDraft draft = getItemAt(holder);
+            if (draft != null && listener != null) listener.onPickCategory(draft);
+        });
+        return holder;
+    }
+
+    @Override
+    protected void onBind(@NonNull DraftViewHolder holder, @NonNull ReceiptDraft draft, int changes) {
+        ItemReceiptDraftBinding binding = holder.binding;
+        // Picked image from the content URI; Glide samples it down to the 64dp view
+        Glide.with(binding.ivReceipt)
+                .load(draft.source)
+                .centerCrop()
+                .into(binding.ivReceipt);
+
+        if (draft.isFailed()) {
+            binding.tvMerchant.setText("Không đọc được hoá đơn");
+            binding.tvAmount.setText("");
+            binding.tvDetail.setText(draft.error);
+            binding.btnSave.setVisibility(View.GONE);
+            binding.btnCategory.setVisibility(View.GONE);
+            return;
+        }
+
+        binding.tvMerchant.setText(draft.merchant != null && !draft.merchant.isEmpty()
+                ? draft.merchant : "Hoá đơn");
+        binding.tvAmount.setText(CurrencyUtils.formatVND(draft.expense.getAmount()));
+        String date = EpochDays.dateLabel(EpochDays.dayIndex(draft.expense.getDate()));
+        binding.tvDetail.setText(draft.aiRefined ? date + " · ✨ AI" : date);
+        binding.btnCategory.setText(draft.category.getIcon() + " " + draft.category.getName());
+        binding.btnCategory.setVisibility(View.VISIBLE);
+        binding.btnSave.setVisibility(View.VISIBLE);
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull DraftViewHolder holder) {
+        Glide.with(holder.binding.ivReceipt).clear(holder.binding.ivReceipt);
+    }
+
+    static class DraftViewHolder extends RecyclerView.ViewHolder {
+        final ItemReceiptDraftBinding binding;
+
+        DraftViewHolder(ItemReceiptDraftBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+    }
+}
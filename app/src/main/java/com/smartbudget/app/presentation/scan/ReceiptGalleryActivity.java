@@ -0,0 +1,93 @@
+package com.smartbudget.app.presentation.scan;
+
+import android.content.ActivityNotFoundException;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Bundle;
+import android.view.View;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.FileProvider;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.GridLayoutManager;
+
+import com.smartbudget.app.R;
+import com.smartbudget.app.data.local.ReceiptStore;
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.databinding.ActivityReceiptGalleryBinding;
+
+import java.io.File;
+
+/**
+ * Gallery of receipts attached to expenses.
+ * The grid scrolls from ReceiptStore thumbnails; the stored original opens on tap.
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public class ReceiptGalleryActivity extends AppCompatActivity {
+
+    private static final int GRID_COLUMNS = 2;
+
+    private ActivityReceiptGalleryBinding binding;
+    private ReceiptGalleryViewModel viewModel;
+    private ReceiptGalleryAdapter adapter;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivityReceiptGalleryBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        viewModel = new ViewModelProvider(this).get(ReceiptGalleryViewModel.class);
+
+        adapter = new ReceiptGalleryAdapter();
+        adapter.setOnReceiptClickListener(this::openReceipt);
+        binding.rvReceipts.setLayoutManager(new GridLayoutManager(this, GRID_COLUMNS));
+        binding.rvReceipts.setHasFixedSize(true);
+        binding.rvReceipts.setAdapter(adapter);
+
+        binding.toolbar.setNavigationOnClickListener(v -> finish());
+        binding.btnScanReceipt.setOnClickListener(v ->
+                startActivity(new Intent(this, ScanReceiptActivity.class)));
+
+        binding.chipGroupFilter.setOnCheckedStateChangeListener((group, checkedIds) -> {
+            if (checkedIds.contains(R.id.chip_this_month)) {
+                viewModel.setFilter(ReceiptGalleryViewModel.Filter.THIS_MONTH);
+            } else if (checkedIds.contains(R.id.chip_high_value)) {
+                viewModel.setFilter(ReceiptGalleryViewModel.Filter.HIGH_VALUE);
+            } else {
+                viewModel.setFilter(ReceiptGalleryViewModel.Filter.ALL);
+            }
+        });
+
+        viewModel.getCategoryMap().observe(this, adapter::setCategoryMap);
+        viewModel.getReceipts().observe(this, receipts -> {
+            adapter.submitList(receipts);
+            boolean empty = receipts == null || receipts.isEmpty();
+            binding.emptyState.setVisibility(empty ? View.VISIBLE : View.GONE);
+            binding.rvReceipts.setVisibility(empty ? View.GONE : View.VISIBLE);
+        });
+    }
+
+    /**
+     * Mở ảnh hóa đơn bằng trình xem ảnh của hệ thống (ảnh gốc, hoặc thumbnail nếu đã bị dọn).
+     */
+    private void openReceipt(ExpenseEntity expense) {
+        File file = ReceiptStore.getInstance(this).resolveForDisplay(expense.getReceiptImagePath());
+        if (file == null) {
+            Toast.makeText(this, R.string.error_occurred, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        try {
+            Uri uri = FileProvider.getUriForFile(this, getPackageName() + ".fileprovider", file);
+            Intent intent = new Intent(Intent.ACTION_VIEW)
+                    .setDataAndType(uri, "image/webp")
+                    .addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
+            startActivity(intent);
+        } catch (IllegalArgumentException | ActivityNotFoundException e) {
+            Toast.makeText(this, R.string.error_occurred, Toast.LENGTH_SHORT).show();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.smartbudget.app.presentation.scan;
+
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.smartbudget.app.data.local.ReceiptStore;
+import com.smartbudget.app.data.local.entity.CategoryEntity;
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.databinding.ItemReceiptBinding;
+import com.smartbudget.app.presentation.adapter.DiffListAdapter;
+import com.smartbudget.app.utils.CurrencyUtils;
+import com.smartbudget.app.utils.EpochDays;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Grid of stored receipts. Rows load the small ReceiptStore thumbnail, never the original.
+ */
+public class ReceiptGalleryAdapter extends DiffListAdapter<ExpenseEntity, ReceiptGalleryAdapter.ReceiptViewHolder> {
+
+    // Row parts, reported by the row callback for partial rebinds
+    private static final int PART_IMAGE = 1;
+    private static final int PART_AMOUNT = 1 << 1;
+    private static final int PART_DATE = 1 << 2;
+    private static final int PART_CATEGORY = 1 << 3;
+
+    private Map<Long, CategoryEntity> categoryMap = new HashMap<>();
+    private OnReceiptClickListener listener;
+
+    public interface OnReceiptClickListener {
+        void onReceiptClick(ExpenseEntity expense);
+    }
+
+    public ReceiptGalleryAdapter() {
+        super(ROW_CALLBACK);
+    }
+
+    public void setOnReceiptClickListener(OnReceiptClickListener listener) {
+        this.listener = listener;
+    }
+
+    public void setCategoryMap(Map<Long, CategoryEntity> categoryMap) {
+        this.categoryMap = categoryMap;
+        notifyItemRangeChanged(0, getItemCount(), PART_CATEGORY);
+    }
+
+    private static final RowCallback<ExpenseEntity> ROW_CALLBACK = new RowCallback<ExpenseEntity>() {
+        @Override
+        public long getId(@NonNull ExpenseEntity item) {
+            return item.getId();
+        }
+
+        @Override
+        public int getChanges(@NonNull ExpenseEntity oldItem, @NonNull ExpenseEntity newItem) {
+            int changes = 0;
+            if (!Objects.equals(oldItem.getReceiptImagePath(), newItem.getReceiptImagePath())) {
+                changes |= PART_IMAGE;
+            }
+            if (oldItem.getAmount() != newItem.getAmount()) changes |= PART_AMOUNT;
+            if (oldItem.getDate() != newItem.getDate()) changes |= PART_DATE;
+            if (!Objects.equals(oldItem.getCategoryId(), newItem.getCategoryId())) {
+                changes |= PART_CATEGORY;
+            }
+            return changes;
+        }
+    };
+
+    @NonNull
+    @Override
+    public ReceiptViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        ItemReceiptBinding binding = ItemReceiptBinding.inflate(
+                LayoutInflater.from(parent.getContext()), parent, false);
+        ReceiptViewHolder holder = new ReceiptViewHolder(binding);
+        binding.getRoot().getChildAt(0).setOnClickListener(v -> {
+            ExpenseEntity expense = getItemAt(holder);
+            if (expense != null && listener != null) {
+                listener.onReceiptClick(expense);
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    protected void onBind(@NonNull ReceiptViewHolder holder, @NonNull ExpenseEntity expense, int changes) {
+        ItemReceiptBinding binding = holder.binding;
+        if ((changes & PART_IMAGE) != 0) {
+            Glide.with(binding.ivReceipt)
+                    .load(ReceiptStore.thumbnailFor(expense.getReceiptImagePath()))
+                    .centerCrop()
+                    .into(binding.ivReceipt);
+        }
+        if ((changes & PART_AMOUNT) != 0) {
+            binding.tvAmount.setText(CurrencyUtils.formatVND(expense.getAmount()));
+        }
+        if ((changes & PART_DATE) != 0) {
+            binding.tvDate.setText(EpochDays.dateLabel(EpochDays.dayIndex(expense.getDate())));
+        }
+        if ((changes & PART_CATEGORY) != 0) {
+            CategoryEntity category = expense.getCategoryId() != null
+                    ? categoryMap.get(expense.getCategoryId()) : null;
+            binding.tvCategory.setText(category != null ? category.getIcon() : "🧾");
+        }
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull ReceiptViewHolder holder) {
+        // Release the thumbnail so recycled rows don't pin bitmaps
+        Glide.with(holder.binding.ivReceipt).clear(holder.binding.ivReceipt);
+    }
+
+    static class ReceiptViewHolder extends RecyclerView.ViewHolder {
+        final ItemReceiptBinding binding;
+
+        ReceiptViewHolder(ItemReceiptBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.smartbudget.app.presentation.scan;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.smartbudget.app.data.local.entity.CategoryEntity;
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.data.repository.CategoryRepository;
+import com.smartbudget.app.data.repository.ExpenseRepository;
+import com.smartbudget.app.utils.EpochDays;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ViewModel for ReceiptGalleryActivity: expenses that have a stored receipt, filtered by chip.
+ */
+public class ReceiptGalleryViewModel extends AndroidViewModel {
+
+    public enum Filter {
+        ALL, THIS_MONTH, HIGH_VALUE
+    }
+
+    /** Amount from which a receipt counts as "Giá trị cao" */
+    static final double HIGH_VALUE_THRESHOLD = 500_000;
+
+    private final LiveData<List<ExpenseEntity>> receipts;
+    private final LiveData<List<CategoryEntity>> categories;
+    private final MutableLiveData<Filter> filter = new MutableLiveData<>(Filter.ALL);
+    private final MediatorLiveData<List<ExpenseEntity>> filteredReceipts = new MediatorLiveData<>();
+
+    public ReceiptGalleryViewModel(@NonNull Application application) {
+        super(application);
+        receipts = new ExpenseRepository(application).getExpensesWithReceipts();
+        categories = new CategoryRepository(application).getAllCategories();
+
+        filteredReceipts.addSource(receipts, list -> applyFilter());
+        filteredReceipts.addSource(filter, f -> applyFilter());
+    }
+
+    public LiveData<List<ExpenseEntity>> getReceipts() {
+        return filteredReceipts;
+    }
+
+    public LiveData<Map<Long, CategoryEntity>> getCategoryMap() {
+        MediatorLiveData<Map<Long, CategoryEntity>> map = new MediatorLiveData<>();
+        map.addSource(categories, list -> {
+            Map<Long, CategoryEntity> byId = new HashMap<>();
+            if (list != null) {
+                for (CategoryEntity category : list) {
+                    byId.put(category.getId(), category);
+                }
+            }
+            map.setValue(byId);
+        });
+        return map;
+    }
+
+    public void setFilter(Filter value) {
+        filter.setValue(value);
+    }
+
+    private void applyFilter() {
+        List<ExpenseEntity> all = receipts.getValue();
+        Filter current = filter.getValue();
+        if (all == null) return;
+        if (current == null || current == Filter.ALL) {
+            filteredReceipts.setValue(all);
+            return;
+        }
+
+        int thisMonth = EpochDays.monthIndex(System.currentTimeMillis());
+        List<ExpenseEntity> result = new ArrayList<>();
+        for (ExpenseEntity expense : all) {
+            boolean keep = current == Filter.THIS_MONTH
+                    ? EpochDays.monthIndex(expense.getDate()) == thisMonth
+                    : expense.getAmount() >= HIGH_VALUE_THRESHOLD;
+            if (keep) result.add(expense);
+        }
+        filteredReceipts.setValue(result);
+    }
+}
@@ -4,7 +4,6 @@ import android.Manifest;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.os.Bundle;
 import android.provider.MediaStore;
@@ -15,6 +14,7 @@ import android.widget.Toast;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
@@ -25,15 +25,19 @@ import com.google.mlkit.vision.text.TextRecognition;
 import com.google.mlkit.vision.text.TextRecognizer;
 import com.google.mlkit.vision.text.latin.TextRecognizerOptions;
 import com.smartbudget.app.R;
+import com.smartbudget.app.data.local.ReceiptStore;
 import com.smartbudget.app.databinding.ActivityScanReceiptBinding;
+import com.smartbudget.app.utils.ReceiptImagePipeline;
 import com.smartbudget.app.utils.ReceiptParser;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.Locale;
+import java.util.Set;
 
 /**
  * Activity for scanning and processing receipt images.
@@ -52,7 +56,24 @@ public class ScanReceiptActivity extends AppCompatActivity {
 
     private ActivityScanReceiptBinding binding;
     private TextRecognizer textRecognizer;
+    private ReceiptImagePipeline imagePipeline;
+    private ReceiptStore receiptStore;
     private Uri currentPhotoUri;
+    // Camera capture not handed to processImage yet; processImage deletes it once read
+    private File currentPhotoFile;
+    // Compact copy of the scanned image in ReceiptStore, returned as "receipt_path"
+    private String storedReceiptPath;
+    // storeAsync of the current scan has not called back yet
+    private boolean storePending;
+    // Confirm was tapped while storePending; finished from the store callback
+    private boolean confirmPending;
+
+    // Bitmap shown in ivReceipt; returned to the pipeline's pool when replaced
+    private Bitmap displayedBitmap;
+    // Bitmaps ML Kit is still reading; pooled only once their recognition completes
+    private final Set<Bitmap> recognizing = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Incremented per scan so results of a superseded image are dropped
+    private int scanGeneration;
 
     // ==================== ACTIVITY RESULT LAUNCHERS ====================
     
@@ -63,8 +84,12 @@ public class ScanReceiptActivity extends AppCompatActivity {
     private final ActivityResultLauncher<Intent> cameraLauncher = registerForActivityResult(
             new ActivityResultContracts.StartActivityForResult(),
             result -> {
+                File capture = currentPhotoFile;
+                currentPhotoFile = null;
                 if (result.getResultCode() == RESULT_OK && currentPhotoUri != null) {
-                    processImage(currentPhotoUri);
+                    processImage(currentPhotoUri, capture);
+                } else if (capture != null) {
+                    capture.delete();
                 }
             }
     );
@@ -79,7 +104,7 @@ public class ScanReceiptActivity extends AppCompatActivity {
                 if (result.getResultCode() == RESULT_OK && result.getData() != null) {
                     Uri imageUri = result.getData().getData();
                     if (imageUri != null) {
-                        processImage(imageUri);
+                        processImage(imageUri, null);
                     }
                 }
             }
@@ -94,6 +119,8 @@ public class ScanReceiptActivity extends AppCompatActivity {
         setContentView(binding.getRoot());
 
         textRecognizer = TextRecognition.getClient(TextRecognizerOptions.DEFAULT_OPTIONS);
+        imagePipeline = new ReceiptImagePipeline(this);
+        receiptStore = ReceiptStore.getInstance(this);
 
         setupListeners();
     }
@@ -104,6 +131,18 @@ public class ScanReceiptActivity extends AppCompatActivity {
         if (textRecognizer != null) {
             textRecognizer.close();
         }
+        scanGeneration++;
+        binding.ivReceipt.setImageDrawable(null);
+        // A bitmap still being recognized is left to the GC rather than recycled under ML Kit
+        if (!recognizing.contains(displayedBitmap)) {
+            imagePipeline.recycle(displayedBitmap);
+        }
+        displayedBitmap = null;
+        imagePipeline.clear();
+        // Only a capture that never reached processImage; the others are deleted once read
+        if (currentPhotoFile != null && isFinishing()) {
+            currentPhotoFile.delete();
+        }
     }
 
     // ==================== UI SETUP ====================
@@ -121,6 +160,8 @@ public class ScanReceiptActivity extends AppCompatActivity {
         });
 
         binding.btnGallery.setOnClickListener(v -> openGallery());
+        binding.btnBatchScan.setOnClickListener(v ->
+                startActivity(new Intent(this, BatchScanActivity.class)));
 
         binding.btnConfirm.setOnClickListener(v -> confirmAndReturn());
     }
@@ -166,6 +207,10 @@ public class ScanReceiptActivity extends AppCompatActivity {
         if (intent.resolveActivity(getPackageManager()) != null) {
             File photoFile = createImageFile();
             if (photoFile != null) {
+                if (currentPhotoFile != null) {
+                    currentPhotoFile.delete();
+                }
+                currentPhotoFile = photoFile;
                 try {
                     currentPhotoUri = FileProvider.getUriForFile(this,
                             getPackageName() + ".fileprovider", photoFile);
@@ -189,13 +234,14 @@ public class ScanReceiptActivity extends AppCompatActivity {
 
     /**
      * Tạo file tạm để lưu ảnh từ camera.
+     * Ảnh gốc chỉ nằm trong cache cho tới khi ReceiptStore nén và lưu lại.
      * 
      * @return File hoặc null nếu có lỗi
      */
     private File createImageFile() {
         String timeStamp = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault()).format(new Date());
         String fileName = "RECEIPT_" + timeStamp;
-        File storageDir = getExternalFilesDir("receipts");
+        File storageDir = receiptStore.getCameraDir();
         
         try {
             return File.createTempFile(fileName, ".jpg", storageDir);
@@ -209,42 +255,94 @@ public class ScanReceiptActivity extends AppCompatActivity {
 
     /**
      * Xử lý ảnh đã chọn/chụp và trích xuất văn bản.
+     * Decode, downsampling, xoay theo EXIF và chuẩn hóa độ tương phản chạy ở background
+     * (ReceiptImagePipeline); chỉ bitmap đã thu nhỏ được hiển thị và đưa vào OCR.
      * 
      * @param imageUri URI của ảnh cần xử lý
+     * @param capture File chụp từ camera của imageUri (null với ảnh từ thư viện); bị xóa khi
+     *                cả ReceiptStore và bước decode đã đọc xong
      */
-    private void processImage(Uri imageUri) {
+    private void processImage(Uri imageUri, @Nullable File capture) {
         binding.progressBar.setVisibility(View.VISIBLE);
         binding.cardResult.setVisibility(View.GONE);
+        binding.btnConfirm.setEnabled(true);
+
+        final int generation = ++scanGeneration;
+        storedReceiptPath = null;
+        storePending = true;
+        confirmPending = false;
+
+        // Two readers of the capture: the store and the display decode
+        final int[] captureReaders = {2};
+        final Runnable captureRead = () -> {
+            if (--captureReaders[0] == 0 && capture != null) {
+                capture.delete();
+            }
+        };
+
+        receiptStore.storeAsync(imageUri, path -> {
+            captureRead.run();
+            if (generation != scanGeneration) return;
+            storedReceiptPath = path;
+            storePending = false;
+            if (confirmPending) {
+                confirmPending = false;
+                confirmAndReturn();
+            }
+        });
 
-        try {
-            InputStream inputStream = getContentResolver().openInputStream(imageUri);
-            if (inputStream == null) {
-                showError(getString(R.string.error_occurred));
-                return;
+        imagePipeline.process(imageUri, ReceiptImagePipeline.Options.forOcr(), new ReceiptImagePipeline.Callback() {
+            @Override
+            public void onImageReady(@NonNull ReceiptImagePipeline.Result result) {
+                captureRead.run();
+                if (generation != scanGeneration || isDestroyed()) {
+                    imagePipeline.recycle(result.bitmap);
+                    return;
+                }
+                Log.d(TAG, "Receipt " + result.sourceWidth + "x" + result.sourceHeight
+                        + " sampled 1/" + result.sampleSize + " in " + result.elapsedMillis + "ms");
+
+                Bitmap previous = displayedBitmap;
+                displayedBitmap = result.bitmap;
+                binding.ivReceipt.setImageBitmap(result.bitmap);
+                binding.ivReceipt.setVisibility(View.VISIBLE);
+                if (!recognizing.contains(previous)) {
+                    imagePipeline.recycle(previous);
+                }
+
+                recognizing.add(result.bitmap);
+                InputImage image = InputImage.fromBitmap(result.bitmap, result.rotationDegrees);
+                recognizeText(image, result.bitmap, generation);
             }
-            
-            Bitmap bitmap = BitmapFactory.decodeStream(inputStream);
-            inputStream.close();
-            
-            binding.ivReceipt.setImageBitmap(bitmap);
-            binding.ivReceipt.setVisibility(View.VISIBLE);
 
-            InputImage image = InputImage.fromBitmap(bitmap, 0);
-            recognizeText(image);
-        } catch (IOException e) {
-            Log.e(TAG, "Error processing image", e);
-            showError(getString(R.string.error_occurred));
-        }
+            @Override
+            public void onError(@NonNull Exception e) {
+                captureRead.run();
+                if (generation != scanGeneration || isDestroyed()) return;
+                Log.e(TAG, "Error processing image", e);
+                showError(getString(R.string.error_occurred));
+            }
+        });
     }
 
     /**
      * Nhận dạng văn bản trong ảnh sử dụng ML Kit.
      * 
      * @param image InputImage để xử lý
+     * @param bitmap Bitmap của image; trả về pool khi OCR xong và không còn hiển thị
+     * @param generation Lượt quét; kết quả của ảnh đã bị thay thế sẽ bị bỏ qua
      */
-    private void recognizeText(InputImage image) {
+    private void recognizeText(InputImage image, Bitmap bitmap, int generation) {
         textRecognizer.process(image)
+                .addOnCompleteListener(task -> {
+                    recognizing.remove(bitmap);
+                    // Replaced while ML Kit was reading it: pool it now
+                    if (bitmap != displayedBitmap && !isDestroyed()) {
+                        imagePipeline.recycle(bitmap);
+                    }
+                })
                 .addOnSuccessListener(text -> {
+                    if (generation != scanGeneration) return;
                     String rawText = text.getText();
                     if (rawText.isEmpty()) {
                         binding.progressBar.setVisibility(View.GONE);
@@ -252,6 +350,14 @@ public class ScanReceiptActivity extends AppCompatActivity {
                         return;
                     }
 
+                    // Hóa đơn rõ ràng (tổng tiền khớp tạm tính / các món, tên cửa hàng chắc chắn) thì không cần gọi AI
+                    ReceiptParser.ReceiptData localData = ReceiptParser.parse(rawText);
+                    if (localData.isConfident()) {
+                        binding.progressBar.setVisibility(View.GONE);
+                        showResult(localData, rawText);
+                        return;
+                    }
+
                     // Use AI to parse receipt
                     com.smartbudget.app.ai.AIService aiService = new com.smartbudget.app.ai.impl.GroqServiceImpl();
                     if (!aiService.isConfigured()) {
@@ -260,10 +366,9 @@ public class ScanReceiptActivity extends AppCompatActivity {
                     }
                     
                     if (!aiService.isConfigured()) {
-                         // Fallback to Regex if no AI configured
-                         ReceiptParser.ReceiptData receiptData = ReceiptParser.parse(rawText);
+                         // Fallback to local parser if no AI configured
                          binding.progressBar.setVisibility(View.GONE);
-                         showResult(receiptData, rawText);
+                         showResult(localData, rawText);
                          return;
                     }
 
@@ -304,9 +409,8 @@ public class ScanReceiptActivity extends AppCompatActivity {
                                 
                             } catch (org.json.JSONException e) {
                                 Log.e(TAG, "JSON Parse Error", e);
-                                // Fallback to Regex
-                                ReceiptParser.ReceiptData fallbackData = ReceiptParser.parse(rawText);
-                                showResult(fallbackData, rawText);
+                                // Fallback to local parser
+                                showResult(localData, rawText);
                             }
                         }
 
@@ -314,14 +418,14 @@ public class ScanReceiptActivity extends AppCompatActivity {
                         public void onError(String error, int code) {
                              Log.e(TAG, "AI Error: " + error);
                              binding.progressBar.setVisibility(View.GONE);
-                             // Fallback to Regex
-                             ReceiptParser.ReceiptData fallbackData = ReceiptParser.parse(rawText);
-                             showResult(fallbackData, rawText);
+                             // Fallback to local parser
+                             showResult(localData, rawText);
                              Toast.makeText(ScanReceiptActivity.this, "AI failed, using basic scan: " + error, Toast.LENGTH_SHORT).show();
                         }
                     });
                 })
                 .addOnFailureListener(e -> {
+                    if (generation != scanGeneration) return;
                     Log.e(TAG, "Text recognition failed", e);
                     binding.progressBar.setVisibility(View.GONE);
                     showError(getString(R.string.scan_error_recognition_prefix) + e.getMessage());
@@ -356,6 +460,13 @@ public class ScanReceiptActivity extends AppCompatActivity {
      */
     private void confirmAndReturn() {
         Object tag = binding.btnConfirm.getTag();
+        if (storePending && tag != null) {
+            // receipt_path is only known once ReceiptStore has written the compact copy
+            confirmPending = true;
+            binding.btnConfirm.setEnabled(false);
+            binding.progressBar.setVisibility(View.VISIBLE);
+            return;
+        }
         if (tag instanceof Bundle) {
             Bundle data = (Bundle) tag;
             Intent resultIntent = new Intent();
@@ -363,6 +474,7 @@ public class ScanReceiptActivity extends AppCompatActivity {
             resultIntent.putExtra("merchant", data.getString("merchant"));
             resultIntent.putExtra("date", data.getString("date")); // Note: date format might need parsing in Dashboard
             resultIntent.putExtra("note", data.getString("note")); // Pass extracted items as note
+            resultIntent.putExtra("receipt_path", storedReceiptPath);
 
             // Parse date string to long if possible
             try {
@@ -382,6 +494,8 @@ public class ScanReceiptActivity extends AppCompatActivity {
             resultIntent.putExtra("amount", data.getAmount());
             resultIntent.putExtra("merchant", data.getMerchant());
             resultIntent.putExtra("date", data.getStringDate()); // Use string date
+            resultIntent.putExtra("note", data.getItemsNote());
+            resultIntent.putExtra("receipt_path", storedReceiptPath);
             
             setResult(RESULT_OK, resultIntent);
             finish();
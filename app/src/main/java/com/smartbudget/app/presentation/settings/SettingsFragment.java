@@ -15,7 +15,7 @@ import com.smartbudget.app.databinding.FragmentSettingsBinding;
 import com.smartbudget.app.presentation.chat.ChatActivity;
 import com.smartbudget.app.presentation.scan.ScanReceiptActivity;
 import com.smartbudget.app.utils.FirebaseSyncHelper;
-import com.smartbudget.app.utils.ReminderReceiver;
+import com.smartbudget.app.utils.BackgroundScheduler;
 import com.smartbudget.app.utils.GeminiHelper;
 import androidx.appcompat.app.AlertDialog;
 import java.util.List;
@@ -101,19 +101,44 @@ public class SettingsFragment extends Fragment {
         }
         
         if (binding.switchReminder != null) {
-            boolean isEnabled = com.smartbudget.app.utils.ReminderReceiver.isReminderEnabled(requireContext());
+            boolean isEnabled = BackgroundScheduler.isReminderEnabled(requireContext());
             binding.switchReminder.setChecked(isEnabled);
             
             // Update subtitle with saved time
-            int hour = com.smartbudget.app.utils.ReminderReceiver.getReminderHour(requireContext());
-            int minute = com.smartbudget.app.utils.ReminderReceiver.getReminderMinute(requireContext());
+            int hour = BackgroundScheduler.getReminderHour(requireContext());
+            int minute = BackgroundScheduler.getReminderMinute(requireContext());
             updateReminderSubtitle(hour, minute);
         }
         
         updateModelDisplay();
     }
 
-    private void exportCsv() {
+    private void showBackupPassphraseDialog() {
+        android.widget.EditText etPassphrase = new android.widget.EditText(requireContext());
+        etPassphrase.setHint("Mật khẩu (ít nhất 8 ký tự)");
+        etPassphrase.setInputType(android.text.InputType.TYPE_CLASS_TEXT
+                | android.text.InputType.TYPE_TEXT_VARIATION_PASSWORD);
+
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Sao lưu có mật khẩu")
+                .setMessage("Cần mật khẩu này để khôi phục. Quên mật khẩu thì không mở được bản sao lưu.")
+                .setView(etPassphrase)
+                .setPositiveButton("Sao lưu", (dialog, which) -> {
+                    android.text.Editable text = etPassphrase.getText();
+                    if (text.length() < 8) {
+                        Toast.makeText(requireContext(), "Mật khẩu cần ít nhất 8 ký tự", Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+                    char[] passphrase = new char[text.length()];
+                    text.getChars(0, text.length(), passphrase, 0);
+                    text.clear();
+                    com.smartbudget.app.utils.BackupManager.quickBackupPortable(requireContext(), passphrase);
+                })
+                .setNegativeButton("Hủy", null)
+                .show();
+    }
+
+    private void exportCsv(boolean encrypted) {
         Toast.makeText(requireContext(), "Đang xuất dữ liệu CSV...", Toast.LENGTH_SHORT).show();
         
         // Observe expenses and categories to build the export
@@ -134,7 +159,7 @@ public class SettingsFragment extends Fragment {
                 
                 // Call CsvExporter
                 try {
-                    com.smartbudget.app.utils.CsvExporter.exportDataToCsv(requireContext(), expenses, categoryMap);
+                    com.smartbudget.app.utils.CsvExporter.exportDataToCsv(requireContext(), expenses, categoryMap, encrypted);
                 } catch (Exception e) {
                     Toast.makeText(requireContext(), "Lỗi xuất CSV: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                 }
@@ -227,12 +252,12 @@ public class SettingsFragment extends Fragment {
                 }
 
                 // If enabling, check if we have a saved time or use default
-                int savedHour = ReminderReceiver.getReminderHour(requireContext());
-                int savedMinute = ReminderReceiver.getReminderMinute(requireContext());
+                int savedHour = BackgroundScheduler.getReminderHour(requireContext());
+                int savedMinute = BackgroundScheduler.getReminderMinute(requireContext());
                 
                 // Show time picker to let user choose
                 new android.app.TimePickerDialog(requireContext(), (view1, hourOfDay, minute) -> {
-                    ReminderReceiver.scheduleReminder(requireContext(), hourOfDay, minute);
+                    BackgroundScheduler.setReminder(requireContext(), hourOfDay, minute);
                     updateReminderSubtitle(hourOfDay, minute);
                     Toast.makeText(requireContext(), 
                         String.format("Đã hẹn giờ nhắc lúc %02d:%02d", hourOfDay, minute), 
@@ -240,7 +265,7 @@ public class SettingsFragment extends Fragment {
                 }, savedHour, savedMinute, true).show();
                 
             } else {
-                ReminderReceiver.cancelReminder(requireContext());
+                BackgroundScheduler.disableReminder(requireContext());
                 Toast.makeText(requireContext(), "Đã tắt nhắc nhở", Toast.LENGTH_SHORT).show();
                 binding.tvReminderSubtitle.setText("Nhắc nhở hàng ngày");
             }
@@ -250,11 +275,11 @@ public class SettingsFragment extends Fragment {
         binding.settingReminder.setOnClickListener(v -> {
             boolean isEnabled = binding.switchReminder.isChecked();
             if (isEnabled) {
-                 int savedHour = ReminderReceiver.getReminderHour(requireContext());
-                 int savedMinute = ReminderReceiver.getReminderMinute(requireContext());
+                 int savedHour = BackgroundScheduler.getReminderHour(requireContext());
+                 int savedMinute = BackgroundScheduler.getReminderMinute(requireContext());
                  
                  new android.app.TimePickerDialog(requireContext(), (view1, hourOfDay, minute) -> {
-                    ReminderReceiver.scheduleReminder(requireContext(), hourOfDay, minute);
+                    BackgroundScheduler.setReminder(requireContext(), hourOfDay, minute);
                     updateReminderSubtitle(hourOfDay, minute);
                     Toast.makeText(requireContext(), 
                         String.format("Đã cập nhật giờ nhắc: %02d:%02d", hourOfDay, minute), 
@@ -326,13 +351,31 @@ public class SettingsFragment extends Fragment {
 
     // Export data
         binding.settingExport.setOnClickListener(v -> {
-            exportCsv();
+            new AlertDialog.Builder(requireContext())
+                    .setTitle("Xuất dữ liệu")
+                    .setItems(new String[]{
+                            "CSV (mở bằng Excel, Sheets)",
+                            "CSV mã hóa (chỉ nhập lại vào SmartBudget trên máy này, mất khi gỡ ứng dụng)"
+                    }, (dialog, which) -> exportCsv(which == 1))
+                    .show();
         });
 
-        // Backup data
+        // Backup data: the on-device key is deleted with the app, so offer a passphrase backup
         if (binding.settingBackup != null) {
             binding.settingBackup.setOnClickListener(v -> {
-                com.smartbudget.app.utils.BackupManager.quickBackup(requireContext());
+                new AlertDialog.Builder(requireContext())
+                        .setTitle("Sao lưu dữ liệu")
+                        .setItems(new String[]{
+                                "Sao lưu trên máy này (không khôi phục được sau khi gỡ ứng dụng hoặc trên máy khác)",
+                                "Sao lưu có mật khẩu (khôi phục được trên máy khác)"
+                        }, (dialog, which) -> {
+                            if (which == 0) {
+                                com.smartbudget.app.utils.BackupManager.quickBackup(requireContext());
+                            } else {
+                                showBackupPassphraseDialog();
+                            }
+                        })
+                        .show();
             });
         }
 
@@ -367,6 +410,14 @@ public class SettingsFragment extends Fragment {
             });
         }
 
+        // Receipt gallery
+        if (binding.settingReceiptGallery != null) {
+            binding.settingReceiptGallery.setOnClickListener(v -> {
+                startActivity(new Intent(requireContext(),
+                        com.smartbudget.app.presentation.scan.ReceiptGalleryActivity.class));
+            });
+        }
+
         // AI Chat
         if (binding.settingAiChat != null) {
             binding.settingAiChat.setOnClickListener(v -> {
@@ -0,0 +1,236 @@
+package com.smartbudget.app.startup;
+
+import android.app.Application;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Trace;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.smartbudget.app.BuildConfig;
+import com.smartbudget.app.SmartBudgetApp;
+import com.smartbudget.app.ai.AIProviderManager;
+import com.smartbudget.app.data.local.AppDatabase;
+import com.smartbudget.app.data.local.ReceiptStore;
+import com.smartbudget.app.data.local.RecurringExpenseMaterializer;
+import com.smartbudget.app.utils.BackgroundScheduler;
+import com.smartbudget.app.utils.BudgetAlertService;
+import com.smartbudget.app.utils.SuggestionEngine;
+import com.smartbudget.app.utils.EpochDays;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * App startup orchestration.
+ *
+ * <p>{@code SmartBudgetApp.onCreate} only registers the initializers below and starts the
+ * ones the first screen needs on a background thread; nothing heavy runs on the main thread.
+ * Each initializer is wrapped in a {@code startup:<name>} trace section, so a system trace (or
+ * the macrobenchmark module) shows exactly where cold start time goes.</p>
+ *
+ * <pre>
+ * database ──┬── dashboardSnapshot      (splash waits for this)
+ *            ├── recurringExpenses
+ *            ├── receiptMaintenance
+ *            └── ledgerVerify
+ * notificationChannel, firebaseAuth, ai, backgroundJobs (independent, warmed in the background)
+ * </pre>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class AppStartup {
+
+    private static final String TAG = "AppStartup";
+    // Trace section names are limited to 127 characters
+    private static final String TRACE_PREFIX = "startup:";
+
+    /** Opens the Room database (runs migrations and first-launch seeding). */
+    public static final String DATABASE = "database";
+    /** First-screen totals for the dashboard */
+    public static final String DASHBOARD_SNAPSHOT = "dashboardSnapshot";
+    public static final String RECEIPT_MAINTENANCE = "receiptMaintenance";
+    /** Records recurring expenses that fell due while the app was closed */
+    public static final String RECURRING_EXPENSES = "recurringExpenses";
+    /** Schedules the daily job; independent of recurringExpenses so a failed catch-up still gets a retry */
+    public static final String BACKGROUND_JOBS = "backgroundJobs";
+    /** Rehashes the expense ledger entries appended since its last checkpoint */
+    public static final String LEDGER_VERIFY = "ledgerVerify";
+    public static final String NOTIFICATION_CHANNEL = "notificationChannel";
+    public static final String FIREBASE_AUTH = "firebaseAuth";
+    /** AIConfig and AIProviderManager (reads prefs, builds the API clients) */
+    public static final String AI = "ai";
+
+    private static volatile StartupGraph graph;
+    private static volatile DashboardSnapshot dashboardSnapshot;
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+    // Own threads: the warm-up must not queue user writes on AppDatabase.databaseWriteExecutor
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService STARTUP_EXECUTOR = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "startup-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AppStartup() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // ==================== Snapshot ====================
+
+    /** Current month totals read during startup, shown before the dashboard's own queries return. */
+    public static final class DashboardSnapshot {
+        public final int monthIndex;
+        public final double income;
+        public final double expense;
+
+        DashboardSnapshot(int monthIndex, double income, double expense) {
+            this.monthIndex = monthIndex;
+            this.income = income;
+            this.expense = expense;
+        }
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Registers the initializers and starts the background warm-up. Called once from
+     * {@code Application.onCreate}.
+     */
+    public static void init(@NonNull Application app) {
+        StartupGraph g = new StartupGraph(new TraceTracer());
+        g.add(DATABASE, () -> AppDatabase.getDatabase(app).getOpenHelper().getWritableDatabase());
+        g.add(DASHBOARD_SNAPSHOT, () -> dashboardSnapshot = loadSnapshot(app), DATABASE);
+        g.add(RECEIPT_MAINTENANCE, () -> ReceiptStore.getInstance(app)
+                .runMaintenance(AppDatabase.getDatabase(app).expenseDao().getReceiptPathsSync()), DATABASE);
+        g.add(RECURRING_EXPENSES, () -> {
+            RecurringExpenseMaterializer.Result result = new RecurringExpenseMaterializer(AppDatabase.getDatabase(app))
+                    .materializeDue(System.currentTimeMillis());
+            if (result.inserted > 0) {
+                BudgetAlertService.getInstance(app).invalidate();
+                SuggestionEngine.getInstance(app).invalidate();
+            }
+        }, DATABASE);
+        g.add(BACKGROUND_JOBS, () -> BackgroundScheduler.schedule(app));
+        g.add(LEDGER_VERIFY, () -> AppDatabase.getDatabase(app).expenseLedger().verifyTail(), DATABASE);
+        g.add(NOTIFICATION_CHANNEL, () -> createNotificationChannel(app));
+        g.add(FIREBASE_AUTH, FirebaseAuth::getInstance);
+        g.add(AI, () -> AIProviderManager.getInstance(app));
+        graph = g;
+
+        // Most important first: the executor runs them in submission order
+        g.startAsync(STARTUP_EXECUTOR, DASHBOARD_SNAPSHOT);
+        g.startAsync(STARTUP_EXECUTOR, FIREBASE_AUTH);
+        g.startAsync(STARTUP_EXECUTOR, NOTIFICATION_CHANNEL);
+        g.startAsync(STARTUP_EXECUTOR, AI);
+        g.startAsync(STARTUP_EXECUTOR, RECURRING_EXPENSES);
+        g.startAsync(STARTUP_EXECUTOR, BACKGROUND_JOBS);
+        g.startAsync(STARTUP_EXECUTOR, RECEIPT_MAINTENANCE);
+        g.startAsync(STARTUP_EXECUTOR, LEDGER_VERIFY);
+    }
+
+    /** Runs {@code name} now if the background warm-up has not got to it yet. */
+    public static void ensure(@NonNull String name) {
+        graph().ensure(name);
+    }
+
+    /**
+     * Calls {@code onReady} once on the main thread when {@code name} has finished, or after
+     * {@code timeoutMillis} at the latest. No thread is blocked while waiting: the timeout is a
+     * main-thread message and completion is a callback from the graph.
+     */
+    public static void whenReady(@NonNull String name, long timeoutMillis, @NonNull Runnable onReady) {
+        AtomicBoolean fired = new AtomicBoolean();
+        Runnable timeout = () -> {
+            if (fired.compareAndSet(false, true)) {
+                Log.w(TAG, name + " not ready after " + timeoutMillis + "ms, continuing");
+                onReady.run();
+            }
+        };
+        MAIN.postDelayed(timeout, timeoutMillis);
+        graph().whenDone(name, () -> MAIN.post(() -> {
+            if (fired.compareAndSet(false, true)) {
+                MAIN.removeCallbacks(timeout);
+                onReady.run();
+            }
+        }));
+    }
+
+    /** Snapshot for the current month, or null if it has not been loaded (or the month changed). */
+    @Nullable
+    public static DashboardSnapshot getDashboardSnapshot() {
+        DashboardSnapshot snapshot = dashboardSnapshot;
+        if (snapshot == null || snapshot.monthIndex != EpochDays.monthIndexOfDay(EpochDays.today())) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    private static StartupGraph graph() {
+        StartupGraph g = graph;
+        if (g == null) {
+            throw new IllegalStateException("AppStartup.init has not been called");
+        }
+        return g;
+    }
+
+    // ==================== Initializers ====================
+
+    private static DashboardSnapshot loadSnapshot(Application app) {
+        int month = EpochDays.monthIndexOfDay(EpochDays.today());
+        long start = EpochDays.startOfMonth(month);
+        long end = EpochDays.endOfMonth(month);
+        AppDatabase db = AppDatabase.getDatabase(app);
+        return new DashboardSnapshot(month,
+                db.expenseDao().getTotalIncomeSync(start, end),
+                db.expenseDao().getTotalByDateRange(start, end));
+    }
+
+    private static void createNotificationChannel(Application app) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(
+                    SmartBudgetApp.CHANNEL_ID,
+                    SmartBudgetApp.CHANNEL_NAME,
+                    NotificationManager.IMPORTANCE_DEFAULT);
+            channel.setDescription("Thông báo nhắc nhở ghi chép chi tiêu");
+
+            NotificationManager manager = app.getSystemService(NotificationManager.class);
+            if (manager != null) {
+                manager.createNotificationChannel(channel);
+            }
+        }
+    }
+
+    // ==================== Tracing ====================
+
+    /** Trace sections for systrace / Perfetto / macrobenchmark; timings to logcat in debug builds. */
+    private static final class TraceTracer implements StartupGraph.Tracer {
+        @Override
+        public void begin(@NonNull String name) {
+            Trace.beginSection(TRACE_PREFIX + name);
+        }
+
+        @Override
+        public void end(@NonNull String name, long durationNanos) {
+            Trace.endSection();
+            if (BuildConfig.DEBUG) {
+                Log.d(TAG, String.format(java.util.Locale.US, "%s: %.1fms on %s",
+                        name, durationNanos / 1_000_000f, Thread.currentThread().getName()));
+            }
+        }
+
+        @Override
+        public void failed(@NonNull String name, @NonNull Throwable error) {
+            Log.e(TAG, "Startup initializer " + name + " failed", error);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.smartbudget.app.startup;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Dependency-ordered, run-once initializers for app startup.
+ *
+ * <p>Each initializer is registered with the names of the initializers it needs; those must be
+ * registered first, so the graph can never contain a cycle. Nothing runs at registration.
+ * An initializer runs at most once, either on first touch ({@link #ensure}, which runs the
+ * missing dependencies on the calling thread) or ahead of time on a background executor
+ * ({@link #startAsync}). A caller that touches an initializer while another thread is running
+ * it waits for that run instead of starting a second one.</p>
+ *
+ * <h3>Usage:</h3>
+ * <pre>
+ * StartupGraph graph = new StartupGraph(tracer);
+ * graph.add("database", () -> AppDatabase.getDatabase(app));
+ * graph.add("dashboard", () -> loadSnapshot(), "database");
+ * graph.startAsync(executor, "dashboard");   // warm up in the background
+ * graph.ensure("database");                  // or block until ready on first use
+ * </pre>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class StartupGraph {
+
+    /** Receives a begin/end pair around every initializer, on the thread that runs it. */
+    public interface Tracer {
+        void begin(@NonNull String name);
+
+        void end(@NonNull String name, long durationNanos);
+
+        /**
+         * An initializer run by {@link #startAsync} failed. Nobody else sees the error until
+         * something ensures that initializer, so this is where it gets logged.
+         */
+        default void failed(@NonNull String name, @NonNull Throwable error) {
+        }
+    }
+
+    /** Tracer that records nothing */
+    public static final Tracer NO_TRACE = new Tracer() {
+        @Override
+        public void begin(@NonNull String name) {
+        }
+
+        @Override
+        public void end(@NonNull String name, long durationNanos) {
+        }
+    };
+
+    private final Tracer tracer;
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+
+    public StartupGraph(@NonNull Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    // ==================== Registration ====================
+
+    /**
+     * Registers an initializer.
+     *
+     * @param name         Unique name, also the trace section name
+     * @param body         The work; runs at most once
+     * @param dependencies Initializers that must finish first; must already be registered
+     * @throws IllegalArgumentException On a duplicate name or an unknown dependency
+     */
+    public synchronized StartupGraph add(@NonNull String name, @NonNull Runnable body,
+                                         @NonNull String... dependencies) {
+        if (nodes.containsKey(name)) {
+            throw new IllegalArgumentException("Initializer already registered: " + name);
+        }
+        List<Node> deps = new ArrayList<>(dependencies.length);
+        for (String dependency : dependencies) {
+            Node node = nodes.get(dependency);
+            if (node == null) {
+                throw new IllegalArgumentException(name + " depends on unregistered initializer " + dependency);
+            }
+            deps.add(node);
+        }
+        nodes.put(name, new Node(name, body, deps));
+        return this;
+    }
+
+    // ==================== Running ====================
+
+    /**
+     * Runs {@code name} and its dependencies if they have not run yet, and waits for them.
+     *
+     * @throws IllegalStateException If the initializer (or a dependency) failed
+     */
+    public void ensure(@NonNull String name) {
+        node(name).ensure();
+    }
+
+    /** Runs {@code name} and its dependencies on {@code executor}; returns at once. */
+    public void startAsync(@NonNull Executor executor, @NonNull String name) {
+        Node node = node(name);
+        if (!node.started.get()) {
+            executor.execute(() -> {
+                try {
+                    node.ensure();
+                } catch (IllegalStateException e) {
+                    // Also kept on the node and rethrown to whoever ensures it
+                    tracer.failed(name, e);
+                }
+            });
+        }
+    }
+
+    /** True once {@code name} has finished, successfully or not. */
+    public boolean isDone(@NonNull String name) {
+        return node(name).done.getCount() == 0;
+    }
+
+    /**
+     * Calls {@code callback} once {@code name} has finished, successfully or not, without
+     * starting it. Runs on the thread that finished it, or at once if it already has.
+     */
+    public void whenDone(@NonNull String name, @NonNull Runnable callback) {
+        node(name).whenDone(callback);
+    }
+
+    /**
+     * Waits up to {@code timeoutMillis} for {@code name} to finish, without starting it.
+     *
+     * @return True if it finished in time
+     */
+    public boolean await(@NonNull String name, long timeoutMillis) throws InterruptedException {
+        return node(name).done.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Duration of every finished initializer in milliseconds, in registration order. */
+    @NonNull
+    public synchronized Map<String, Float> getTimings() {
+        Map<String, Float> timings = new LinkedHashMap<>();
+        for (Node node : nodes.values()) {
+            if (node.done.getCount() == 0) {
+                timings.put(node.name, node.durationNanos / 1_000_000f);
+            }
+        }
+        return Collections.unmodifiableMap(timings);
+    }
+
+    private synchronized Node node(String name) {
+        Node node = nodes.get(name);
+        if (node == null) {
+            throw new IllegalArgumentException("Unknown initializer " + name);
+        }
+        return node;
+    }
+
+    // ==================== Node ====================
+
+    private final class Node {
+        final String name;
+        final Runnable body;
+        final List<Node> dependencies;
+        final AtomicBoolean started = new AtomicBoolean();
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile RuntimeException failure;
+        volatile long durationNanos;
+        // Completion callbacks; null once the node has finished
+        private List<Runnable> listeners = new ArrayList<>();
+
+        Node(String name, Runnable body, List<Node> dependencies) {
+            this.name = name;
+            this.body = body;
+            this.dependencies = dependencies;
+        }
+
+        void ensure() {
+            if (started.compareAndSet(false, true)) {
+                run();
+            } else {
+                awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Startup initializer " + name + " failed", failure);
+            }
+        }
+
+        private void run() {
+            try {
+                for (Node dependency : dependencies) {
+                    dependency.ensure();
+                }
+                tracer.begin(name);
+                long start = System.nanoTime();
+                try {
+                    body.run();
+                } finally {
+                    durationNanos = System.nanoTime() - start;
+                    tracer.end(name, durationNanos);
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            } finally {
+                List<Runnable> pending;
+                synchronized (this) {
+                    done.countDown();
+                    pending = listeners;
+                    listeners = null;
+                }
+                for (Runnable listener : pending) {
+                    listener.run();
+                }
+            }
+        }
+
+        void whenDone(Runnable callback) {
+            synchronized (this) {
+                if (listeners != null) {
+                    listeners.add(callback);
+                    return;
+                }
+            }
+            callback.run();
+        }
+
+        private void awaitUninterruptibly() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    done.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -45,7 +45,55 @@ public class AISpendingInsights {
             int streakDays) {
 
         List<Insight> insights = new ArrayList<>();
+        addSavingsAndTrendInsights(insights, monthlyIncome, monthlyExpense, lastMonthExpense);
 
+        // Category analysis
+        String topCategory = "";
+        double topAmount = 0;
+        for (Map.Entry<String, Double> entry : categorySpending.entrySet()) {
+            if (entry.getValue() > topAmount) {
+                topAmount = entry.getValue();
+                topCategory = entry.getKey();
+            }
+        }
+
+        addCategoryAndStreakInsights(insights, monthlyExpense, topCategory, topAmount, streakDays);
+        return insights;
+    }
+
+    /**
+     * Generate insights for the month containing {@code now} from a transaction frame.
+     * Month totals, last month's expense and the top category come from primitive kernels.
+     */
+    public static List<Insight> generateInsights(TransactionFrame frame, long now, int streakDays) {
+        int currentMonth = EpochDays.monthIndexOfDay(EpochDays.dayIndex(now));
+        int lastMonthStart = frame.lowerBoundDay(EpochDays.firstDayOfMonth(currentMonth - 1));
+        int monthStart = frame.lowerBoundDay(EpochDays.firstDayOfMonth(currentMonth));
+        int monthEnd = frame.lowerBoundDay(EpochDays.firstDayOfMonth(currentMonth + 1));
+
+        double monthlyIncome = frame.sumByType(monthStart, monthEnd, TransactionFrame.TYPE_INCOME);
+        double monthlyExpense = frame.sumByType(monthStart, monthEnd, TransactionFrame.TYPE_EXPENSE);
+        double lastMonthExpense = frame.sumByType(lastMonthStart, monthStart, TransactionFrame.TYPE_EXPENSE);
+
+        double[] byCategory = new double[frame.getCategoryCount()];
+        frame.sumByCategory(monthStart, monthEnd, byCategory);
+        int top = -1;
+        for (int c = 0; c < byCategory.length; c++) {
+            if (frame.getCategoryType(c) == TransactionFrame.TYPE_EXPENSE
+                    && byCategory[c] > (top < 0 ? 0 : byCategory[top])) {
+                top = c;
+            }
+        }
+
+        List<Insight> insights = new ArrayList<>();
+        addSavingsAndTrendInsights(insights, monthlyIncome, monthlyExpense, lastMonthExpense);
+        addCategoryAndStreakInsights(insights, monthlyExpense,
+                top >= 0 ? frame.getCategoryName(top) : "", top >= 0 ? byCategory[top] : 0, streakDays);
+        return insights;
+    }
+
+    private static void addSavingsAndTrendInsights(List<Insight> insights, double monthlyIncome,
+                                                   double monthlyExpense, double lastMonthExpense) {
         // Savings rate insight
         double savingsRate = monthlyIncome > 0 ? 
                 ((monthlyIncome - monthlyExpense) / monthlyIncome) * 100 : 0;
@@ -87,17 +135,10 @@ public class AISpendingInsights {
                 ));
             }
         }
+    }
 
-        // Category analysis
-        String topCategory = "";
-        double topAmount = 0;
-        for (Map.Entry<String, Double> entry : categorySpending.entrySet()) {
-            if (entry.getValue() > topAmount) {
-                topAmount = entry.getValue();
-                topCategory = entry.getKey();
-            }
-        }
-
+    private static void addCategoryAndStreakInsights(List<Insight> insights, double monthlyExpense,
+                                                     String topCategory, double topAmount, int streakDays) {
         if (topAmount > monthlyExpense * 0.4 && monthlyExpense > 0) {
             insights.add(new Insight(
                     "🎯", "Danh mục chi tiêu cao",
@@ -128,8 +169,6 @@ public class AISpendingInsights {
                 getRandomTip(),
                 InsightType.TIP
         ));
-
-        return insights;
     }
 
     private static String getRandomTip() {
@@ -1,7 +1,6 @@
 package com.smartbudget.app.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -9,10 +8,11 @@ import java.util.List;
 /**
  * Achievement/Badge system.
  * Unlocks badges based on user actions and milestones.
+ * Unlocked badges are booleans in {@link AppPreferences} ("achievement.&lt;BADGE&gt;").
  */
 public class AchievementHelper {
 
-    private static final String PREFS_NAME = "achievements_prefs";
+    private static final String KEY_PREFIX = "achievement.";
 
     public enum Badge {
         // Getting started
@@ -52,34 +52,42 @@ public class AchievementHelper {
         }
     }
 
+    // Store key per badge, indexed by ordinal
+    private static final KeyValueStore.Key<Boolean>[] BADGE_KEYS = badgeKeys();
+
+    @SuppressWarnings("unchecked")
+    private static KeyValueStore.Key<Boolean>[] badgeKeys() {
+        Badge[] badges = Badge.values();
+        KeyValueStore.Key<Boolean>[] keys = new KeyValueStore.Key[badges.length];
+        for (Badge badge : badges) {
+            keys[badge.ordinal()] = KeyValueStore.booleanKey(KEY_PREFIX + badge.name(), false);
+        }
+        return keys;
+    }
+
     /**
      * Check if badge is unlocked.
      */
     public static boolean isBadgeUnlocked(Context context, Badge badge) {
-        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
-                .getBoolean(badge.name(), false);
+        return AppPreferences.get(context).get(BADGE_KEYS[badge.ordinal()]);
     }
 
     /**
      * Unlock a badge. Returns true if newly unlocked.
      */
     public static boolean unlockBadge(Context context, Badge badge) {
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        if (prefs.getBoolean(badge.name(), false)) {
-            return false; // Already unlocked
-        }
-        prefs.edit().putBoolean(badge.name(), true).apply();
-        return true;
+        // False if already unlocked
+        return AppPreferences.get(context).compareAndSet(BADGE_KEYS[badge.ordinal()], false, true);
     }
 
     /**
      * Get all unlocked badges.
      */
     public static List<Badge> getUnlockedBadges(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        KeyValueStore store = AppPreferences.get(context);
         List<Badge> unlocked = new ArrayList<>();
         for (Badge badge : Badge.values()) {
-            if (prefs.getBoolean(badge.name(), false)) {
+            if (store.get(BADGE_KEYS[badge.ordinal()])) {
                 unlocked.add(badge);
             }
         }
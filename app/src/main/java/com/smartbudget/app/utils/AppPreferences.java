@@ -0,0 +1,122 @@
+package com.smartbudget.app.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The app's {@link KeyValueStore} for small settings and state: theme, accent color, biometric
+ * lock, usage streak and badges.
+ *
+ * <p>{@code SmartBudgetApp.onCreate} calls {@link #preload} first thing, so the file is usually
+ * in memory before the first read. All file access runs on one background thread; writes are
+ * collected for {@link #FLUSH_DELAY_MILLIS} and written together, and {@link #flushSoon} writes
+ * them right away when the app goes to the background.</p>
+ *
+ * <p>On the first run after the update the store is filled from the SharedPreferences files the
+ * helpers used before (keys prefixed with the file's namespace, e.g. {@code streak.current_streak});
+ * those files are deleted once the store file is written.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class AppPreferences {
+
+    private static final String TAG = "AppPreferences";
+    static final String FILE_NAME = "app_preferences.kv";
+    static final long FLUSH_DELAY_MILLIS = 500;
+
+    /** Old SharedPreferences file -> key namespace in the store */
+    private static final String[][] LEGACY_FILES = {
+            {"streak_prefs", "streak."},
+            {"achievements_prefs", "achievement."},
+            {"theme_prefs", "theme."},
+            {"biometric_prefs", "biometric."}
+    };
+
+    private static final ScheduledExecutorService IO = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "app-preferences");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    private static volatile KeyValueStore INSTANCE;
+
+    private AppPreferences() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * The store; reads wait for the initial load if it has not finished yet.
+     */
+    public static KeyValueStore get(@NonNull Context context) {
+        if (INSTANCE == null) {
+            synchronized (AppPreferences.class) {
+                if (INSTANCE == null) {
+                    Context appContext = context.getApplicationContext();
+                    // From ApplicationInfo: getFilesDir() would stat the disk on this thread
+                    File file = new File(new File(appContext.getApplicationInfo().dataDir, "files"), FILE_NAME);
+                    INSTANCE = new KeyValueStore(file, IO, FLUSH_DELAY_MILLIS, new LegacyImport(appContext));
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /** Starts reading the store in the background. */
+    public static void preload(@NonNull Context context) {
+        get(context).preload();
+    }
+
+    /** Writes pending changes now; for when the app leaves the foreground. */
+    public static void flushSoon(@NonNull Context context) {
+        get(context).flushSoon();
+    }
+
+    // ==================== Legacy Import ====================
+
+    /** Copies the old SharedPreferences files into the store, then deletes them. */
+    private static final class LegacyImport implements KeyValueStore.Seed {
+        private final Context context;
+        private final List<String> imported = new ArrayList<>();
+
+        LegacyImport(Context context) {
+            this.context = context;
+        }
+
+        @Override
+        public void populate(@NonNull Map<String, Object> values) {
+            for (String[] legacy : LEGACY_FILES) {
+                SharedPreferences prefs = context.getSharedPreferences(legacy[0], Context.MODE_PRIVATE);
+                Map<String, ?> all = prefs.getAll();
+                if (all.isEmpty()) continue;
+                for (Map.Entry<String, ?> e : all.entrySet()) {
+                    Object value = e.getValue();
+                    if (value instanceof Boolean || value instanceof Integer
+                            || value instanceof Long || value instanceof String) {
+                        values.put(legacy[1] + e.getKey(), value);
+                    }
+                }
+                imported.add(legacy[0]);
+            }
+        }
+
+        @Override
+        public void persisted() {
+            for (String name : imported) {
+                if (!context.deleteSharedPreferences(name)) {
+                    Log.w(TAG, "Could not delete imported " + name);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.smartbudget.app.utils;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The app's only background schedule, on WorkManager.
+ *
+ * <p>One periodic {@link DailyMaintenanceWorker} runs near the reminder time and does the
+ * daily reminder, the Sunday weekly report, recurring expenses, budget and ledger verification
+ * and backup pruning in a single wakeup (see {@link MaintenancePlan} for what runs when). It only asks for
+ * battery-not-low; WorkManager batches it with other apps' jobs, so it is inexact by design.
+ * Cloud sync is heavier (network, a full upload/download) and is queued by that run as a
+ * one-time {@link CloudSyncWorker} that waits until the device is charging and idle.</p>
+ *
+ * <p>Replaces the repeating {@code RTC_WAKEUP} alarms of the former {@code ReminderReceiver},
+ * {@code NotificationReceiver} and {@code NotificationScheduler}; alarms left over from an
+ * older install are cancelled once by {@link #schedule}. Reminder settings keep their old
+ * preference keys.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class BackgroundScheduler {
+
+    public static final String DAILY_WORK = "daily_maintenance";
+    /** One-time run at the next slot that re-enqueues a periodic job that drifted */
+    public static final String REALIGN_WORK = "daily_maintenance_realign";
+    public static final String SYNC_WORK = "cloud_sync";
+    /** Periodic work enqueued by earlier versions (RecurringExpenseWorker) */
+    private static final String LEGACY_RECURRING_WORK = "recurring_expenses";
+
+    private static final String REMINDER_PREFS = "reminder_prefs";
+    private static final String KEY_REMINDER_ENABLED = "reminder_enabled";
+    private static final String KEY_REMINDER_HOUR = "reminder_hour";
+    private static final String KEY_REMINDER_MINUTE = "reminder_minute";
+    private static final int DEFAULT_REMINDER_HOUR = 20;
+
+    private static final String MAINTENANCE_PREFS = "maintenance_prefs";
+    private static final String KEY_LAST_RUN_PREFIX = "last_run_";
+    private static final String KEY_LEGACY_CLEANED = "legacy_alarms_cancelled";
+
+    private BackgroundScheduler() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // ==================== Scheduling ====================
+
+    /**
+     * Makes sure the daily job is enqueued; an existing schedule is kept. Called at app start.
+     */
+    public static void schedule(@NonNull Context context) {
+        Context app = context.getApplicationContext();
+        cancelLegacySchedules(app);
+        enqueueDaily(app, ExistingPeriodicWorkPolicy.KEEP);
+    }
+
+    /**
+     * Enqueues the periodic job to start at the next reminder slot.
+     *
+     * @param policy KEEP at start-up; CANCEL_AND_REENQUEUE when the slot changed
+     */
+    static void enqueueDaily(@NonNull Context context, @NonNull ExistingPeriodicWorkPolicy policy) {
+        long delay = MaintenancePlan.delayUntilNextSlot(System.currentTimeMillis(),
+                getReminderHour(context), getReminderMinute(context));
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+                DailyMaintenanceWorker.class, 1, TimeUnit.DAYS)
+                .setInitialDelay(delay, TimeUnit.MILLISECONDS)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiresBatteryNotLow(true)
+                        .build())
+                .build();
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(DAILY_WORK, policy, request);
+    }
+
+    /**
+     * Queues a one-time maintenance run at the next slot that re-enqueues the periodic job
+     * from there. Used when a periodic run came so late that the following ones would miss
+     * the reminder time.
+     */
+    static void requestRealign(@NonNull Context context) {
+        long delay = MaintenancePlan.delayUntilNextSlot(System.currentTimeMillis(),
+                getReminderHour(context), getReminderMinute(context));
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(DailyMaintenanceWorker.class)
+                .setInitialDelay(delay, TimeUnit.MILLISECONDS)
+                .setInputData(new Data.Builder().putBoolean(DailyMaintenanceWorker.KEY_REALIGN, true).build())
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(REALIGN_WORK, ExistingWorkPolicy.REPLACE, request);
+    }
+
+    /**
+     * Queues a cloud sync for the next time the device is charging, idle and online.
+     * A sync already waiting is kept.
+     */
+    static void requestSync(@NonNull Context context) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(CloudSyncWorker.class)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .setRequiresCharging(true)
+                        .setRequiresDeviceIdle(true)
+                        .setRequiresBatteryNotLow(true)
+                        .build())
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(SYNC_WORK, ExistingWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * Cancels the repeating alarms and the periodic work of earlier versions. Alarms survive
+     * an app update, so without this the removed receivers would still wake the device daily.
+     * The PendingIntents are matched by component name, which does not need the classes.
+     */
+    private static void cancelLegacySchedules(Context context) {
+        SharedPreferences prefs = maintenancePrefs(context);
+        if (prefs.getBoolean(KEY_LEGACY_CLEANED, false)) return;
+
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (alarmManager != null) {
+            cancelAlarm(context, alarmManager, "com.smartbudget.app.utils.ReminderReceiver", 0);
+            // NotificationReceiver: its own daily reminder, and NotificationScheduler's types 1001-1006
+            for (int requestCode = 1001; requestCode <= 1006; requestCode++) {
+                cancelAlarm(context, alarmManager, "com.smartbudget.app.utils.NotificationReceiver", requestCode);
+            }
+        }
+        WorkManager.getInstance(context).cancelUniqueWork(LEGACY_RECURRING_WORK);
+        prefs.edit().putBoolean(KEY_LEGACY_CLEANED, true).apply();
+    }
+
+    private static void cancelAlarm(Context context, AlarmManager alarmManager, String receiver, int requestCode) {
+        Intent intent = new Intent().setClassName(context, receiver);
+        PendingIntent pendingIntent = PendingIntent.getBroadcast(context, requestCode, intent,
+                PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE);
+        if (pendingIntent != null) {
+            alarmManager.cancel(pendingIntent);
+            pendingIntent.cancel();
+        }
+    }
+
+    // ==================== Reminder Settings ====================
+
+    /**
+     * Turns the daily reminder on at {@code hour:minute} and moves the daily job to that time.
+     */
+    public static void setReminder(@NonNull Context context, int hour, int minute) {
+        reminderPrefs(context).edit()
+                .putBoolean(KEY_REMINDER_ENABLED, true)
+                .putInt(KEY_REMINDER_HOUR, hour)
+                .putInt(KEY_REMINDER_MINUTE, minute)
+                .apply();
+        Context app = context.getApplicationContext();
+        WorkManager.getInstance(app).cancelUniqueWork(REALIGN_WORK);
+        enqueueDaily(app, ExistingPeriodicWorkPolicy.CANCEL_AND_REENQUEUE);
+    }
+
+    /**
+     * Turns the reminder (and the weekly report) off; the daily job keeps running for the
+     * other tasks.
+     */
+    public static void disableReminder(@NonNull Context context) {
+        reminderPrefs(context).edit().putBoolean(KEY_REMINDER_ENABLED, false).apply();
+    }
+
+    public static boolean isReminderEnabled(@NonNull Context context) {
+        return reminderPrefs(context).getBoolean(KEY_REMINDER_ENABLED, false);
+    }
+
+    public static int getReminderHour(@NonNull Context context) {
+        return reminderPrefs(context).getInt(KEY_REMINDER_HOUR, DEFAULT_REMINDER_HOUR);
+    }
+
+    public static int getReminderMinute(@NonNull Context context) {
+        return reminderPrefs(context).getInt(KEY_REMINDER_MINUTE, 0);
+    }
+
+    private static SharedPreferences reminderPrefs(Context context) {
+        return context.getSharedPreferences(REMINDER_PREFS, Context.MODE_PRIVATE);
+    }
+
+    // ==================== Introspection ====================
+
+    /**
+     * When {@code task} last completed, 0 if never.
+     */
+    public static long getLastRun(@NonNull Context context, @NonNull MaintenancePlan.Task task) {
+        return maintenancePrefs(context).getLong(KEY_LAST_RUN_PREFIX + task.name(), 0);
+    }
+
+    /** Last completion time of every task, 0 for never; for settings and debug screens. */
+    @NonNull
+    public static Map<MaintenancePlan.Task, Long> getLastRuns(@NonNull Context context) {
+        SharedPreferences prefs = maintenancePrefs(context);
+        Map<MaintenancePlan.Task, Long> runs = new EnumMap<>(MaintenancePlan.Task.class);
+        for (MaintenancePlan.Task task : MaintenancePlan.Task.values()) {
+            runs.put(task, prefs.getLong(KEY_LAST_RUN_PREFIX + task.name(), 0));
+        }
+        return runs;
+    }
+
+    /** State of the daily job (enqueued, running, next attempt), as reported by WorkManager. */
+    @NonNull
+    public static LiveData<List<WorkInfo>> getDailyWorkInfo(@NonNull Context context) {
+        return WorkManager.getInstance(context).getWorkInfosForUniqueWorkLiveData(DAILY_WORK);
+    }
+
+    /** Called from the workers' threads; commits so the record survives the process ending. */
+    static void recordRun(@NonNull Context context, @NonNull MaintenancePlan.Task task, long time) {
+        maintenancePrefs(context).edit().putLong(KEY_LAST_RUN_PREFIX + task.name(), time).commit();
+    }
+
+    private static SharedPreferences maintenancePrefs(Context context) {
+        return context.getSharedPreferences(MAINTENANCE_PREFS, Context.MODE_PRIVATE);
+    }
+}
@@ -10,7 +10,14 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
@@ -20,10 +27,13 @@ import java.util.Map;
 /**
  * Data backup and restore helper.
  * Provides backup/restore functionality for app data.
+ * Files are encrypted with {@link CryptoManager}; plain ".json" backups still restore.
  */
 public class BackupHelper {
 
     private static final String PREFS_NAME = "backup_prefs";
+    private static final String BACKUP_SUFFIX = ".json.enc";
+    private static final String LEGACY_BACKUP_SUFFIX = ".json";
     private static final String KEY_LAST_BACKUP = "last_backup";
 
     public interface BackupCallback {
@@ -38,7 +48,7 @@ public class BackupHelper {
         try {
             String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault())
                     .format(new Date());
-            String filename = "smartbudget_backup_" + timestamp + ".json";
+            String filename = "smartbudget_backup_" + timestamp + BACKUP_SUFFIX;
             
             File backupDir = new File(context.getExternalFilesDir(null), "backups");
             if (!backupDir.exists()) {
@@ -48,10 +58,13 @@ public class BackupHelper {
             File backupFile = new File(backupDir, filename);
             
             Gson gson = new Gson();
-            String json = gson.toJson(data);
-            
-            try (FileOutputStream fos = new FileOutputStream(backupFile)) {
-                fos.write(json.getBytes());
+            try (OutputStream fos = new FileOutputStream(backupFile);
+                 Writer writer = new OutputStreamWriter(
+                         CryptoManager.getInstance(context).encrypt(fos), StandardCharsets.UTF_8)) {
+                gson.toJson(data, writer);
+            } catch (IOException | RuntimeException e) {
+                backupFile.delete();
+                throw e;
             }
             
             // Save last backup time
@@ -65,7 +78,7 @@ public class BackupHelper {
             }
             
             return backupFile;
-        } catch (IOException e) {
+        } catch (IOException | RuntimeException e) {
             if (callback != null) {
                 callback.onError("❌ Lỗi sao lưu: " + e.getMessage());
             }
@@ -78,22 +91,22 @@ public class BackupHelper {
      */
     public static Map<String, Object> restoreBackup(Context context, File backupFile, BackupCallback callback) {
         try {
-            byte[] bytes = new byte[(int) backupFile.length()];
-            try (FileInputStream fis = new FileInputStream(backupFile)) {
-                fis.read(bytes);
-            }
-            
-            String json = new String(bytes);
             Gson gson = new Gson();
             Type type = new TypeToken<Map<String, Object>>(){}.getType();
-            Map<String, Object> data = gson.fromJson(json, type);
+            Map<String, Object> data;
+            try (InputStream fis = new FileInputStream(backupFile);
+                 Reader reader = new InputStreamReader(
+                         CryptoManager.getInstance(context).openDecrypting(fis), StandardCharsets.UTF_8)) {
+                data = gson.fromJson(reader, type);
+            }
             
             if (callback != null) {
                 callback.onSuccess("✅ Khôi phục thành công!");
             }
             
             return data;
-        } catch (IOException e) {
+        } catch (IOException | RuntimeException e) {
+            // Gson reports stream and decryption errors as JsonIOException
             if (callback != null) {
                 callback.onError("❌ Lỗi khôi phục: " + e.getMessage());
             }
@@ -109,7 +122,7 @@ public class BackupHelper {
         if (!backupDir.exists()) {
             return new File[0];
         }
-        return backupDir.listFiles((dir, name) -> name.endsWith(".json"));
+        return backupDir.listFiles((dir, name) -> name.endsWith(BACKUP_SUFFIX) || name.endsWith(LEGACY_BACKUP_SUFFIX));
     }
 
     /**
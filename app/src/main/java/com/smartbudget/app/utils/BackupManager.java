@@ -4,19 +4,32 @@ import android.content.Context;
 import android.os.Environment;
 import android.widget.Toast;
 
+import androidx.annotation.Nullable;
+
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonObject;
 import com.smartbudget.app.data.local.AppDatabase;
 import com.smartbudget.app.data.local.entity.BudgetEntity;
 import com.smartbudget.app.data.local.entity.CategoryEntity;
 import com.smartbudget.app.data.local.entity.ExpenseEntity;
 import com.smartbudget.app.data.local.entity.SavingsGoalEntity;
 
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -24,10 +37,37 @@ import java.util.concurrent.Executors;
 
 /**
  * Manager for local backup and restore operations.
- * Exports/imports all data as JSON files.
+ * Exports/imports all data as JSON files, encrypted with {@link CryptoManager}, or with a
+ * passphrase ({@link PortableCipher}) for backups that must survive a reinstall or move to
+ * another device: the Keystore key behind CryptoManager is deleted with the app.
+ * The JSON is streamed through the cipher, so a large backup is never held in memory.
  */
 public class BackupManager {
     
+    /** Encrypted backups; plain ".json" files from older versions can still be restored */
+    private static final String BACKUP_SUFFIX = ".json.enc";
+    /** Passphrase-encrypted backups, restorable on any device */
+    private static final String PORTABLE_BACKUP_SUFFIX = ".json.sbp";
+    private static final String LEGACY_BACKUP_SUFFIX = ".json";
+
+    /** Encrypts the backup file stream */
+    private interface Sealer {
+        OutputStream seal(OutputStream file) throws IOException;
+    }
+    
+    /**
+     * Backups before version 2 store a double "amount" (VND) instead of amountMinor/currency.
+     */
+    private static final Gson ENTITY_GSON = new Gson();
+    private static final JsonDeserializer<ExpenseEntity> LEGACY_AMOUNT = (json, type, ctx) -> {
+        ExpenseEntity expense = ENTITY_GSON.fromJson(json, ExpenseEntity.class);
+        JsonObject object = json.getAsJsonObject();
+        if (!object.has("amountMinor") && object.has("amount")) {
+            expense.setAmount(object.get("amount").getAsDouble());
+        }
+        return expense;
+    };
+    
     private final Context context;
     private final AppDatabase database;
     private final Gson gson;
@@ -43,13 +83,26 @@ public class BackupManager {
         this.gson = new GsonBuilder()
             .setPrettyPrinting()
             .setDateFormat("yyyy-MM-dd HH:mm:ss")
+            .registerTypeAdapter(ExpenseEntity.class, LEGACY_AMOUNT)
             .create();
     }
     
     /**
-     * Backup all data to a JSON file.
+     * Backup all data to a JSON file encrypted for this installation only.
      */
     public void backupData(BackupCallback callback) {
+        backupData(BACKUP_SUFFIX, file -> CryptoManager.getInstance(context).encrypt(file), null, callback);
+    }
+
+    /**
+     * Backup all data to a JSON file encrypted with {@code passphrase}, restorable after a
+     * reinstall or on another device. The passphrase is cleared once the key is derived.
+     */
+    public void backupDataPortable(char[] passphrase, BackupCallback callback) {
+        backupData(PORTABLE_BACKUP_SUFFIX, file -> PortableCipher.encrypt(file, passphrase), passphrase, callback);
+    }
+
+    private void backupData(String suffix, Sealer sealer, @Nullable char[] passphrase, BackupCallback callback) {
         Executors.newSingleThreadExecutor().execute(() -> {
             try {
                 BackupData data = new BackupData();
@@ -61,7 +114,7 @@ public class BackupManager {
                 data.savingsGoals = database.savingsGoalDao().getActiveGoalsSync();
                 data.savingsGoals.addAll(database.savingsGoalDao().getCompletedGoalsSync());
                 data.backupTime = System.currentTimeMillis();
-                data.version = 1;
+                data.version = 2;
                 
                 // Create backup file
                 File backupDir = getBackupDirectory();
@@ -71,12 +124,18 @@ public class BackupManager {
                 
                 String fileName = "smartbudget_backup_" + 
                     new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault())
-                        .format(new Date()) + ".json";
+                        .format(new Date()) + suffix;
                 File backupFile = new File(backupDir, fileName);
                 
-                // Write JSON
-                try (FileWriter writer = new FileWriter(backupFile)) {
+                // Write JSON; closing the writer seals the last encrypted segment
+                try (OutputStream file = new FileOutputStream(backupFile);
+                     Writer writer = new OutputStreamWriter(sealer.seal(file), StandardCharsets.UTF_8)) {
                     gson.toJson(data, writer);
+                } catch (IOException | RuntimeException e) {
+                    // Never leave a truncated backup that looks restorable (Gson wraps
+                    // write errors in JsonIOException)
+                    backupFile.delete();
+                    throw e;
                 }
                 
                 String message = "Đã sao lưu tại: " + backupFile.getAbsolutePath();
@@ -88,20 +147,33 @@ public class BackupManager {
                 if (callback != null) {
                     callback.onError("Lỗi sao lưu: " + e.getMessage());
                 }
+            } finally {
+                if (passphrase != null) Arrays.fill(passphrase, '\0');
             }
         });
     }
     
     /**
-     * Restore data from a JSON backup file.
+     * Restore data from a backup file, encrypted or plain JSON.
      */
     public void restoreData(File backupFile, BackupCallback callback) {
+        restoreData(backupFile, null, callback);
+    }
+
+    /**
+     * Restore data from a backup file; {@code passphrase} is needed for portable backups (see
+     * {@link #isPortableBackup}) and cleared once the key is derived.
+     */
+    public void restoreData(File backupFile, @Nullable char[] passphrase, BackupCallback callback) {
         Executors.newSingleThreadExecutor().execute(() -> {
             try {
                 // Parse backup file
                 BackupData data;
-                try (FileReader reader = new FileReader(backupFile)) {
+                try (InputStream file = new BufferedInputStream(new FileInputStream(backupFile), SegmentedGcm.SEGMENT_SIZE);
+                     Reader reader = new InputStreamReader(openBackup(file, passphrase), StandardCharsets.UTF_8)) {
                     data = gson.fromJson(reader, BackupData.class);
+                } finally {
+                    if (passphrase != null) Arrays.fill(passphrase, '\0');
                 }
                 
                 if (data == null) {
@@ -125,8 +197,8 @@ public class BackupManager {
                 if (data.expenses != null) {
                     for (ExpenseEntity exp : data.expenses) {
                         exp.setId(0); // Let Room generate new ID
-                        database.expenseDao().insert(exp);
                     }
+                    database.expenseLedger().insertAll(data.expenses);
                 }
                 
                 // Restore budgets
@@ -141,9 +213,12 @@ public class BackupManager {
                 if (data.savingsGoals != null) {
                     for (SavingsGoalEntity goal : data.savingsGoals) {
                         goal.setId(0);
-                        database.savingsGoalDao().insert(goal);
+                        // Restored balance becomes the goal's opening contribution
+                        database.savingsContributions().insertGoal(goal);
                     }
                 }
+                BudgetAlertService.getInstance(context).invalidate();
+                SuggestionEngine.getInstance(context).invalidate();
                 
                 if (callback != null) {
                     callback.onSuccess("Đã khôi phục dữ liệu thành công!");
@@ -157,6 +232,21 @@ public class BackupManager {
         });
     }
     
+    private InputStream openBackup(InputStream file, @Nullable char[] passphrase) throws IOException {
+        if (PortableCipher.isPortable(file)) {
+            if (passphrase == null) {
+                throw new IOException("Bản sao lưu này cần mật khẩu");
+            }
+            return PortableCipher.decrypt(file, passphrase);
+        }
+        return CryptoManager.getInstance(context).openDecrypting(file);
+    }
+
+    /** True for a passphrase-encrypted backup; ask for the passphrase before restoring it. */
+    public static boolean isPortableBackup(File backupFile) {
+        return backupFile.getName().endsWith(PORTABLE_BACKUP_SUFFIX);
+    }
+
     /**
      * Get list of available backup files.
      */
@@ -165,9 +255,31 @@ public class BackupManager {
         if (!backupDir.exists()) {
             return new File[0];
         }
-        return backupDir.listFiles((dir, name) -> name.endsWith(".json"));
+        return backupDir.listFiles((dir, name) -> name.endsWith(BACKUP_SUFFIX)
+                || name.endsWith(PORTABLE_BACKUP_SUFFIX) || name.endsWith(LEGACY_BACKUP_SUFFIX));
     }
     
+    /**
+     * Delete the oldest backup files, keeping the newest {@code keepCount}.
+     * Runs on the caller's thread.
+     *
+     * @return Number of files deleted
+     */
+    public int pruneOldBackups(int keepCount) {
+        File[] backups = getAvailableBackups();
+        if (backups == null || backups.length <= keepCount) return 0;
+
+        // Newest first
+        Arrays.sort(backups, (a, b) -> Long.compare(b.lastModified(), a.lastModified()));
+        int deleted = 0;
+        for (int i = keepCount; i < backups.length; i++) {
+            if (backups[i].delete()) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
     private File getBackupDirectory() {
         // Use Documents or app-specific directory
         File dir = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOCUMENTS);
@@ -191,7 +303,18 @@ public class BackupManager {
      * Quick access backup method with Toast feedback.
      */
     public static void quickBackup(Context context) {
-        new BackupManager(context).backupData(new BackupCallback() {
+        new BackupManager(context).backupData(toastCallback(context));
+    }
+
+    /**
+     * Quick access portable backup (see {@link #backupDataPortable}) with Toast feedback.
+     */
+    public static void quickBackupPortable(Context context, char[] passphrase) {
+        new BackupManager(context).backupDataPortable(passphrase, toastCallback(context));
+    }
+
+    private static BackupCallback toastCallback(Context context) {
+        return new BackupCallback() {
             @Override
             public void onSuccess(String message) {
                 android.os.Handler mainHandler = new android.os.Handler(context.getMainLooper());
@@ -203,6 +326,6 @@ public class BackupManager {
                 android.os.Handler mainHandler = new android.os.Handler(context.getMainLooper());
                 mainHandler.post(() -> Toast.makeText(context, error, Toast.LENGTH_SHORT).show());
             }
-        });
+        };
     }
 }
@@ -0,0 +1,135 @@
+package com.smartbudget.app.utils;
+
+import androidx.annotation.NonNull;
+
+import com.github.mikephil.charting.animation.Easing;
+import com.github.mikephil.charting.charts.BarChart;
+import com.github.mikephil.charting.data.BarData;
+import com.github.mikephil.charting.data.BarDataSet;
+import com.github.mikephil.charting.data.BarEntry;
+import com.github.mikephil.charting.formatter.IndexAxisValueFormatter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Applies a time series (one value per bucket) to a BarChart incrementally.
+ *
+ * <p>Series with more buckets than the chart has room for are reduced with
+ * {@link ChartDownsampler#lttb}; kept bars stay at their bucket index, so axis labels still
+ * line up. When the kept buckets are the same as last time only the changed bar heights are
+ * written and nothing is redrawn if none changed. Animation plays on the first load and when
+ * the caller reports a range change.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public class BarSeriesUpdater {
+
+    private static final float BAR_WIDTH = 0.6f;
+    // Value labels above bars only while they are readable
+    private static final int MAX_BARS_WITH_VALUES = 12;
+
+    /** Styles the data set once, when it is created. */
+    public interface Styler {
+        void style(@NonNull BarDataSet dataSet);
+    }
+
+    private final BarChart chart;
+    private final int animationMillis;
+    private final Styler styler;
+    private final IndexAxisValueFormatter axisFormatter = new IndexAxisValueFormatter();
+    private BarDataSet dataSet;
+    private String[] labels = new String[0];
+
+    public BarSeriesUpdater(@NonNull BarChart chart, int animationMillis, @NonNull Styler styler) {
+        this.chart = chart;
+        this.animationMillis = animationMillis;
+        this.styler = styler;
+        chart.getXAxis().setValueFormatter(axisFormatter);
+    }
+
+    /**
+     * @param values  Total per bucket, oldest first
+     * @param labels  Axis label per bucket
+     * @param animate Replay the animation (range changed); the first update always animates
+     * @return True when the chart was redrawn
+     */
+    public boolean update(@NonNull float[] values, @NonNull String[] labels, boolean animate) {
+        int[] keep = ChartDownsampler.lttb(values, ChartDownsampler.maxPointsFor(chartWidth()));
+
+        boolean labelsChanged = !Arrays.equals(this.labels, labels);
+        if (labelsChanged) {
+            this.labels = labels;
+            axisFormatter.setValues(labels);
+        }
+
+        if (dataSet == null || chart.getData() == null) {
+            dataSet = new BarDataSet(toEntries(values, keep), "");
+            styler.style(dataSet);
+            dataSet.setDrawValues(keep.length <= MAX_BARS_WITH_VALUES);
+            BarData data = new BarData(dataSet);
+            data.setBarWidth(barWidth(values.length, keep.length));
+            chart.setData(data);
+            chart.animateY(animationMillis, Easing.EaseOutQuart);
+            return true;
+        }
+
+        boolean changed = labelsChanged;
+        if (sameBuckets(keep)) {
+            for (int i = 0; i < keep.length; i++) {
+                BarEntry entry = dataSet.getEntryForIndex(i);
+                if (entry.getY() != values[keep[i]]) {
+                    entry.setY(values[keep[i]]);
+                    changed = true;
+                }
+            }
+        } else {
+            dataSet.setValues(toEntries(values, keep));
+            dataSet.setDrawValues(keep.length <= MAX_BARS_WITH_VALUES);
+            chart.getData().setBarWidth(barWidth(values.length, keep.length));
+            changed = true;
+        }
+        if (!changed && !animate) {
+            return false;
+        }
+
+        dataSet.notifyDataSetChanged();
+        chart.getData().notifyDataChanged();
+        chart.notifyDataSetChanged();
+        if (animate) {
+            chart.animateY(animationMillis, Easing.EaseOutQuart);
+        } else {
+            chart.invalidate();
+        }
+        return true;
+    }
+
+    private boolean sameBuckets(int[] keep) {
+        if (dataSet.getEntryCount() != keep.length) return false;
+        for (int i = 0; i < keep.length; i++) {
+            if (dataSet.getEntryForIndex(i).getX() != keep[i]) return false;
+        }
+        return true;
+    }
+
+    private int chartWidth() {
+        int width = chart.getWidth();
+        // Not laid out yet: assume the screen width
+        return width > 0 ? width : chart.getResources().getDisplayMetrics().widthPixels;
+    }
+
+    private static List<BarEntry> toEntries(float[] values, int[] keep) {
+        List<BarEntry> entries = new ArrayList<>(keep.length);
+        for (int index : keep) {
+            entries.add(new BarEntry(index, values[index]));
+        }
+        return entries;
+    }
+
+    // Downsampled bars sit further apart on the x axis; widen them to keep the same look
+    private static float barWidth(int buckets, int kept) {
+        return kept > 0 ? BAR_WIDTH * buckets / kept : BAR_WIDTH;
+    }
+}
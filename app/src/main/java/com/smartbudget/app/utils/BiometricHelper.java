@@ -1,7 +1,6 @@
 package com.smartbudget.app.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
 import androidx.annotation.NonNull;
 import androidx.biometric.BiometricManager;
@@ -17,15 +16,15 @@ import java.util.concurrent.Executor;
  */
 public class BiometricHelper {
 
-    private static final String PREFS_NAME = "biometric_prefs";
-    private static final String KEY_BIOMETRIC_ENABLED = "biometric_enabled";
+    private static final KeyValueStore.Key<Boolean> KEY_BIOMETRIC_ENABLED =
+            KeyValueStore.booleanKey("biometric.biometric_enabled", false);
 
     private final Context context;
-    private final SharedPreferences prefs;
+    private final KeyValueStore prefs;
 
     public BiometricHelper(Context context) {
         this.context = context.getApplicationContext();
-        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.prefs = AppPreferences.get(context);
     }
 
     /**
@@ -63,14 +62,14 @@ public class BiometricHelper {
      * Check if user has enabled biometric lock for this app.
      */
     public boolean isBiometricEnabled() {
-        return prefs.getBoolean(KEY_BIOMETRIC_ENABLED, false);
+        return prefs.get(KEY_BIOMETRIC_ENABLED);
     }
 
     /**
      * Enable or disable biometric lock for this app.
      */
     public void setBiometricEnabled(boolean enabled) {
-        prefs.edit().putBoolean(KEY_BIOMETRIC_ENABLED, enabled).apply();
+        prefs.put(KEY_BIOMETRIC_ENABLED, enabled);
     }
 
     /**
@@ -0,0 +1,267 @@
+package com.smartbudget.app.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-stage producer/consumer pipeline with bounded hand-off queues.
+ *
+ * <p>Each stage runs on its own worker thread(s) and passes items to the next stage through an
+ * {@link ArrayBlockingQueue}; a full queue blocks the upstream stage (backpressure), so a slow
+ * stage bounds how much work - and memory, e.g. decoded bitmaps - piles up in front of it.
+ * Stages run concurrently on different items. An item whose stage throws is reported through
+ * {@link Listener#onError} and skips the remaining stages.</p>
+ *
+ * <h3>Usage:</h3>
+ * <pre>
+ * BoundedPipeline&lt;Uri, Draft&gt; pipeline = BoundedPipeline.&lt;Uri&gt;builder("scan", 2)
+ *         .stage("decode", 1, this::decode)
+ *         .stage("ocr", 1, this::recognize)
+ *         .stage("parse", 3, this::parse)
+ *         .build(listener);
+ * pipeline.start();
+ * for (Uri uri : uris) pipeline.submit(uri);   // blocks when the first queue is full
+ * pipeline.close();                            // no more input; onComplete follows
+ * </pre>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class BoundedPipeline<I, O> {
+
+    /** One processing step. Called on the stage's worker threads. */
+    public interface Stage<A, B> {
+        B process(A input) throws Exception;
+    }
+
+    /** Callbacks, invoked on pipeline worker threads. */
+    public interface Listener<O> {
+        void onResult(int index, O result);
+
+        void onError(int index, String stage, Exception error);
+
+        /** All submitted items have left the pipeline (or it was cancelled). */
+        void onComplete();
+    }
+
+    // ==================== BUILDER ====================
+
+    public static <I> Builder<I, I> builder(String name, int queueCapacity) {
+        return new Builder<>(name, queueCapacity, new ArrayList<>());
+    }
+
+    public static final class Builder<I, O> {
+        private final String name;
+        private final int queueCapacity;
+        private final List<StageSpec> stages;
+
+        private Builder(String name, int queueCapacity, List<StageSpec> stages) {
+            this.name = name;
+            this.queueCapacity = queueCapacity;
+            this.stages = stages;
+        }
+
+        /**
+         * Appends a stage with {@code workers} threads.
+         */
+        @SuppressWarnings("unchecked")
+        public <N> Builder<I, N> stage(String stageName, int workers, Stage<? super O, ? extends N> stage) {
+            if (workers < 1) throw new IllegalArgumentException("workers must be >= 1");
+            stages.add(new StageSpec(stageName, workers, (Stage<Object, Object>) (Stage<?, ?>) stage));
+            return new Builder<>(name, queueCapacity, stages);
+        }
+
+        public BoundedPipeline<I, O> build(Listener<? super O> listener) {
+            if (stages.isEmpty()) throw new IllegalStateException("Pipeline needs at least one stage");
+            return new BoundedPipeline<>(name, queueCapacity, new ArrayList<>(stages), listener);
+        }
+    }
+
+    private static final class StageSpec {
+        final String name;
+        final int workers;
+        final Stage<Object, Object> stage;
+
+        StageSpec(String name, int workers, Stage<Object, Object> stage) {
+            this.name = name;
+            this.workers = workers;
+            this.stage = stage;
+        }
+    }
+
+    // ==================== PIPELINE ====================
+
+    // Queue element; END marks the end of input and is forwarded by the last worker of a stage
+    private static final class Item {
+        static final Item END = new Item(-1, null);
+
+        final int index;
+        final Object value;
+
+        Item(int index, Object value) {
+            this.index = index;
+            this.value = value;
+        }
+    }
+
+    // How often a producer blocked on a full first queue re-checks for cancel()
+    private static final long FEED_POLL_MILLIS = 50;
+
+    private final String name;
+    private final List<StageSpec> stages;
+    private final List<BlockingQueue<Item>> queues = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final Listener<? super O> listener;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private volatile boolean cancelled;
+
+    private BoundedPipeline(String name, int queueCapacity, List<StageSpec> stages, Listener<? super O> listener) {
+        this.name = name;
+        this.stages = stages;
+        this.listener = listener;
+        for (int i = 0; i < stages.size(); i++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+    }
+
+    /**
+     * Starts the worker threads.
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) return;
+        for (int s = 0; s < stages.size(); s++) {
+            StageSpec spec = stages.get(s);
+            AtomicInteger remaining = new AtomicInteger(spec.workers);
+            for (int w = 0; w < spec.workers; w++) {
+                final int stageIndex = s;
+                Thread thread = new Thread(() -> runWorker(stageIndex, remaining),
+                        name + "-" + spec.name + "-" + w);
+                thread.setDaemon(true);
+                threads.add(thread);
+                thread.start();
+            }
+        }
+    }
+
+    /**
+     * Feeds one input, blocking while the first stage's queue is full.
+     *
+     * @return Index of the item, passed back to the listener
+     * @throws IllegalStateException if the pipeline is closed, or is cancelled while waiting
+     */
+    public int submit(I input) throws InterruptedException {
+        if (closed.get()) throw new IllegalStateException("Pipeline is closed");
+        int index = nextIndex.getAndIncrement();
+        if (!feed(new Item(index, input))) {
+            throw new IllegalStateException("Pipeline was cancelled");
+        }
+        return index;
+    }
+
+    /**
+     * Signals the end of input. {@link Listener#onComplete} fires once every item has drained.
+     * Returns early if the pipeline is cancelled meanwhile.
+     */
+    public void close() throws InterruptedException {
+        if (closed.compareAndSet(false, true)) {
+            feed(Item.END);
+        }
+    }
+
+    /**
+     * Stops all stages; items still in flight are dropped. A producer blocked in
+     * {@link #submit} or {@link #close} gives up shortly after.
+     */
+    public void cancel() {
+        cancelled = true;
+        closed.set(true);
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        // Nobody takes from the queues any more; drop the queued inputs now
+        for (BlockingQueue<Item> queue : queues) {
+            queue.clear();
+        }
+        complete();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Puts {@code item} on the first queue, waiting for space. The wait re-checks
+     * {@link #cancelled}: the producer is not one of the pipeline's threads, so cancel() cannot
+     * interrupt it, and with the workers gone a plain put() would block forever.
+     *
+     * @return false if cancelled before the item was queued
+     */
+    private boolean feed(Item item) throws InterruptedException {
+        BlockingQueue<Item> first = queues.get(0);
+        while (!cancelled) {
+            if (first.offer(item, FEED_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (cancelled) first.clear();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void runWorker(int stageIndex, AtomicInteger remainingWorkers) {
+        StageSpec spec = stages.get(stageIndex);
+        BlockingQueue<Item> in = queues.get(stageIndex);
+        BlockingQueue<Item> out = stageIndex + 1 < queues.size() ? queues.get(stageIndex + 1) : null;
+        try {
+            while (!cancelled) {
+                Item item = in.take();
+                if (item == Item.END) {
+                    // Let sibling workers see the end too; the last one forwards it downstream
+                    in.put(Item.END);
+                    if (remainingWorkers.decrementAndGet() == 0) {
+                        in.clear();
+                        if (out != null) out.put(Item.END);
+                        else complete();
+                    }
+                    return;
+                }
+
+                Object result;
+                try {
+                    result = spec.stage.process(item.value);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    if (!cancelled) listener.onError(item.index, spec.name, e);
+                    continue;
+                }
+
+                if (out != null) {
+                    out.put(new Item(item.index, result));
+                } else {
+                    deliver(item.index, result);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(int index, Object result) {
+        if (!cancelled) listener.onResult(index, (O) result);
+    }
+
+    private void complete() {
+        if (completed.compareAndSet(false, true)) {
+            listener.onComplete();
+        }
+    }
+}
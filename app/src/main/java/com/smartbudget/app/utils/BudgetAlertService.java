@@ -5,40 +5,257 @@ import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
+import android.content.SharedPreferences;
 import android.os.Build;
+import android.util.Log;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
 import androidx.core.app.NotificationCompat;
 
 import com.smartbudget.app.R;
 import com.smartbudget.app.data.local.AppDatabase;
+import com.smartbudget.app.data.local.dao.ExpenseDao;
 import com.smartbudget.app.data.local.entity.BudgetEntity;
+import com.smartbudget.app.data.local.entity.CategoryEntity;
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
 import com.smartbudget.app.presentation.MainActivity;
 
-import java.util.Calendar;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
- * Service class for monitoring budget thresholds and sending alerts.
+ * Monitors budget thresholds and sends alerts, driven by expense writes.
+ *
+ * <p>{@code ExpenseRepository} reports every committed insert, update and delete through
+ * {@link #onExpenseWritten}; bulk writers (CSV import, backup restore, sync, recurring
+ * expenses) and budget edits call {@link #invalidate}; the daily maintenance job calls
+ * {@link #verifyNow}. Month spend is kept in a {@link BudgetSpendTracker}, seeded from SQL
+ * once per month and updated by deltas, so each write costs a map update and two threshold
+ * checks instead of a month scan.</p>
+ *
+ * <p>Notifications are debounced: deltas are applied at once, but thresholds are evaluated
+ * {@link #DEBOUNCE_MILLIS} after the first write of a burst, so an import of hundreds of rows
+ * produces at most one alert per budget. Each (budget, threshold, month) is notified once; the
+ * reported keys survive restarts in SharedPreferences.</p>
+ *
+ * <p>All state lives on one evaluator thread; the public methods only post to it. A write
+ * that commits while the seed query runs can be counted twice until the next reseed (month
+ * change, {@link #invalidate}); at worst an alert fires marginally early.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
  */
 public class BudgetAlertService {
-    
+
+    private static final String TAG = "BudgetAlertService";
     private static final String CHANNEL_ID = "budget_alerts";
     private static final int NOTIFICATION_ID_BUDGET_WARNING = 1001;
     private static final int NOTIFICATION_ID_BUDGET_EXCEEDED = 1002;
-    
-    // Alert when spent >= 80% of budget
-    private static final double WARNING_THRESHOLD = 0.8;
-    
+    private static final String NOTIFICATION_TAG_CATEGORY = "budget_category_";
+
+    private static final String PREFS_NAME = "budget_alert_prefs";
+    private static final String KEY_REPORTED = "reported_thresholds";
+
+    static final long DEBOUNCE_MILLIS = 1000;
+
+    private static final ScheduledExecutorService EVALUATOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "budget-alerts");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private static volatile BudgetAlertService INSTANCE;
+
     private final Context context;
-    private final AppDatabase database;
-    
-    public BudgetAlertService(Context context) {
-        this.context = context;
-        this.database = AppDatabase.getInstance(context);
-        createNotificationChannel();
+
+    // Evaluator thread only
+    private final BudgetSpendTracker tracker = new BudgetSpendTracker();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+    private boolean stale = true;
+    private boolean flushScheduled;
+    private boolean channelCreated;
+
+    private BudgetAlertService(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public static BudgetAlertService getInstance(@NonNull Context context) {
+        if (INSTANCE == null) {
+            synchronized (BudgetAlertService.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new BudgetAlertService(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    // ==================== Write Path ====================
+
+    /**
+     * Reports one committed expense write. Call after the write, from any thread.
+     *
+     * @param before The row as it was before an update or delete; null for an insert
+     * @param after  The row as written by an insert or update; null for a delete
+     */
+    public void onExpenseWritten(@Nullable ExpenseEntity before, @Nullable ExpenseEntity after) {
+        // Read the fields now: callers may keep mutating the entity
+        final Long oldCategory = before != null ? before.getCategoryId() : null;
+        final long oldDate = before != null ? before.getDate() : 0;
+        final long oldMinor = before != null ? before.getAmountMinor() : 0;
+        final String oldCurrency = before != null ? before.getCurrency() : null;
+        final Long newCategory = after != null ? after.getCategoryId() : null;
+        final long newDate = after != null ? after.getDate() : 0;
+        final long newMinor = after != null ? after.getAmountMinor() : 0;
+        final String newCurrency = after != null ? after.getCurrency() : null;
+
+        EVALUATOR.execute(() -> {
+            // A fresh seed already includes this write
+            if (!ensureSeeded()) {
+                boolean known = true;
+                if (before != null) {
+                    known = tracker.apply(oldCategory, EpochDays.monthIndex(oldDate),
+                            -toBase(oldCurrency, oldMinor, oldDate));
+                }
+                if (after != null) {
+                    known &= tracker.apply(newCategory, EpochDays.monthIndex(newDate),
+                            toBase(newCurrency, newMinor, newDate));
+                }
+                // New category since the seed: reseed (SQL includes this write)
+                stale |= !known;
+            }
+            scheduleFlush();
+        });
+    }
+
+    /**
+     * Drops the running sums; they are reloaded from SQL before the next evaluation, which
+     * checks every budget. For bulk writes and budget or category changes.
+     */
+    public void invalidate() {
+        EVALUATOR.execute(() -> {
+            stale = true;
+            scheduleFlush();
+        });
+    }
+
+    /**
+     * Evaluates the current month's budgets now and sends alerts if needed.
+     */
+    public void checkBudgetStatus() {
+        EVALUATOR.execute(this::flush);
+    }
+
+    /**
+     * Reloads the running sums from SQL and evaluates every budget, waiting for the result.
+     * Run daily by the maintenance job, so drift from the seed race above lasts at most a day.
+     *
+     * @return False if the evaluation failed or did not finish in time
+     */
+    @WorkerThread
+    public boolean verifyNow(long timeoutMillis) throws InterruptedException {
+        try {
+            return EVALUATOR.submit(() -> {
+                stale = true;
+                flush();
+                return !stale;
+            }).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            Log.w(TAG, "Budget verification did not complete", e);
+            return false;
+        }
+    }
+
+    /** Same conversion as the SQL seed (ExpenseDao.BASE_AMOUNT); a cache hit per write. */
+    private double toBase(String currency, long amountMinor, long date) {
+        long baseMinor = CurrencyConverter.BASE_CURRENCY.equals(currency) ? amountMinor
+                : AppDatabase.getDatabase(context).exchangeRates().toBaseMinor(currency, amountMinor, date);
+        return CurrencyConverter.fromMinor(baseMinor, CurrencyConverter.BASE_CURRENCY);
+    }
+
+    // ==================== Evaluation ====================
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            EVALUATOR.schedule(this::flush, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        flushScheduled = false;
+        try {
+            ensureSeeded();
+            List<BudgetSpendTracker.Alert> alerts = tracker.collectAlerts();
+            if (alerts.isEmpty()) return;
+
+            prefs().edit().putStringSet(KEY_REPORTED, new HashSet<>(tracker.getReportedKeys())).apply();
+            for (BudgetSpendTracker.Alert alert : alerts) {
+                sendAlert(alert);
+            }
+        } catch (RuntimeException e) {
+            // Database closed during an account switch, etc.; the next write retries
+            stale = true;
+            Log.w(TAG, "Budget evaluation failed", e);
+        }
+    }
+
+    /**
+     * Seeds the tracker if it is stale or from another month.
+     *
+     * @return True if it was (re)seeded just now
+     */
+    private boolean ensureSeeded() {
+        int month = EpochDays.monthIndexOfDay(EpochDays.today());
+        if (!stale && tracker.isSeededFor(month)) {
+            return false;
+        }
+        AppDatabase database = AppDatabase.getDatabase(context);
+        long start = EpochDays.startOfMonth(month);
+        long end = EpochDays.endOfMonth(month);
+
+        Map<Long, Double> spent = new HashMap<>();
+        for (ExpenseDao.CategoryTotal total : database.expenseDao().getTotalsByCategorySync(start, end)) {
+            spent.put(total.categoryId, total.total);
+        }
+        Map<Long, Boolean> types = new HashMap<>();
+        categoryNames.clear();
+        for (CategoryEntity category : database.categoryDao().getAllCategoriesSync()) {
+            types.put(category.getId(), category.getType() == 0);
+            categoryNames.put(category.getId(), category.getName());
+        }
+        List<BudgetSpendTracker.Budget> budgets = new ArrayList<>();
+        for (BudgetEntity budget : database.budgetDao().getBudgetsForMonthSync(
+                EpochDays.monthOf(month), EpochDays.yearOf(month))) {
+            budgets.add(new BudgetSpendTracker.Budget(budget.getId(), budget.getCategoryId(), budget.getLimitAmount()));
+        }
+        Set<String> reported = prefs().getStringSet(KEY_REPORTED, new HashSet<>());
+
+        tracker.reset(month, spent, types, budgets, reported);
+        stale = false;
+        return true;
     }
-    
+
+    private SharedPreferences prefs() {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    // ==================== Notifications ====================
+
     private void createNotificationChannel() {
+        if (channelCreated) return;
+        channelCreated = true;
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
             NotificationChannel channel = new NotificationChannel(
                 CHANNEL_ID,
@@ -46,131 +263,113 @@ public class BudgetAlertService {
                 NotificationManager.IMPORTANCE_HIGH
             );
             channel.setDescription("Thông báo khi vượt hoặc sắp vượt ngân sách");
-            
+
             NotificationManager manager = context.getSystemService(NotificationManager.class);
             if (manager != null) {
                 manager.createNotificationChannel(channel);
             }
         }
     }
-    
-    /**
-     * Check current month's budget and send alerts if needed.
-     */
-    public void checkBudgetStatus() {
-        Executors.newSingleThreadExecutor().execute(() -> {
-            Calendar cal = Calendar.getInstance();
-            int month = cal.get(Calendar.MONTH) + 1;
-            int year = cal.get(Calendar.YEAR);
-            
-            BudgetEntity budget = database.budgetDao().getTotalBudget(month, year);
-            if (budget == null || budget.getLimitAmount() <= 0) {
-                return; // No budget set
-            }
-            
-            double spent = budget.getSpentAmount();
-            double limit = budget.getLimitAmount();
-            double ratio = spent / limit;
-            
-            if (ratio >= 1.0) {
-                // Exceeded budget
-                sendBudgetExceededNotification(spent, limit);
-            } else if (ratio >= WARNING_THRESHOLD) {
-                // Warning - approaching limit
-                sendBudgetWarningNotification(spent, limit, (int)(ratio * 100));
-            }
-        });
+
+    private void sendAlert(BudgetSpendTracker.Alert alert) {
+        double limit = alert.budget.limit;
+        Long categoryId = alert.budget.categoryId;
+        String categoryName = categoryId != null ? categoryNames.get(categoryId) : null;
+        boolean exceeded = alert.threshold >= BudgetSpendTracker.THRESHOLD_EXCEEDED;
+
+        String title;
+        String message;
+        if (exceeded) {
+            title = categoryName != null ? "🚨 Vượt ngân sách " + categoryName + "!" : "🚨 Vượt ngân sách!";
+            message = String.format(
+                "Bạn đã vượt ngân sách %.0f₫. Tổng chi: %.0f₫ / Giới hạn: %.0f₫",
+                alert.spent - limit, alert.spent, limit
+            );
+        } else {
+            title = categoryName != null ? "⚠️ Sắp hết ngân sách " + categoryName + "!" : "⚠️ Sắp hết ngân sách!";
+            message = String.format(
+                "Bạn đã chi %d%% ngân sách tháng này (%.0f₫ / %.0f₫)",
+                alert.getPercent(), alert.spent, limit
+            );
+        }
+
+        // One notification per budget; the exceeded alert replaces the warning
+        String tag = categoryId != null ? NOTIFICATION_TAG_CATEGORY + categoryId : null;
+        notify(tag, exceeded ? NOTIFICATION_ID_BUDGET_EXCEEDED : NOTIFICATION_ID_BUDGET_WARNING, title, message);
+        if (exceeded) {
+            cancel(tag, NOTIFICATION_ID_BUDGET_WARNING);
+        }
     }
-    
-    private void sendBudgetWarningNotification(double spent, double limit, int percentage) {
+
+    private void notify(@Nullable String tag, int id, String title, String message) {
+        createNotificationChannel();
         Intent intent = new Intent(context, MainActivity.class);
         PendingIntent pendingIntent = PendingIntent.getActivity(
-            context, 0, intent, 
+            context, 0, intent,
             PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
         );
-        
-        String message = String.format(
-            "Bạn đã chi %d%% ngân sách tháng này (%.0f₫ / %.0f₫)",
-            percentage, spent, limit
-        );
-        
+
         NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
             .setSmallIcon(R.drawable.ic_notification)
-            .setContentTitle("⚠️ Sắp hết ngân sách!")
+            .setContentTitle(title)
             .setContentText(message)
             .setStyle(new NotificationCompat.BigTextStyle().bigText(message))
             .setPriority(NotificationCompat.PRIORITY_HIGH)
             .setContentIntent(pendingIntent)
             .setAutoCancel(true);
-        
-        NotificationManager manager = (NotificationManager) 
+
+        NotificationManager manager = (NotificationManager)
             context.getSystemService(Context.NOTIFICATION_SERVICE);
         if (manager != null) {
-            manager.notify(NOTIFICATION_ID_BUDGET_WARNING, builder.build());
+            manager.notify(tag, id, builder.build());
         }
     }
-    
-    private void sendBudgetExceededNotification(double spent, double limit) {
-        Intent intent = new Intent(context, MainActivity.class);
-        PendingIntent pendingIntent = PendingIntent.getActivity(
-            context, 0, intent,
-            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-        );
-        
-        double exceeded = spent - limit;
-        String message = String.format(
-            "Bạn đã vượt ngân sách %.0f₫. Tổng chi: %.0f₫ / Giới hạn: %.0f₫",
-            exceeded, spent, limit
-        );
-        
-        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
-            .setSmallIcon(R.drawable.ic_notification)
-            .setContentTitle("🚨 Vượt ngân sách!")
-            .setContentText(message)
-            .setStyle(new NotificationCompat.BigTextStyle().bigText(message))
-            .setPriority(NotificationCompat.PRIORITY_HIGH)
-            .setContentIntent(pendingIntent)
-            .setAutoCancel(true);
-        
+
+    private void cancel(@Nullable String tag, int id) {
         NotificationManager manager = (NotificationManager)
             context.getSystemService(Context.NOTIFICATION_SERVICE);
         if (manager != null) {
-            manager.notify(NOTIFICATION_ID_BUDGET_EXCEEDED, builder.build());
+            manager.cancel(tag, id);
         }
     }
-    
+
     /**
      * Get budget status summary for dashboard.
      */
     public interface BudgetStatusCallback {
         void onResult(BudgetStatus status);
     }
-    
+
+    /**
+     * Total budget status of the current month, from the running sums. The callback runs on
+     * the evaluator thread.
+     */
     public void getBudgetStatus(BudgetStatusCallback callback) {
-        Executors.newSingleThreadExecutor().execute(() -> {
-            Calendar cal = Calendar.getInstance();
-            int month = cal.get(Calendar.MONTH) + 1;
-            int year = cal.get(Calendar.YEAR);
-            
-            BudgetEntity budget = database.budgetDao().getTotalBudget(month, year);
-            
+        EVALUATOR.execute(() -> {
             BudgetStatus status = new BudgetStatus();
-            if (budget != null && budget.getLimitAmount() > 0) {
-                status.hasBudget = true;
-                status.limit = budget.getLimitAmount();
-                status.spent = budget.getSpentAmount();
-                status.remaining = status.limit - status.spent;
-                status.percentage = (int) ((status.spent / status.limit) * 100);
-                status.isExceeded = status.spent > status.limit;
-                status.isWarning = status.percentage >= 80 && !status.isExceeded;
+            try {
+                ensureSeeded();
+                BudgetSpendTracker.Budget budget = tracker.getTotalBudget();
+                if (budget != null) {
+                    status.hasBudget = true;
+                    status.limit = budget.limit;
+                    status.spent = tracker.getTotalSpent();
+                    status.remaining = status.limit - status.spent;
+                    status.percentage = (int) ((status.spent / status.limit) * 100);
+                    status.isExceeded = status.spent > status.limit;
+                    status.isWarning = status.percentage >= BudgetSpendTracker.THRESHOLD_WARNING && !status.isExceeded;
+                }
+            } catch (RuntimeException e) {
+                stale = true;
+                Log.w(TAG, "Budget status failed", e);
             }
-            
+
             if (callback != null) {
                 callback.onResult(status);
             }
         });
     }
-    
+
     public static class BudgetStatus {
         public boolean hasBudget = false;
         public double limit = 0;
@@ -0,0 +1,235 @@
+package com.smartbudget.app.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Running month spend per category and in total, with budget threshold detection.
+ *
+ * <p>Seeded once per month from SQL ({@link #reset}), then kept current from expense write
+ * deltas ({@link #apply}). A delta touches at most two budgets (its category's and the total
+ * budget), so applying it and checking the 80% / 100% thresholds is O(1) no matter how many
+ * expenses the month has. Each (budget, threshold, month) is reported once; the reported keys
+ * can be persisted and passed back to {@link #reset} so a restart does not repeat them.</p>
+ *
+ * <p>Not thread-safe; {@code BudgetAlertService} confines it to one thread.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class BudgetSpendTracker {
+
+    public static final int THRESHOLD_WARNING = 80;
+    public static final int THRESHOLD_EXCEEDED = 100;
+
+    // ==================== Model ====================
+
+    /** Budget limit; categoryId null is the month's total budget (expense categories only). */
+    public static final class Budget {
+        public final long id;
+        @Nullable
+        public final Long categoryId;
+        public final double limit;
+
+        public Budget(long id, @Nullable Long categoryId, double limit) {
+            this.id = id;
+            this.categoryId = categoryId;
+            this.limit = limit;
+        }
+    }
+
+    /** A threshold crossed for the first time this month. */
+    public static final class Alert {
+        public final Budget budget;
+        public final int threshold;
+        public final double spent;
+
+        Alert(Budget budget, int threshold, double spent) {
+            this.budget = budget;
+            this.threshold = threshold;
+            this.spent = spent;
+        }
+
+        public int getPercent() {
+            return (int) (spent / budget.limit * 100);
+        }
+    }
+
+    private int monthIndex = Integer.MIN_VALUE;
+    private double totalSpent;
+    private final Map<Long, double[]> categorySpent = new HashMap<>();
+    /** Category id -> counts towards the total budget (expense category) */
+    private final Map<Long, Boolean> expenseCategory = new HashMap<>();
+    @Nullable
+    private Budget totalBudget;
+    private final Map<Long, Budget> categoryBudgets = new HashMap<>();
+    private final Set<String> reported = new HashSet<>();
+    private final Set<Budget> touched = new LinkedHashSet<>();
+    private boolean unknownCategorySeen;
+
+    // ==================== Seeding ====================
+
+    /**
+     * Replaces all state with a fresh seed. Every budget is checked on the next
+     * {@link #collectAlerts}.
+     *
+     * @param monthIndex      Month the sums cover ({@link EpochDays#monthIndex})
+     * @param spentByCategory Sum of amounts per category id in that month, all category types
+     * @param categoryTypes   Every category id -> true for expense categories, false for income
+     * @param budgets         Budgets of that month
+     * @param reportedKeys    Keys from {@link #getReportedKeys()} already notified; other months' are ignored
+     */
+    public void reset(int monthIndex, @NonNull Map<Long, Double> spentByCategory,
+                      @NonNull Map<Long, Boolean> categoryTypes, @NonNull Collection<Budget> budgets,
+                      @NonNull Collection<String> reportedKeys) {
+        this.monthIndex = monthIndex;
+        categorySpent.clear();
+        expenseCategory.clear();
+        expenseCategory.putAll(categoryTypes);
+        totalSpent = 0;
+        for (Map.Entry<Long, Double> e : spentByCategory.entrySet()) {
+            double amount = e.getValue() == null ? 0 : e.getValue();
+            categorySpent.put(e.getKey(), new double[]{amount});
+            if (Boolean.TRUE.equals(expenseCategory.get(e.getKey()))) {
+                totalSpent += amount;
+            }
+        }
+
+        totalBudget = null;
+        categoryBudgets.clear();
+        touched.clear();
+        for (Budget budget : budgets) {
+            if (budget.limit <= 0) continue;
+            if (budget.categoryId == null) {
+                totalBudget = budget;
+            } else {
+                categoryBudgets.put(budget.categoryId, budget);
+            }
+            touched.add(budget);
+        }
+
+        reported.clear();
+        String prefix = monthIndex + ":";
+        for (String key : reportedKeys) {
+            if (key.startsWith(prefix)) {
+                reported.add(key);
+            }
+        }
+        unknownCategorySeen = false;
+    }
+
+    public boolean isSeededFor(int monthIndex) {
+        return this.monthIndex == monthIndex && !unknownCategorySeen;
+    }
+
+    public int getMonthIndex() {
+        return monthIndex;
+    }
+
+    // ==================== Deltas ====================
+
+    /**
+     * Adds {@code delta} (negative for a removed expense) to the spend of one expense.
+     *
+     * @param categoryId Category of the expense; null is not counted anywhere (as in SQL)
+     * @param monthIndex Month of the expense date; other months are ignored
+     * @return False if the category is unknown, i.e. the tracker needs a reseed
+     */
+    public boolean apply(@Nullable Long categoryId, int monthIndex, double delta) {
+        if (monthIndex != this.monthIndex || categoryId == null || delta == 0) {
+            return true;
+        }
+        Boolean isExpense = expenseCategory.get(categoryId);
+        if (isExpense == null) {
+            unknownCategorySeen = true;
+            return false;
+        }
+        double[] cell = categorySpent.get(categoryId);
+        if (cell == null) {
+            cell = new double[1];
+            categorySpent.put(categoryId, cell);
+        }
+        cell[0] += delta;
+
+        Budget categoryBudget = categoryBudgets.get(categoryId);
+        if (categoryBudget != null) {
+            touched.add(categoryBudget);
+        }
+        if (isExpense) {
+            totalSpent += delta;
+            if (totalBudget != null) {
+                touched.add(totalBudget);
+            }
+        }
+        return true;
+    }
+
+    // ==================== Thresholds ====================
+
+    /**
+     * Thresholds newly crossed by the budgets touched since the last call. A budget that jumps
+     * past 100% in one go reports only 100% (and 80% is marked as reported too).
+     */
+    @NonNull
+    public List<Alert> collectAlerts() {
+        if (touched.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Alert> alerts = new ArrayList<>();
+        for (Budget budget : touched) {
+            double spent = getSpent(budget);
+            double ratio = spent / budget.limit;
+            int threshold = ratio >= 1.0 ? THRESHOLD_EXCEEDED
+                    : ratio >= THRESHOLD_WARNING / 100.0 ? THRESHOLD_WARNING : 0;
+            if (threshold == 0) continue;
+
+            String key = key(monthIndex, budget.id, threshold);
+            if (reported.add(key)) {
+                reported.add(key(monthIndex, budget.id, THRESHOLD_WARNING));
+                alerts.add(new Alert(budget, threshold, spent));
+            }
+        }
+        touched.clear();
+        return alerts;
+    }
+
+    /** Reported (month, budget, threshold) keys, for persisting. */
+    @NonNull
+    public Set<String> getReportedKeys() {
+        return Collections.unmodifiableSet(reported);
+    }
+
+    static String key(int monthIndex, long budgetId, int threshold) {
+        return monthIndex + ":" + budgetId + ":" + threshold;
+    }
+
+    // ==================== Queries ====================
+
+    public double getTotalSpent() {
+        return totalSpent;
+    }
+
+    public double getCategorySpent(long categoryId) {
+        double[] cell = categorySpent.get(categoryId);
+        return cell == null ? 0 : cell[0];
+    }
+
+    @Nullable
+    public Budget getTotalBudget() {
+        return totalBudget;
+    }
+
+    public double getSpent(@NonNull Budget budget) {
+        return budget.categoryId == null ? totalSpent : getCategorySpent(budget.categoryId);
+    }
+}
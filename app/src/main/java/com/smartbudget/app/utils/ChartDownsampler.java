@@ -0,0 +1,104 @@
+package com.smartbudget.app.utils;
+
+/**
+ * Largest-Triangle-Three-Buckets (LTTB) downsampling for chart time series.
+ * Keeps the visual shape - peaks and dips - of a series drawn with fewer points than it has,
+ * e.g. a multi-year daily series on a chart a few hundred pixels wide.
+ *
+ * <h3>Usage:</h3>
+ * <pre>
+ * int[] keep = ChartDownsampler.lttb(values, ChartDownsampler.maxPointsFor(widthPx));
+ * for (int i : keep) entries.add(new BarEntry(i, values[i]));
+ * </pre>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class ChartDownsampler {
+
+    /** Narrowest a point (bar) may get before the series is downsampled */
+    public static final int MIN_PX_PER_POINT = 3;
+
+    private ChartDownsampler() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Number of points that fit a chart {@code widthPx} wide.
+     */
+    public static int maxPointsFor(int widthPx) {
+        return Math.max(3, widthPx / MIN_PX_PER_POINT);
+    }
+
+    /**
+     * LTTB over evenly spaced points (x = index).
+     *
+     * @return Indices of the points to keep, ascending; first and last are always kept
+     */
+    public static int[] lttb(float[] y, int threshold) {
+        return lttb(null, y, threshold);
+    }
+
+    /**
+     * LTTB over points {@code (x[i], y[i])}, x ascending.
+     *
+     * @param x         X values, or null for x = index
+     * @param y         Y values
+     * @param threshold Number of points to keep
+     * @return Indices of the points to keep, ascending; all indices when the series is
+     *         already small enough
+     */
+    public static int[] lttb(float[] x, float[] y, int threshold) {
+        int n = y.length;
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = i;
+            return all;
+        }
+
+        int[] sampled = new int[threshold];
+        // Bucket size, leaving the first and last point out
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+        sampled[0] = 0;
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // Average of the next bucket is the third triangle corner
+            int avgStart = (int) Math.floor((i + 1) * every) + 1;
+            int avgEnd = Math.min((int) Math.floor((i + 2) * every) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += xAt(x, j);
+                avgY += y[j];
+            }
+            int avgCount = avgEnd - avgStart;
+            avgX /= avgCount;
+            avgY /= avgCount;
+
+            // Point of the current bucket forming the largest triangle with a and the average
+            int rangeStart = (int) Math.floor(i * every) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * every) + 1;
+            double ax = xAt(x, a);
+            double ay = y[a];
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((ax - avgX) * (y[j] - ay) - (ax - xAt(x, j)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            sampled[i + 1] = next;
+            a = next;
+        }
+
+        sampled[threshold - 1] = n - 1;
+        return sampled;
+    }
+
+    private static double xAt(float[] x, int i) {
+        return x != null ? x[i] : i;
+    }
+}
@@ -0,0 +1,72 @@
+package com.smartbudget.app.utils;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background Firestore sync, queued by {@link DailyMaintenanceWorker} at most once a day and
+ * run by WorkManager when the device is charging, idle and online (see
+ * {@link BackgroundScheduler#requestSync}).
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public class CloudSyncWorker extends Worker {
+
+    private static final String TAG = "CloudSyncWorker";
+    /** WorkManager stops a worker after 10 minutes */
+    private static final long SYNC_TIMEOUT_MINUTES = 8;
+
+    public CloudSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        FirebaseSyncHelper syncHelper = new FirebaseSyncHelper(getApplicationContext());
+        if (!syncHelper.isLoggedIn()) {
+            return Result.success();
+        }
+
+        // syncAll is callback based; this worker thread is free to wait for it
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean succeeded = new AtomicBoolean();
+        syncHelper.syncAll(new FirebaseSyncHelper.SyncCallback() {
+            @Override
+            public void onSuccess(String message) {
+                succeeded.set(true);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.w(TAG, "Sync failed: " + error);
+                done.countDown();
+            }
+        });
+
+        try {
+            if (!done.await(SYNC_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                Log.w(TAG, "Sync timed out");
+                return Result.retry();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+        if (!succeeded.get()) {
+            return Result.retry();
+        }
+        BackgroundScheduler.recordRun(getApplicationContext(), MaintenancePlan.Task.SYNC, System.currentTimeMillis());
+        return Result.success();
+    }
+}
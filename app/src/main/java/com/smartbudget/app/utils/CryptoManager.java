@@ -0,0 +1,277 @@
+package com.smartbudget.app.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyProperties;
+import android.util.Base64;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.ProviderException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encryption for backups, CSV exports and sensitive fields, replacing QuantumSecurity
+ * (AES/ECB with a key hard-coded in the APK).
+ *
+ * <p>Data is encrypted with a random 256-bit data key. The data key is stored wrapped
+ * (AES-GCM) by a master key that lives in the Android Keystore — hardware-backed where the
+ * device has a TEE/StrongBox, and never readable by the app. The master key only unwraps the
+ * data key once per process; bulk encryption then runs in software with the cached key,
+ * because every Keystore operation is an IPC round trip.</p>
+ *
+ * <p>Keystore keys are deleted with the app, so encrypted backups can only be restored by this
+ * installation. Passphrase backups ({@link PortableCipher}) and plain CSV export stay available
+ * for moving data elsewhere.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class CryptoManager {
+
+    private static final String TAG = "CryptoManager";
+
+    private static final String KEYSTORE = "AndroidKeyStore";
+    private static final String MASTER_KEY_ALIAS = "smartbudget_master_key";
+    private static final String PREFS_NAME = "crypto_prefs";
+    private static final String KEY_WRAPPED_DATA_KEY = "wrapped_data_key";
+    private static final int DATA_KEY_BYTES = 32;
+    private static final int WRAP_IV_BYTES = 12;
+
+    /** Prefix of field values sealed by {@link FieldCipher}; anything else is the legacy format */
+    static final String FIELD_PREFIX = "v2:";
+
+    private static volatile CryptoManager instance;
+
+    private final Context appContext;
+    private volatile SecretKey dataKey;
+    private volatile FieldCipher fieldCipher;
+
+    private CryptoManager(Context context) {
+        this.appContext = context.getApplicationContext();
+    }
+
+    public static CryptoManager getInstance(Context context) {
+        if (instance == null) {
+            synchronized (CryptoManager.class) {
+                if (instance == null) {
+                    instance = new CryptoManager(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ==================== Streams ====================
+
+    /**
+     * Encrypting stream over {@code out} (see {@link SegmentedGcm}). The file is only complete
+     * once the returned stream is closed.
+     */
+    @NonNull
+    public OutputStream encrypt(@NonNull OutputStream out) throws IOException {
+        return SegmentedGcm.encrypt(out, requireDataKey());
+    }
+
+    /**
+     * Decrypting stream over {@code in}. Files written before encryption was added (plain JSON
+     * or CSV) have no header and are returned as they are, so old backups still restore.
+     */
+    @NonNull
+    public InputStream openDecrypting(@NonNull InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, SegmentedGcm.SEGMENT_SIZE);
+        if (!SegmentedGcm.isEncrypted(buffered)) {
+            return buffered;
+        }
+        return SegmentedGcm.decrypt(buffered, requireDataKey());
+    }
+
+    // ==================== Fields ====================
+
+    /**
+     * Encrypts a short value, e.g. an expense note. Returns {@code "v2:" + Base64}.
+     */
+    @Nullable
+    public String encryptField(@Nullable String plaintext) throws GeneralSecurityException {
+        if (plaintext == null) return null;
+        byte[] sealed = fieldCipher().sealString(plaintext);
+        return FIELD_PREFIX + Base64.encodeToString(sealed, Base64.NO_WRAP);
+    }
+
+    /**
+     * Decrypts a value from {@link #encryptField}, or one written by the old
+     * QuantumSecurity.encrypt.
+     *
+     * @throws GeneralSecurityException if the value is corrupt or from another installation
+     */
+    @Nullable
+    public String decryptField(@Nullable String value) throws GeneralSecurityException {
+        if (value == null) return null;
+        try {
+            if (value.startsWith(FIELD_PREFIX)) {
+                byte[] sealed = Base64.decode(value.substring(FIELD_PREFIX.length()), Base64.NO_WRAP);
+                return fieldCipher().openString(sealed);
+            }
+            return FieldCipher.openLegacy(Base64.decode(value, Base64.DEFAULT));
+        } catch (IllegalArgumentException e) {
+            // Bad Base64
+            throw new GeneralSecurityException("Not an encrypted value", e);
+        }
+    }
+
+    /** True if {@code value} still uses the old fixed-key format. */
+    public static boolean isLegacyField(@Nullable String value) {
+        return value != null && !value.startsWith(FIELD_PREFIX);
+    }
+
+    /**
+     * Re-encrypts a legacy value with the data key; values already migrated are returned as is.
+     */
+    @Nullable
+    public String migrateField(@Nullable String value) throws GeneralSecurityException {
+        if (!isLegacyField(value)) return value;
+        return encryptField(decryptField(value));
+    }
+
+    // ==================== Keys ====================
+
+    private FieldCipher fieldCipher() throws GeneralSecurityException {
+        FieldCipher cipher = fieldCipher;
+        if (cipher == null) {
+            synchronized (this) {
+                if (fieldCipher == null) {
+                    fieldCipher = new FieldCipher(getDataKey());
+                }
+                cipher = fieldCipher;
+            }
+        }
+        return cipher;
+    }
+
+    private SecretKey requireDataKey() throws IOException {
+        try {
+            return getDataKey();
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Encryption key unavailable", e);
+        }
+    }
+
+    /**
+     * The data key, unwrapped on first use and cached for the life of the process.
+     * Creates the master key and the data key on first launch, and only then: once a data key
+     * is stored, failing to unwrap it fails the operation and keeps the stored key, because
+     * replacing it would orphan every file encrypted with it. A transient Keystore error then
+     * succeeds on the next call.
+     */
+    @NonNull
+    synchronized SecretKey getDataKey() throws GeneralSecurityException {
+        if (dataKey != null) return dataKey;
+
+        SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String wrapped = prefs.getString(KEY_WRAPPED_DATA_KEY, null);
+        if (wrapped != null) {
+            dataKey = unwrapStored(wrapped);
+            return dataKey;
+        }
+
+        SecretKey masterKey = getOrCreateMasterKey();
+        byte[] raw = new byte[DATA_KEY_BYTES];
+        new SecureRandom().nextBytes(raw);
+        SecretKey key = new SecretKeySpec(raw, "AES");
+        // commit(): a key that was used but not persisted would make new backups unreadable
+        if (!prefs.edit()
+                .putString(KEY_WRAPPED_DATA_KEY, Base64.encodeToString(wrap(masterKey, raw), Base64.NO_WRAP))
+                .commit()) {
+            throw new GeneralSecurityException("Could not store the data key");
+        }
+        Arrays.fill(raw, (byte) 0);
+        dataKey = key;
+        return key;
+    }
+
+    private static SecretKey unwrapStored(String wrapped) throws GeneralSecurityException {
+        SecretKey masterKey;
+        try {
+            KeyStore keyStore = KeyStore.getInstance(KEYSTORE);
+            keyStore.load(null);
+            masterKey = (SecretKey) keyStore.getKey(MASTER_KEY_ALIAS, null);
+        } catch (IOException | ProviderException e) {
+            throw new GeneralSecurityException("Android Keystore unavailable", e);
+        }
+        if (masterKey == null) {
+            // Prefs restored onto another device, or the Keystore was reset: the data key, and
+            // everything encrypted with it, cannot be recovered. Not creating a new master key
+            // keeps the failure explicit instead of silently switching keys.
+            Log.e(TAG, "Master key missing; the stored data key cannot be unwrapped");
+            throw new GeneralSecurityException("Encryption key of this installation is missing");
+        }
+        try {
+            return unwrap(masterKey, Base64.decode(wrapped, Base64.NO_WRAP));
+        } catch (IllegalArgumentException e) {
+            throw new GeneralSecurityException("Stored data key is corrupt", e);
+        } catch (ProviderException e) {
+            // Keystore errors surface as ProviderException on some devices
+            throw new GeneralSecurityException("Android Keystore unavailable", e);
+        }
+    }
+
+    private static SecretKey getOrCreateMasterKey() throws GeneralSecurityException {
+        try {
+            KeyStore keyStore = KeyStore.getInstance(KEYSTORE);
+            keyStore.load(null);
+            if (keyStore.containsAlias(MASTER_KEY_ALIAS)) {
+                return (SecretKey) keyStore.getKey(MASTER_KEY_ALIAS, null);
+            }
+        } catch (IOException e) {
+            throw new GeneralSecurityException("Android Keystore unavailable", e);
+        }
+
+        KeyGenerator generator = KeyGenerator.getInstance(KeyProperties.KEY_ALGORITHM_AES, KEYSTORE);
+        generator.init(new KeyGenParameterSpec.Builder(MASTER_KEY_ALIAS,
+                KeyProperties.PURPOSE_ENCRYPT | KeyProperties.PURPOSE_DECRYPT)
+                .setBlockModes(KeyProperties.BLOCK_MODE_GCM)
+                .setEncryptionPaddings(KeyProperties.ENCRYPTION_PADDING_NONE)
+                .setKeySize(256)
+                .build());
+        return generator.generateKey();
+    }
+
+    /** {@code iv (12) | AES-GCM(master, raw)}; the Keystore picks the IV. */
+    private static byte[] wrap(SecretKey masterKey, byte[] raw) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, masterKey);
+        byte[] iv = cipher.getIV();
+        byte[] sealed = cipher.doFinal(raw);
+        byte[] wrapped = new byte[iv.length + sealed.length];
+        System.arraycopy(iv, 0, wrapped, 0, iv.length);
+        System.arraycopy(sealed, 0, wrapped, iv.length, sealed.length);
+        return wrapped;
+    }
+
+    private static SecretKey unwrap(SecretKey masterKey, byte[] wrapped) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, masterKey, new GCMParameterSpec(128, wrapped, 0, WRAP_IV_BYTES));
+        byte[] raw = cipher.doFinal(wrapped, WRAP_IV_BYTES, wrapped.length - WRAP_IV_BYTES);
+        try {
+            return new SecretKeySpec(raw, "AES");
+        } finally {
+            Arrays.fill(raw, (byte) 0);
+        }
+    }
+}
@@ -8,9 +8,14 @@ import android.widget.Toast;
 import com.smartbudget.app.data.local.entity.CategoryEntity;
 import com.smartbudget.app.data.local.entity.ExpenseEntity;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
@@ -21,7 +26,17 @@ public class CsvExporter {
     private static final String TAG = "CsvExporter";
 
     public static void exportDataToCsv(Context context, List<ExpenseEntity> expenses, Map<Long, CategoryEntity> categoryMap) {
-        String fileName = "SmartBudget_Report_" + new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault()).format(new Date()) + ".csv";
+        exportDataToCsv(context, expenses, categoryMap, false);
+    }
+
+    /**
+     * @param encrypted Stream the CSV through {@link CryptoManager} into a ".csv.enc" file, which
+     *                  only CsvImporter on this installation can read back
+     */
+    public static void exportDataToCsv(Context context, List<ExpenseEntity> expenses,
+                                       Map<Long, CategoryEntity> categoryMap, boolean encrypted) {
+        String fileName = "SmartBudget_Report_" + new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault()).format(new Date())
+                + (encrypted ? ".csv.enc" : ".csv");
         
         // Use public Documents directory or App specific directory
         File dir = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOCUMENTS);
@@ -31,7 +46,10 @@ public class CsvExporter {
         
         File file = new File(dir, fileName);
 
-        try (FileWriter writer = new FileWriter(file)) {
+        try (OutputStream out = new FileOutputStream(file);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(
+                     encrypted ? CryptoManager.getInstance(context).encrypt(out) : out,
+                     StandardCharsets.UTF_8))) {
             // Write Header
             writer.append("Date,Category,Type,Amount,Note\n");
 
@@ -56,6 +74,7 @@ public class CsvExporter {
 
         } catch (IOException e) {
             Log.e(TAG, "Error exporting CSV", e);
+            file.delete();
             Toast.makeText(context, "Lỗi khi xuất file: " + e.getMessage(), Toast.LENGTH_SHORT).show();
         }
     }
@@ -11,6 +11,7 @@ import com.smartbudget.app.data.local.entity.ExpenseEntity;
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -29,6 +30,9 @@ import java.util.concurrent.Executors;
  */
 public class CsvImporter {
     
+    // Rows per transaction; also how often progress is reported
+    private static final int IMPORT_BATCH_SIZE = 200;
+    
     private final Context context;
     private final AppDatabase database;
     
@@ -55,7 +59,9 @@ public class CsvImporter {
                     return;
                 }
                 
-                BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
+                // Encrypted exports (.csv.enc) are decrypted while reading; plain CSV passes through
+                BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        CryptoManager.getInstance(context).openDecrypting(inputStream), StandardCharsets.UTF_8));
                 List<ExpenseEntity> expenses = new ArrayList<>();
                 
                 String line;
@@ -87,14 +93,17 @@ public class CsvImporter {
                 int total = expenses.size();
                 int current = 0;
                 
-                for (ExpenseEntity expense : expenses) {
-                    database.expenseDao().insert(expense);
-                    current++;
-                    if (callback != null && current % 10 == 0) {
-                        final int c = current;
-                        callback.onProgress(c, total);
+                // One transaction and one ledger append per chunk
+                while (current < total) {
+                    int end = Math.min(current + IMPORT_BATCH_SIZE, total);
+                    database.expenseLedger().insertAll(expenses.subList(current, end));
+                    current = end;
+                    if (callback != null) {
+                        callback.onProgress(current, total);
                     }
                 }
+                BudgetAlertService.getInstance(context).invalidate();
+                SuggestionEngine.getInstance(context).invalidate();
                 
                 if (callback != null) {
                     callback.onSuccess(total);
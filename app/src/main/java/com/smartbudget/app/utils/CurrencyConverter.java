@@ -1,81 +1,138 @@
 package com.smartbudget.app.utils;
 
 import java.text.DecimalFormat;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
- * Currency converter helper.
- * Converts between different currencies.
+ * Currency helper: supported currencies, minor-unit conversion and exchange-rate arithmetic.
+ *
+ * <p>Expenses store {@code amountMinor}, a long in the currency's minor unit (VND has none,
+ * USD cents, ...), so sums are exact. Rates are fixed-point longs: {@code rateMicros} is the
+ * number of base-currency minor units per one minor unit of the currency, times
+ * {@link #RATE_SCALE}. Current rates live in the exchange_rates table
+ * ({@code data.local.ExchangeRates}); the table below only seeds it.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
  */
 public class CurrencyConverter {
 
-    // Exchange rates (relative to VND)
-    private static final Map<String, Double> EXCHANGE_RATES = new HashMap<>();
-    
-    static {
-        EXCHANGE_RATES.put("VND", 1.0);
-        EXCHANGE_RATES.put("USD", 24500.0);
-        EXCHANGE_RATES.put("EUR", 26500.0);
-        EXCHANGE_RATES.put("GBP", 31000.0);
-        EXCHANGE_RATES.put("JPY", 165.0);
-        EXCHANGE_RATES.put("KRW", 18.5);
-        EXCHANGE_RATES.put("CNY", 3400.0);
-        EXCHANGE_RATES.put("THB", 700.0);
-        EXCHANGE_RATES.put("SGD", 18200.0);
-        EXCHANGE_RATES.put("AUD", 16000.0);
-    }
+    /**
+     * Currency of all aggregates and budgets. It has no minor unit, so sums in base minor
+     * units are already đồng.
+     */
+    public static final String BASE_CURRENCY = "VND";
+
+    /** Fixed-point scale of rateMicros */
+    public static final long RATE_SCALE = 1_000_000L;
 
     public static class Currency {
         public final String code;
         public final String symbol;
         public final String name;
         public final String flag;
+        /** Digits of the minor unit (ISO 4217) */
+        public final int digits;
+        /** Base-currency units per one unit, as of 2024; seeds the rate table */
+        final double defaultRate;
 
-        public Currency(String code, String symbol, String name, String flag) {
+        public Currency(String code, String symbol, String name, String flag, int digits, double defaultRate) {
             this.code = code;
             this.symbol = symbol;
             this.name = name;
             this.flag = flag;
+            this.digits = digits;
+            this.defaultRate = defaultRate;
         }
     }
 
     public static final Currency[] CURRENCIES = {
-        new Currency("VND", "₫", "Việt Nam Đồng", "🇻🇳"),
-        new Currency("USD", "$", "US Dollar", "🇺🇸"),
-        new Currency("EUR", "€", "Euro", "🇪🇺"),
-        new Currency("GBP", "£", "British Pound", "🇬🇧"),
-        new Currency("JPY", "¥", "Japanese Yen", "🇯🇵"),
-        new Currency("KRW", "₩", "Korean Won", "🇰🇷"),
-        new Currency("CNY", "¥", "Chinese Yuan", "🇨🇳"),
-        new Currency("THB", "฿", "Thai Baht", "🇹🇭"),
-        new Currency("SGD", "S$", "Singapore Dollar", "🇸🇬"),
-        new Currency("AUD", "A$", "Australian Dollar", "🇦🇺")
+        new Currency("VND", "₫", "Việt Nam Đồng", "🇻🇳", 0, 1.0),
+        new Currency("USD", "$", "US Dollar", "🇺🇸", 2, 24500.0),
+        new Currency("EUR", "€", "Euro", "🇪🇺", 2, 26500.0),
+        new Currency("GBP", "£", "British Pound", "🇬🇧", 2, 31000.0),
+        new Currency("JPY", "¥", "Japanese Yen", "🇯🇵", 0, 165.0),
+        new Currency("KRW", "₩", "Korean Won", "🇰🇷", 0, 18.5),
+        new Currency("CNY", "¥", "Chinese Yuan", "🇨🇳", 2, 3400.0),
+        new Currency("THB", "฿", "Thai Baht", "🇹🇭", 2, 700.0),
+        new Currency("SGD", "S$", "Singapore Dollar", "🇸🇬", 2, 18200.0),
+        new Currency("AUD", "A$", "Australian Dollar", "🇦🇺", 2, 16000.0)
     };
 
+    private static final long[] POW10 = {1, 10, 100, 1000, 10_000};
+
+    private CurrencyConverter() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // ==================== Minor Units ====================
+
+    /** Minor-unit digits; 2 for codes not in {@link #CURRENCIES}. */
+    public static int minorDigits(String code) {
+        Currency currency = findCurrency(code);
+        return currency != null ? currency.digits : 2;
+    }
+
+    /** Rounds {@code amount} (major units) to minor units, half away from zero. */
+    public static long toMinor(double amount, String code) {
+        double scaled = amount * POW10[minorDigits(code)];
+        return scaled < 0 ? -Math.round(-scaled) : Math.round(scaled);
+    }
+
+    public static double fromMinor(long amountMinor, String code) {
+        int digits = minorDigits(code);
+        return digits == 0 ? amountMinor : amountMinor / (double) POW10[digits];
+    }
+
+    // ==================== Rates ====================
+
     /**
-     * Convert amount from one currency to another.
+     * rateMicros for a quoted rate.
+     *
+     * @param basePerUnit Base-currency units for one unit of {@code code}, e.g. 25300 for USD
      */
-    public static double convert(double amount, String from, String to) {
-        Double fromRate = EXCHANGE_RATES.get(from);
-        Double toRate = EXCHANGE_RATES.get(to);
+    public static long rateMicros(double basePerUnit, String code) {
+        int shift = minorDigits(BASE_CURRENCY) - minorDigits(code);
+        double perMinor = shift >= 0 ? basePerUnit * POW10[shift] : basePerUnit / POW10[-shift];
+        return Math.round(perMinor * RATE_SCALE);
+    }
 
-        if (fromRate == null || toRate == null) {
-            return amount;
-        }
+    /**
+     * Converts to base minor units. Must round exactly like the SQL in
+     * {@code ExpenseDao.BASE_AMOUNT} (integer division, truncating toward zero).
+     */
+    public static long applyRate(long amountMinor, long rateMicros) {
+        return (amountMinor * rateMicros + RATE_SCALE / 2) / RATE_SCALE;
+    }
 
-        // Convert to VND first, then to target currency
-        double vndAmount = amount * fromRate;
-        return vndAmount / toRate;
+    /** rateMicros from the built-in 2024 table, or -1 for an unknown code. */
+    public static long defaultRateMicros(String code) {
+        Currency currency = findCurrency(code);
+        return currency != null ? rateMicros(currency.defaultRate, code) : -1;
     }
 
+    /**
+     * Three ASCII letters packed into an int, e.g. for primitive-keyed maps; 0 if not a code.
+     */
+    public static int currencyKey(String code) {
+        if (code == null || code.length() != 3) return 0;
+        int key = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = code.charAt(i);
+            if (c < 'A' || c > 'Z') return 0;
+            key = (key << 8) | c;
+        }
+        return key;
+    }
+
+    // ==================== Display ====================
+
     /**
      * Format amount with currency symbol.
      */
     public static String format(double amount, String currencyCode) {
         Currency currency = getCurrency(currencyCode);
         DecimalFormat formatter = new DecimalFormat("#,###.##");
-        
+
         if (currencyCode.equals("VND")) {
             return formatter.format(amount) + " " + currency.symbol;
         } else {
@@ -83,30 +140,24 @@ public class CurrencyConverter {
         }
     }
 
+    public static String formatMinor(long amountMinor, String currencyCode) {
+        return format(fromMinor(amountMinor, currencyCode), currencyCode);
+    }
+
     /**
      * Get currency by code.
      */
     public static Currency getCurrency(String code) {
+        Currency currency = findCurrency(code);
+        return currency != null ? currency : CURRENCIES[0]; // Default to VND
+    }
+
+    private static Currency findCurrency(String code) {
         for (Currency currency : CURRENCIES) {
             if (currency.code.equals(code)) {
                 return currency;
             }
         }
-        return CURRENCIES[0]; // Default to VND
-    }
-
-    /**
-     * Quick conversion from VND.
-     */
-    public static String convertFromVND(double vndAmount, String toCurrency) {
-        double converted = convert(vndAmount, "VND", toCurrency);
-        return format(converted, toCurrency);
-    }
-
-    /**
-     * Quick conversion to VND.
-     */
-    public static double convertToVND(double amount, String fromCurrency) {
-        return convert(amount, fromCurrency, "VND");
+        return null;
     }
 }
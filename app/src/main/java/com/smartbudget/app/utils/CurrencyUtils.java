@@ -7,26 +7,33 @@ import java.util.Locale;
 public class CurrencyUtils {
 
     private static final NumberFormat VND_FORMAT = NumberFormat.getCurrencyInstance(new Locale("vi", "VN"));
-    private static final DecimalFormat SIMPLE_FORMAT = new DecimalFormat("#,###");
+
+    // DecimalFormat is NOT thread-safe; list rows are formatted off the main thread
+    private static final ThreadLocal<DecimalFormat> SIMPLE_FORMAT = new ThreadLocal<DecimalFormat>() {
+        @Override
+        protected DecimalFormat initialValue() {
+            return new DecimalFormat("#,###");
+        }
+    };
 
     public static String formatVND(double amount) {
-        return SIMPLE_FORMAT.format(amount) + " ₫";
+        return SIMPLE_FORMAT.get().format(amount) + " ₫";
     }
 
     public static String formatVNDWithSign(double amount, boolean isExpense) {
         String sign = isExpense ? "-" : "+";
-        return sign + SIMPLE_FORMAT.format(Math.abs(amount)) + " ₫";
+        return sign + SIMPLE_FORMAT.get().format(Math.abs(amount)) + " ₫";
     }
 
     public static String formatVNDCompact(double amount) {
         if (amount >= 1_000_000_000) {
-            return SIMPLE_FORMAT.format(amount / 1_000_000_000) + " tỷ";
+            return SIMPLE_FORMAT.get().format(amount / 1_000_000_000) + " tỷ";
         } else if (amount >= 1_000_000) {
-            return SIMPLE_FORMAT.format(amount / 1_000_000) + " tr";
+            return SIMPLE_FORMAT.get().format(amount / 1_000_000) + " tr";
         } else if (amount >= 1_000) {
-            return SIMPLE_FORMAT.format(amount / 1_000) + "k";
+            return SIMPLE_FORMAT.get().format(amount / 1_000) + "k";
         }
-        return SIMPLE_FORMAT.format(amount) + " ₫";
+        return SIMPLE_FORMAT.get().format(amount) + " ₫";
     }
 
     public static double parseAmount(String input) {
@@ -45,6 +52,6 @@ public class CurrencyUtils {
     }
 
     public static String formatNumber(double value) {
-        return SIMPLE_FORMAT.format(value);
+        return SIMPLE_FORMAT.get().format(value);
     }
 }
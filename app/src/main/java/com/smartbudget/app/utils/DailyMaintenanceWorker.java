@@ -0,0 +1,231 @@
+package com.smartbudget.app.utils;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationCompat;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.smartbudget.app.BuildConfig;
+import com.smartbudget.app.R;
+import com.smartbudget.app.data.local.AppDatabase;
+import com.smartbudget.app.data.local.ExpenseLedger;
+import com.smartbudget.app.data.local.RecurringExpenseMaterializer;
+import com.smartbudget.app.presentation.MainActivity;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+
+/**
+ * The once-a-day background run scheduled by {@link BackgroundScheduler}.
+ *
+ * <p>Each task is gated on its own last run ({@link MaintenancePlan}), so a retry or an extra
+ * realign run never shows a notification twice. A failed task makes the whole run retry with
+ * backoff; the tasks that already succeeded are skipped or idempotent on the retry.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public class DailyMaintenanceWorker extends Worker {
+
+    private static final String TAG = "DailyMaintenance";
+
+    /** Input flag of the one-time realign run */
+    static final String KEY_REALIGN = "realign";
+
+    private static final String CHANNEL_ID = "smartbudget_reminders";
+    private static final String CHANNEL_NAME = "Nhắc nhở SmartBudget";
+    // Tagged: BudgetAlertService posts its untagged total-budget alerts as 1001 / 1002, and an
+    // alert raised by verifyNow in this same run must not be replaced by the reminder
+    private static final String NOTIFICATION_TAG = "daily_maintenance";
+    private static final int NOTIFICATION_ID_REMINDER = 1001;
+    private static final int NOTIFICATION_ID_WEEKLY_REPORT = 1002;
+
+    private static final int KEEP_BACKUPS = 10;
+    static final String RATES_FILE_NAME = "exchange_rates.csv";
+    private static final long BUDGET_VERIFY_TIMEOUT_MILLIS = 60_000;
+
+    public DailyMaintenanceWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        long now = System.currentTimeMillis();
+        int hour = BackgroundScheduler.getReminderHour(context);
+        int minute = BackgroundScheduler.getReminderMinute(context);
+        boolean failed = false;
+
+        // Recurring expenses first, so the budget check and the weekly report include them
+        try {
+            RecurringExpenseMaterializer.Result recurring =
+                    new RecurringExpenseMaterializer(AppDatabase.getDatabase(context)).materializeDue(now);
+            if (recurring.inserted > 0) {
+                SuggestionEngine.getInstance(context).invalidate();
+            }
+            BackgroundScheduler.recordRun(context, MaintenancePlan.Task.RECURRING_EXPENSES, now);
+        } catch (RuntimeException e) {
+            // Nothing was committed (single transaction); safe to run again
+            Log.e(TAG, "Materializing recurring expenses failed", e);
+            failed = true;
+        }
+
+        // Before the budget check, which reseeds its sums with the new rates
+        RateSource rateSource = rateSource(context);
+        if (rateSource != null) {
+            try {
+                int stored = AppDatabase.getDatabase(context).exchangeRates().refresh(rateSource);
+                BackgroundScheduler.recordRun(context, MaintenancePlan.Task.EXCHANGE_RATES, now);
+                Log.d(TAG, "Stored " + stored + " exchange rates from " + rateSource.name());
+            } catch (IOException e) {
+                // Offline or a bad table: keep the old rates, try again tomorrow
+                Log.w(TAG, "Exchange rate refresh failed", e);
+            }
+        }
+
+        try {
+            if (BudgetAlertService.getInstance(context).verifyNow(BUDGET_VERIFY_TIMEOUT_MILLIS)) {
+                BackgroundScheduler.recordRun(context, MaintenancePlan.Task.BUDGET_CHECK, now);
+            } else {
+                failed = true;
+            }
+        } catch (InterruptedException e) {
+            // Stopped by WorkManager (constraint lost); it reschedules the run
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+
+        try {
+            // A broken chain is logged by the ledger; retrying would not fix it
+            ExpenseLedger.Verification ledger = AppDatabase.getDatabase(context).expenseLedger().verifyTail();
+            if (ledger.isValid()) {
+                BackgroundScheduler.recordRun(context, MaintenancePlan.Task.LEDGER_VERIFY, now);
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Ledger verification failed", e);
+            failed = true;
+        }
+
+        if (BackgroundScheduler.isReminderEnabled(context)) {
+            if (MaintenancePlan.isReminderDue(now,
+                    BackgroundScheduler.getLastRun(context, MaintenancePlan.Task.REMINDER), hour, minute)) {
+                showReminder(context);
+                BackgroundScheduler.recordRun(context, MaintenancePlan.Task.REMINDER, now);
+            }
+            if (MaintenancePlan.isWeeklyReportDue(now,
+                    BackgroundScheduler.getLastRun(context, MaintenancePlan.Task.WEEKLY_REPORT), hour, minute)) {
+                try {
+                    showWeeklyReport(context, now);
+                    BackgroundScheduler.recordRun(context, MaintenancePlan.Task.WEEKLY_REPORT, now);
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Weekly report failed", e);
+                    failed = true;
+                }
+            }
+        }
+
+        if (MaintenancePlan.isBackupPruneDue(now,
+                BackgroundScheduler.getLastRun(context, MaintenancePlan.Task.BACKUP_PRUNE))) {
+            int deleted = new BackupManager(context).pruneOldBackups(KEEP_BACKUPS);
+            BackupHelper.cleanOldBackups(context, KEEP_BACKUPS);
+            BackgroundScheduler.recordRun(context, MaintenancePlan.Task.BACKUP_PRUNE, now);
+            Log.d(TAG, "Pruned " + deleted + " old backups");
+        }
+
+        if (MaintenancePlan.isSyncDue(now, BackgroundScheduler.getLastRun(context, MaintenancePlan.Task.SYNC))
+                && FirebaseAuth.getInstance().getCurrentUser() != null) {
+            BackgroundScheduler.requestSync(context);
+        }
+
+        if (getInputData().getBoolean(KEY_REALIGN, false)) {
+            // Running at the slot now: restart the period from here
+            BackgroundScheduler.enqueueDaily(context, ExistingPeriodicWorkPolicy.CANCEL_AND_REENQUEUE);
+        } else if (MaintenancePlan.needsRealign(now, hour, minute)) {
+            BackgroundScheduler.requestRealign(context);
+        }
+
+        return failed ? Result.retry() : Result.success();
+    }
+
+    // ==================== Exchange Rates ====================
+
+    /**
+     * A rate table placed in the app files as {@link #RATES_FILE_NAME}, else the URL set at build
+     * time (-PEXCHANGE_RATES_URL=...), else null: the seeded rates stay in use.
+     */
+    @Nullable
+    private static RateSource rateSource(Context context) {
+        File file = new File(context.getFilesDir(), RATES_FILE_NAME);
+        if (file.isFile()) {
+            return new RateSource.FileSource(file);
+        }
+        if (!BuildConfig.EXCHANGE_RATES_URL.isEmpty()) {
+            try {
+                return new RateSource.HttpSource(new URL(BuildConfig.EXCHANGE_RATES_URL));
+            } catch (MalformedURLException e) {
+                Log.e(TAG, "Invalid EXCHANGE_RATES_URL", e);
+            }
+        }
+        return null;
+    }
+
+    // ==================== Notifications ====================
+
+    private static void showReminder(Context context) {
+        notify(context, NOTIFICATION_ID_REMINDER, "💰 Đừng quên ghi chép!",
+                "Bạn đã chi tiêu gì hôm nay? Nhấn để ghi lại nhé!");
+    }
+
+    /** Expense total of the 7 days up to today. */
+    private static void showWeeklyReport(Context context, long now) {
+        int today = EpochDays.dayIndex(now);
+        double spent = AppDatabase.getDatabase(context).expenseDao()
+                .getTotalByDateRange(EpochDays.startOfDay(today - 6), EpochDays.endOfDay(today));
+        notify(context, NOTIFICATION_ID_WEEKLY_REPORT, "📊 Báo cáo tuần",
+                "Tuần này bạn đã chi " + CurrencyUtils.formatVND(spent) + ". Nhấn để xem chi tiết!");
+    }
+
+    private static void notify(Context context, int id, String title, String text) {
+        NotificationManager manager =
+                (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (manager == null) return;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(
+                    CHANNEL_ID,
+                    CHANNEL_NAME,
+                    NotificationManager.IMPORTANCE_DEFAULT);
+            channel.setDescription("Nhắc nhở ghi chép chi tiêu hàng ngày");
+            manager.createNotificationChannel(channel);
+        }
+
+        Intent openIntent = new Intent(context, MainActivity.class);
+        openIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+                context, 0, openIntent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_notification)
+                .setContentTitle(title)
+                .setContentText(text)
+                .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+                .setContentIntent(pendingIntent)
+                .setAutoCancel(true);
+        manager.notify(NOTIFICATION_TAG, id, builder.build());
+    }
+}
@@ -1,7 +1,6 @@
 package com.smartbudget.app.utils;
 
 import java.text.SimpleDateFormat;
-import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
 
@@ -9,7 +8,8 @@ import java.util.Locale;
  * Utility class for date formatting and manipulation.
  * 
  * <p>THREAD-SAFETY: All formatters use ThreadLocal to ensure thread safety.
- * SimpleDateFormat is NOT thread-safe, so we create one instance per thread.</p>
+ * SimpleDateFormat is NOT thread-safe, so we create one instance per thread.
+ * Day and month boundaries delegate to {@link EpochDays} and allocate nothing.</p>
  * 
  * @author SmartBudget Development Team
  * @version 2.0
@@ -92,30 +92,7 @@ public class DateUtils {
      * @return Relative date string
      */
     public static String getRelativeDate(long timestamp) {
-        Calendar today = Calendar.getInstance();
-        Calendar date = Calendar.getInstance();
-        date.setTimeInMillis(timestamp);
-
-        if (isSameDay(today, date)) {
-            return "Hôm nay";
-        }
-
-        today.add(Calendar.DAY_OF_YEAR, -1);
-        if (isSameDay(today, date)) {
-            return "Hôm qua";
-        }
-
-        return formatDate(timestamp);
-    }
-
-    // ==================== HELPER METHODS ====================
-
-    /**
-     * Checks if two Calendar instances represent the same day.
-     */
-    private static boolean isSameDay(Calendar cal1, Calendar cal2) {
-        return cal1.get(Calendar.YEAR) == cal2.get(Calendar.YEAR) &&
-                cal1.get(Calendar.DAY_OF_YEAR) == cal2.get(Calendar.DAY_OF_YEAR);
+        return EpochDays.relativeLabel(timestamp);
     }
 
     // ==================== DAY BOUNDARY METHODS ====================
@@ -127,13 +104,7 @@ public class DateUtils {
      * @return Timestamp at start of that day
      */
     public static long getStartOfDay(long timestamp) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTimeInMillis(timestamp);
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE, 0);
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
-        return cal.getTimeInMillis();
+        return EpochDays.startOfDay(EpochDays.dayIndex(timestamp));
     }
 
     /**
@@ -143,13 +114,7 @@ public class DateUtils {
      * @return Timestamp at end of that day
      */
     public static long getEndOfDay(long timestamp) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTimeInMillis(timestamp);
-        cal.set(Calendar.HOUR_OF_DAY, 23);
-        cal.set(Calendar.MINUTE, 59);
-        cal.set(Calendar.SECOND, 59);
-        cal.set(Calendar.MILLISECOND, 999);
-        return cal.getTimeInMillis();
+        return EpochDays.endOfDay(EpochDays.dayIndex(timestamp));
     }
 
     // ==================== MONTH BOUNDARY METHODS ====================
@@ -162,11 +127,7 @@ public class DateUtils {
      * @return Timestamp at start of that month
      */
     public static long getStartOfMonth(int month, int year) {
-        Calendar cal = Calendar.getInstance();
-        cal.set(Calendar.YEAR, year);
-        cal.set(Calendar.MONTH, month - 1); // Calendar months are 0-indexed
-        cal.set(Calendar.DAY_OF_MONTH, 1);
-        return getStartOfDay(cal.getTimeInMillis());
+        return EpochDays.startOfMonth(year * 12 + month - 1);
     }
 
     /**
@@ -177,11 +138,7 @@ public class DateUtils {
      * @return Timestamp at end of that month
      */
     public static long getEndOfMonth(int month, int year) {
-        Calendar cal = Calendar.getInstance();
-        cal.set(Calendar.YEAR, year);
-        cal.set(Calendar.MONTH, month - 1);
-        cal.set(Calendar.DAY_OF_MONTH, cal.getActualMaximum(Calendar.DAY_OF_MONTH));
-        return getEndOfDay(cal.getTimeInMillis());
+        return EpochDays.endOfMonth(year * 12 + month - 1);
     }
 
     // ==================== CURRENT DATE METHODS ====================
@@ -192,7 +149,7 @@ public class DateUtils {
      * @return Current month number
      */
     public static int getCurrentMonth() {
-        return Calendar.getInstance().get(Calendar.MONTH) + 1;
+        return EpochDays.monthOf(EpochDays.monthIndexOfDay(EpochDays.today()));
     }
 
     /**
@@ -201,7 +158,7 @@ public class DateUtils {
      * @return Current year (e.g., 2026)
      */
     public static int getCurrentYear() {
-        return Calendar.getInstance().get(Calendar.YEAR);
+        return EpochDays.yearOf(EpochDays.monthIndexOfDay(EpochDays.today()));
     }
 
     /**
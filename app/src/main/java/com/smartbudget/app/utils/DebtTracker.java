@@ -1,24 +1,22 @@
 package com.smartbudget.app.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import androidx.annotation.WorkerThread;
+
+import com.smartbudget.app.data.local.AppDatabase;
+import com.smartbudget.app.data.local.dao.DebtDao;
+import com.smartbudget.app.data.local.entity.DebtEntity;
 
-import java.lang.reflect.Type;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Debt tracker.
  * Track and manage debts with payoff strategies.
+ * Debts are rows of the debts table; call from a background thread.
  */
 public class DebtTracker {
 
-    private static final String PREFS_NAME = "debt_prefs";
-    private static final String KEY_DEBTS = "debts";
-
     public enum DebtType {
         CREDIT_CARD("💳", "Thẻ tín dụng"),
         LOAN("🏦", "Khoản vay"),
@@ -37,46 +35,6 @@ public class DebtTracker {
         }
     }
 
-    public static class Debt {
-        public String id;
-        public String name;
-        public DebtType type;
-        public double originalAmount;
-        public double remainingAmount;
-        public double interestRate; // Annual %
-        public double minimumPayment;
-        public int dayOfMonth; // Payment due day
-        public long createdAt;
-
-        public Debt(String name, DebtType type, double originalAmount, 
-                   double interestRate, double minimumPayment, int dayOfMonth) {
-            this.id = String.valueOf(System.currentTimeMillis());
-            this.name = name;
-            this.type = type;
-            this.originalAmount = originalAmount;
-            this.remainingAmount = originalAmount;
-            this.interestRate = interestRate;
-            this.minimumPayment = minimumPayment;
-            this.dayOfMonth = dayOfMonth;
-            this.createdAt = System.currentTimeMillis();
-        }
-
-        public double getMonthlyInterest() {
-            return remainingAmount * (interestRate / 100 / 12);
-        }
-
-        public int getMonthsToPayoff() {
-            if (minimumPayment <= getMonthlyInterest()) return -1; // Never
-            double monthlyPrincipal = minimumPayment - getMonthlyInterest();
-            return (int) Math.ceil(remainingAmount / monthlyPrincipal);
-        }
-
-        public double getProgressPercent() {
-            if (originalAmount <= 0) return 100;
-            return ((originalAmount - remainingAmount) / originalAmount) * 100;
-        }
-    }
-
     public enum PayoffStrategy {
         AVALANCHE("⚡", "Lãi suất cao trước", "Tiết kiệm tiền lãi nhiều nhất"),
         SNOWBALL("❄️", "Số dư nhỏ trước", "Động lực tốt hơn khi xóa nợ nhanh");
@@ -92,89 +50,77 @@ public class DebtTracker {
         }
     }
 
-    private Context context;
-    private SharedPreferences prefs;
-    private Gson gson;
+    private final DebtDao debtDao;
 
     public DebtTracker(Context context) {
-        this.context = context;
-        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        this.gson = new Gson();
+        this.debtDao = AppDatabase.getDatabase(context).debtDao();
     }
 
-    public List<Debt> getAllDebts() {
-        String json = prefs.getString(KEY_DEBTS, null);
-        if (json == null) return new ArrayList<>();
-        Type type = new TypeToken<List<Debt>>(){}.getType();
-        return gson.fromJson(json, type);
+    /** Type of a stored debt; OTHER for unknown names. */
+    public static DebtType typeOf(DebtEntity debt) {
+        for (DebtType type : DebtType.values()) {
+            if (type.name().equals(debt.getType())) return type;
+        }
+        return DebtType.OTHER;
     }
 
-    public void addDebt(Debt debt) {
-        List<Debt> debts = getAllDebts();
-        debts.add(debt);
-        saveDebts(debts);
+    @WorkerThread
+    public List<DebtEntity> getAllDebts() {
+        return debtDao.getAllSync();
     }
 
-    public void makePayment(String debtId, double amount) {
-        List<Debt> debts = getAllDebts();
-        for (Debt d : debts) {
-            if (d.id.equals(debtId)) {
-                d.remainingAmount = Math.max(0, d.remainingAmount - amount);
-                break;
-            }
-        }
-        saveDebts(debts);
+    /**
+     * @return Row id of the debt
+     */
+    @WorkerThread
+    public long addDebt(String name, DebtType type, double originalAmount,
+                        double interestRate, double minimumPayment, int dayOfMonth) {
+        return debtDao.insert(new DebtEntity(name, type.name(), originalAmount,
+                interestRate, minimumPayment, dayOfMonth));
     }
 
-    public void deleteDebt(String debtId) {
-        List<Debt> debts = getAllDebts();
-        debts.removeIf(d -> d.id.equals(debtId));
-        saveDebts(debts);
+    @WorkerThread
+    public void makePayment(long debtId, double amount) {
+        debtDao.makePayment(debtId, amount);
+    }
+
+    @WorkerThread
+    public void deleteDebt(long debtId) {
+        debtDao.deleteById(debtId);
     }
 
     /**
      * Get total debt amount.
      */
+    @WorkerThread
     public double getTotalDebt() {
-        double total = 0;
-        for (Debt d : getAllDebts()) {
-            total += d.remainingAmount;
-        }
-        return total;
+        return debtDao.getTotalRemaining();
     }
 
     /**
      * Get total monthly minimum payments.
      */
+    @WorkerThread
     public double getTotalMinimumPayments() {
-        double total = 0;
-        for (Debt d : getAllDebts()) {
-            total += d.minimumPayment;
-        }
-        return total;
+        return debtDao.getTotalMinimumPayments();
     }
 
     /**
      * Get debt payoff order based on strategy.
      */
-    public List<Debt> getPayoffOrder(PayoffStrategy strategy) {
-        List<Debt> debts = new ArrayList<>(getAllDebts());
-        
-        if (strategy == PayoffStrategy.AVALANCHE) {
-            debts.sort((a, b) -> Double.compare(b.interestRate, a.interestRate));
-        } else {
-            debts.sort((a, b) -> Double.compare(a.remainingAmount, b.remainingAmount));
-        }
-        
-        return debts;
+    @WorkerThread
+    public List<DebtEntity> getPayoffOrder(PayoffStrategy strategy) {
+        return strategy == PayoffStrategy.AVALANCHE
+                ? debtDao.getByInterestRateDesc() : debtDao.getByRemainingAmountAsc();
     }
 
     /**
      * Calculate debt-free date.
      */
+    @WorkerThread
     public String getDebtFreeDate() {
         int maxMonths = 0;
-        for (Debt d : getAllDebts()) {
+        for (DebtEntity d : getAllDebts()) {
             int months = d.getMonthsToPayoff();
             if (months < 0) return "Không xác định";
             maxMonths = Math.max(maxMonths, months);
@@ -187,9 +133,4 @@ public class DebtTracker {
                 new java.util.Locale("vi", "VN"));
         return sdf.format(cal.getTime());
     }
-
-    private void saveDebts(List<Debt> debts) {
-        String json = gson.toJson(debts);
-        prefs.edit().putString(KEY_DEBTS, json).apply();
-    }
 }
@@ -0,0 +1,360 @@
+package com.smartbudget.app.utils;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Allocation-free epoch-day / epoch-month arithmetic for hot paths.
+ *
+ * <p>A <b>day index</b> is the number of local days since 1970-01-01 and a <b>month index</b>
+ * is {@code year * 12 + (month - 1)}. Zone offsets come from a transition table built once per
+ * zone, so converting a timestamp is a binary search plus integer math - no {@link Calendar}
+ * and no garbage. Relative-date labels ("Hôm nay", "Hôm qua", "dd/MM/yyyy") are cached per day.</p>
+ *
+ * <p>THREAD-SAFETY: all cached state is held in immutable objects published through volatile
+ * fields, so every method can be called from any thread.</p>
+ *
+ * <h3>Usage:</h3>
+ * <pre>
+ * int day = EpochDays.dayIndex(expense.getDate());
+ * long monthStart = EpochDays.startOfMonth(EpochDays.monthIndex(System.currentTimeMillis()));
+ * String label = EpochDays.relativeLabel(expense.getDate());
+ * </pre>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class EpochDays {
+
+    public static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    // Zone tables cover 1900-01-01 .. 2100-01-01; anything outside falls back to TimeZone
+    private static final long TABLE_START = -25567L * DAY_MILLIS;
+    private static final long TABLE_END = 47482L * DAY_MILLIS;
+    private static final long PROBE_STEP = 7 * DAY_MILLIS;
+
+    private static final int LABEL_CACHE_SIZE = 1024; // power of two
+    private static final String LABEL_TODAY = "Hôm nay";
+    private static final String LABEL_YESTERDAY = "Hôm qua";
+
+    private static volatile ZoneTable zone;
+    private static volatile Today today;
+    private static final Label[] LABELS = new Label[LABEL_CACHE_SIZE];
+
+    // Private constructor to prevent instantiation
+    private EpochDays() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // ==================== ZONE ====================
+
+    /**
+     * Offset of the default zone from UTC at the given instant, in milliseconds.
+     */
+    public static int offsetAt(long millis) {
+        return zone().offsetAt(millis);
+    }
+
+    /**
+     * Drops cached zone tables and labels. Call when the device time zone changes.
+     */
+    public static void resetZone() {
+        zone = null;
+        today = null;
+        java.util.Arrays.fill(LABELS, null);
+    }
+
+    private static ZoneTable zone() {
+        ZoneTable z = zone;
+        if (z == null) {
+            z = ZoneTable.build(TimeZone.getDefault());
+            zone = z;
+        }
+        return z;
+    }
+
+    // ==================== TIMESTAMP -> INDEX ====================
+
+    /**
+     * Local day index (days since 1970-01-01) of a timestamp.
+     */
+    public static int dayIndex(long millis) {
+        return (int) Math.floorDiv(millis + zone().offsetAt(millis), DAY_MILLIS);
+    }
+
+    /**
+     * Local month index ({@code year * 12 + month - 1}) of a timestamp.
+     */
+    public static int monthIndex(long millis) {
+        return monthIndexOfDay(dayIndex(millis));
+    }
+
+    /**
+     * Day index of today, cached until local midnight.
+     */
+    public static int today() {
+        long now = System.currentTimeMillis();
+        Today t = today;
+        if (t == null || now < t.start || now >= t.end) {
+            int day = dayIndex(now);
+            t = new Today(day, startOfDay(day), startOfDay(day + 1));
+            today = t;
+        }
+        return t.day;
+    }
+
+    // ==================== INDEX -> TIMESTAMP ====================
+
+    /**
+     * Timestamp of local midnight starting the given day.
+     */
+    public static long startOfDay(int dayIndex) {
+        long local = dayIndex * DAY_MILLIS;
+        ZoneTable z = zone();
+        // Two-step guess handles days whose offset differs from the previous day's
+        long guess = local - z.offsetAt(local);
+        return local - z.offsetAt(guess);
+    }
+
+    /**
+     * Last millisecond of the given day.
+     */
+    public static long endOfDay(int dayIndex) {
+        return startOfDay(dayIndex + 1) - 1;
+    }
+
+    /**
+     * Timestamp of local midnight on the first day of the given month.
+     */
+    public static long startOfMonth(int monthIndex) {
+        return startOfDay(firstDayOfMonth(monthIndex));
+    }
+
+    /**
+     * Last millisecond of the given month.
+     */
+    public static long endOfMonth(int monthIndex) {
+        return startOfMonth(monthIndex + 1) - 1;
+    }
+
+    // ==================== DAY / MONTH ARITHMETIC ====================
+
+    /**
+     * Day of week, 0 = Sunday ... 6 = Saturday (1970-01-01 was a Thursday).
+     * Add 1 to get {@link Calendar#DAY_OF_WEEK}.
+     */
+    public static int dayOfWeek(int dayIndex) {
+        return Math.floorMod(dayIndex + 4, 7);
+    }
+
+    /**
+     * Day index of the first day of the week containing {@code dayIndex},
+     * using the default locale's first day of week.
+     */
+    public static int startOfWeek(int dayIndex) {
+        int calendarDow = dayOfWeek(dayIndex) + 1;
+        return dayIndex - Math.floorMod(calendarDow - zone().firstDayOfWeek, 7);
+    }
+
+    /**
+     * Day of month (1-31) of a day index.
+     */
+    public static int dayOfMonth(int dayIndex) {
+        return dayIndex - firstDayOfMonth(monthIndexOfDay(dayIndex)) + 1;
+    }
+
+    /**
+     * Number of days in a month index.
+     */
+    public static int daysInMonth(int monthIndex) {
+        return firstDayOfMonth(monthIndex + 1) - firstDayOfMonth(monthIndex);
+    }
+
+    public static int yearOf(int monthIndex) {
+        return Math.floorDiv(monthIndex, 12);
+    }
+
+    /**
+     * Month (1-12) of a month index.
+     */
+    public static int monthOf(int monthIndex) {
+        return Math.floorMod(monthIndex, 12) + 1;
+    }
+
+    /**
+     * Month index of a day index, using the civil-from-days algorithm.
+     */
+    public static int monthIndexOfDay(int dayIndex) {
+        int z = dayIndex + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+
+    /**
+     * Day index of the first day of a month index (inverse of {@link #monthIndexOfDay}).
+     */
+    public static int firstDayOfMonth(int monthIndex) {
+        int year = Math.floorDiv(monthIndex, 12);
+        int month = monthIndex - year * 12 + 1;
+        year -= month <= 2 ? 1 : 0;
+        int era = Math.floorDiv(year, 400);
+        int yoe = year - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    // ==================== LABELS ====================
+
+    /**
+     * Relative date label: "Hôm nay", "Hôm qua" or "dd/MM/yyyy".
+     * Formatted dates are cached per day, so repeated calls allocate nothing.
+     */
+    public static String relativeLabel(long millis) {
+        return relativeLabelOfDay(dayIndex(millis));
+    }
+
+    /**
+     * {@link #relativeLabel} of a day index, relative to today at the time of the call.
+     */
+    public static String relativeLabelOfDay(int day) {
+        int todayIndex = today();
+        if (day == todayIndex) return LABEL_TODAY;
+        if (day == todayIndex - 1) return LABEL_YESTERDAY;
+        return dateLabel(day);
+    }
+
+    /**
+     * "dd/MM/yyyy" label of a day index, cached per day.
+     */
+    public static String dateLabel(int dayIndex) {
+        int slot = dayIndex & (LABEL_CACHE_SIZE - 1);
+        Label label = LABELS[slot];
+        if (label == null || label.day != dayIndex) {
+            label = new Label(dayIndex, formatDay(dayIndex));
+            LABELS[slot] = label;
+        }
+        return label.text;
+    }
+
+    private static String formatDay(int dayIndex) {
+        int monthIndex = monthIndexOfDay(dayIndex);
+        int day = dayIndex - firstDayOfMonth(monthIndex) + 1;
+        int month = monthOf(monthIndex);
+        int year = yearOf(monthIndex);
+
+        char[] chars = new char[10];
+        chars[0] = (char) ('0' + day / 10);
+        chars[1] = (char) ('0' + day % 10);
+        chars[2] = '/';
+        chars[3] = (char) ('0' + month / 10);
+        chars[4] = (char) ('0' + month % 10);
+        chars[5] = '/';
+        chars[6] = (char) ('0' + (year / 1000) % 10);
+        chars[7] = (char) ('0' + (year / 100) % 10);
+        chars[8] = (char) ('0' + (year / 10) % 10);
+        chars[9] = (char) ('0' + year % 10);
+        return new String(chars);
+    }
+
+    // ==================== CACHED STATE ====================
+
+    private static final class Label {
+        final int day;
+        final String text;
+
+        Label(int day, String text) {
+            this.day = day;
+            this.text = text;
+        }
+    }
+
+    private static final class Today {
+        final int day;
+        final long start;
+        final long end;
+
+        Today(int day, long start, long end) {
+            this.day = day;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Offset transitions of one zone. {@code offsets[i]} applies before {@code transitions[i]},
+     * the last offset applies after the last transition.
+     */
+    private static final class ZoneTable {
+        final TimeZone timeZone;
+        final long[] transitions;
+        final int[] offsets;
+        final int firstDayOfWeek;
+
+        private ZoneTable(TimeZone timeZone, long[] transitions, int[] offsets, int firstDayOfWeek) {
+            this.timeZone = timeZone;
+            this.transitions = transitions;
+            this.offsets = offsets;
+            this.firstDayOfWeek = firstDayOfWeek;
+        }
+
+        int offsetAt(long millis) {
+            if (millis < TABLE_START || millis >= TABLE_END) {
+                return timeZone.getOffset(millis);
+            }
+            int n = transitions.length;
+            if (n == 0) return offsets[0];
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (transitions[mid] <= millis) lo = mid + 1;
+                else hi = mid;
+            }
+            return offsets[lo];
+        }
+
+        /**
+         * Probes the zone weekly and bisects each change down to the exact millisecond.
+         */
+        static ZoneTable build(TimeZone tz) {
+            long[] transitions = new long[16];
+            int[] offsets = new int[17];
+            int count = 0;
+
+            long probe = TABLE_START;
+            int current = tz.getOffset(probe);
+            offsets[0] = current;
+            while (probe < TABLE_END) {
+                long next = Math.min(probe + PROBE_STEP, TABLE_END);
+                int nextOffset = tz.getOffset(next);
+                if (nextOffset != current) {
+                    long lo = probe, hi = next;
+                    while (hi - lo > 1) {
+                        long mid = lo + (hi - lo) / 2;
+                        if (tz.getOffset(mid) == current) lo = mid;
+                        else hi = mid;
+                    }
+                    if (count == transitions.length) {
+                        transitions = java.util.Arrays.copyOf(transitions, count * 2);
+                        offsets = java.util.Arrays.copyOf(offsets, count * 2 + 1);
+                    }
+                    transitions[count++] = hi;
+                    offsets[count] = nextOffset;
+                    current = nextOffset;
+                }
+                probe = next;
+            }
+
+            return new ZoneTable(tz,
+                    java.util.Arrays.copyOf(transitions, count),
+                    java.util.Arrays.copyOf(offsets, count + 1),
+                    Calendar.getInstance(tz).getFirstDayOfWeek());
+        }
+    }
+}
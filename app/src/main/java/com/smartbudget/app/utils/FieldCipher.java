@@ -0,0 +1,108 @@
+package com.smartbudget.app.utils;
+
+import androidx.annotation.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * AES-GCM for small values (expense notes, tokens), many times per second.
+ *
+ * <p>{@code Cipher.getInstance} is a provider lookup plus an allocation and dominates the cost
+ * of encrypting a few dozen bytes, so each thread keeps its own {@link Cipher} (they are not
+ * thread-safe) and only re-initializes it with a fresh random nonce per call.</p>
+ *
+ * <p>Sealed format: {@code version (1) | nonce (12) | ciphertext + 16-byte tag}.</p>
+ *
+ * <p>Pure Java; the key comes from {@link CryptoManager} on the device.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class FieldCipher {
+
+    static final byte VERSION = 2;
+    static final int NONCE_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    /** Key of the former QuantumSecurity helper (AES/ECB); only used to read old values */
+    private static final byte[] LEGACY_KEY = "SmartBudgetQuant".getBytes(StandardCharsets.US_ASCII);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final SecretKey key;
+    private final ThreadLocal<Cipher> ciphers = new ThreadLocal<Cipher>() {
+        @Override
+        protected Cipher initialValue() {
+            try {
+                return Cipher.getInstance(TRANSFORMATION);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("AES-GCM unavailable", e);
+            }
+        }
+    };
+
+    public FieldCipher(@NonNull SecretKey key) {
+        this.key = key;
+    }
+
+    // ==================== Seal / Open ====================
+
+    @NonNull
+    public byte[] seal(@NonNull byte[] plaintext) throws GeneralSecurityException {
+        byte[] nonce = new byte[NONCE_BYTES];
+        RANDOM.nextBytes(nonce);
+        Cipher cipher = ciphers.get();
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce));
+
+        byte[] sealed = new byte[1 + NONCE_BYTES + cipher.getOutputSize(plaintext.length)];
+        sealed[0] = VERSION;
+        System.arraycopy(nonce, 0, sealed, 1, NONCE_BYTES);
+        int n = cipher.doFinal(plaintext, 0, plaintext.length, sealed, 1 + NONCE_BYTES);
+        return n == sealed.length - 1 - NONCE_BYTES ? sealed : Arrays.copyOf(sealed, 1 + NONCE_BYTES + n);
+    }
+
+    /**
+     * @throws GeneralSecurityException if the value was not sealed with this key or was modified
+     */
+    @NonNull
+    public byte[] open(@NonNull byte[] sealed) throws GeneralSecurityException {
+        if (sealed.length < 1 + NONCE_BYTES + TAG_BITS / 8 || sealed[0] != VERSION) {
+            throw new GeneralSecurityException("Not a sealed field value");
+        }
+        Cipher cipher = ciphers.get();
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, sealed, 1, NONCE_BYTES));
+        return cipher.doFinal(sealed, 1 + NONCE_BYTES, sealed.length - 1 - NONCE_BYTES);
+    }
+
+    @NonNull
+    public byte[] sealString(@NonNull String plaintext) throws GeneralSecurityException {
+        return seal(plaintext.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @NonNull
+    public String openString(@NonNull byte[] sealed) throws GeneralSecurityException {
+        return new String(open(sealed), StandardCharsets.UTF_8);
+    }
+
+    // ==================== Legacy ====================
+
+    /**
+     * Decrypts a value written by the old QuantumSecurity.encrypt (AES/ECB, fixed key),
+     * so it can be re-sealed with {@link #seal}.
+     */
+    @NonNull
+    public static String openLegacy(@NonNull byte[] ciphertext) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(LEGACY_KEY, "AES"));
+        return new String(cipher.doFinal(ciphertext), StandardCharsets.UTF_8);
+    }
+}
@@ -117,6 +117,32 @@ public class FinancialHealthScore {
         return healthScore;
     }
 
+    /**
+     * Calculate financial health score for a period, taking income and expense
+     * totals straight from a transaction frame.
+     *
+     * @param frame Transaction history
+     * @param periodStart Start of the period (usually the current month) in milliseconds
+     * @param periodEnd End of the period in milliseconds (inclusive)
+     */
+    public static HealthScore calculateScore(
+            TransactionFrame frame,
+            long periodStart,
+            long periodEnd,
+            double savings,
+            double debt,
+            int streakDays,
+            boolean hasEmergencyFund,
+            boolean hasGoals) {
+
+        int from = frame.lowerBound(periodStart);
+        int to = frame.lowerBound(periodEnd + 1);
+        double income = frame.sumByType(from, to, TransactionFrame.TYPE_INCOME);
+        double expense = frame.sumByType(from, to, TransactionFrame.TYPE_EXPENSE);
+
+        return calculateScore(income, expense, savings, debt, streakDays, hasEmergencyFund, hasGoals);
+    }
+
     private static String[] getRecommendations(
             double savingsRate, double debtRatio,
             boolean hasEmergencyFund, boolean hasGoals, int streakDays) {
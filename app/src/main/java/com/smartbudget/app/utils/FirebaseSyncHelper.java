@@ -158,19 +158,24 @@ public class FirebaseSyncHelper {
             .get()
             .addOnSuccessListener(querySnapshot -> {
                 executor.execute(() -> {
-                    int count = 0;
+                    List<ExpenseEntity> missing = new ArrayList<>();
                     for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
                         ExpenseEntity expense = mapToExpense(doc);
                         if (expense != null) {
                             // Check if exists locally
                             ExpenseEntity existing = database.expenseDao().getExpenseById(expense.getId());
                             if (existing == null) {
-                                database.expenseDao().insert(expense);
-                                count++;
+                                missing.add(expense);
                             }
                         }
                     }
+                    database.expenseLedger().insertAll(missing);
+                    int count = missing.size();
                     
+                    if (count > 0) {
+                        BudgetAlertService.getInstance(context).invalidate();
+                        SuggestionEngine.getInstance(context).invalidate();
+                    }
                     final int finalCount = count;
                     callback.onSuccess("Đã tải " + finalCount + " giao dịch từ cloud");
                 });
@@ -201,6 +206,9 @@ public class FirebaseSyncHelper {
     private Map<String, Object> expenseToMap(ExpenseEntity expense) {
         Map<String, Object> map = new HashMap<>();
         map.put("id", expense.getId());
+        map.put("amountMinor", expense.getAmountMinor());
+        map.put("currency", expense.getCurrency());
+        // Read by app versions before amountMinor
         map.put("amount", expense.getAmount());
         map.put("categoryId", expense.getCategoryId());
         map.put("description", expense.getDescription());
@@ -233,7 +241,15 @@ public class FirebaseSyncHelper {
         try {
             ExpenseEntity expense = new ExpenseEntity();
             expense.setId(doc.getLong("id"));
-            expense.setAmount(doc.getDouble("amount"));
+            Long amountMinor = doc.getLong("amountMinor");
+            if (amountMinor != null) {
+                String currency = doc.getString("currency");
+                expense.setCurrency(currency != null ? currency : CurrencyConverter.BASE_CURRENCY);
+                expense.setAmountMinor(amountMinor);
+            } else {
+                // Uploaded before amountMinor: always VND
+                expense.setAmount(doc.getDouble("amount"));
+            }
             expense.setCategoryId(doc.getLong("categoryId"));
             expense.setDescription(doc.getString("description"));
             expense.setDate(doc.getLong("date"));
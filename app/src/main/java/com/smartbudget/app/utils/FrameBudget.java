@@ -0,0 +1,146 @@
+package com.smartbudget.app.utils;
+
+/**
+ * Frame-time meter and adaptive level of detail for decorative animations.
+ *
+ * <p>Fed once per frame with the interval since the previous frame and the time spent
+ * drawing. Every {@link #EVAL_FRAMES} frames the averages are compared with the display's
+ * frame interval: when frames run late (or drawing eats a large share of the frame) the
+ * detail level - particle count, wave segments - drops by a quarter; when there is plenty
+ * of headroom it grows back one step at a time.</p>
+ *
+ * <p>The averages and the janky frame count double as a frame-time metric for the view.
+ * Not thread-safe; used from the main thread only.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class FrameBudget {
+
+    /** Frames between two level adjustments */
+    public static final int EVAL_FRAMES = 30;
+    /** 60 Hz until the display reports its real refresh rate */
+    public static final long DEFAULT_FRAME_NANOS = 16_666_667L;
+
+    private static final float EMA_WEIGHT = 0.1f;
+    // Averages above this share of the frame interval mean we are dropping frames
+    private static final float LATE_RATIO = 1.2f;
+    private static final float HEADROOM_RATIO = 1.05f;
+    // A decoration should never take more than this share of a frame to draw
+    private static final float MAX_DRAW_SHARE = 0.25f;
+    private static final float JANK_RATIO = 1.5f;
+
+    private final int minLevel;
+    private final int maxLevel;
+    private int level;
+    private long frameNanos = DEFAULT_FRAME_NANOS;
+
+    private double avgIntervalNanos;
+    private double avgDrawNanos;
+    private long lastDrawNanos;
+    private int sinceEval;
+    private long frames;
+    private long jankyFrames;
+
+    public FrameBudget(int minLevel, int initialLevel, int maxLevel) {
+        if (minLevel < 0 || minLevel > maxLevel) {
+            throw new IllegalArgumentException("Invalid level range " + minLevel + ".." + maxLevel);
+        }
+        this.minLevel = minLevel;
+        this.maxLevel = maxLevel;
+        this.level = clamp(initialLevel);
+    }
+
+    /**
+     * @param refreshRate Display refresh rate in Hz; ignored when unknown (<= 0)
+     */
+    public void setRefreshRate(float refreshRate) {
+        if (refreshRate > 0) {
+            frameNanos = (long) (1_000_000_000L / refreshRate);
+        }
+    }
+
+    /** Time spent in the last onDraw; folded into the next {@link #onFrame}. */
+    public void recordDraw(long drawNanos) {
+        lastDrawNanos = drawNanos;
+    }
+
+    /**
+     * Records one frame.
+     *
+     * @param intervalNanos Time since the previous frame callback
+     * @return The detail level to use from now on
+     */
+    public int onFrame(long intervalNanos) {
+        frames++;
+        if (intervalNanos > frameNanos * JANK_RATIO) {
+            jankyFrames++;
+        }
+        if (avgIntervalNanos == 0) {
+            avgIntervalNanos = intervalNanos;
+            avgDrawNanos = lastDrawNanos;
+        } else {
+            avgIntervalNanos += (intervalNanos - avgIntervalNanos) * EMA_WEIGHT;
+            avgDrawNanos += (lastDrawNanos - avgDrawNanos) * EMA_WEIGHT;
+        }
+
+        if (++sinceEval >= EVAL_FRAMES) {
+            sinceEval = 0;
+            boolean late = avgIntervalNanos > frameNanos * LATE_RATIO;
+            boolean heavy = avgDrawNanos > frameNanos * MAX_DRAW_SHARE;
+            if (late || heavy) {
+                level = clamp(level - Math.max(1, level / 4));
+            } else if (avgIntervalNanos < frameNanos * HEADROOM_RATIO) {
+                level = clamp(level + 1);
+            }
+        }
+        return level;
+    }
+
+    /**
+     * Forgets the running averages, e.g. after the animation was paused, so the gap is not
+     * measured as a slow frame. The level and counters are kept.
+     */
+    public void resetAverages() {
+        avgIntervalNanos = 0;
+        avgDrawNanos = 0;
+        lastDrawNanos = 0;
+        sinceEval = 0;
+    }
+
+    // ==================== Metrics ====================
+
+    public int getLevel() {
+        return level;
+    }
+
+    public float getAverageFrameMillis() {
+        return (float) (avgIntervalNanos / 1_000_000.0);
+    }
+
+    public float getAverageDrawMillis() {
+        return (float) (avgDrawNanos / 1_000_000.0);
+    }
+
+    public float getTargetFrameMillis() {
+        return frameNanos / 1_000_000f;
+    }
+
+    public long getFrameCount() {
+        return frames;
+    }
+
+    public long getJankyFrameCount() {
+        return jankyFrames;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(java.util.Locale.US, "%.1fms/frame (target %.1f), draw %.2fms, level %d, jank %d/%d",
+                getAverageFrameMillis(), getTargetFrameMillis(), getAverageDrawMillis(), level, jankyFrames, frames);
+    }
+
+    private int clamp(int value) {
+        return Math.max(minLevel, Math.min(maxLevel, value));
+    }
+}
@@ -0,0 +1,196 @@
+package com.smartbudget.app.utils;
+
+import android.graphics.Rect;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Choreographer-driven animation clock for decorative views.
+ *
+ * <p>Replaces an infinite {@code ValueAnimator} that invalidates every frame: the ticker only
+ * runs while the view is attached, visible (including its window, so it stops when the app
+ * goes to the background) and at least partly on screen. A view scrolled out of sight stops
+ * ticking and resumes on the next scroll or layout pass that brings it back. Each frame is
+ * reported to a {@link FrameBudget}, which measures frame time and picks the detail level.</p>
+ *
+ * <h3>Usage:</h3>
+ * <pre>
+ * ticker = new FrameTicker(this, budget, (dt, level) -> { step(dt, level); return true; });
+ *
+ * protected void onVisibilityAggregated(boolean isVisible) {
+ *     super.onVisibilityAggregated(isVisible);
+ *     ticker.setViewVisible(isVisible);
+ * }
+ * </pre>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class FrameTicker implements Choreographer.FrameCallback {
+
+    // A longer gap (first frame, a stall) is advanced as one ordinary-sized step
+    private static final float MAX_DT_SECONDS = 0.05f;
+
+    /** Called on the main thread once per frame before the view is invalidated. */
+    public interface Callback {
+        /**
+         * @param dtSeconds Time since the previous frame, capped
+         * @param level     Detail level from the frame budget
+         * @return True to redraw this frame
+         */
+        boolean onTick(float dtSeconds, int level);
+    }
+
+    private final View view;
+    private final FrameBudget budget;
+    private final Callback callback;
+    private final Rect visibleRect = new Rect();
+    private final ViewTreeObserver.OnScrollChangedListener scrollListener = this::recheck;
+    private final ViewTreeObserver.OnGlobalLayoutListener layoutListener = this::recheck;
+
+    private boolean enabled = true;
+    private boolean attached;
+    private boolean viewVisible = true;
+    private boolean posted;
+    private boolean watching;
+    private long lastFrameNanos;
+
+    public FrameTicker(@NonNull View view, @NonNull FrameBudget budget, @NonNull Callback callback) {
+        this.view = view;
+        this.budget = budget;
+        this.callback = callback;
+        view.addOnAttachStateChangeListener(new View.OnAttachStateChangeListener() {
+            @Override
+            public void onViewAttachedToWindow(View v) {
+                attached = true;
+                Display display = v.getDisplay();
+                if (display != null) {
+                    budget.setRefreshRate(display.getRefreshRate());
+                }
+                update();
+            }
+
+            @Override
+            public void onViewDetachedFromWindow(View v) {
+                attached = false;
+                update();
+            }
+        });
+        attached = view.isAttachedToWindow();
+    }
+
+    // ==================== State ====================
+
+    /** Starts or stops the animation on request of the owner (stopAnimation / resumeAnimation). */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        update();
+    }
+
+    /** Forward of {@link View#onVisibilityAggregated}: view, ancestors and window visibility. */
+    public void setViewVisible(boolean visible) {
+        this.viewVisible = visible;
+        update();
+    }
+
+    public boolean isRunning() {
+        return posted;
+    }
+
+    @NonNull
+    public FrameBudget getBudget() {
+        return budget;
+    }
+
+    /** Starts or stops ticking to match the current state. */
+    public void update() {
+        boolean shouldRun = enabled && attached && viewVisible;
+        if (shouldRun && onScreen()) {
+            unwatch();
+            start();
+        } else {
+            stop();
+            if (shouldRun) {
+                watch();
+            } else {
+                unwatch();
+            }
+        }
+    }
+
+    // ==================== Frame Loop ====================
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        posted = false;
+        if (!onScreen()) {
+            // Scrolled away: stop until a scroll or layout brings it back
+            update();
+            return;
+        }
+        float dt = 0f;
+        if (lastFrameNanos != 0) {
+            long interval = frameTimeNanos - lastFrameNanos;
+            budget.onFrame(interval);
+            dt = Math.min(MAX_DT_SECONDS, interval / 1_000_000_000f);
+        }
+        lastFrameNanos = frameTimeNanos;
+
+        if (callback.onTick(dt, budget.getLevel())) {
+            view.invalidate();
+        }
+        post();
+    }
+
+    private void start() {
+        if (!posted) {
+            lastFrameNanos = 0;
+            budget.resetAverages();
+            post();
+        }
+    }
+
+    private void post() {
+        posted = true;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private void stop() {
+        if (posted) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            posted = false;
+        }
+    }
+
+    // ==================== Offscreen Detection ====================
+
+    private boolean onScreen() {
+        return view.getWidth() > 0 && view.getHeight() > 0 && view.getLocalVisibleRect(visibleRect);
+    }
+
+    private void watch() {
+        if (watching || !attached) return;
+        ViewTreeObserver observer = view.getViewTreeObserver();
+        observer.addOnScrollChangedListener(scrollListener);
+        observer.addOnGlobalLayoutListener(layoutListener);
+        watching = true;
+    }
+
+    private void unwatch() {
+        if (!watching) return;
+        ViewTreeObserver observer = view.getViewTreeObserver();
+        observer.removeOnScrollChangedListener(scrollListener);
+        observer.removeOnGlobalLayoutListener(layoutListener);
+        watching = false;
+    }
+
+    private void recheck() {
+        if (!posted) {
+            update();
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.smartbudget.app.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small typed key-value store kept in memory and persisted as one file.
+ *
+ * <p>{@link #preload()} reads the file on the I/O executor; reads are served from memory (a
+ * read before the load finished waits for it, it never touches the disk itself). Writes change
+ * memory at once and schedule one flush {@code flushDelayMillis} later, so a burst of puts -
+ * several keys, or the same key repeatedly - costs a single file write. The file is replaced
+ * atomically (temp file, fsync, rename): a crash leaves either the old or the new contents.</p>
+ *
+ * <p>Values are booleans, ints, longs and strings. A missing or unreadable file starts the store
+ * from {@link Seed#populate}, which is how old SharedPreferences are imported.</p>
+ *
+ * <h3>Usage:</h3>
+ * <pre>
+ * static final KeyValueStore.Key&lt;Integer&gt; STREAK = KeyValueStore.intKey("streak.current", 0);
+ * int streak = store.get(STREAK);
+ * store.put(STREAK, streak + 1);
+ * </pre>
+ *
+ * <p>THREAD-SAFETY: all methods can be called from any thread.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class KeyValueStore {
+
+    private static final int MAGIC = 0x53424B56; // "SBKV"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte TYPE_BOOLEAN = 1;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_STRING = 4;
+
+    // ==================== Keys ====================
+
+    /** Typed key with the value returned while nothing is stored. */
+    public static final class Key<T> {
+        final String name;
+        final T defaultValue;
+        final Class<T> type;
+
+        private Key(String name, T defaultValue, Class<T> type) {
+            this.name = name;
+            this.defaultValue = defaultValue;
+            this.type = type;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public static Key<Boolean> booleanKey(@NonNull String name, boolean defaultValue) {
+        return new Key<>(name, defaultValue, Boolean.class);
+    }
+
+    public static Key<Integer> intKey(@NonNull String name, int defaultValue) {
+        return new Key<>(name, defaultValue, Integer.class);
+    }
+
+    public static Key<Long> longKey(@NonNull String name, long defaultValue) {
+        return new Key<>(name, defaultValue, Long.class);
+    }
+
+    public static Key<String> stringKey(@NonNull String name, @Nullable String defaultValue) {
+        return new Key<>(name, defaultValue, String.class);
+    }
+
+    /** Initial contents when there is no store file yet (first run after an update). */
+    public interface Seed {
+        /** Called on the I/O thread; put Boolean, Integer, Long or String values. */
+        void populate(@NonNull Map<String, Object> values);
+
+        /** Called on the I/O thread once the populated values are on disk. */
+        void persisted();
+    }
+
+    // ==================== State ====================
+
+    private final File file;
+    private final ScheduledExecutorService io;
+    private final long flushDelayMillis;
+    @Nullable
+    private final Seed seed;
+
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private final AtomicBoolean loadStarted = new AtomicBoolean();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    // Bumped by every put; a flush that saw an older value leaves the store dirty
+    private final AtomicInteger version = new AtomicInteger();
+    private volatile int flushedVersion;
+    private final AtomicInteger fileWrites = new AtomicInteger();
+
+    /**
+     * @param io               Single-threaded executor for all file access
+     * @param flushDelayMillis How long writes are collected before the file is rewritten
+     * @param seed             Initial values when there is no file; null for none
+     */
+    public KeyValueStore(@NonNull File file, @NonNull ScheduledExecutorService io,
+                         long flushDelayMillis, @Nullable Seed seed) {
+        this.file = file;
+        this.io = io;
+        this.flushDelayMillis = flushDelayMillis;
+        this.seed = seed;
+    }
+
+    // ==================== Load ====================
+
+    /** Starts loading the file on the I/O executor; later calls do nothing. */
+    public void preload() {
+        if (loadStarted.compareAndSet(false, true)) {
+            io.execute(this::load);
+        }
+    }
+
+    /** True once the file has been read and reads no longer wait. */
+    public boolean isLoaded() {
+        return loaded.getCount() == 0;
+    }
+
+    private void load() {
+        try {
+            Map<String, Object> stored = read();
+            boolean seeded = false;
+            if (stored == null) {
+                stored = new HashMap<>();
+                if (seed != null) {
+                    seed.populate(stored);
+                    seeded = true;
+                }
+            }
+            // Puts made before the load finished win over the file
+            for (Map.Entry<String, Object> e : stored.entrySet()) {
+                if (e.getValue() != null) {
+                    values.putIfAbsent(e.getKey(), e.getValue());
+                }
+            }
+            if (seeded && write() && seed != null) {
+                seed.persisted();
+            }
+        } finally {
+            loaded.countDown();
+        }
+    }
+
+    private void awaitLoaded() {
+        preload();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                loaded.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== Read / Write ====================
+
+    /** Stored value of {@code key}, or its default. */
+    public <T> T get(@NonNull Key<T> key) {
+        awaitLoaded();
+        Object value = values.get(key.name);
+        return key.type.isInstance(value) ? key.type.cast(value) : key.defaultValue;
+    }
+
+    /** Stores {@code value} (null restores the default); written to disk shortly after. */
+    public <T> void put(@NonNull Key<T> key, @Nullable T value) {
+        // The flush waits for the load, which must be queued ahead of it
+        preload();
+        if (value == null) {
+            values.remove(key.name);
+        } else {
+            values.put(key.name, value);
+        }
+        version.incrementAndGet();
+        scheduleFlush(flushDelayMillis);
+    }
+
+    /**
+     * Sets {@code key} to {@code update} if it currently holds {@code expect} (or the default
+     * equal to it). For one-time transitions such as unlocking a badge.
+     *
+     * @return True if the value was changed
+     */
+    public synchronized <T> boolean compareAndSet(@NonNull Key<T> key, @Nullable T expect, @NonNull T update) {
+        T current = get(key);
+        if (current == null ? expect != null : !current.equals(expect)) {
+            return false;
+        }
+        put(key, update);
+        return true;
+    }
+
+    /** Writes pending changes now instead of after the delay (app going to background). */
+    public void flushSoon() {
+        if (version.get() != flushedVersion) {
+            scheduleFlush(0);
+        }
+    }
+
+    /**
+     * Writes pending changes and waits for the write. Not for the main thread.
+     */
+    public void flushNow() throws IOException, InterruptedException {
+        try {
+            io.submit(() -> {
+                awaitLoaded();
+                if (version.get() != flushedVersion && !write()) {
+                    throw new IOException("Could not write " + file);
+                }
+                return null;
+            }).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    /** Number of times the file was written; for tests. */
+    int getFileWrites() {
+        return fileWrites.get();
+    }
+
+    private void scheduleFlush(long delayMillis) {
+        if (flushScheduled.compareAndSet(false, true)) {
+            io.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        awaitLoaded();
+        // On failure (disk full, etc.) the store stays dirty; the next put or flushSoon retries
+        if (version.get() != flushedVersion) {
+            write();
+        }
+    }
+
+    // ==================== File Format ====================
+
+    /**
+     * Writes the current values to a temp file and renames it over the store file.
+     * I/O thread only.
+     */
+    private boolean write() {
+        int writing = version.get();
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory()) {
+            parent.mkdirs();
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos));
+            Map<String, Object> snapshot = new HashMap<>(values);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Object> e : snapshot.entrySet()) {
+                out.writeUTF(e.getKey());
+                writeValue(out, e.getValue());
+            }
+            out.flush();
+            fos.getFD().sync();
+        } catch (IOException e) {
+            tmp.delete();
+            return false;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            return false;
+        }
+        flushedVersion = writing;
+        fileWrites.incrementAndGet();
+        return true;
+    }
+
+    /** @return Stored values, or null if there is no readable file */
+    @Nullable
+    private Map<String, Object> read() {
+        if (!file.exists()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) return null;
+            int count = in.readInt();
+            Map<String, Object> stored = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                stored.put(name, readValue(in));
+            }
+            return stored;
+        } catch (IOException e) {
+            // Truncated or foreign file; the rename never leaves one, so start over
+            return null;
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        } else {
+            out.writeByte(TYPE_STRING);
+            out.writeUTF(value.toString());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_INT:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_STRING:
+                return in.readUTF();
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.smartbudget.app.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Hash chain over canonical binary records, for the expense audit ledger.
+ *
+ * <p>Entry {@code n} has hash {@code SHA-256(hash(n-1) || seq || length || payload)}, with
+ * {@link #GENESIS} (32 zero bytes) before the first entry. Changing, removing or reordering any
+ * entry changes every later hash. There is no proof-of-work: integrity comes from the chain
+ * plus checkpoints, not from making hashes expensive.</p>
+ *
+ * <p>Payloads are written with {@link PayloadWriter}: big-endian fixed-width numbers and
+ * length-prefixed UTF-8, so the same values always give the same bytes (unlike string
+ * concatenation, where "1" + "23" equals "12" + "3").</p>
+ *
+ * <p>One instance reuses one {@link MessageDigest} and buffers, so it is not thread-safe;
+ * callers confine it or synchronize.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class LedgerChain {
+
+    public static final int HASH_BYTES = 32;
+    /** Hash before the first entry */
+    public static final byte[] GENESIS = new byte[HASH_BYTES];
+
+    private final MessageDigest digest;
+    private final ByteBuffer header = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+    private final PayloadWriter writer = new PayloadWriter();
+
+    public LedgerChain() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java and Android runtime ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ==================== Hashing ====================
+
+    /**
+     * Hash of the entry {@code seq} with {@code payload}, chained after {@code previousHash}.
+     */
+    @NonNull
+    public byte[] next(@NonNull byte[] previousHash, long seq, @NonNull byte[] payload) {
+        header.clear();
+        header.putLong(seq).putInt(payload.length);
+        digest.update(previousHash);
+        digest.update(header.array(), 0, header.position());
+        digest.update(payload);
+        return digest.digest();
+    }
+
+    /**
+     * Recomputes a run of consecutive entries.
+     *
+     * @param previousHash Hash of the entry before {@code seqs[0]} (a checkpoint or {@link #GENESIS})
+     * @return Index of the first entry whose stored hash does not match, or -1 if all match
+     */
+    public int verify(@NonNull byte[] previousHash, @NonNull long[] seqs,
+                      @NonNull byte[][] payloads, @NonNull byte[][] hashes) {
+        byte[] hash = previousHash;
+        for (int i = 0; i < seqs.length; i++) {
+            byte[] expected = next(hash, seqs[i], payloads[i]);
+            if (!MessageDigest.isEqual(expected, hashes[i])) {
+                return i;
+            }
+            hash = expected;
+        }
+        return -1;
+    }
+
+    /** Writer for the next payload; reset on every call, so copy out with toByteArray first. */
+    @NonNull
+    public PayloadWriter payload() {
+        writer.reset();
+        return writer;
+    }
+
+    // ==================== Encoding ====================
+
+    /** Canonical binary encoding of one record. */
+    public static final class PayloadWriter {
+        private ByteBuffer buffer = ByteBuffer.allocate(256);
+
+        PayloadWriter() {
+        }
+
+        void reset() {
+            buffer.clear();
+        }
+
+        public PayloadWriter putByte(int value) {
+            ensure(1);
+            buffer.put((byte) value);
+            return this;
+        }
+
+        public PayloadWriter putLong(long value) {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+            return this;
+        }
+
+        /** Nullable value: a presence byte, then the value if present */
+        public PayloadWriter putLong(@Nullable Long value) {
+            putByte(value == null ? 0 : 1);
+            return value == null ? this : putLong(value.longValue());
+        }
+
+        /** IEEE bits; every NaN encodes the same, but -0.0 and 0.0 differ */
+        public PayloadWriter putDouble(double value) {
+            return putLong(Double.doubleToLongBits(value));
+        }
+
+        public PayloadWriter putBoolean(boolean value) {
+            return putByte(value ? 1 : 0);
+        }
+
+        /** Length-prefixed UTF-8; null is length -1, distinct from "" */
+        public PayloadWriter putString(@Nullable String value) {
+            if (value == null) {
+                ensure(Integer.BYTES);
+                buffer.putInt(-1);
+                return this;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ensure(Integer.BYTES + bytes.length);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+            return this;
+        }
+
+        @NonNull
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buffer.array(), buffer.position());
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                bigger.put(buffer);
+                buffer = bigger;
+            }
+        }
+    }
+
+    // ==================== Formatting ====================
+
+    /** Lowercase hex, for logs and display. */
+    @NonNull
+    public static String toHex(@NonNull byte[] hash) {
+        char[] out = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            out[i * 2] = Character.forDigit((hash[i] >> 4) & 0xf, 16);
+            out[i * 2 + 1] = Character.forDigit(hash[i] & 0xf, 16);
+        }
+        return new String(out);
+    }
+}
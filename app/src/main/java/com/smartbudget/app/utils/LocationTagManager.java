@@ -1,13 +1,15 @@
 package com.smartbudget.app.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import androidx.annotation.WorkerThread;
+
+import com.smartbudget.app.data.local.AppDatabase;
+import com.smartbudget.app.data.local.dao.LocationTagDao;
+import com.smartbudget.app.data.local.entity.LocationTagEntity;
 
-import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,72 +17,38 @@ import java.util.Map;
 /**
  * Location tag manager.
  * Tag expenses with locations for pattern analysis.
+ * Custom locations are rows of location_tags; call from a background thread.
  */
 public class LocationTagManager {
 
-    private static final String PREFS_NAME = "location_tags";
-    private static final String KEY_LOCATIONS = "locations";
-    private static final String KEY_HISTORY = "location_history";
-
-    public static class LocationTag {
-        public String id;
-        public String name;
-        public String emoji;
-        public String category; // Auto-suggested category for this location
-        public int usageCount;
-        public double averageSpend;
-        public double totalSpend;
-
-        public LocationTag(String name, String emoji) {
-            this.id = String.valueOf(System.currentTimeMillis());
-            this.name = name;
-            this.emoji = emoji;
-            this.usageCount = 0;
-            this.averageSpend = 0;
-            this.totalSpend = 0;
-        }
-
-        public void recordSpend(double amount) {
-            usageCount++;
-            totalSpend += amount;
-            averageSpend = totalSpend / usageCount;
-        }
-    }
-
-    // Pre-defined locations
-    public static final LocationTag[] COMMON_LOCATIONS = {
-            new LocationTag("Công ty", "🏢"),
-            new LocationTag("Nhà", "🏠"),
-            new LocationTag("Siêu thị", "🛒"),
-            new LocationTag("Quán cà phê", "☕"),
-            new LocationTag("Nhà hàng", "🍽️"),
-            new LocationTag("Chợ", "🥬"),
-            new LocationTag("Cửa hàng tiện lợi", "🏪"),
-            new LocationTag("Gym", "💪"),
-            new LocationTag("Bệnh viện", "🏥"),
-            new LocationTag("Trường học", "🏫"),
-            new LocationTag("Rạp phim", "🎬"),
-            new LocationTag("Spa", "💆")
+    // Pre-defined locations; not stored (id 0), so recordSpend only counts custom ones
+    public static final LocationTagEntity[] COMMON_LOCATIONS = {
+            new LocationTagEntity("Công ty", "🏢"),
+            new LocationTagEntity("Nhà", "🏠"),
+            new LocationTagEntity("Siêu thị", "🛒"),
+            new LocationTagEntity("Quán cà phê", "☕"),
+            new LocationTagEntity("Nhà hàng", "🍽️"),
+            new LocationTagEntity("Chợ", "🥬"),
+            new LocationTagEntity("Cửa hàng tiện lợi", "🏪"),
+            new LocationTagEntity("Gym", "💪"),
+            new LocationTagEntity("Bệnh viện", "🏥"),
+            new LocationTagEntity("Trường học", "🏫"),
+            new LocationTagEntity("Rạp phim", "🎬"),
+            new LocationTagEntity("Spa", "💆")
     };
 
-    private Context context;
-    private SharedPreferences prefs;
-    private Gson gson;
+    private final LocationTagDao locationDao;
 
     public LocationTagManager(Context context) {
-        this.context = context;
-        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        this.gson = new Gson();
+        this.locationDao = AppDatabase.getDatabase(context).locationTagDao();
     }
 
     /**
      * Get all locations (custom + default).
      */
-    public List<LocationTag> getAllLocations() {
-        List<LocationTag> all = new ArrayList<>();
-        for (LocationTag l : COMMON_LOCATIONS) {
-            all.add(l);
-        }
+    @WorkerThread
+    public List<LocationTagEntity> getAllLocations() {
+        List<LocationTagEntity> all = new ArrayList<>(Arrays.asList(COMMON_LOCATIONS));
         all.addAll(getCustomLocations());
         return all;
     }
@@ -88,56 +56,46 @@ public class LocationTagManager {
     /**
      * Get custom locations only.
      */
-    public List<LocationTag> getCustomLocations() {
-        String json = prefs.getString(KEY_LOCATIONS, null);
-        if (json == null) return new ArrayList<>();
-        Type type = new TypeToken<List<LocationTag>>(){}.getType();
-        return gson.fromJson(json, type);
+    @WorkerThread
+    public List<LocationTagEntity> getCustomLocations() {
+        return locationDao.getAllSync();
     }
 
     /**
      * Add custom location.
+     *
+     * @return Row id of the location
      */
-    public void addLocation(LocationTag location) {
-        List<LocationTag> locations = getCustomLocations();
-        locations.add(location);
-        saveLocations(locations);
+    @WorkerThread
+    public long addLocation(LocationTagEntity location) {
+        location.setId(0);
+        return locationDao.insert(location);
     }
 
     /**
      * Record spending at location.
      */
-    public void recordSpend(String locationId, double amount) {
-        List<LocationTag> locations = getCustomLocations();
-        for (LocationTag l : locations) {
-            if (l.id.equals(locationId)) {
-                l.recordSpend(amount);
-                break;
-            }
-        }
-        saveLocations(locations);
+    @WorkerThread
+    public void recordSpend(long locationId, double amount) {
+        locationDao.recordSpend(locationId, amount);
     }
 
     /**
      * Get top spending locations.
      */
-    public List<LocationTag> getTopSpendingLocations(int limit) {
-        List<LocationTag> all = new ArrayList<>(getCustomLocations());
-        all.sort((a, b) -> Double.compare(b.totalSpend, a.totalSpend));
-        
-        if (all.size() > limit) {
-            return all.subList(0, limit);
-        }
-        return all;
+    @WorkerThread
+    public List<LocationTagEntity> getTopSpendingLocations(int limit) {
+        return locationDao.getTopSpending(limit);
     }
 
     /**
      * Get location statistics.
      */
+    @WorkerThread
     public Map<String, Double> getLocationStats() {
         Map<String, Double> stats = new HashMap<>();
-        for (LocationTag l : getCustomLocations()) {
-            stats.put(l.name, l.totalSpend);
+        for (LocationTagEntity l : getCustomLocations()) {
+            stats.put(l.getName(), l.getTotalSpend());
         }
         return stats;
     }
@@ -162,9 +120,4 @@ public class LocationTagManager {
         
         return "Khác";
     }
-
-    private void saveLocations(List<LocationTag> locations) {
-        String json = gson.toJson(locations);
-        prefs.edit().putString(KEY_LOCATIONS, json).apply();
-    }
 }
@@ -0,0 +1,120 @@
+package com.smartbudget.app.utils;
+
+import java.util.Calendar;
+
+/**
+ * Decides what the daily maintenance run does, from the current time and when each task last ran.
+ *
+ * <p>The run is scheduled for the reminder time ("slot") but WorkManager only guarantees it
+ * does not start early: Doze, constraints and retries can make it late, and a late periodic run
+ * shifts the following ones. So every task is gated on its own last run, which makes repeated
+ * or retried runs harmless, and a run that landed far from its slot asks for a realignment.</p>
+ *
+ * <p>Pure Java: local times use the default time zone, like {@link EpochDays}.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class MaintenancePlan {
+
+    /** Work done by the maintenance runs; the name is the last-run key. */
+    public enum Task {
+        /** "Log today's expenses" notification, once per slot */
+        REMINDER,
+        /** Last 7 days summary, on the Sunday slot */
+        WEEKLY_REPORT,
+        /** RecurringExpenseMaterializer; idempotent, every run */
+        RECURRING_EXPENSES,
+        /** Exchange rates from the configured RateSource; every run, if one is configured */
+        EXCHANGE_RATES,
+        /** Reseed of the incremental budget sums from SQL; every run */
+        BUDGET_CHECK,
+        /** Expense ledger entries since the last checkpoint; every run */
+        LEDGER_VERIFY,
+        /** Old backup files */
+        BACKUP_PRUNE,
+        /** Firestore upload + download; separate job that waits for charging */
+        SYNC
+    }
+
+    /** A reminder more than this late is dropped rather than shown at an odd hour */
+    public static final long MAX_REMINDER_DELAY_MILLIS = 4 * 60 * 60 * 1000L;
+    /** A run further than this after its slot re-enqueues the periodic job at the next slot */
+    public static final long REALIGN_AFTER_MILLIS = 2 * 60 * 60 * 1000L;
+    public static final long BACKUP_PRUNE_INTERVAL_MILLIS = 7 * EpochDays.DAY_MILLIS;
+    /** Less than a day so a slightly early charging window still syncs */
+    public static final long SYNC_INTERVAL_MILLIS = 20 * 60 * 60 * 1000L;
+
+    private MaintenancePlan() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // ==================== Slots ====================
+
+    /**
+     * Latest {@code hour:minute} local time at or before {@code now}.
+     */
+    public static long slotAtOrBefore(long now, int hour, int minute) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(now);
+        cal.set(Calendar.HOUR_OF_DAY, hour);
+        cal.set(Calendar.MINUTE, minute);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        if (cal.getTimeInMillis() > now) {
+            cal.add(Calendar.DAY_OF_YEAR, -1);
+        }
+        return cal.getTimeInMillis();
+    }
+
+    /**
+     * First {@code hour:minute} local time strictly after {@code now}.
+     */
+    public static long nextSlot(long now, int hour, int minute) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(slotAtOrBefore(now, hour, minute));
+        cal.add(Calendar.DAY_OF_YEAR, 1);
+        return cal.getTimeInMillis();
+    }
+
+    /** Initial delay that makes a job enqueued at {@code now} start at the next slot. */
+    public static long delayUntilNextSlot(long now, int hour, int minute) {
+        return nextSlot(now, hour, minute) - now;
+    }
+
+    /**
+     * True if this run is so late for its slot that the periodic job should be re-enqueued.
+     */
+    public static boolean needsRealign(long now, int hour, int minute) {
+        return now - slotAtOrBefore(now, hour, minute) > REALIGN_AFTER_MILLIS;
+    }
+
+    // ==================== Due Tasks ====================
+
+    /**
+     * The reminder is due once per slot, and only while the slot is recent.
+     *
+     * @param lastReminder When the reminder was last shown, 0 if never
+     */
+    public static boolean isReminderDue(long now, long lastReminder, int hour, int minute) {
+        long slot = slotAtOrBefore(now, hour, minute);
+        return lastReminder < slot && now - slot <= MAX_REMINDER_DELAY_MILLIS;
+    }
+
+    /**
+     * The weekly report goes out with the reminder slot that falls on a Sunday.
+     */
+    public static boolean isWeeklyReportDue(long now, long lastReport, int hour, int minute) {
+        long slot = slotAtOrBefore(now, hour, minute);
+        return EpochDays.dayOfWeek(EpochDays.dayIndex(slot)) == 0
+                && lastReport < slot && now - slot <= MAX_REMINDER_DELAY_MILLIS;
+    }
+
+    public static boolean isBackupPruneDue(long now, long lastPrune) {
+        return now - lastPrune >= BACKUP_PRUNE_INTERVAL_MILLIS;
+    }
+
+    public static boolean isSyncDue(long now, long lastSync) {
+        return now - lastSync >= SYNC_INTERVAL_MILLIS;
+    }
+}
@@ -45,29 +45,74 @@ public class MonthlyReportGenerator {
             int transactionCount,
             double lastMonthExpense) {
 
-        MonthlyReport report = new MonthlyReport(month, year);
-        report.totalIncome = totalIncome;
-        report.totalExpense = totalExpense;
-        report.savings = totalIncome - totalExpense;
-        report.savingsRate = totalIncome > 0 ? (report.savings / totalIncome) * 100 : 0;
-        report.transactionCount = transactionCount;
+        // Find top category
+        String topCat = "Khác";
+        double topAmount = 0;
+        for (Map.Entry<String, Double> entry : categoryBreakdown.entrySet()) {
+            if (entry.getValue() > topAmount) {
+                topAmount = entry.getValue();
+                topCat = entry.getKey();
+            }
+        }
 
-        // Calculate average daily spending
         Calendar cal = Calendar.getInstance();
         cal.set(Calendar.MONTH, month - 1);
         cal.set(Calendar.YEAR, year);
         int daysInMonth = cal.getActualMaximum(Calendar.DAY_OF_MONTH);
-        report.averageDaily = totalExpense / daysInMonth;
 
-        // Find top category
+        return buildReport(month, year, daysInMonth, totalIncome, totalExpense,
+                topCat, topAmount, transactionCount, lastMonthExpense);
+    }
+
+    /**
+     * Generate monthly report from a transaction frame.
+     * Totals, category breakdown and last month's expense are computed with primitive kernels
+     * over the month's row slice.
+     */
+    public static MonthlyReport generateReport(TransactionFrame frame, int month, int year) {
+        int monthIndex = year * 12 + month - 1;
+        int firstDay = EpochDays.firstDayOfMonth(monthIndex);
+        int nextMonthDay = EpochDays.firstDayOfMonth(monthIndex + 1);
+        int lastMonthFrom = frame.lowerBoundDay(EpochDays.firstDayOfMonth(monthIndex - 1));
+        int from = frame.lowerBoundDay(firstDay);
+        int to = frame.lowerBoundDay(nextMonthDay);
+
+        double totalIncome = frame.sumByType(from, to, TransactionFrame.TYPE_INCOME);
+        double totalExpense = frame.sumByType(from, to, TransactionFrame.TYPE_EXPENSE);
+        double lastMonthExpense = frame.sumByType(lastMonthFrom, from, TransactionFrame.TYPE_EXPENSE);
+
         String topCat = "Khác";
         double topAmount = 0;
-        for (Map.Entry<String, Double> entry : categoryBreakdown.entrySet()) {
-            if (entry.getValue() > topAmount) {
-                topAmount = entry.getValue();
-                topCat = entry.getKey();
+        double[] byCategory = new double[frame.getCategoryCount()];
+        frame.sumByCategory(from, to, byCategory);
+        for (int c = 0; c < byCategory.length; c++) {
+            if (frame.getCategoryType(c) == TransactionFrame.TYPE_EXPENSE && byCategory[c] > topAmount) {
+                topAmount = byCategory[c];
+                topCat = frame.getCategoryName(c);
             }
         }
+
+        return buildReport(month, year, nextMonthDay - firstDay, totalIncome, totalExpense,
+                topCat, topAmount, to - from, lastMonthExpense);
+    }
+
+    private static MonthlyReport buildReport(
+            int month, int year, int daysInMonth,
+            double totalIncome, double totalExpense,
+            String topCat, double topAmount,
+            int transactionCount,
+            double lastMonthExpense) {
+
+        MonthlyReport report = new MonthlyReport(month, year);
+        report.totalIncome = totalIncome;
+        report.totalExpense = totalExpense;
+        report.savings = totalIncome - totalExpense;
+        report.savingsRate = totalIncome > 0 ? (report.savings / totalIncome) * 100 : 0;
+        report.transactionCount = transactionCount;
+
+        // Calculate average daily spending
+        report.averageDaily = totalExpense / daysInMonth;
+
         report.topCategory = topCat;
         report.topCategoryAmount = topAmount;
 
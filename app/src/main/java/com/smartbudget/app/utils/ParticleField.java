@@ -0,0 +1,121 @@
+package com.smartbudget.app.utils;
+
+import java.util.Random;
+
+/**
+ * Particle state for {@link ParticleView}, stored as parallel arrays (struct of arrays).
+ *
+ * <p>Particles rise from the bottom edge, sway sideways and are respawned below the view
+ * once they leave the top. All arrays are allocated once for {@code capacity} particles;
+ * only the first {@link #count()} are live, so stepping and drawing never allocate. Motion
+ * is in pixels per second and scaled by the frame delta, so the speed does not depend on
+ * the refresh rate or on dropped frames.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class ParticleField {
+
+    // Rise speed range, px/s (the old per-frame 0.5..2px at 60fps)
+    private static final float MIN_SPEED = 30f;
+    private static final float SPEED_RANGE = 90f;
+    // Sway phase speed range, rad/s (the old 1..3 degrees per frame)
+    private static final float MIN_SWAY_SPEED = 1f;
+    private static final float SWAY_SPEED_RANGE = 2f;
+    private static final float SWAY_PX_PER_SECOND = 120f;
+    private static final float MIN_ALPHA = 0.3f;
+    private static final float ALPHA_RANGE = 0.4f;
+
+    public final float[] x;
+    public final float[] y;
+    public final float[] size;
+    public final float[] alpha;
+    public final int[] sprite;
+    private final float[] speed;
+    private final float[] phase;
+    private final float[] swaySpeed;
+
+    private final int capacity;
+    private final int spriteCount;
+    private final float minSize;
+    private final float sizeRange;
+    private final Random random;
+    private float width;
+    private float height;
+    private int count;
+
+    /**
+     * @param capacity    Most particles ever alive
+     * @param spriteCount Number of sprites to pick from
+     * @param minSize     Smallest particle size, px
+     * @param maxSize     Largest particle size, px
+     * @param seed        Random seed (fixed in tests)
+     */
+    public ParticleField(int capacity, int spriteCount, float minSize, float maxSize, long seed) {
+        this.capacity = capacity;
+        this.spriteCount = spriteCount;
+        this.minSize = minSize;
+        this.sizeRange = maxSize - minSize;
+        this.random = new Random(seed);
+        x = new float[capacity];
+        y = new float[capacity];
+        size = new float[capacity];
+        alpha = new float[capacity];
+        sprite = new int[capacity];
+        speed = new float[capacity];
+        phase = new float[capacity];
+        swaySpeed = new float[capacity];
+    }
+
+    /** Sets the area and scatters the live particles over it. */
+    public void setBounds(float width, float height) {
+        this.width = width;
+        this.height = height;
+        for (int i = 0; i < count; i++) {
+            spawn(i, true);
+        }
+    }
+
+    /**
+     * Grows or shrinks the live set. New particles start at a random height so a larger
+     * budget fills in at once; removed ones are simply no longer drawn.
+     */
+    public void setCount(int target) {
+        target = Math.max(0, Math.min(capacity, target));
+        for (int i = count; i < target; i++) {
+            spawn(i, true);
+        }
+        count = target;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /** Advances every live particle by {@code dt} seconds. */
+    public void step(float dt) {
+        for (int i = 0; i < count; i++) {
+            y[i] -= speed[i] * dt;
+            phase[i] += swaySpeed[i] * dt;
+            x[i] += (float) Math.sin(phase[i]) * SWAY_PX_PER_SECOND * dt;
+            if (y[i] < -size[i]) {
+                spawn(i, false);
+            }
+        }
+    }
+
+    private void spawn(int i, boolean anywhere) {
+        size[i] = minSize + random.nextFloat() * sizeRange;
+        x[i] = random.nextFloat() * width;
+        y[i] = anywhere ? random.nextFloat() * height : height + size[i];
+        speed[i] = MIN_SPEED + random.nextFloat() * SPEED_RANGE;
+        alpha[i] = MIN_ALPHA + random.nextFloat() * ALPHA_RANGE;
+        sprite[i] = spriteCount > 0 ? random.nextInt(spriteCount) : 0;
+        phase[i] = random.nextFloat() * (float) (2 * Math.PI);
+        swaySpeed[i] = MIN_SWAY_SPEED + random.nextFloat() * SWAY_SPEED_RANGE;
+    }
+}
@@ -2,9 +2,7 @@ package com.smartbudget.app.utils;
 
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Spending pattern detector.
@@ -41,34 +39,39 @@ public class PatternDetector {
      * Detect spending patterns from transaction history.
      */
     public static List<Pattern> detectPatterns(List<TransactionData> transactions) {
+        if (transactions == null || transactions.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return detectPatterns(TransactionFrame.fromTransactions(transactions));
+    }
+
+    /**
+     * Detect spending patterns from a columnar transaction frame.
+     * Runs in two passes over primitive columns without per-row allocation.
+     */
+    public static List<Pattern> detectPatterns(TransactionFrame frame) {
         List<Pattern> patterns = new ArrayList<>();
 
-        if (transactions == null || transactions.isEmpty()) {
+        if (frame == null || frame.size() == 0) {
             return patterns;
         }
 
-        // Analyze daily averages by day of week
-        Map<Integer, Double> dayOfWeekSpending = new HashMap<>();
-        Map<Integer, Integer> dayOfWeekCount = new HashMap<>();
+        int n = frame.size();
 
-        for (TransactionData t : transactions) {
-            Calendar cal = Calendar.getInstance();
-            cal.setTimeInMillis(t.date);
-            int dayOfWeek = cal.get(Calendar.DAY_OF_WEEK);
-
-            dayOfWeekSpending.merge(dayOfWeek, t.amount, Double::sum);
-            dayOfWeekCount.merge(dayOfWeek, 1, Integer::sum);
-        }
+        // Analyze daily averages by day of week (0 = Sunday ... 6 = Saturday)
+        double[] dayOfWeekSpending = new double[7];
+        int[] dayOfWeekCount = new int[7];
+        frame.sumByDayOfWeek(0, n, dayOfWeekSpending, dayOfWeekCount);
 
         // Check weekend spending pattern
         double weekdayAvg = 0, weekendAvg = 0;
         int weekdayDays = 0, weekendDays = 0;
 
-        for (Map.Entry<Integer, Double> entry : dayOfWeekSpending.entrySet()) {
-            int day = entry.getKey();
-            double avg = entry.getValue() / dayOfWeekCount.getOrDefault(day, 1);
+        for (int day = 0; day < 7; day++) {
+            if (dayOfWeekCount[day] == 0) continue;
+            double avg = dayOfWeekSpending[day] / dayOfWeekCount[day];
 
-            if (day == Calendar.SATURDAY || day == Calendar.SUNDAY) {
+            if (day == Calendar.SATURDAY - 1 || day == Calendar.SUNDAY - 1) {
                 weekendAvg += avg;
                 weekendDays++;
             } else {
@@ -90,30 +93,35 @@ public class PatternDetector {
             patterns.add(p);
         }
 
-        // Check for recurring category spending
-        Map<String, List<Double>> categoryHistory = new HashMap<>();
-        for (TransactionData t : transactions) {
-            categoryHistory.computeIfAbsent(t.category, k -> new ArrayList<>()).add(t.amount);
+        // Check for recurring category spending (all amounts within 10% of the first one)
+        int categories = frame.getCategoryCount();
+        double[] firstAmount = new double[categories];
+        int[] counts = new int[categories];
+        boolean[] similar = new boolean[categories];
+
+        for (int i = 0; i < n; i++) {
+            int c = frame.categoryIdx[i];
+            double amount = frame.amounts[i];
+            if (counts[c] == 0) {
+                firstAmount[c] = amount;
+                similar[c] = true;
+            }
+            similar[c] = similar[c] && Math.abs(amount - firstAmount[c]) / firstAmount[c] < 0.1;
+            counts[c]++;
         }
 
-        for (Map.Entry<String, List<Double>> entry : categoryHistory.entrySet()) {
-            List<Double> amounts = entry.getValue();
-            if (amounts.size() >= 3) {
-                // Check if similar amounts (potential recurring)
-                double first = amounts.get(0);
-                boolean isRecurring = amounts.stream()
-                        .allMatch(a -> Math.abs(a - first) / first < 0.1);
-
-                if (isRecurring) {
-                    Pattern p = new Pattern(
-                            PatternType.MONTHLY,
-                            "🔄",
-                            String.format("Chi tiêu định kỳ: %s - %,.0f₫", entry.getKey(), first)
-                    );
-                    p.category = entry.getKey();
-                    p.amount = first;
-                    patterns.add(p);
-                }
+        for (int c = 0; c < categories; c++) {
+            if (counts[c] >= 3 && similar[c]) {
+                String category = frame.getCategoryName(c);
+                double first = firstAmount[c];
+                Pattern p = new Pattern(
+                        PatternType.MONTHLY,
+                        "🔄",
+                        String.format("Chi tiêu định kỳ: %s - %,.0f₫", category, first)
+                );
+                p.category = category;
+                p.amount = first;
+                patterns.add(p);
             }
         }
 
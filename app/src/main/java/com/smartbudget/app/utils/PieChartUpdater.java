@@ -0,0 +1,153 @@
+package com.smartbudget.app.utils;
+
+import androidx.annotation.NonNull;
+
+import com.github.mikephil.charting.animation.Easing;
+import com.github.mikephil.charting.charts.PieChart;
+import com.github.mikephil.charting.data.PieData;
+import com.github.mikephil.charting.data.PieDataSet;
+import com.github.mikephil.charting.data.PieEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Applies category totals to a PieChart incrementally.
+ *
+ * <p>The first update creates the data set and plays the intro animation. Later updates diff
+ * the new slices against the current entries (keyed by category id): values, labels and colors
+ * are changed in place, and the chart is only recalculated and redrawn when something actually
+ * changed. A different set of categories replaces the entry list but keeps the data set.
+ * Animation replays only when the caller asks for it, e.g. after a date range change.</p>
+ *
+ * <h3>Usage:</h3>
+ * <pre>
+ * PieChartUpdater updater = new PieChartUpdater(binding.pieChart, 1200, dataSet -> {
+ *     dataSet.setSliceSpace(3f);
+ *     dataSet.setDrawValues(false);
+ * });
+ * updater.update(slices, rangeChanged);
+ * </pre>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public class PieChartUpdater {
+
+    /** One slice: category id, value, legend label and color */
+    public static final class Slice {
+        final long key;
+        final float value;
+        final String label;
+        final int color;
+
+        public Slice(long key, float value, String label, int color) {
+            this.key = key;
+            this.value = value;
+            this.label = label;
+            this.color = color;
+        }
+    }
+
+    /** Styles the data set once, when it is created. */
+    public interface Styler {
+        void style(@NonNull PieDataSet dataSet);
+    }
+
+    private final PieChart chart;
+    private final int animationMillis;
+    private final Styler styler;
+    private PieDataSet dataSet;
+
+    public PieChartUpdater(@NonNull PieChart chart, int animationMillis, @NonNull Styler styler) {
+        this.chart = chart;
+        this.animationMillis = animationMillis;
+        this.styler = styler;
+    }
+
+    /**
+     * @param animate Replay the animation (e.g. the user picked another range);
+     *                the first update always animates
+     * @return True when the chart was redrawn
+     */
+    public boolean update(@NonNull List<Slice> slices, boolean animate) {
+        if (dataSet == null || chart.getData() == null) {
+            dataSet = new PieDataSet(toEntries(slices), "");
+            dataSet.setColors(toColors(slices));
+            styler.style(dataSet);
+            chart.setData(new PieData(dataSet));
+            chart.animateY(animationMillis, Easing.EaseInOutQuad);
+            return true;
+        }
+
+        boolean changed;
+        if (sameKeys(slices)) {
+            changed = mutateInPlace(slices);
+        } else {
+            dataSet.setValues(toEntries(slices));
+            dataSet.setColors(toColors(slices));
+            changed = true;
+        }
+        if (!changed && !animate) {
+            return false;
+        }
+
+        dataSet.notifyDataSetChanged();
+        chart.getData().notifyDataChanged();
+        chart.notifyDataSetChanged();
+        if (animate) {
+            chart.animateY(animationMillis, Easing.EaseInOutQuad);
+        } else {
+            chart.invalidate();
+        }
+        return true;
+    }
+
+    private boolean sameKeys(List<Slice> slices) {
+        if (dataSet.getEntryCount() != slices.size()) return false;
+        for (int i = 0; i < slices.size(); i++) {
+            Object key = dataSet.getEntryForIndex(i).getData();
+            if (!(key instanceof Long) || (Long) key != slices.get(i).key) return false;
+        }
+        return true;
+    }
+
+    private boolean mutateInPlace(List<Slice> slices) {
+        boolean changed = false;
+        List<Integer> colors = dataSet.getColors();
+        for (int i = 0; i < slices.size(); i++) {
+            Slice slice = slices.get(i);
+            PieEntry entry = dataSet.getEntryForIndex(i);
+            if (entry.getY() != slice.value) {
+                entry.setY(slice.value);
+                changed = true;
+            }
+            if (!Objects.equals(entry.getLabel(), slice.label)) {
+                entry.setLabel(slice.label);
+                changed = true;
+            }
+            if (i < colors.size() && colors.get(i) != slice.color) {
+                colors.set(i, slice.color);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static List<PieEntry> toEntries(List<Slice> slices) {
+        List<PieEntry> entries = new ArrayList<>(slices.size());
+        for (Slice slice : slices) {
+            entries.add(new PieEntry(slice.value, slice.label, slice.key));
+        }
+        return entries;
+    }
+
+    private static List<Integer> toColors(List<Slice> slices) {
+        List<Integer> colors = new ArrayList<>(slices.size());
+        for (Slice slice : slices) {
+            colors.add(slice.color);
+        }
+        return colors;
+    }
+}
@@ -0,0 +1,155 @@
+package com.smartbudget.app.utils;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
+
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Passphrase-encrypted files that can be restored on another device or after a reinstall,
+ * unlike {@link CryptoManager} files whose key lives in this installation's Keystore.
+ *
+ * <p>The key is derived with PBKDF2 from the passphrase and a random per-file salt; the body is
+ * a {@link SegmentedGcm} stream under that key:</p>
+ *
+ * <pre>
+ * header = "SBP1" | prf (1) | iterations (4) | salt (16)      25 bytes
+ * body   = SegmentedGcm stream
+ * </pre>
+ *
+ * <p>PBKDF2WithHmacSHA256 needs API 26; on older devices HmacSHA1 is used with more
+ * iterations. The header records which, so either device can read the file. A wrong passphrase
+ * (or an edited header) gives a different key and the first segment fails to authenticate.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class PortableCipher {
+
+    static final byte[] MAGIC = {'S', 'B', 'P', '1'};
+    static final int PRF_SHA256 = 1;
+    static final int PRF_SHA1 = 2;
+    static final int SHA256_ITERATIONS = 310_000;
+    static final int SHA1_ITERATIONS = 720_000;
+    // Upper bound on a file's iteration count, so a crafted header cannot stall the restore
+    private static final int MAX_ITERATIONS = 10_000_000;
+    static final int SALT_BYTES = 16;
+    public static final int HEADER_BYTES = MAGIC.length + 1 + 4 + SALT_BYTES;
+    private static final int KEY_BITS = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private PortableCipher() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // ==================== API ====================
+
+    /**
+     * Wraps {@code out}; everything written is encrypted under {@code passphrase}. Closing the
+     * returned stream completes the file. Deriving the key takes a moment; call off the main
+     * thread. The caller still owns (and should clear) {@code passphrase}.
+     */
+    @NonNull
+    public static OutputStream encrypt(@NonNull OutputStream out, @NonNull char[] passphrase) throws IOException {
+        int prf = PRF_SHA256;
+        try {
+            SecretKeyFactory.getInstance(algorithm(PRF_SHA256));
+        } catch (NoSuchAlgorithmException e) {
+            // API 24-25
+            prf = PRF_SHA1;
+        }
+        return encrypt(out, passphrase, prf, prf == PRF_SHA256 ? SHA256_ITERATIONS : SHA1_ITERATIONS);
+    }
+
+    static OutputStream encrypt(OutputStream out, char[] passphrase, int prf, int iterations) throws IOException {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        SecretKey key = deriveKey(passphrase, salt, prf, iterations);
+
+        byte[] header = new byte[HEADER_BYTES];
+        ByteBuffer.wrap(header).put(MAGIC).put((byte) prf).putInt(iterations).put(salt);
+        out.write(header);
+        return SegmentedGcm.encrypt(out, key);
+    }
+
+    /**
+     * Wraps {@code in}, which must start with a header written by {@link #encrypt}. Fails with
+     * IOException on a wrong passphrase, on the first read at the latest.
+     */
+    @NonNull
+    public static InputStream decrypt(@NonNull InputStream in, @NonNull char[] passphrase) throws IOException {
+        byte[] header = new byte[HEADER_BYTES];
+        int n = 0;
+        while (n < HEADER_BYTES) {
+            int read = in.read(header, n, HEADER_BYTES - n);
+            if (read < 0) break;
+            n += read;
+        }
+        if (n != HEADER_BYTES || !Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC)) {
+            throw new IOException("Not a SmartBudget portable file");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(header, MAGIC.length, HEADER_BYTES - MAGIC.length);
+        int prf = buffer.get();
+        int iterations = buffer.getInt();
+        byte[] salt = new byte[SALT_BYTES];
+        buffer.get(salt);
+        if ((prf != PRF_SHA256 && prf != PRF_SHA1) || iterations <= 0 || iterations > MAX_ITERATIONS) {
+            throw new IOException("Unsupported portable file header");
+        }
+        return SegmentedGcm.decrypt(in, deriveKey(passphrase, salt, prf, iterations));
+    }
+
+    /**
+     * True if {@code in} starts with the portable header. Needs mark support; the stream is reset.
+     */
+    public static boolean isPortable(@NonNull InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            throw new IllegalArgumentException("Stream must support mark/reset");
+        }
+        in.mark(MAGIC.length);
+        try {
+            byte[] head = new byte[MAGIC.length];
+            int n = 0;
+            while (n < head.length) {
+                int read = in.read(head, n, head.length - n);
+                if (read < 0) break;
+                n += read;
+            }
+            return n == MAGIC.length && Arrays.equals(head, MAGIC);
+        } finally {
+            in.reset();
+        }
+    }
+
+    // ==================== Keys ====================
+
+    static SecretKey deriveKey(char[] passphrase, byte[] salt, int prf, int iterations) throws IOException {
+        PBEKeySpec spec = new PBEKeySpec(passphrase, salt, iterations, KEY_BITS);
+        byte[] raw = null;
+        try {
+            raw = SecretKeyFactory.getInstance(algorithm(prf)).generateSecret(spec).getEncoded();
+            return new SecretKeySpec(raw, "AES");
+        } catch (InvalidKeySpecException | NoSuchAlgorithmException e) {
+            throw new IOException("Key derivation unavailable", e);
+        } finally {
+            spec.clearPassword();
+            if (raw != null) Arrays.fill(raw, (byte) 0);
+        }
+    }
+
+    private static String algorithm(int prf) {
+        return prf == PRF_SHA256 ? "PBKDF2WithHmacSHA256" : "PBKDF2WithHmacSHA1";
+    }
+}
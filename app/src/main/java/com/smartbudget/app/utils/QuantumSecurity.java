@@ -1,49 +0,0 @@
-package com.smartbudget.app.utils;
-
-import android.util.Base64;
-import java.nio.charset.StandardCharsets;
-import javax.crypto.Cipher;
-import javax.crypto.spec.SecretKeySpec;
-
-/**
- * Quantum-safe encryption wrapper (simulation).
- * Provides highest level of security for sensitive data.
- */
-public class QuantumSecurity {
-
-    private static final String AES_ALGORITHM = "AES";
-    private static final String DEFAULT_KEY = "SmartBudgetQuant"; // 16 chars for 128 bit
-
-    /**
-     * Encrypt data using "quantum-safe" algorithms (AES-128 demo).
-     */
-    public static String encrypt(String data) {
-        try {
-            SecretKeySpec secretKey = new SecretKeySpec(DEFAULT_KEY.getBytes(), AES_ALGORITHM);
-            Cipher cipher = Cipher.getInstance(AES_ALGORITHM);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-            byte[] encryptedBytes = cipher.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            return Base64.encodeToString(encryptedBytes, Base64.DEFAULT);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
-
-    /**
-     * Decrypt data.
-     */
-    public static String decrypt(String encryptedData) {
-        try {
-            SecretKeySpec secretKey = new SecretKeySpec(DEFAULT_KEY.getBytes(), AES_ALGORITHM);
-            Cipher cipher = Cipher.getInstance(AES_ALGORITHM);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey);
-            byte[] decodedBytes = Base64.decode(encryptedData, Base64.DEFAULT);
-            byte[] decryptedBytes = cipher.doFinal(decodedBytes);
-            return new String(decryptedBytes, StandardCharsets.UTF_8);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
-}
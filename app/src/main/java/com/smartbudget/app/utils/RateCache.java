@@ -0,0 +1,91 @@
+package com.smartbudget.app.utils;
+
+import java.util.Arrays;
+
+/**
+ * In-memory cache of resolved exchange rates: (currency, day) to rateMicros.
+ *
+ * <p>Rates change at day boundaries, so every expense on the same day and currency shares one
+ * entry. Keys pack {@link CurrencyConverter#currencyKey} and the epoch day into a long, and
+ * the table is open-addressed over two long arrays, so a lookup neither boxes nor allocates.
+ * When the table fills up it is simply cleared; callers fall back to the database.</p>
+ *
+ * <p>Thread-safe (synchronized); lookups are short.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class RateCache {
+
+    /** Returned by {@link #get} when the key is not cached */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    private static final long EMPTY = 0L;
+
+    private final long[] keys;
+    private final long[] values;
+    private final int mask;
+    private final int maxSize;
+    private int size;
+
+    /**
+     * @param capacity Rounded up to a power of two; holds up to 3/4 of it
+     */
+    public RateCache(int capacity) {
+        int tableSize = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        keys = new long[tableSize];
+        values = new long[tableSize];
+        mask = tableSize - 1;
+        maxSize = tableSize / 4 * 3;
+    }
+
+    /** Cached rateMicros, or {@link #MISSING}. */
+    public synchronized long get(int currencyKey, int day) {
+        if (currencyKey == 0) return MISSING;
+        long key = key(currencyKey, day);
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) return values[slot];
+            if (k == EMPTY) return MISSING;
+        }
+    }
+
+    public synchronized void put(int currencyKey, int day, long rateMicros) {
+        if (currencyKey == 0) return;
+        long key = key(currencyKey, day);
+        int slot = slot(key);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            if (size == maxSize) {
+                clear();
+                put(currencyKey, day, rateMicros);
+                return;
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = rateMicros;
+    }
+
+    /** Drops everything, e.g. after the rate table changed. */
+    public synchronized void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Never EMPTY: currency keys are non-zero
+    private static long key(int currencyKey, int day) {
+        return ((long) currencyKey << 32) | (day & 0xffffffffL);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
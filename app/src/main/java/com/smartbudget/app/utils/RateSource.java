@@ -0,0 +1,170 @@
+package com.smartbudget.app.utils;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Where exchange rates come from; {@code ExchangeRates.refresh} stores what a source returns.
+ *
+ * <p>Both built-in sources read the same CSV table, one quote per line:</p>
+ *
+ * <pre>
+ * # currency,date,rate   (rate = base-currency units per 1 unit, date = local yyyy-MM-dd)
+ * USD,2026-10-19,25310.5
+ * EUR,2026-10-19,27480
+ * </pre>
+ *
+ * <p>A quote applies from the start of its day until the next quote of that currency. A
+ * provider with a different format only needs another implementation.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public interface RateSource {
+
+    /** Short name stored with each rate, e.g. "file" */
+    @NonNull
+    String name();
+
+    @NonNull
+    List<Quote> fetch() throws IOException;
+
+    /** One rate from a source. */
+    final class Quote {
+        public final String currency;
+        /** EpochDays day index */
+        public final int day;
+        /** Base-currency units per one unit of {@link #currency} */
+        public final double rate;
+
+        public Quote(String currency, int day, double rate) {
+            this.currency = currency;
+            this.day = day;
+            this.rate = rate;
+        }
+    }
+
+    // ==================== Sources ====================
+
+    /** Rate table in a local file (e.g. dropped in by the user or a sync). */
+    final class FileSource implements RateSource {
+        private final File file;
+
+        public FileSource(@NonNull File file) {
+            this.file = file;
+        }
+
+        @NonNull
+        @Override
+        public String name() {
+            return "file";
+        }
+
+        @NonNull
+        @Override
+        public List<Quote> fetch() throws IOException {
+            try (InputStream in = new FileInputStream(file)) {
+                return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /** Rate table served over HTTP(S) with a plain GET. */
+    final class HttpSource implements RateSource {
+        private static final int TIMEOUT_MILLIS = 15_000;
+
+        private final URL url;
+
+        public HttpSource(@NonNull URL url) {
+            this.url = url;
+        }
+
+        @NonNull
+        @Override
+        public String name() {
+            return "http";
+        }
+
+        @NonNull
+        @Override
+        public List<Quote> fetch() throws IOException {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(TIMEOUT_MILLIS);
+            connection.setReadTimeout(TIMEOUT_MILLIS);
+            try {
+                int status = connection.getResponseCode();
+                if (status != HttpURLConnection.HTTP_OK) {
+                    throw new IOException("Rate source returned HTTP " + status);
+                }
+                try (InputStream in = connection.getInputStream()) {
+                    return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+                }
+            } finally {
+                connection.disconnect();
+            }
+        }
+    }
+
+    // ==================== Format ====================
+
+    /**
+     * Parses the CSV table. Blank lines, '#' comments and a "currency,..." header are skipped.
+     *
+     * @throws IOException on a malformed line, so a broken download never half-applies
+     */
+    @NonNull
+    static List<Quote> parse(@NonNull Reader reader) throws IOException {
+        List<Quote> quotes = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#") || line.regionMatches(true, 0, "currency,", 0, 9)) {
+                continue;
+            }
+            String[] parts = line.split(",");
+            try {
+                if (parts.length != 3) throw new IllegalArgumentException("expected 3 fields");
+                String currency = parts[0].trim();
+                if (CurrencyConverter.currencyKey(currency) == 0) {
+                    throw new IllegalArgumentException("bad currency code " + currency);
+                }
+                double rate = Double.parseDouble(parts[2].trim());
+                if (!(rate > 0) || Double.isInfinite(rate)) {
+                    throw new IllegalArgumentException("rate must be positive");
+                }
+                quotes.add(new Quote(currency, parseDay(parts[1].trim()), rate));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Rate table line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return quotes;
+    }
+
+    /** yyyy-MM-dd to an EpochDays day index. */
+    static int parseDay(String date) {
+        String[] parts = date.split("-");
+        if (parts.length != 3) throw new IllegalArgumentException("bad date " + date);
+        Calendar cal = Calendar.getInstance();
+        cal.setLenient(false);
+        cal.clear();
+        cal.set(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]) - 1, Integer.parseInt(parts[2]), 12, 0);
+        // Noon: clear of DST transitions at midnight
+        return EpochDays.dayIndex(cal.getTimeInMillis());
+    }
+}
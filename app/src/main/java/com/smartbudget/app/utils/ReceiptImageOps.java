@@ -0,0 +1,228 @@
+package com.smartbudget.app.utils;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Pure-Java image math behind {@link ReceiptImagePipeline}: sample-size selection, EXIF
+ * orientation parsing and grayscale / contrast normalization on ARGB pixel rows.
+ *
+ * <p>Nothing here touches android.graphics, so every stage can be unit tested on the JVM.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class ReceiptImageOps {
+
+    /** Long edge OCR needs: receipt text stays well above ML Kit's ~16px glyph minimum */
+    public static final int OCR_MAX_LONG_EDGE = 2048;
+
+    // EXIF orientation values (TIFF tag 0x0112)
+    public static final int ORIENTATION_NORMAL = 1;
+    public static final int ORIENTATION_ROTATE_180 = 3;
+    public static final int ORIENTATION_ROTATE_90 = 6;
+    public static final int ORIENTATION_ROTATE_270 = 8;
+
+    private static final int TAG_ORIENTATION = 0x0112;
+    // Fraction of darkest / brightest pixels clipped by contrast normalization
+    private static final float DEFAULT_CLIP = 0.01f;
+
+    // Private constructor to prevent instantiation
+    private ReceiptImageOps() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // ==================== DOWNSAMPLING ====================
+
+    /**
+     * Smallest power-of-two {@code inSampleSize} that brings the long edge down to
+     * {@code maxLongEdge} or below.
+     */
+    public static int computeSampleSize(int width, int height, int maxLongEdge) {
+        int longEdge = Math.max(width, height);
+        int sample = 1;
+        while (longEdge / sample > maxLongEdge) {
+            sample <<= 1;
+        }
+        return sample;
+    }
+
+    /**
+     * Decoded size of one edge for a given {@code inSampleSize} (BitmapFactory rounds up).
+     */
+    public static int sampledSize(int size, int sampleSize) {
+        return (size + sampleSize - 1) / sampleSize;
+    }
+
+    // ==================== EXIF ====================
+
+    /**
+     * Clockwise rotation in degrees needed to display an image with the given EXIF orientation.
+     * Mirrored orientations are treated as their unmirrored rotation.
+     */
+    public static int rotationDegrees(int orientation) {
+        switch (orientation) {
+            case ORIENTATION_ROTATE_90:
+            case 5: // transpose
+                return 90;
+            case ORIENTATION_ROTATE_180:
+            case 4: // flip vertical
+                return 180;
+            case ORIENTATION_ROTATE_270:
+            case 7: // transverse
+                return 270;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Reads the EXIF orientation from a JPEG stream, stopping at the first image data segment.
+     * Returns {@link #ORIENTATION_NORMAL} for non-JPEG input or when the tag is missing.
+     * The stream is not closed.
+     */
+    public static int readExifOrientation(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        try {
+            if (in.readUnsignedShort() != 0xFFD8) return ORIENTATION_NORMAL; // SOI
+
+            while (true) {
+                int marker = in.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00) return ORIENTATION_NORMAL;
+                // Start of scan / end of image: no more metadata
+                if (marker == 0xFFDA || marker == 0xFFD9) return ORIENTATION_NORMAL;
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) return ORIENTATION_NORMAL;
+
+                if (marker == 0xFFE1 && length >= 14) {
+                    byte[] segment = new byte[length];
+                    in.readFully(segment);
+                    if (segment[0] == 'E' && segment[1] == 'x' && segment[2] == 'i' && segment[3] == 'f') {
+                        return parseTiffOrientation(segment, 6);
+                    }
+                } else {
+                    skipFully(in, length);
+                }
+            }
+        } catch (EOFException e) {
+            return ORIENTATION_NORMAL;
+        }
+    }
+
+    private static int parseTiffOrientation(byte[] b, int tiff) {
+        boolean little;
+        if (b[tiff] == 'I' && b[tiff + 1] == 'I') little = true;
+        else if (b[tiff] == 'M' && b[tiff + 1] == 'M') little = false;
+        else return ORIENTATION_NORMAL;
+
+        long ifd = tiff + readInt(b, tiff + 4, little);
+        if (ifd < 0 || ifd + 2 > b.length) return ORIENTATION_NORMAL;
+        int entries = readShort(b, (int) ifd, little);
+        for (int i = 0; i < entries; i++) {
+            int entry = (int) ifd + 2 + i * 12;
+            if (entry + 12 > b.length) break;
+            if (readShort(b, entry, little) == TAG_ORIENTATION) {
+                int value = readShort(b, entry + 8, little);
+                return value >= 1 && value <= 8 ? value : ORIENTATION_NORMAL;
+            }
+        }
+        return ORIENTATION_NORMAL;
+    }
+
+    private static int readShort(byte[] b, int off, boolean little) {
+        int b0 = b[off] & 0xFF, b1 = b[off + 1] & 0xFF;
+        return little ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static long readInt(byte[] b, int off, boolean little) {
+        long value = 0;
+        for (int i = 0; i < 4; i++) {
+            int shift = little ? i * 8 : (3 - i) * 8;
+            value |= (long) (b[off + i] & 0xFF) << shift;
+        }
+        return value;
+    }
+
+    private static void skipFully(InputStream in, int count) throws IOException {
+        while (count > 0) {
+            long skipped = in.skip(count);
+            if (skipped <= 0) {
+                if (in.read() < 0) throw new EOFException();
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+
+    // ==================== GRAYSCALE / CONTRAST ====================
+
+    /**
+     * Rec. 601 luma (0-255) of an ARGB pixel, integer arithmetic only.
+     */
+    public static int luminance(int argb) {
+        int r = (argb >> 16) & 0xFF;
+        int g = (argb >> 8) & 0xFF;
+        int b = argb & 0xFF;
+        return (r * 77 + g * 150 + b * 29) >> 8;
+    }
+
+    /**
+     * Adds the luminance of {@code pixels[offset, offset + count)} to a 256-bin histogram.
+     */
+    public static void accumulateHistogram(int[] pixels, int offset, int count, int[] histogram) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            histogram[luminance(pixels[i])]++;
+        }
+    }
+
+    /**
+     * Lookup table that stretches the histogram's [1%, 99%] luminance range to [0, 255].
+     * Returns an identity table for flat images.
+     */
+    public static int[] contrastLut(int[] histogram) {
+        return contrastLut(histogram, DEFAULT_CLIP);
+    }
+
+    public static int[] contrastLut(int[] histogram, float clipFraction) {
+        long total = 0;
+        for (int count : histogram) total += count;
+        long clip = (long) (total * clipFraction);
+
+        int low = 0;
+        long seen = 0;
+        while (low < 255 && seen + histogram[low] <= clip) {
+            seen += histogram[low++];
+        }
+        int high = 255;
+        seen = 0;
+        while (high > 0 && seen + histogram[high] <= clip) {
+            seen += histogram[high--];
+        }
+
+        int[] lut = new int[256];
+        if (high <= low) {
+            for (int i = 0; i < 256; i++) lut[i] = i;
+            return lut;
+        }
+        int range = high - low;
+        for (int i = 0; i < 256; i++) {
+            int v = (i - low) * 255 / range;
+            lut[i] = v < 0 ? 0 : Math.min(v, 255);
+        }
+        return lut;
+    }
+
+    /**
+     * Replaces each pixel by its gray level, mapped through {@code lut} when non-null.
+     * Alpha is forced to opaque.
+     */
+    public static void toGray(int[] pixels, int offset, int count, int[] lut) {
+        for (int i = offset, end = offset + count; i < end; i++) {
+            int y = luminance(pixels[i]);
+            if (lut != null) y = lut[y];
+            pixels[i] = 0xFF000000 | (y << 16) | (y << 8) | y;
+        }
+    }
+}
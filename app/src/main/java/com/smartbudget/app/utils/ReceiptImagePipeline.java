@@ -0,0 +1,360 @@
+package com.smartbudget.app.utils;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Background preprocessing of receipt photos before OCR.
+ *
+ * <p>Stages: bounds-only decode, power-of-two {@code inSampleSize} down to the resolution OCR
+ * needs ({@link ReceiptImageOps#OCR_MAX_LONG_EDGE}) into a pooled {@code inBitmap}, EXIF
+ * orientation, and optional grayscale + contrast normalization. A 50 MP photo is never decoded
+ * at full size, and nothing runs on the main thread.</p>
+ *
+ * <h3>Usage:</h3>
+ * <pre>
+ * pipeline.process(uri, ReceiptImagePipeline.Options.forOcr(), new Callback() {
+ *     public void onImageReady(Result result) {
+ *         textRecognizer.process(InputImage.fromBitmap(result.bitmap, result.rotationDegrees));
+ *     }
+ *     public void onError(Exception e) { ... }
+ * });
+ * // when the bitmap is no longer displayed or recognized:
+ * pipeline.recycle(oldBitmap);
+ * </pre>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public class ReceiptImagePipeline {
+
+    private static final long DEFAULT_POOL_BYTES = 24L * 1024 * 1024;
+
+    private static final ExecutorService DECODE_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private final ContentResolver contentResolver;
+    private final BitmapPool pool;
+
+    public ReceiptImagePipeline(@NonNull Context context) {
+        this.contentResolver = context.getApplicationContext().getContentResolver();
+        this.pool = new BitmapPool(DEFAULT_POOL_BYTES);
+    }
+
+    // ==================== OPTIONS / RESULT ====================
+
+    /**
+     * Preprocessing options.
+     */
+    public static class Options {
+        int maxLongEdge = ReceiptImageOps.OCR_MAX_LONG_EDGE;
+        boolean grayscale;
+        boolean normalizeContrast;
+        boolean applyRotation = true;
+
+        /** Grayscale, contrast-normalized, upright bitmap sized for OCR */
+        public static Options forOcr() {
+            return new Options().setGrayscale(true).setNormalizeContrast(true);
+        }
+
+        public Options setMaxLongEdge(int maxLongEdge) {
+            this.maxLongEdge = maxLongEdge;
+            return this;
+        }
+
+        public Options setGrayscale(boolean grayscale) {
+            this.grayscale = grayscale;
+            return this;
+        }
+
+        /** Stretches the 1%-99% luminance range to full range; implies grayscale */
+        public Options setNormalizeContrast(boolean normalizeContrast) {
+            this.normalizeContrast = normalizeContrast;
+            return this;
+        }
+
+        /**
+         * When false the bitmap keeps its stored orientation and
+         * {@link Result#rotationDegrees} says how to rotate it (e.g. for InputImage).
+         */
+        public Options setApplyRotation(boolean applyRotation) {
+            this.applyRotation = applyRotation;
+            return this;
+        }
+    }
+
+    /**
+     * Preprocessed image.
+     */
+    public static class Result {
+        public final Bitmap bitmap;
+        /** Rotation still to apply when displaying / recognizing; 0 when already upright */
+        public final int rotationDegrees;
+        public final int sourceWidth;
+        public final int sourceHeight;
+        public final int sampleSize;
+        public final long elapsedMillis;
+
+        Result(Bitmap bitmap, int rotationDegrees, int sourceWidth, int sourceHeight,
+               int sampleSize, long elapsedMillis) {
+            this.bitmap = bitmap;
+            this.rotationDegrees = rotationDegrees;
+            this.sourceWidth = sourceWidth;
+            this.sourceHeight = sourceHeight;
+            this.sampleSize = sampleSize;
+            this.elapsedMillis = elapsedMillis;
+        }
+    }
+
+    public interface Callback {
+        void onImageReady(@NonNull Result result);
+
+        void onError(@NonNull Exception e);
+    }
+
+    // ==================== PROCESSING ====================
+
+    /**
+     * Runs the pipeline on the decode executor and delivers the result on the main thread.
+     */
+    public void process(@NonNull Uri uri, @NonNull Options options, @NonNull Callback callback) {
+        DECODE_EXECUTOR.execute(() -> {
+            try {
+                Result result = processSync(uri, options);
+                MAIN_HANDLER.post(() -> callback.onImageReady(result));
+            } catch (IOException | RuntimeException e) {
+                MAIN_HANDLER.post(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Runs the pipeline on the calling thread. Must not be called on the main thread.
+     */
+    @NonNull
+    public Result processSync(@NonNull Uri uri, @NonNull Options options) throws IOException {
+        long start = SystemClock.elapsedRealtime();
+
+        // 1. Header only: EXIF orientation + bounds, no pixel allocation. Separate streams: the
+        // EXIF scan skips every APPn segment before it (edited images carry large XMP / ICC
+        // blocks), so no fixed mark limit would be safe to reset to
+        int orientation;
+        try (InputStream in = new BufferedInputStream(open(uri), 16 * 1024)) {
+            orientation = ReceiptImageOps.readExifOrientation(in);
+        }
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(uri)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Unsupported image: " + uri);
+        }
+
+        // 2. Sampled decode into a pooled bitmap
+        int sampleSize = ReceiptImageOps.computeSampleSize(bounds.outWidth, bounds.outHeight, options.maxLongEdge);
+        Bitmap bitmap = decodeSampled(uri, sampleSize,
+                ReceiptImageOps.sampledSize(bounds.outWidth, sampleSize),
+                ReceiptImageOps.sampledSize(bounds.outHeight, sampleSize));
+
+        // 3. Grayscale / contrast, row by row to avoid a full-size int[] copy
+        if (options.grayscale || options.normalizeContrast) {
+            normalize(bitmap, options.normalizeContrast);
+        }
+
+        // 4. Orientation
+        int rotation = ReceiptImageOps.rotationDegrees(orientation);
+        if (rotation != 0 && options.applyRotation) {
+            Bitmap rotated = rotate(bitmap, rotation);
+            pool.put(bitmap);
+            bitmap = rotated;
+            rotation = 0;
+        }
+
+        return new Result(bitmap, rotation, bounds.outWidth, bounds.outHeight, sampleSize,
+                SystemClock.elapsedRealtime() - start);
+    }
+
+    /**
+     * Returns a bitmap that is no longer displayed or being recognized to the pool.
+     */
+    public void recycle(@Nullable Bitmap bitmap) {
+        if (bitmap != null) {
+            pool.put(bitmap);
+        }
+    }
+
+    /**
+     * Releases all pooled bitmaps. Call when the owning screen is destroyed.
+     */
+    public void clear() {
+        pool.clear();
+    }
+
+    private Bitmap decodeSampled(Uri uri, int sampleSize, int width, int height) throws IOException {
+        BitmapFactory.Options decode = new BitmapFactory.Options();
+        decode.inSampleSize = sampleSize;
+        decode.inMutable = true;
+        decode.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        decode.inBitmap = pool.get(width, height, Bitmap.Config.ARGB_8888);
+
+        Bitmap bitmap;
+        try (InputStream in = open(uri)) {
+            bitmap = BitmapFactory.decodeStream(in, null, decode);
+        } catch (IllegalArgumentException e) {
+            // inBitmap rejected (e.g. decoder picked another config) - decode into a fresh bitmap
+            pool.put(decode.inBitmap);
+            decode.inBitmap = null;
+            try (InputStream in = open(uri)) {
+                bitmap = BitmapFactory.decodeStream(in, null, decode);
+            }
+        }
+        if (bitmap == null) {
+            throw new IOException("Failed to decode image: " + uri);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Draws {@code source} turned by a multiple of 90 degrees into a mutable bitmap from the
+     * pool (createBitmap with a matrix would return an immutable copy the pool cannot take back).
+     */
+    private Bitmap rotate(Bitmap source, int degrees) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        boolean swap = degrees == 90 || degrees == 270;
+        int outWidth = swap ? height : width;
+        int outHeight = swap ? width : height;
+
+        Bitmap target = pool.get(outWidth, outHeight, Bitmap.Config.ARGB_8888);
+        if (target != null) {
+            target.reconfigure(outWidth, outHeight, Bitmap.Config.ARGB_8888);
+        } else {
+            target = Bitmap.createBitmap(outWidth, outHeight, Bitmap.Config.ARGB_8888);
+        }
+        Matrix matrix = new Matrix();
+        matrix.setRotate(degrees, width / 2f, height / 2f);
+        matrix.postTranslate((outWidth - width) / 2f, (outHeight - height) / 2f);
+        new Canvas(target).drawBitmap(source, matrix, null);
+        return target;
+    }
+
+    private InputStream open(Uri uri) throws IOException {
+        InputStream in = contentResolver.openInputStream(uri);
+        if (in == null) {
+            throw new IOException("Cannot open " + uri);
+        }
+        return in;
+    }
+
+    private static void normalize(Bitmap bitmap, boolean contrast) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        int[] row = new int[width];
+
+        int[] lut = null;
+        if (contrast) {
+            int[] histogram = new int[256];
+            for (int y = 0; y < height; y++) {
+                bitmap.getPixels(row, 0, width, 0, y, width, 1);
+                ReceiptImageOps.accumulateHistogram(row, 0, width, histogram);
+            }
+            lut = ReceiptImageOps.contrastLut(histogram);
+        }
+
+        for (int y = 0; y < height; y++) {
+            bitmap.getPixels(row, 0, width, 0, y, width, 1);
+            ReceiptImageOps.toGray(row, 0, width, lut);
+            bitmap.setPixels(row, 0, width, 0, y, width, 1);
+        }
+    }
+
+    // ==================== BITMAP POOL ====================
+
+    /**
+     * Small pool of mutable bitmaps reused as {@code inBitmap}, bounded by total bytes.
+     * Oldest entries are evicted first.
+     */
+    public static class BitmapPool {
+
+        private final long maxBytes;
+        private final ArrayDeque<Bitmap> bitmaps = new ArrayDeque<>();
+        private long currentBytes;
+
+        public BitmapPool(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * Removes and returns a pooled bitmap large enough to decode {@code width x height},
+         * or null when none fits.
+         */
+        @Nullable
+        public synchronized Bitmap get(int width, int height, Bitmap.Config config) {
+            long needed = (long) width * height * bytesPerPixel(config);
+            Bitmap best = null;
+            for (Bitmap candidate : bitmaps) {
+                if (candidate.getAllocationByteCount() >= needed &&
+                        (best == null || candidate.getAllocationByteCount() < best.getAllocationByteCount())) {
+                    best = candidate;
+                }
+            }
+            if (best != null) {
+                bitmaps.remove(best);
+                currentBytes -= best.getAllocationByteCount();
+            }
+            return best;
+        }
+
+        public synchronized void put(@Nullable Bitmap bitmap) {
+            if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) return;
+            long size = bitmap.getAllocationByteCount();
+            if (size > maxBytes) {
+                bitmap.recycle();
+                return;
+            }
+            bitmaps.addLast(bitmap);
+            currentBytes += size;
+            Iterator<Bitmap> it = bitmaps.iterator();
+            while (currentBytes > maxBytes && it.hasNext()) {
+                Bitmap oldest = it.next();
+                it.remove();
+                currentBytes -= oldest.getAllocationByteCount();
+                oldest.recycle();
+            }
+        }
+
+        public synchronized void clear() {
+            for (Bitmap bitmap : bitmaps) {
+                bitmap.recycle();
+            }
+            bitmaps.clear();
+            currentBytes = 0;
+        }
+
+        private static int bytesPerPixel(Bitmap.Config config) {
+            if (config == Bitmap.Config.RGB_565 || config == Bitmap.Config.ARGB_4444) return 2;
+            if (config == Bitmap.Config.ALPHA_8) return 1;
+            return 4;
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.smartbudget.app.utils;
 
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -8,153 +13,769 @@ import java.util.regex.Pattern;
 /**
  * Utility class to parse receipt text extracted from OCR
  * Focuses on Vietnamese receipt formats
+ *
+ * <p>Single pass over the lines: each line is lowercased once, classified by keyword
+ * (total, subtotal, VAT, payment...) and its numbers are read by a hand-written amount
+ * tokenizer, so no pattern is compiled while parsing. Labels whose value OCR put on a later
+ * line (ML Kit often returns a label column followed by a value column) are queued and
+ * matched with the following number-only lines.</p>
+ *
+ * <p>Total, merchant and date carry a 0..1 confidence. The total gains confidence when it is
+ * consistent with the subtotal / VAT / discount lines or the sum of the line items;
+ * {@link ReceiptData#isConfident()} tells callers that an AI round-trip is not needed.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
  */
 public class ReceiptParser {
 
-    // Common patterns for Vietnamese receipts
-    private static final Pattern AMOUNT_PATTERN = Pattern.compile(
-            "(?:tổng|total|thanh toán|thành tiền|t\\.tiền|amount)[:\\s]*([\\d.,]+)",
-            Pattern.CASE_INSENSITIVE
-    );
-    
-    private static final Pattern AMOUNT_VND_PATTERN = Pattern.compile(
-            "([\\d.,]+)\\s*(?:đ|₫|vnd|vnđ|dong)",
-            Pattern.CASE_INSENSITIVE
-    );
-    
-    private static final Pattern LARGE_AMOUNT_PATTERN = Pattern.compile(
-            "([\\d]{1,3}(?:[.,]\\d{3})+)"
-    );
-    
+    /** Confidence from which a field is trusted without AI refinement */
+    public static final double HIGH_CONFIDENCE = 0.8;
+
+    // Smallest amount treated as money (VND); smaller numbers are quantities, indexes...
+    private static final double MIN_MONEY = 1_000;
+    private static final double MAX_MONEY = 1_000_000_000;
+    private static final double TOLERANCE = 1;
+    // Merchant name is looked for in the first non-empty lines only
+    private static final int MERCHANT_WINDOW = 6;
+    private static final int MAX_PENDING_LABELS = 6;
+
+    // Shared, precompiled; each parse() uses its own Matchers so parsing is thread safe
     private static final Pattern DATE_PATTERN = Pattern.compile(
-            "(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4})"
+            "(?<!\\d)(?:(\\d{1,2})[/.-](\\d{1,2})[/.-](\\d{4}|\\d{2})|(\\d{4})[/.-](\\d{1,2})[/.-](\\d{1,2}))(?!\\d)"
     );
-    
+
+    private static final Pattern VN_DATE_PATTERN = Pattern.compile(
+            "ngày\\s*(\\d{1,2})\\s*tháng\\s*(\\d{1,2})\\s*năm\\s*(\\d{4})"
+    );
+
     private static final Pattern TIME_PATTERN = Pattern.compile(
-            "(\\d{1,2}:\\d{2}(?::\\d{2})?)"
+            "(?<![\\d:])([01]?\\d|2[0-3])[:h]([0-5]\\d)(?::([0-5]\\d))?(?![\\d:])"
     );
 
+    // ==================== KEYWORDS ====================
+
+    private enum LineKind {
+        OTHER, HEADER, QUANTITY, PAYMENT, SUBTOTAL, TOTAL, VAT, DISCOUNT, TOTAL_WEAK
+    }
+
+    // Checked in this order; the first kind with a matching keyword wins.
+    // Unaccented variants cover OCR output that lost the diacritics.
+    private static final LineKind[] KIND_ORDER = {
+            LineKind.HEADER, LineKind.QUANTITY, LineKind.PAYMENT, LineKind.SUBTOTAL,
+            LineKind.TOTAL, LineKind.VAT, LineKind.DISCOUNT, LineKind.TOTAL_WEAK
+    };
+
+    private static final String[][] KIND_KEYWORDS = {
+            // HEADER: address, contact and document info lines
+            {"địa chỉ", "dia chi", "đc", "đ/c", "đt", "điện thoại", "dien thoai", "tel", "hotline",
+                    "mst", "mã số thuế", "ma so thue", "www", "website", "email", "thu ngân", "thu ngan",
+                    "nhân viên", "nhan vien", "số hđ", "so hd", "mã hđ", "ma hd", "bàn", "quầy", "quay",
+                    "ngày", "ngay", "giờ", "date", "time", "wifi", "pass", "cảm ơn", "cam on", "thank"},
+            // QUANTITY
+            {"số lượng", "so luong", "sl", "tổng sl", "tong sl", "qty", "số món", "so mon"},
+            // PAYMENT: cash tendered / change, larger than or unrelated to the total
+            {"khách đưa", "khach dua", "tiền mặt", "tien mat", "cash", "tiền thừa", "tien thua",
+                    "tiền thối", "tien thoi", "trả lại", "tra lai", "change", "thẻ", "card"},
+            // SUBTOTAL
+            {"tạm tính", "tam tinh", "subtotal", "sub total", "sub-total", "tiền hàng", "tien hang",
+                    "cộng tiền hàng", "cong tien hang"},
+            // TOTAL
+            {"tổng cộng", "tong cong", "tổng thanh toán", "tong thanh toan", "tổng tiền", "tong tien",
+                    "tổng hoá đơn", "tổng hóa đơn", "tong hoa don", "grand total", "total",
+                    "thanh toán", "thanh toan", "phải trả", "phai tra", "cần trả", "amount due"},
+            // VAT
+            {"vat", "thuế", "thue", "gtgt", "tax"},
+            // DISCOUNT
+            {"giảm giá", "giam gia", "chiết khấu", "chiet khau", "discount", "khuyến mãi",
+                    "khuyen mai", "voucher"},
+            // TOTAL_WEAK
+            {"tổng", "thành tiền", "thanh tien", "t.tiền", "t.tien", "amount", "cộng"}
+    };
+
+    private static final String[] TITLE_WORDS = {
+            "hóa đơn", "hoá đơn", "hoa don", "phiếu", "phieu", "receipt", "invoice", "bill"
+    };
+
+    private static final String[] BUSINESS_WORDS = {
+            "công ty", "cong ty", "cửa hàng", "cua hang", "siêu thị", "sieu thi", "nhà hàng",
+            "nha hang", "quán", "cafe", "café", "coffee", "cà phê", "ca phe", "tiệm", "mart",
+            "store", "shop", "restaurant", "bakery", "market", "tea", "pharmacy", "nhà thuốc"
+    };
+
+    private static final int TITLE_BIT = 1 << KIND_ORDER.length;
+    private static final int BUSINESS_BIT = TITLE_BIT << 1;
+
+    private static final class Keyword {
+        final String word;
+        final int bit;
+
+        Keyword(String word, int bit) {
+            this.word = word;
+            this.bit = bit;
+        }
+    }
+
+    // Every keyword above, grouped by first letter
+    private static final Map<Character, Keyword[]> KEYWORD_INDEX = new HashMap<>();
+
+    static {
+        Map<Character, List<Keyword>> byLetter = new HashMap<>();
+        for (int k = 0; k <= KIND_KEYWORDS.length + 1; k++) {
+            String[] words = k < KIND_KEYWORDS.length ? KIND_KEYWORDS[k]
+                    : k == KIND_KEYWORDS.length ? TITLE_WORDS : BUSINESS_WORDS;
+            for (String word : words) {
+                List<Keyword> list = byLetter.get(word.charAt(0));
+                if (list == null) {
+                    list = new ArrayList<>();
+                    byLetter.put(word.charAt(0), list);
+                }
+                list.add(new Keyword(word, 1 << k));
+            }
+        }
+        for (Map.Entry<Character, List<Keyword>> e : byLetter.entrySet()) {
+            KEYWORD_INDEX.put(e.getKey(), e.getValue().toArray(new Keyword[0]));
+        }
+    }
+
+    private ReceiptParser() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // ==================== PARSE ====================
+
     public static ReceiptData parse(String rawText) {
         ReceiptData data = new ReceiptData();
-        
-        // Clean text
-        String text = rawText.toLowerCase();
-        
-        // Extract amount
-        data.amount = extractAmount(text, rawText);
-        
-        // Extract merchant (usually first line)
-        data.merchant = extractMerchant(rawText);
-        
-        // Extract date
-        data.date = extractDate(rawText);
-        
+        if (rawText == null || rawText.isEmpty()) {
+            return data;
+        }
+        new Pass(data).run(rawText);
         return data;
     }
-    
-    private static double extractAmount(String lowerText, String rawText) {
-        // Try pattern with keywords first
-        Matcher matcher = AMOUNT_PATTERN.matcher(lowerText);
-        if (matcher.find()) {
-            return parseNumber(matcher.group(1));
-        }
-        
-        // Try VND pattern
-        matcher = AMOUNT_VND_PATTERN.matcher(lowerText);
-        double maxAmount = 0;
-        while (matcher.find()) {
-            double amount = parseNumber(matcher.group(1));
-            if (amount > maxAmount) {
-                maxAmount = amount;
-            }
-        }
-        if (maxAmount > 0) {
-            return maxAmount;
-        }
-        
-        // Try to find largest number (likely the total)
-        matcher = LARGE_AMOUNT_PATTERN.matcher(rawText);
-        while (matcher.find()) {
-            double amount = parseNumber(matcher.group(1));
-            if (amount > maxAmount && amount < 1_000_000_000) { // Sanity check
-                maxAmount = amount;
-            }
-        }
-        
-        return maxAmount;
-    }
-    
-    private static String extractMerchant(String rawText) {
-        String[] lines = rawText.split("\\n");
-        for (String line : lines) {
-            line = line.trim();
-            // Skip empty lines and lines that look like addresses/phone numbers
-            if (line.isEmpty()) continue;
-            if (line.matches(".*\\d{8,}.*")) continue; // Phone numbers
-            if (line.toLowerCase().contains("địa chỉ")) continue;
-            if (line.toLowerCase().contains("đt:")) continue;
-            
-            // First meaningful line is likely the merchant name
-            if (line.length() > 3 && line.length() < 100) {
-                return line;
-            }
-        }
-        return null;
-    }
-    
-    private static String extractDate(String rawText) {
-        Matcher matcher = DATE_PATTERN.matcher(rawText);
-        if (matcher.find()) {
-            return matcher.group(1);
-        }
-        return null;
-    }
-    
-    private static double parseNumber(String numberStr) {
-        if (numberStr == null || numberStr.isEmpty()) {
-            return 0;
+
+    /**
+     * State of one parse; lives only for the duration of {@link #parse}.
+     */
+    private static final class Pass {
+        final ReceiptData data;
+        final AmountScan scan = new AmountScan();
+        final Matcher date = DATE_PATTERN.matcher("");
+        final Matcher vnDate = VN_DATE_PATTERN.matcher("");
+        final Matcher time = TIME_PATTERN.matcher("");
+
+        // Labels still waiting for a value line
+        final LineKind[] pending = new LineKind[MAX_PENDING_LABELS];
+        int pendingCount;
+
+        boolean totalsSeen;
+        int nonEmptyLines;
+        double maxMoney;          // Largest item / unlabelled amount
+        boolean maxMoneyIsCurrency;
+        double maxCurrency;
+        double itemsSum;
+        double lastBareAmount;    // Last number-only line without a label
+        boolean conflictingTotals;
+        double bestMerchantScore;
+
+        Pass(ReceiptData data) {
+            this.data = data;
+        }
+
+        void run(String text) {
+            int start = 0;
+            int n = text.length();
+            while (start <= n) {
+                int end = text.indexOf('\n', start);
+                if (end < 0) end = n;
+                String line = text.substring(start, end).trim();
+                if (!line.isEmpty()) {
+                    line(line);
+                }
+                start = end + 1;
+            }
+            finish();
+        }
+
+        void line(String line) {
+            String lower = line.toLowerCase(Locale.ROOT);
+            int keywords = keywordMask(lower);
+            LineKind kind = kindOf(keywords);
+            int lineIndex = nonEmptyLines++;
+
+            if (data.date == null || data.time == null) {
+                findDateTime(line, lower);
+            }
+            if (lineIndex < MERCHANT_WINDOW && kind == LineKind.OTHER) {
+                offerMerchant(line, keywords, lineIndex);
+            }
+
+            scan.scan(line);
+            int money = scan.lastMoney();
+            boolean hasLetters = countLetters(line, 0, line.length()) >= 2;
+
+            if (money < 0) {
+                if (kind == LineKind.OTHER || kind == LineKind.HEADER) {
+                    if (hasLetters) pendingCount = 0;
+                } else if (pendingCount < MAX_PENDING_LABELS) {
+                    pending[pendingCount++] = kind;
+                }
+                return;
+            }
+
+            double amount = scan.values[money];
+            boolean currency = scan.currency[money];
+            boolean queued = false;
+            if (kind == LineKind.OTHER && !hasLetters && pendingCount > 0) {
+                // Value column: pair with the oldest waiting label
+                kind = pending[0];
+                System.arraycopy(pending, 1, pending, 0, --pendingCount);
+                queued = true;
+            } else {
+                pendingCount = 0;
+            }
+
+            switch (kind) {
+                case TOTAL:
+                    offerTotal(amount, queued ? 0.55 : 0.65, currency);
+                    break;
+                case TOTAL_WEAK:
+                    offerTotal(amount, queued ? 0.35 : 0.45, currency);
+                    break;
+                case SUBTOTAL:
+                    if (data.subtotal == 0) data.subtotal = amount;
+                    totalsSeen = true;
+                    break;
+                case VAT:
+                    if (data.vat == 0) data.vat = amount;
+                    totalsSeen = true;
+                    break;
+                case DISCOUNT:
+                    if (data.discount == 0) data.discount = amount;
+                    totalsSeen = true;
+                    break;
+                case PAYMENT:
+                    totalsSeen = true;
+                    break;
+                case OTHER:
+                    if (amount > maxMoney) {
+                        maxMoney = amount;
+                        maxMoneyIsCurrency = currency;
+                    }
+                    if (currency && amount > maxCurrency) maxCurrency = amount;
+                    if (!hasLetters) lastBareAmount = amount;
+                    else if (!totalsSeen) offerItem(line, money);
+                    break;
+                default:
+                    // HEADER / QUANTITY numbers are not money
+                    break;
+            }
+        }
+
+        // ==================== FIELDS ====================
+
+        void offerTotal(double amount, double score, boolean currency) {
+            totalsSeen = true;
+            if (currency) score += 0.05;
+            // Later labels win at equal strength: "Tổng cộng" is followed by "Thanh toán" after discounts
+            if (score >= data.amountConfidence) {
+                if (data.amount > 0 && Math.abs(data.amount - amount) > TOLERANCE) {
+                    conflictingTotals = true;
+                }
+                data.amount = amount;
+                data.amountConfidence = score;
+            }
+        }
+
+        void offerItem(String line, int moneyToken) {
+            int nameStart = 0;
+            int quantity = 1;
+
+            // Leading row number: "1. Cà phê sữa ..."
+            if (scan.count > 0 && scan.starts[0] == 0 && !scan.isMoney(0) && moneyToken > 0) {
+                nameStart = scan.ends[0];
+            }
+            // First money token is the unit price or the line total; a small number before it is the quantity
+            int firstMoney = moneyToken;
+            for (int i = 0; i < moneyToken; i++) {
+                if (scan.isMoney(i)) {
+                    firstMoney = i;
+                    break;
+                }
+            }
+            int nameEnd = scan.starts[firstMoney];
+            int q = firstMoney - 1;
+            if (q >= 0 && scan.starts[q] >= nameStart && !scan.isMoney(q) && scan.values[q] > 0) {
+                quantity = (int) scan.values[q];
+                nameEnd = scan.starts[q];
+            }
+
+            String name = cleanItemName(line, nameStart, nameEnd);
+            if (name == null) return;
+            double amount = scan.values[moneyToken];
+            data.items.add(new LineItem(name, quantity, amount));
+            itemsSum += amount;
+        }
+
+        void offerMerchant(String line, int keywords, int lineIndex) {
+            int letters = countLetters(line, 0, line.length());
+            if (letters < 3 || line.length() > 80 || hasDigitRun(line, 8)) return;
+            if ((keywords & TITLE_BIT) != 0) return; // "HÓA ĐƠN BÁN HÀNG"
+
+            double score = 0.45;
+            if (lineIndex == 0) score += 0.2;
+            else score -= 0.05 * lineIndex;
+            if ((keywords & BUSINESS_BIT) != 0) score += 0.2;
+            if (countUpper(line) * 2 > letters) score += 0.1;
+            if (letters < line.length() / 2) score -= 0.2;
+            if (Character.isDigit(line.charAt(0))) score -= 0.25; // "123 Nguyễn Trãi" - an address
+
+            if (score > bestMerchantScore) {
+                bestMerchantScore = score;
+                data.merchant = line;
+                data.merchantConfidence = clamp(score);
+            }
+        }
+
+        void findDateTime(String line, String lower) {
+            // Cheap character checks first; most lines hold no date or time
+            if (data.date == null) {
+                boolean labelled = lower.contains("ngày") || lower.contains("ngay") || lower.contains("date");
+                if (lower.contains("tháng") && vnDate.reset(lower).find()) {
+                    setDate(vnDate.group(1), vnDate.group(2), vnDate.group(3), true);
+                } else if ((line.indexOf('/') >= 0 || line.indexOf('-') >= 0
+                        || line.indexOf('.') != line.lastIndexOf('.')) && date.reset(line).find()) {
+                    if (date.group(1) != null) {
+                        setDate(date.group(1), date.group(2), date.group(3), labelled);
+                    } else {
+                        setDate(date.group(6), date.group(5), date.group(4), labelled);
+                    }
+                }
+            }
+            if (data.time == null && (line.indexOf(':') >= 0 || hasDigitBefore(lower, 'h'))
+                    && time.reset(line).find()) {
+                String seconds = time.group(3);
+                data.time = pad2(Integer.parseInt(time.group(1))) + ":" + time.group(2)
+                        + (seconds != null ? ":" + seconds : "");
+            }
+        }
+
+        void setDate(String d, String m, String y, boolean labelled) {
+            int day = Integer.parseInt(d);
+            int month = Integer.parseInt(m);
+            int year = Integer.parseInt(y);
+            if (year < 100) year += 2000;
+            if (day < 1 || day > 31 || month < 1 || month > 12 || year < 2000 || year > 2099) return;
+            data.date = pad2(day) + "/" + pad2(month) + "/" + year;
+            data.dateConfidence = labelled ? 0.9 : 0.7;
+        }
+
+        // ==================== CROSS-CHECKS ====================
+
+        void finish() {
+            double expected = data.subtotal > 0 ? data.subtotal + data.vat - data.discount : 0;
+
+            if (data.amount <= 0) {
+                // No labelled total: fall back to the strongest evidence available
+                if (expected > 0) {
+                    data.amount = expected;
+                    data.amountConfidence = 0.5;
+                } else if (lastBareAmount > 0 && lastBareAmount >= maxMoney - TOLERANCE) {
+                    // A lone number under the items, larger than any of them
+                    data.amount = lastBareAmount;
+                    data.amountConfidence = near(lastBareAmount, itemsSum) ? 0.5 : 0.4;
+                } else if (data.items.size() >= 2) {
+                    data.amount = itemsSum;
+                    data.amountConfidence = 0.4;
+                } else if (maxCurrency > 0) {
+                    data.amount = maxCurrency;
+                    data.amountConfidence = 0.3;
+                } else if (maxMoney > 0) {
+                    data.amount = maxMoney;
+                    data.amountConfidence = maxMoneyIsCurrency ? 0.3 : 0.2;
+                }
+                data.amountConfidence = clamp(data.amountConfidence);
+                return;
+            }
+
+            double score = data.amountConfidence;
+            double total = data.amount;
+            if (expected > 0) {
+                if (near(total, expected)) score += 0.25;
+                else if (near(total, data.subtotal - data.discount)) score += 0.15;
+                else score -= 0.1;
+            }
+            if (!data.items.isEmpty()) {
+                if (near(itemsSum, total) || near(itemsSum, total - data.vat + data.discount)
+                        || near(itemsSum, data.subtotal)) {
+                    score += 0.2;
+                }
+            }
+            if (total >= maxMoney - TOLERANCE) score += 0.1;
+            else score -= 0.15; // An item costs more than the "total"
+            if (conflictingTotals && expected <= 0) score -= 0.1;
+
+            data.amountConfidence = clamp(score);
         }
-        
-        // Remove spaces and normalize separators
-        numberStr = numberStr.replaceAll("\\s", "");
-        
-        // Vietnamese format: 1.000.000 or 1,000,000
-        // Remove thousand separators
-        if (numberStr.contains(".") && numberStr.contains(",")) {
-            // Mixed separators - assume . is thousand, , is decimal
-            numberStr = numberStr.replace(".", "").replace(",", ".");
-        } else if (numberStr.lastIndexOf(".") > numberStr.lastIndexOf(",")) {
-            // Last separator is . - likely decimal point
-            numberStr = numberStr.replace(",", "");
-        } else {
-            // Last separator is , or no separator - Vietnamese format
-            numberStr = numberStr.replace(".", "").replace(",", ".");
-        }
-        
-        try {
-            return Double.parseDouble(numberStr);
-        } catch (NumberFormatException e) {
+    }
+
+    // ==================== AMOUNT TOKENIZER ====================
+
+    /**
+     * Numbers of one line. Reads Vietnamese / English grouping ("125.000", "1,250,000",
+     * "12.500,50"), "50k" and currency suffixes; skips dates, times, percentages, codes and
+     * phone numbers.
+     */
+    private static final class AmountScan {
+        static final int MAX_TOKENS = 12;
+
+        final double[] values = new double[MAX_TOKENS];
+        final int[] starts = new int[MAX_TOKENS];
+        final int[] ends = new int[MAX_TOKENS];
+        final boolean[] currency = new boolean[MAX_TOKENS];
+        final boolean[] decimal = new boolean[MAX_TOKENS];
+        int count;
+
+        void scan(String line) {
+            count = 0;
+            int n = line.length();
+            int i = 0;
+            while (i < n && count < MAX_TOKENS) {
+                char c = line.charAt(i);
+                if (!isDigit(c)) {
+                    i++;
+                    continue;
+                }
+                int start = i;
+                char before = start > 0 ? line.charAt(start - 1) : ' ';
+
+                // Digit groups separated by single '.' or ','
+                long intPart = 0;
+                int firstGroup = 0;
+                int groups = 0;
+                int lastGroupLen = 0;
+                char lastSep = 0;
+                boolean mixed = false;
+                boolean badGroup = false;
+                long groupValue;
+                int digitsTotal = 0;
+                while (true) {
+                    int groupStart = i;
+                    groupValue = 0;
+                    while (i < n && isDigit(line.charAt(i))) {
+                        groupValue = groupValue * 10 + (line.charAt(i) - '0');
+                        i++;
+                        if (groupValue > 10_000_000_000L) groupValue = 10_000_000_000L;
+                    }
+                    int len = i - groupStart;
+                    digitsTotal += len;
+                    if (groups == 0) firstGroup = len;
+                    groups++;
+                    lastGroupLen = len;
+                    if (i + 1 < n && (line.charAt(i) == '.' || line.charAt(i) == ',') && isDigit(line.charAt(i + 1))) {
+                        if (lastSep != 0 && lastSep != line.charAt(i)) mixed = true;
+                        if (groups > 1 && len != 3) badGroup = true;
+                        lastSep = line.charAt(i);
+                        intPart = intPart * 1000 + groupValue;
+                        i++;
+                        continue;
+                    }
+                    break;
+                }
+                int end = i;
+                char after = end < n ? line.charAt(end) : ' ';
+
+                // Dates, times, percentages, codes ("HD0012", "#123")
+                if (before == '/' || before == ':' || after == '/' || after == ':' || after == '%'
+                        || before == '#' || Character.isLetter(before)
+                        || (after == '-' && end + 1 < n && isDigit(line.charAt(end + 1)))
+                        || (before == '-' && start >= 2 && isDigit(line.charAt(start - 2)))) {
+                    i = skipToken(line, end);
+                    continue;
+                }
+
+                double value;
+                boolean isDecimal = false;
+                if (groups == 1) {
+                    if (digitsTotal >= 8) { // Phone numbers, tax codes
+                        i = skipToken(line, end);
+                        continue;
+                    }
+                    value = groupValue;
+                } else if (badGroup || firstGroup > 3) {
+                    i = skipToken(line, end);
+                    continue;
+                } else if (lastGroupLen == 3 && !mixed) {
+                    value = intPart * 1000 + groupValue;
+                } else if (lastGroupLen <= 2 && (groups == 2 || mixed)) {
+                    // "12.500,50" or "9.99": the last separator is the decimal point
+                    value = intPart + groupValue / (lastGroupLen == 1 ? 10.0 : 100.0);
+                    isDecimal = true;
+                } else {
+                    i = skipToken(line, end);
+                    continue;
+                }
+
+                // Suffix: "50k", "125.000đ", "125.000 VND"; other letters are units ("500ml", "2x")
+                boolean isCurrency = false;
+                int j = end;
+                if (j < n && (line.charAt(j) == 'k' || line.charAt(j) == 'K') && !letterAt(line, j + 1)) {
+                    value *= 1000;
+                    j++;
+                } else {
+                    while (j < n && line.charAt(j) == ' ') j++;
+                    int suffix = currencySuffix(line, j);
+                    if (suffix > 0) {
+                        isCurrency = true;
+                        j += suffix;
+                    } else if (j == end && letterAt(line, end) && !isMultiply(line.charAt(end))) {
+                        i = skipToken(line, end);
+                        continue;
+                    }
+                }
+
+                if (value > MAX_MONEY) {
+                    i = j;
+                    continue;
+                }
+                values[count] = value;
+                starts[count] = start;
+                ends[count] = end;
+                currency[count] = isCurrency;
+                decimal[count] = isDecimal;
+                count++;
+                i = Math.max(j, end);
+            }
+        }
+
+        /** Index of the right-most money token, or -1. */
+        int lastMoney() {
+            for (int k = count - 1; k >= 0; k--) {
+                if (isMoney(k)) return k;
+            }
+            return -1;
+        }
+
+        /** Large enough to be VND, or written with cents / a currency sign. */
+        boolean isMoney(int k) {
+            return values[k] >= MIN_MONEY || decimal[k] || (currency[k] && values[k] > 0);
+        }
+
+        private static int skipToken(String line, int from) {
+            int n = line.length();
+            while (from < n && !Character.isWhitespace(line.charAt(from))) from++;
+            return from;
+        }
+
+        private static int currencySuffix(String line, int at) {
+            int n = line.length();
+            if (at >= n) return 0;
+            char c = Character.toLowerCase(line.charAt(at));
+            if (c == '₫' || c == 'đ') {
+                return letterAt(line, at + 1) ? 0 : 1;
+            }
+            if (c == 'd' && !letterAt(line, at + 1)) return 1;
+            if (line.regionMatches(true, at, "vnd", 0, 3) && !letterAt(line, at + 3)) return 3;
+            if (line.regionMatches(true, at, "vnđ", 0, 3) && !letterAt(line, at + 3)) return 3;
+            if (line.regionMatches(true, at, "đồng", 0, 4) && !letterAt(line, at + 4)) return 4;
             return 0;
         }
+
+        private static boolean isMultiply(char c) {
+            return c == 'x' || c == 'X' || c == '×';
+        }
+    }
+
+    // ==================== TEXT HELPERS ====================
+
+    /**
+     * Keyword groups present in a lowercased line, as a bit mask. Whole words only: "total"
+     * matches "Total:" but not "Subtotal". One pass: at each word start only the keywords
+     * beginning with that letter are compared.
+     */
+    private static int keywordMask(String lower) {
+        int mask = 0;
+        int n = lower.length();
+        for (int i = 0; i < n; i++) {
+            char c = lower.charAt(i);
+            if (!Character.isLetter(c) || letterAt(lower, i - 1)) continue;
+            Keyword[] candidates = KEYWORD_INDEX.get(c);
+            if (candidates == null) continue;
+            for (Keyword keyword : candidates) {
+                int end = i + keyword.word.length();
+                if ((mask & keyword.bit) == 0 && lower.startsWith(keyword.word, i) && !letterAt(lower, end)) {
+                    mask |= keyword.bit;
+                }
+            }
+        }
+        return mask;
+    }
+
+    private static LineKind kindOf(int keywordMask) {
+        for (int k = 0; k < KIND_ORDER.length; k++) {
+            if ((keywordMask & (1 << k)) != 0) {
+                return KIND_ORDER[k];
+            }
+        }
+        return LineKind.OTHER;
+    }
+
+    private static String cleanItemName(String line, int start, int end) {
+        // Trim separators and a trailing multiply sign: "Cà phê sữa x", "Bánh mì -"
+        while (start < end && !Character.isLetterOrDigit(line.charAt(start))) start++;
+        while (end > start) {
+            char c = line.charAt(end - 1);
+            if (Character.isWhitespace(c) || c == ':' || c == '-' || c == '*' || c == '.' || c == '@'
+                    || ((c == 'x' || c == 'X' || c == '×') && (end - 2 < start
+                    || Character.isWhitespace(line.charAt(end - 2))))) {
+                end--;
+            } else {
+                break;
+            }
+        }
+        if (countLetters(line, start, end) < 2) return null;
+        return line.substring(start, end);
+    }
+
+    private static int countLetters(String s, int from, int to) {
+        int letters = 0;
+        for (int i = from; i < to; i++) {
+            if (Character.isLetter(s.charAt(i))) letters++;
+        }
+        return letters;
+    }
+
+    private static int countUpper(String s) {
+        int upper = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.isUpperCase(s.charAt(i))) upper++;
+        }
+        return upper;
+    }
+
+    private static boolean hasDigitRun(String s, int length) {
+        int run = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (isDigit(c)) {
+                if (++run >= length) return true;
+            } else if (c != ' ' && c != '.') {
+                run = 0; // Phone numbers are often grouped: "0909 123 456"
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasDigitBefore(String s, char c) {
+        for (int at = s.indexOf(c, 1); at > 0; at = s.indexOf(c, at + 1)) {
+            if (isDigit(s.charAt(at - 1))) return true;
+        }
+        return false;
+    }
+
+    private static boolean letterAt(String s, int index) {
+        return index >= 0 && index < s.length() && Character.isLetter(s.charAt(index));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean near(double a, double b) {
+        return b > 0 && Math.abs(a - b) <= TOLERANCE;
+    }
+
+    private static double clamp(double score) {
+        return Math.max(0, Math.min(1, score));
+    }
+
+    private static String pad2(int value) {
+        return value < 10 ? "0" + value : String.valueOf(value);
+    }
+
+    // ==================== RESULT ====================
+
+    /**
+     * One purchased line: name, quantity and the line total.
+     */
+    public static class LineItem {
+        private final String name;
+        private final int quantity;
+        private final double amount;
+
+        public LineItem(String name, int quantity, double amount) {
+            this.name = name;
+            this.quantity = quantity;
+            this.amount = amount;
+        }
+
+        public String getName() { return name; }
+        public int getQuantity() { return quantity; }
+        public double getAmount() { return amount; }
     }
 
     public static class ReceiptData {
         private double amount;
         private String merchant;
         private String date;
-        
+        private String time;
+        private double subtotal;
+        private double vat;
+        private double discount;
+        private final List<LineItem> items = new ArrayList<>();
+
+        // Confidence 0..1; 0 when the field was not found
+        private double amountConfidence;
+        private double merchantConfidence;
+        private double dateConfidence;
+
         public double getAmount() { return amount; }
         public void setAmount(double amount) { this.amount = amount; }
-        
+
         public String getMerchant() { return merchant; }
         public void setMerchant(String merchant) { this.merchant = merchant; }
-        
+
+        /** Receipt date as dd/MM/yyyy */
         public String getDate() { return date; }
         public void setDate(String date) { this.date = date; }
-        
+
         // Compatibility alias
         public String getStringDate() { return date; }
-        
+
+        /** Receipt time as HH:mm or HH:mm:ss */
+        public String getTime() { return time; }
+
+        public double getSubtotal() { return subtotal; }
+        public double getVat() { return vat; }
+        public double getDiscount() { return discount; }
+        public List<LineItem> getItems() { return Collections.unmodifiableList(items); }
+
+        public double getAmountConfidence() { return amountConfidence; }
+        public double getMerchantConfidence() { return merchantConfidence; }
+        public double getDateConfidence() { return dateConfidence; }
+
+        /**
+         * True when the total and the merchant are reliable enough to skip AI refinement; the
+         * merchant picks the category, so a guessed one is worth the round-trip too.
+         */
+        public boolean isConfident() {
+            return amount > 0 && amountConfidence >= HIGH_CONFIDENCE
+                    && merchant != null && merchantConfidence >= HIGH_CONFIDENCE;
+        }
+
+        /**
+         * Items as a note ("- Cà phê sữa x2" per line), or null without items.
+         */
+        public String getItemsNote() {
+            if (items.isEmpty()) return null;
+            StringBuilder note = new StringBuilder();
+            for (LineItem item : items) {
+                if (note.length() > 0) note.append('\n');
+                note.append("- ").append(item.name);
+                if (item.quantity > 1) note.append(" x").append(item.quantity);
+            }
+            return note.toString();
+        }
+
         public String getFormattedAmount() {
             if (amount <= 0) {
                 return "Không xác định";
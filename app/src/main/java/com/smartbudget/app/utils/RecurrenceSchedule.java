@@ -0,0 +1,130 @@
+package com.smartbudget.app.utils;
+
+import com.smartbudget.app.data.local.entity.RecurringExpenseEntity;
+
+import java.util.Arrays;
+
+/**
+ * Occurrence dates of recurring expenses (monthly, weekly, yearly).
+ *
+ * <p>Occurrences fall on local midnight. Monthly and yearly schedules are anchored to the
+ * recurring expense's {@code dayOfMonth}: in a shorter month the occurrence is clamped to the
+ * last day (31 → 30/04, 28/02 or 29/02) and the following month goes back to the anchor day,
+ * so a schedule never drifts. All arithmetic goes through {@link EpochDays}.</p>
+ *
+ * <h3>Usage:</h3>
+ * <pre>
+ * long[] missed = RecurrenceSchedule.occurrencesUntil(entity.getNextDueDate(), now,
+ *         entity.getFrequency(), entity.getDayOfMonth(), RecurrenceSchedule.MAX_CATCH_UP);
+ * long nextDue = RecurrenceSchedule.next(missed[missed.length - 1],
+ *         entity.getFrequency(), entity.getDayOfMonth());
+ * </pre>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class RecurrenceSchedule {
+
+    /** Upper bound of occurrences materialized per recurring expense in one run (~8 years weekly). */
+    public static final int MAX_CATCH_UP = 400;
+
+    private static final long[] NONE = new long[0];
+
+    private RecurrenceSchedule() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // ==================== Next Occurrence ====================
+
+    /**
+     * Occurrence following {@code occurrence}.
+     *
+     * @param occurrence Timestamp of an occurrence (any time of that day)
+     * @param frequency  {@link RecurringExpenseEntity#FREQ_MONTHLY}, FREQ_WEEKLY or FREQ_YEARLY
+     * @param dayOfMonth Anchor day 1-31 for monthly/yearly; 0 uses the day of {@code occurrence}
+     * @return Local midnight of the next occurrence
+     */
+    public static long next(long occurrence, int frequency, int dayOfMonth) {
+        return EpochDays.startOfDay(nextDay(EpochDays.dayIndex(occurrence), frequency, dayOfMonth));
+    }
+
+    /**
+     * First occurrence strictly after the day of {@code from}, e.g. when a recurring expense is
+     * created (an anchor day equal to today starts next period, as the add dialog always did).
+     */
+    public static long firstAfter(long from, int frequency, int dayOfMonth) {
+        int today = EpochDays.dayIndex(from);
+        if (frequency == RecurringExpenseEntity.FREQ_WEEKLY) {
+            return EpochDays.startOfDay(today + 7);
+        }
+        int month = EpochDays.monthIndexOfDay(today);
+        int candidate = dayInMonth(month, anchor(dayOfMonth, today));
+        if (candidate <= today) {
+            candidate = nextDay(candidate, frequency, anchor(dayOfMonth, today));
+        }
+        return EpochDays.startOfDay(candidate);
+    }
+
+    // ==================== Catch-up ====================
+
+    /**
+     * Every occurrence from {@code nextDue} up to and including {@code until}, oldest first.
+     *
+     * @param nextDue Stored next due date; the first occurrence if it is not after {@code until}
+     * @param until   Usually now
+     * @param max     Stop after this many; the rest are caught up on the next run
+     * @return Local-midnight timestamps, empty if nothing is due
+     */
+    public static long[] occurrencesUntil(long nextDue, long until, int frequency, int dayOfMonth, int max) {
+        if (nextDue > until || max <= 0) {
+            return NONE;
+        }
+        int lastDay = EpochDays.dayIndex(until);
+        int day = EpochDays.dayIndex(nextDue);
+        long[] out = new long[Math.min(max, estimate(day, lastDay, frequency))];
+        int count = 0;
+        while (day <= lastDay && count < max) {
+            if (count == out.length) {
+                out = Arrays.copyOf(out, Math.min(max, out.length * 2));
+            }
+            out[count++] = EpochDays.startOfDay(day);
+            day = nextDay(day, frequency, dayOfMonth);
+        }
+        return count == out.length ? out : Arrays.copyOf(out, count);
+    }
+
+    // ==================== Day Arithmetic ====================
+
+    static int nextDay(int day, int frequency, int dayOfMonth) {
+        switch (frequency) {
+            case RecurringExpenseEntity.FREQ_WEEKLY:
+                return day + 7;
+            case RecurringExpenseEntity.FREQ_YEARLY:
+                return dayInMonth(EpochDays.monthIndexOfDay(day) + 12, anchor(dayOfMonth, day));
+            default:
+                return dayInMonth(EpochDays.monthIndexOfDay(day) + 1, anchor(dayOfMonth, day));
+        }
+    }
+
+    /** Day index of {@code dayOfMonth} in a month, clamped to the month's last day. */
+    static int dayInMonth(int monthIndex, int dayOfMonth) {
+        int clamped = Math.min(Math.max(dayOfMonth, 1), EpochDays.daysInMonth(monthIndex));
+        return EpochDays.firstDayOfMonth(monthIndex) + clamped - 1;
+    }
+
+    private static int anchor(int dayOfMonth, int day) {
+        return dayOfMonth > 0 ? dayOfMonth : EpochDays.dayOfMonth(day);
+    }
+
+    private static int estimate(int fromDay, int toDay, int frequency) {
+        int days = toDay - fromDay;
+        switch (frequency) {
+            case RecurringExpenseEntity.FREQ_WEEKLY:
+                return days / 7 + 1;
+            case RecurringExpenseEntity.FREQ_YEARLY:
+                return days / 365 + 1;
+            default:
+                return days / 28 + 1;
+        }
+    }
+}
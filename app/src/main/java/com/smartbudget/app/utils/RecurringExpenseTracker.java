@@ -1,24 +1,24 @@
 package com.smartbudget.app.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import androidx.annotation.WorkerThread;
+
+import com.smartbudget.app.data.local.AppDatabase;
+import com.smartbudget.app.data.local.dao.RecurringReminderDao;
+import com.smartbudget.app.data.local.entity.RecurringReminderEntity;
 
-import java.lang.reflect.Type;
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 
 /**
  * Recurring expense tracker.
  * Tracks and reminds about recurring expenses.
+ * Reminders are rows of recurring_reminders; call from a background thread.
  */
 public class RecurringExpenseTracker {
 
-    private static final String PREFS_NAME = "recurring_expenses";
-    private static final String KEY_EXPENSES = "expenses";
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
 
     public enum Frequency {
         DAILY("Hàng ngày", 1),
@@ -37,59 +37,32 @@ public class RecurringExpenseTracker {
         }
     }
 
-    public static class RecurringExpense {
-        public String id;
-        public String name;
-        public String emoji;
-        public double amount;
-        public String category;
-        public Frequency frequency;
-        public int dayOfMonth; // For monthly expenses
-        public long nextDueDate;
-        public boolean isActive;
-        public boolean autoAdd;
-
-        public RecurringExpense(String name, String emoji, double amount, 
-                               String category, Frequency frequency, int dayOfMonth) {
-            this.id = String.valueOf(System.currentTimeMillis());
-            this.name = name;
-            this.emoji = emoji;
-            this.amount = amount;
-            this.category = category;
-            this.frequency = frequency;
-            this.dayOfMonth = dayOfMonth;
-            this.isActive = true;
-            this.autoAdd = false;
-            updateNextDueDate();
-        }
-
-        public void updateNextDueDate() {
-            Calendar cal = Calendar.getInstance();
-            
-            if (frequency == Frequency.MONTHLY) {
-                cal.set(Calendar.DAY_OF_MONTH, dayOfMonth);
-                if (cal.getTimeInMillis() <= System.currentTimeMillis()) {
-                    cal.add(Calendar.MONTH, 1);
-                }
-            } else {
-                cal.add(Calendar.DAY_OF_MONTH, frequency.days);
+    /**
+     * Next due date after paying (or creating) a reminder now: the coming {@code dayOfMonth}
+     * for monthly ones, otherwise now plus the period.
+     */
+    public static long nextDueDate(Frequency frequency, int dayOfMonth, long now) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(now);
+
+        if (frequency == Frequency.MONTHLY) {
+            cal.set(Calendar.DAY_OF_MONTH, dayOfMonth);
+            if (cal.getTimeInMillis() <= now) {
+                cal.add(Calendar.MONTH, 1);
             }
-            
-            nextDueDate = cal.getTimeInMillis();
+        } else {
+            cal.add(Calendar.DAY_OF_MONTH, frequency.days);
         }
 
-        public int getDaysUntilDue() {
-            long diff = nextDueDate - System.currentTimeMillis();
-            return (int) (diff / (24 * 60 * 60 * 1000));
-        }
-
-        public boolean isDueToday() {
-            return getDaysUntilDue() == 0;
-        }
+        return cal.getTimeInMillis();
+    }
 
-        public boolean isOverdue() {
-            return getDaysUntilDue() < 0;
+    /** Frequency of a stored reminder; MONTHLY for unknown names. */
+    public static Frequency frequencyOf(RecurringReminderEntity reminder) {
+        for (Frequency frequency : Frequency.values()) {
+            if (frequency.name().equals(reminder.getFrequency())) return frequency;
         }
+        return Frequency.MONTHLY;
     }
 
     // Common recurring expenses
@@ -106,121 +79,75 @@ public class RecurringExpenseTracker {
             {"🏥", "Bảo hiểm y tế", "500000"}
     };
 
-    private Context context;
-    private SharedPreferences prefs;
-    private Gson gson;
+    private final RecurringReminderDao reminderDao;
 
     public RecurringExpenseTracker(Context context) {
-        this.context = context;
-        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        this.gson = new Gson();
+        this.reminderDao = AppDatabase.getDatabase(context).recurringReminderDao();
     }
 
     /**
      * Get all recurring expenses.
      */
-    public List<RecurringExpense> getAllExpenses() {
-        String json = prefs.getString(KEY_EXPENSES, null);
-        if (json == null) {
-            return new ArrayList<>();
-        }
-        Type type = new TypeToken<List<RecurringExpense>>(){}.getType();
-        return gson.fromJson(json, type);
+    @WorkerThread
+    public List<RecurringReminderEntity> getAllExpenses() {
+        return reminderDao.getAllSync();
     }
 
     /**
-     * Get expenses due today or overdue.
+     * Get expenses due today or overdue (due within the next 24 hours or earlier).
      */
-    public List<RecurringExpense> getDueExpenses() {
-        List<RecurringExpense> due = new ArrayList<>();
-        for (RecurringExpense e : getAllExpenses()) {
-            if (e.isActive && (e.isDueToday() || e.isOverdue())) {
-                due.add(e);
-            }
-        }
-        return due;
+    @WorkerThread
+    public List<RecurringReminderEntity> getDueExpenses() {
+        return reminderDao.getActiveDueBetween(Long.MIN_VALUE, System.currentTimeMillis() + DAY_MILLIS);
     }
 
     /**
      * Get upcoming expenses (next 7 days).
      */
-    public List<RecurringExpense> getUpcomingExpenses() {
-        List<RecurringExpense> upcoming = new ArrayList<>();
-        for (RecurringExpense e : getAllExpenses()) {
-            int daysUntil = e.getDaysUntilDue();
-            if (e.isActive && daysUntil > 0 && daysUntil <= 7) {
-                upcoming.add(e);
-            }
-        }
-        return upcoming;
+    @WorkerThread
+    public List<RecurringReminderEntity> getUpcomingExpenses() {
+        long now = System.currentTimeMillis();
+        return reminderDao.getActiveDueBetween(now + DAY_MILLIS, now + 8 * DAY_MILLIS);
     }
 
     /**
-     * Add a recurring expense.
+     * Add a recurring expense, due at the next occurrence from now.
+     *
+     * @return Row id of the reminder
      */
-    public void addExpense(RecurringExpense expense) {
-        List<RecurringExpense> expenses = getAllExpenses();
-        expenses.add(expense);
-        saveExpenses(expenses);
+    @WorkerThread
+    public long addExpense(String name, String emoji, double amount,
+                           String category, Frequency frequency, int dayOfMonth) {
+        RecurringReminderEntity reminder = new RecurringReminderEntity(name, emoji, amount,
+                category, frequency.name(), dayOfMonth);
+        reminder.setNextDueDate(nextDueDate(frequency, dayOfMonth, System.currentTimeMillis()));
+        return reminderDao.insert(reminder);
     }
 
     /**
      * Mark expense as paid and update next due date.
      */
-    public void markAsPaid(String expenseId) {
-        List<RecurringExpense> expenses = getAllExpenses();
-        for (RecurringExpense e : expenses) {
-            if (e.id.equals(expenseId)) {
-                e.updateNextDueDate();
-                break;
-            }
-        }
-        saveExpenses(expenses);
+    @WorkerThread
+    public void markAsPaid(long expenseId) {
+        RecurringReminderEntity reminder = reminderDao.getById(expenseId);
+        if (reminder == null) return;
+        reminderDao.updateNextDueDate(expenseId, nextDueDate(frequencyOf(reminder),
+                reminder.getDayOfMonth(), System.currentTimeMillis()));
     }
 
     /**
      * Delete a recurring expense.
      */
-    public void deleteExpense(String expenseId) {
-        List<RecurringExpense> expenses = getAllExpenses();
-        expenses.removeIf(e -> e.id.equals(expenseId));
-        saveExpenses(expenses);
+    @WorkerThread
+    public void deleteExpense(long expenseId) {
+        reminderDao.deleteById(expenseId);
     }
 
     /**
      * Get total monthly recurring amount.
      */
+    @WorkerThread
     public double getMonthlyTotal() {
-        double total = 0;
-        for (RecurringExpense e : getAllExpenses()) {
-            if (!e.isActive) continue;
-            
-            switch (e.frequency) {
-                case DAILY:
-                    total += e.amount * 30;
-                    break;
-                case WEEKLY:
-                    total += e.amount * 4;
-                    break;
-                case BIWEEKLY:
-                    total += e.amount * 2;
-                    break;
-                case MONTHLY:
-                    total += e.amount;
-                    break;
-                case QUARTERLY:
-                    total += e.amount / 3;
-                    break;
-                case YEARLY:
-                    total += e.amount / 12;
-                    break;
-            }
-        }
-        return total;
-    }
-
-    private void saveExpenses(List<RecurringExpense> expenses) {
-        String json = gson.toJson(expenses);
-        prefs.edit().putString(KEY_EXPENSES, json).apply();
+        return reminderDao.getMonthlyTotal();
     }
 }
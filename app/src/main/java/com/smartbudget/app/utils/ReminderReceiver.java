@@ -1,152 +0,0 @@
-package com.smartbudget.app.utils;
-
-import android.app.AlarmManager;
-import android.app.NotificationChannel;
-import android.app.NotificationManager;
-import android.app.PendingIntent;
-import android.content.BroadcastReceiver;
-import android.content.Context;
-import android.content.Intent;
-import android.content.SharedPreferences;
-import android.os.Build;
-
-import androidx.core.app.NotificationCompat;
-
-import com.smartbudget.app.R;
-import com.smartbudget.app.presentation.MainActivity;
-
-import java.util.Calendar;
-
-/**
- * BroadcastReceiver for scheduled reminders
- * Sends notifications to remind users to log expenses
- */
-public class ReminderReceiver extends BroadcastReceiver {
-
-    private static final String CHANNEL_ID = "smartbudget_reminders";
-    private static final String CHANNEL_NAME = "Nhắc nhở SmartBudget";
-    private static final int NOTIFICATION_ID = 1001;
-
-    private static final String PREF_NAME = "reminder_prefs";
-    private static final String KEY_REMINDER_ENABLED = "reminder_enabled";
-    private static final String KEY_REMINDER_HOUR = "reminder_hour";
-    private static final String KEY_REMINDER_MINUTE = "reminder_minute";
-
-    @Override
-    public void onReceive(Context context, Intent intent) {
-        showNotification(context);
-    }
-
-    private void showNotification(Context context) {
-        NotificationManager notificationManager = 
-            (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-
-        // Create notification channel for Android O+
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            NotificationChannel channel = new NotificationChannel(
-                CHANNEL_ID,
-                CHANNEL_NAME,
-                NotificationManager.IMPORTANCE_DEFAULT
-            );
-            channel.setDescription("Nhắc nhở ghi chép chi tiêu hàng ngày");
-            notificationManager.createNotificationChannel(channel);
-        }
-
-        // Create intent to open app
-        Intent openIntent = new Intent(context, MainActivity.class);
-        openIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
-        PendingIntent pendingIntent = PendingIntent.getActivity(
-            context, 0, openIntent, 
-            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-        );
-
-        // Build notification
-        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
-            .setSmallIcon(R.drawable.ic_notification)
-            .setContentTitle("💰 Đừng quên ghi chép!")
-            .setContentText("Bạn đã chi tiêu gì hôm nay? Nhấn để ghi lại nhé!")
-            .setPriority(NotificationCompat.PRIORITY_DEFAULT)
-            .setContentIntent(pendingIntent)
-            .setAutoCancel(true);
-
-        notificationManager.notify(NOTIFICATION_ID, builder.build());
-    }
-
-    /**
-     * Schedule daily reminder at specified time
-     */
-    public static void scheduleReminder(Context context, int hour, int minute) {
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        
-        Intent intent = new Intent(context, ReminderReceiver.class);
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(
-            context, 0, intent, 
-            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-        );
-
-        // Set time for today
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.HOUR_OF_DAY, hour);
-        calendar.set(Calendar.MINUTE, minute);
-        calendar.set(Calendar.SECOND, 0);
-
-        // If time has passed today, schedule for tomorrow
-        if (calendar.getTimeInMillis() <= System.currentTimeMillis()) {
-            calendar.add(Calendar.DAY_OF_YEAR, 1);
-        }
-
-        // Schedule repeating alarm
-        alarmManager.setRepeating(
-            AlarmManager.RTC_WAKEUP,
-            calendar.getTimeInMillis(),
-            AlarmManager.INTERVAL_DAY,
-            pendingIntent
-        );
-
-        // Save preferences
-        saveReminderSettings(context, true, hour, minute);
-    }
-
-    /**
-     * Cancel scheduled reminder
-     */
-    public static void cancelReminder(Context context) {
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        
-        Intent intent = new Intent(context, ReminderReceiver.class);
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(
-            context, 0, intent, 
-            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-        );
-
-        alarmManager.cancel(pendingIntent);
-
-        // Save preferences
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        prefs.edit().putBoolean(KEY_REMINDER_ENABLED, false).apply();
-    }
-
-    private static void saveReminderSettings(Context context, boolean enabled, int hour, int minute) {
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        prefs.edit()
-            .putBoolean(KEY_REMINDER_ENABLED, enabled)
-            .putInt(KEY_REMINDER_HOUR, hour)
-            .putInt(KEY_REMINDER_MINUTE, minute)
-            .apply();
-    }
-
-    public static boolean isReminderEnabled(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        return prefs.getBoolean(KEY_REMINDER_ENABLED, false);
-    }
-
-    public static int getReminderHour(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        return prefs.getInt(KEY_REMINDER_HOUR, 20); // Default 8 PM
-    }
-
-    public static int getReminderMinute(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        return prefs.getInt(KEY_REMINDER_MINUTE, 0);
-    }
-}
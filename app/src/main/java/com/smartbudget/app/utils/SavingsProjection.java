@@ -0,0 +1,100 @@
+package com.smartbudget.app.utils;
+
+/**
+ * Completion forecast and required saving rate of one savings goal.
+ *
+ * <p>The required rate spreads what is left evenly over the whole days until the deadline. The
+ * forecast extrapolates the goal's own pace: contributions since the window start (about
+ * {@link #RATE_WINDOW_DAYS} days back, or the goal's creation if later) divided by the time from
+ * that start to now. The caller passes the window start its sum was queried with, so the sum and
+ * the length it is divided by always cover the same span. A goal without recent contributions
+ * has no forecast.</p>
+ *
+ * <p>Pure arithmetic on values the savings snapshot query already returns, so projecting every
+ * goal is a single pass with no further queries.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class SavingsProjection {
+
+    /** {@link #estimatedCompletion} when there is no pace to extrapolate */
+    public static final long NO_ESTIMATE = -1;
+
+    /** Days of contributions that set the observed pace */
+    public static final int RATE_WINDOW_DAYS = 90;
+
+    // Forecasts beyond this are shown as "no estimate"
+    private static final long MAX_PROJECTION_DAYS = 100L * 365;
+
+    public final long goalId;
+    /** Amount still missing, 0 once reached */
+    public final double remaining;
+    /** Whole days until the deadline; 0 or less once it has passed */
+    public final long daysLeft;
+    /** Amount to save per day to finish on the deadline; all of it if the deadline has passed */
+    public final double requiredDaily;
+    /** Same per week, never more than what is left */
+    public final double requiredWeekly;
+    /** Average saved per day over the rate window */
+    public final double observedDaily;
+    /** Day the goal is reached at the observed pace (millis), or {@link #NO_ESTIMATE} */
+    public final long estimatedCompletion;
+    /** True if the goal is reached, or the observed pace reaches it by the deadline */
+    public final boolean onTrack;
+
+    private SavingsProjection(long goalId, double remaining, long daysLeft, double requiredDaily,
+                              double requiredWeekly, double observedDaily, long estimatedCompletion,
+                              boolean onTrack) {
+        this.goalId = goalId;
+        this.remaining = remaining;
+        this.daysLeft = daysLeft;
+        this.requiredDaily = requiredDaily;
+        this.requiredWeekly = requiredWeekly;
+        this.observedDaily = observedDaily;
+        this.estimatedCompletion = estimatedCompletion;
+        this.onTrack = onTrack;
+    }
+
+    /**
+     * Start of the pace window for a query made at {@code now}: local midnight
+     * {@link #RATE_WINDOW_DAYS} days back, so it only moves once a day.
+     */
+    public static long windowStart(long now) {
+        return EpochDays.startOfDay(EpochDays.dayIndex(now) - RATE_WINDOW_DAYS);
+    }
+
+    /**
+     * @param recentAmount Sum of the goal's pace-counting contributions dated at or after
+     *                     {@code since}
+     * @param since        Window start {@code recentAmount} was summed from
+     */
+    public static SavingsProjection project(long goalId, double targetAmount, double currentAmount,
+                                            boolean completed, long createdAt, long deadline,
+                                            double recentAmount, long since, long now) {
+        double remaining = Math.max(0, targetAmount - currentAmount);
+        long daysLeft = EpochDays.dayIndex(deadline) - EpochDays.dayIndex(now);
+
+        if (completed || remaining == 0) {
+            return new SavingsProjection(goalId, 0, daysLeft, 0, 0, 0, now, true);
+        }
+
+        double requiredDaily = daysLeft > 0 ? remaining / daysLeft : remaining;
+        double requiredWeekly = Math.min(remaining, requiredDaily * 7);
+
+        long windowStart = Math.max(since, createdAt);
+        double windowDays = Math.max(1.0, (now - windowStart) / (double) EpochDays.DAY_MILLIS);
+        double observedDaily = Math.max(0, recentAmount) / windowDays;
+
+        long estimatedCompletion = NO_ESTIMATE;
+        if (observedDaily > 0) {
+            double days = Math.ceil(remaining / observedDaily);
+            if (days <= MAX_PROJECTION_DAYS) {
+                estimatedCompletion = now + (long) days * EpochDays.DAY_MILLIS;
+            }
+        }
+        boolean onTrack = estimatedCompletion != NO_ESTIMATE && estimatedCompletion <= deadline;
+        return new SavingsProjection(goalId, remaining, daysLeft, requiredDaily, requiredWeekly,
+                observedDaily, estimatedCompletion, onTrack);
+    }
+}
@@ -0,0 +1,299 @@
+package com.smartbudget.app.utils;
+
+import androidx.annotation.NonNull;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Streaming AES-GCM for files of any size (backups, CSV exports), in constant memory.
+ *
+ * <p>A plain {@code CipherInputStream} over AES/GCM holds the whole ciphertext until the tag
+ * is checked at the end (the platform providers buffer AEAD decryption), so a large backup
+ * would be decrypted in memory. Instead the plaintext is cut into {@link #SEGMENT_SIZE}
+ * segments, each sealed with its own GCM tag:</p>
+ *
+ * <pre>
+ * header  = "SBE1" | version (1) | segment size (4) | nonce prefix (7)      16 bytes, AAD of every segment
+ * segment = AES-GCM(key, nonce = prefix | segment index (4) | last flag (1), plaintext) + 16-byte tag
+ * </pre>
+ *
+ * <p>The index in the nonce rejects reordered or dropped segments, the last flag rejects a
+ * truncated file, and the random prefix keeps nonces unique per file. Each stream reuses one
+ * {@link Cipher}, re-initialized per segment.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class SegmentedGcm {
+
+    static final byte[] MAGIC = {'S', 'B', 'E', '1'};
+    static final int VERSION = 1;
+    public static final int SEGMENT_SIZE = 64 * 1024;
+    static final int NONCE_PREFIX_BYTES = 7;
+    public static final int HEADER_BYTES = MAGIC.length + 1 + 4 + NONCE_PREFIX_BYTES;
+    static final int TAG_BYTES = 16;
+    private static final int TAG_BITS = TAG_BYTES * 8;
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private SegmentedGcm() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // ==================== API ====================
+
+    /**
+     * Wraps {@code out}; everything written is encrypted. Closing the returned stream writes the
+     * final segment and closes {@code out} — without close the file is unreadable (truncated).
+     */
+    @NonNull
+    public static OutputStream encrypt(@NonNull OutputStream out, @NonNull SecretKey key) throws IOException {
+        return new EncryptingStream(out, key);
+    }
+
+    /**
+     * Wraps {@code in}, which must start with a header written by {@link #encrypt}. A read
+     * throws IOException if any segment was modified, reordered or cut off.
+     */
+    @NonNull
+    public static InputStream decrypt(@NonNull InputStream in, @NonNull SecretKey key) throws IOException {
+        return new DecryptingStream(in, key);
+    }
+
+    /**
+     * True if {@code in} starts with the header. Needs mark support; the stream is reset.
+     */
+    public static boolean isEncrypted(@NonNull InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            throw new IllegalArgumentException("Stream must support mark/reset");
+        }
+        in.mark(MAGIC.length);
+        try {
+            byte[] head = new byte[MAGIC.length];
+            int n = readFully(in, head, 0, head.length);
+            return n == MAGIC.length && Arrays.equals(head, MAGIC);
+        } finally {
+            in.reset();
+        }
+    }
+
+    /** Size of the encrypted form of {@code plaintextLength} bytes. */
+    public static long encryptedLength(long plaintextLength) {
+        // An empty stream still has one (empty) final segment
+        long segments = Math.max(1, (plaintextLength + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        return HEADER_BYTES + plaintextLength + segments * TAG_BYTES;
+    }
+
+    // ==================== Segments ====================
+
+    private static byte[] nonce(byte[] prefix, int index, boolean last) {
+        byte[] nonce = new byte[12];
+        System.arraycopy(prefix, 0, nonce, 0, NONCE_PREFIX_BYTES);
+        ByteBuffer.wrap(nonce, NONCE_PREFIX_BYTES, 5).putInt(index).put((byte) (last ? 1 : 0));
+        return nonce;
+    }
+
+    private static Cipher newCipher() throws IOException {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("AES-GCM unavailable", e);
+        }
+    }
+
+    private static int readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int n = in.read(buffer, offset + total, length - total);
+            if (n < 0) break;
+            total += n;
+        }
+        return total;
+    }
+
+    private static final class EncryptingStream extends FilterOutputStream {
+        private final SecretKey key;
+        private final Cipher cipher;
+        private final byte[] header = new byte[HEADER_BYTES];
+        private final byte[] prefix = new byte[NONCE_PREFIX_BYTES];
+        private final byte[] plain = new byte[SEGMENT_SIZE];
+        private final byte[] sealed = new byte[SEGMENT_SIZE + TAG_BYTES];
+        private int buffered;
+        private int index;
+        private boolean closed;
+
+        EncryptingStream(OutputStream out, SecretKey key) throws IOException {
+            super(out);
+            this.key = key;
+            this.cipher = newCipher();
+            RANDOM.nextBytes(prefix);
+            ByteBuffer.wrap(header).put(MAGIC).put((byte) VERSION).putInt(SEGMENT_SIZE).put(prefix);
+            out.write(header);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(@NonNull byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                // Only seal a full segment once more data arrives: the last one is sealed on close
+                if (buffered == SEGMENT_SIZE) {
+                    seal(false);
+                }
+                int n = Math.min(len, SEGMENT_SIZE - buffered);
+                System.arraycopy(b, off, plain, buffered, n);
+                buffered += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Partial segments stay buffered; flushing them would end the stream
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                seal(true);
+            } finally {
+                out.close();
+            }
+        }
+
+        private void seal(boolean last) throws IOException {
+            try {
+                cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce(prefix, index++, last)));
+                cipher.updateAAD(header);
+                int n = cipher.doFinal(plain, 0, buffered, sealed, 0);
+                out.write(sealed, 0, n);
+                buffered = 0;
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Encryption failed", e);
+            }
+        }
+    }
+
+    private static final class DecryptingStream extends FilterInputStream {
+        private final SecretKey key;
+        private final Cipher cipher;
+        private final byte[] header = new byte[HEADER_BYTES];
+        private final byte[] prefix = new byte[NONCE_PREFIX_BYTES];
+        private final int segmentSize;
+        // One extra byte: reading past a segment tells whether it is the last
+        private final byte[] sealed;
+        private final byte[] plain;
+        private int sealedLength;
+        private int plainPos;
+        private int plainLength;
+        private int index;
+        private boolean done;
+
+        DecryptingStream(InputStream in, SecretKey key) throws IOException {
+            super(in);
+            this.key = key;
+            this.cipher = newCipher();
+            if (readFully(in, header, 0, HEADER_BYTES) != HEADER_BYTES
+                    || !Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC)) {
+                throw new IOException("Not an encrypted SmartBudget file");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(header, MAGIC.length, HEADER_BYTES - MAGIC.length);
+            int version = buffer.get();
+            segmentSize = buffer.getInt();
+            buffer.get(prefix);
+            if (version != VERSION || segmentSize <= 0 || segmentSize > 16 * SEGMENT_SIZE) {
+                throw new IOException("Unsupported encrypted file version " + version);
+            }
+            sealed = new byte[segmentSize + TAG_BYTES + 1];
+            plain = new byte[segmentSize];
+            sealedLength = readFully(in, sealed, 0, sealed.length);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int n = read(one, 0, 1);
+            return n < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(@NonNull byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            while (plainPos == plainLength) {
+                if (done) return -1;
+                open();
+            }
+            int n = Math.min(len, plainLength - plainPos);
+            System.arraycopy(plain, plainPos, b, off, n);
+            plainPos += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            byte[] scratch = new byte[(int) Math.min(n, 8192)];
+            while (skipped < n) {
+                int r = read(scratch, 0, (int) Math.min(scratch.length, n - skipped));
+                if (r < 0) break;
+                skipped += r;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return plainLength - plainPos;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void open() throws IOException {
+            int segmentBytes = segmentSize + TAG_BYTES;
+            boolean last = sealedLength <= segmentBytes;
+            int length = last ? sealedLength : segmentBytes;
+            if (length < TAG_BYTES) {
+                throw new EOFException("Encrypted file is truncated");
+            }
+            try {
+                cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce(prefix, index++, last)));
+                cipher.updateAAD(header);
+                plainLength = cipher.doFinal(sealed, 0, length, plain, 0);
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Encrypted file is corrupt or was modified", e);
+            }
+            plainPos = 0;
+            if (last) {
+                done = true;
+            } else {
+                // Keep the look-ahead byte and refill the rest
+                sealed[0] = sealed[segmentBytes];
+                sealedLength = 1 + readFully(in, sealed, 1, sealed.length - 1);
+            }
+        }
+    }
+}
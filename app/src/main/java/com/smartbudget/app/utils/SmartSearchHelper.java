@@ -173,30 +173,15 @@ public class SmartSearchHelper {
     }
 
     private static long getTodayStart() {
-        java.util.Calendar cal = java.util.Calendar.getInstance();
-        cal.set(java.util.Calendar.HOUR_OF_DAY, 0);
-        cal.set(java.util.Calendar.MINUTE, 0);
-        cal.set(java.util.Calendar.SECOND, 0);
-        cal.set(java.util.Calendar.MILLISECOND, 0);
-        return cal.getTimeInMillis();
+        return EpochDays.startOfDay(EpochDays.today());
     }
 
     private static long getWeekStart() {
-        java.util.Calendar cal = java.util.Calendar.getInstance();
-        cal.set(java.util.Calendar.DAY_OF_WEEK, cal.getFirstDayOfWeek());
-        cal.set(java.util.Calendar.HOUR_OF_DAY, 0);
-        cal.set(java.util.Calendar.MINUTE, 0);
-        cal.set(java.util.Calendar.SECOND, 0);
-        return cal.getTimeInMillis();
+        return EpochDays.startOfDay(EpochDays.startOfWeek(EpochDays.today()));
     }
 
     private static long getMonthStart() {
-        java.util.Calendar cal = java.util.Calendar.getInstance();
-        cal.set(java.util.Calendar.DAY_OF_MONTH, 1);
-        cal.set(java.util.Calendar.HOUR_OF_DAY, 0);
-        cal.set(java.util.Calendar.MINUTE, 0);
-        cal.set(java.util.Calendar.SECOND, 0);
-        return cal.getTimeInMillis();
+        return EpochDays.startOfMonth(EpochDays.monthIndexOfDay(EpochDays.today()));
     }
 
     private static String capitalizeFirst(String s) {
@@ -30,6 +30,41 @@ public class SpendingForecaster {
                                             double[] lastMonthsSpending) {
         Calendar cal = Calendar.getInstance();
         int daysInMonth = cal.getActualMaximum(Calendar.DAY_OF_MONTH);
+        return forecastMonthEnd(currentSpending, currentDay, daysInMonth, lastMonthsSpending);
+    }
+
+    /**
+     * Forecast end-of-month spending straight from a transaction frame.
+     * Current and historical month totals come from one month group-by pass over the frame.
+     *
+     * @param frame Transaction history (expense rows are used)
+     * @param now Current timestamp
+     * @param historyMonths Number of previous months to weigh in
+     */
+    public static Forecast forecastMonthEnd(TransactionFrame frame, long now, int historyMonths) {
+        int today = EpochDays.dayIndex(now);
+        int currentMonth = EpochDays.monthIndexOfDay(today);
+        int monthStartDay = EpochDays.firstDayOfMonth(currentMonth);
+        int daysInMonth = EpochDays.firstDayOfMonth(currentMonth + 1) - monthStartDay;
+        int currentDay = today - monthStartDay + 1;
+
+        double[] monthly = new double[historyMonths + 1];
+        frame.sumByMonth(0, frame.size(), TransactionFrame.TYPE_EXPENSE,
+                currentMonth - historyMonths, monthly);
+
+        // Skip leading months without any data (history shorter than requested)
+        int firstWithData = 0;
+        while (firstWithData < historyMonths && monthly[firstWithData] == 0) {
+            firstWithData++;
+        }
+        double[] lastMonths = java.util.Arrays.copyOfRange(monthly, firstWithData, historyMonths);
+
+        return forecastMonthEnd(monthly[historyMonths], currentDay, daysInMonth,
+                lastMonths.length > 0 ? lastMonths : null);
+    }
+
+    private static Forecast forecastMonthEnd(double currentSpending, int currentDay, int daysInMonth,
+                                             double[] lastMonthsSpending) {
         int daysRemaining = daysInMonth - currentDay;
 
         // Simple linear extrapolation
@@ -1,7 +1,6 @@
 package com.smartbudget.app.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -10,25 +9,28 @@ import java.util.Locale;
 /**
  * Tracks daily usage streaks.
  * Gamifies the app experience and encourages daily usage.
+ * State lives in {@link AppPreferences}; reads and updates are in memory.
  */
 public class StreakHelper {
 
-    private static final String PREFS_NAME = "streak_prefs";
-    private static final String KEY_CURRENT_STREAK = "current_streak";
-    private static final String KEY_LONGEST_STREAK = "longest_streak";
-    private static final String KEY_LAST_OPEN_DATE = "last_open_date";
+    private static final KeyValueStore.Key<Integer> KEY_CURRENT_STREAK =
+            KeyValueStore.intKey("streak.current_streak", 0);
+    private static final KeyValueStore.Key<Integer> KEY_LONGEST_STREAK =
+            KeyValueStore.intKey("streak.longest_streak", 0);
+    private static final KeyValueStore.Key<String> KEY_LAST_OPEN_DATE =
+            KeyValueStore.stringKey("streak.last_open_date", "");
 
     /**
      * Call this on app launch to update streak.
      * Returns the current streak count.
      */
     public static int updateStreak(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        KeyValueStore store = AppPreferences.get(context);
         
         String today = getTodayString();
-        String lastOpen = prefs.getString(KEY_LAST_OPEN_DATE, "");
-        int currentStreak = prefs.getInt(KEY_CURRENT_STREAK, 0);
-        int longestStreak = prefs.getInt(KEY_LONGEST_STREAK, 0);
+        String lastOpen = store.get(KEY_LAST_OPEN_DATE);
+        int currentStreak = store.get(KEY_CURRENT_STREAK);
+        int longestStreak = store.get(KEY_LONGEST_STREAK);
 
         if (today.equals(lastOpen)) {
             // Already opened today, no change
@@ -53,24 +55,20 @@ public class StreakHelper {
             longestStreak = currentStreak;
         }
 
-        // Save
-        prefs.edit()
-                .putString(KEY_LAST_OPEN_DATE, today)
-                .putInt(KEY_CURRENT_STREAK, currentStreak)
-                .putInt(KEY_LONGEST_STREAK, longestStreak)
-                .apply();
+        // Save (one background write for all three)
+        store.put(KEY_LAST_OPEN_DATE, today);
+        store.put(KEY_CURRENT_STREAK, currentStreak);
+        store.put(KEY_LONGEST_STREAK, longestStreak);
 
         return currentStreak;
     }
 
     public static int getCurrentStreak(Context context) {
-        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
-                .getInt(KEY_CURRENT_STREAK, 0);
+        return AppPreferences.get(context).get(KEY_CURRENT_STREAK);
     }
 
     public static int getLongestStreak(Context context) {
-        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
-                .getInt(KEY_LONGEST_STREAK, 0);
+        return AppPreferences.get(context).get(KEY_LONGEST_STREAK);
     }
 
     /**
@@ -0,0 +1,300 @@
+package com.smartbudget.app.utils;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.smartbudget.app.data.local.AppDatabase;
+import com.smartbudget.app.data.local.dao.ExpenseDao;
+import com.smartbudget.app.data.local.entity.CategoryEntity;
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.data.local.entity.ExpenseTemplateEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Category and template suggestions for quick-add, ranked from the user's expense history.
+ *
+ * <p>The last {@link #SEED_HISTORY_DAYS} days of (category, date) pairs are loaded once into a
+ * {@link SuggestionRanker}; after that {@code ExpenseRepository} reports every committed write
+ * through {@link #onExpenseWritten} and bulk writers (CSV import, backup restore, sync,
+ * recurring expenses) call {@link #invalidate}. Queries run on the caller's thread against the
+ * in-memory ranking - no database access - so the screens can re-rank on every keystroke of
+ * the note field, which feeds {@link LocationTagManager#suggestCategory} as a hint.</p>
+ *
+ * <p>Until the first seed completes the queries return nothing and the screens keep their
+ * default order; {@link #getUpdates()} emits once it is ready. A write that commits while the
+ * seed query runs can be missed until the next reseed; rankings tolerate that.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public class SuggestionEngine {
+
+    private static final String TAG = "SuggestionEngine";
+
+    static final int SEED_HISTORY_DAYS = 365;
+
+    // Template score on top of its category's: saved usage count and note text match
+    private static final double W_TEMPLATE_USAGE = 0.5;
+    private static final double W_TEMPLATE_MATCH = SuggestionRanker.W_HINT;
+
+    private static volatile SuggestionEngine INSTANCE;
+
+    private final Context context;
+    private final LocationTagManager locationTags;
+    private final MutableLiveData<Long> updates = new MutableLiveData<>();
+
+    // Guarded by this
+    private final SuggestionRanker ranker = new SuggestionRanker();
+    private final Map<String, Long> expenseCategoryIds = new HashMap<>();
+    private long[] topKeys = new long[8];
+    private double[] templateScores = new double[0];
+    private int[] templateOrder = new int[0];
+    private boolean seeded;
+    private boolean seeding;
+    private int generation;
+
+    private SuggestionEngine(Context context) {
+        this.context = context.getApplicationContext();
+        this.locationTags = new LocationTagManager(this.context);
+    }
+
+    public static SuggestionEngine getInstance(@NonNull Context context) {
+        if (INSTANCE == null) {
+            synchronized (SuggestionEngine.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new SuggestionEngine(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    // ==================== Write Path ====================
+
+    /**
+     * Reports one committed expense write. Call after the write, from any thread.
+     *
+     * @param before The row as it was before an update or delete; null for an insert
+     * @param after  The row as written by an insert or update; null for a delete
+     */
+    public void onExpenseWritten(@Nullable ExpenseEntity before, @Nullable ExpenseEntity after) {
+        long since = System.currentTimeMillis() - SEED_HISTORY_DAYS * EpochDays.DAY_MILLIS;
+        synchronized (this) {
+            // Not loaded yet: the seed reads this row from the table
+            if (!seeded) return;
+            if (before != null && before.getCategoryId() != null && before.getDate() >= since) {
+                ranker.remove(before.getCategoryId(), before.getDate());
+            }
+            if (after != null && after.getCategoryId() != null && after.getDate() >= since) {
+                ranker.record(after.getCategoryId(), after.getDate());
+            }
+        }
+    }
+
+    /**
+     * Drops the ranking and reloads it in the background if it was loaded. For bulk writes and
+     * category changes.
+     */
+    public void invalidate() {
+        boolean wasSeeded;
+        synchronized (this) {
+            wasSeeded = seeded;
+            seeded = false;
+            // A seed in flight sees the new generation and starts over
+            generation++;
+        }
+        if (wasSeeded) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Loads the ranking in the background if it is not loaded yet. Screens call it when they open.
+     */
+    public void warmUp() {
+        final int seedGeneration;
+        synchronized (this) {
+            if (seeded || seeding) return;
+            seeding = true;
+            seedGeneration = generation;
+        }
+        AppDatabase.databaseWriteExecutor.execute(() -> seed(seedGeneration));
+    }
+
+    /** Emits the time of each completed (re)seed; observe to re-rank. */
+    public LiveData<Long> getUpdates() {
+        return updates;
+    }
+
+    private void seed(int seedGeneration) {
+        List<ExpenseDao.CategoryUse> history;
+        List<CategoryEntity> categories;
+        long now = System.currentTimeMillis();
+        try {
+            AppDatabase database = AppDatabase.getDatabase(context);
+            history = database.expenseDao().getCategoryUsesSince(now - SEED_HISTORY_DAYS * EpochDays.DAY_MILLIS);
+            categories = database.categoryDao().getCategoriesByTypeSync(CategoryEntity.TYPE_EXPENSE);
+        } catch (RuntimeException e) {
+            // Database closed during an account switch, etc.; the next warmUp retries
+            Log.w(TAG, "Loading suggestion history failed", e);
+            synchronized (this) {
+                seeding = false;
+            }
+            return;
+        }
+
+        boolean current;
+        synchronized (this) {
+            seeding = false;
+            current = seedGeneration == generation;
+            if (current) {
+                ranker.clear();
+                for (ExpenseDao.CategoryUse use : history) {
+                    ranker.record(use.categoryId, use.date);
+                }
+                expenseCategoryIds.clear();
+                for (CategoryEntity category : categories) {
+                    expenseCategoryIds.put(category.getName(), category.getId());
+                }
+                seeded = true;
+            }
+        }
+        if (current) {
+            updates.postValue(now);
+        } else {
+            // Invalidated while loading: the rows read may predate the bulk write
+            warmUp();
+        }
+    }
+
+    // ==================== Queries ====================
+
+    /**
+     * Best {@code k} category ids for an expense entered now, best first.
+     *
+     * @param note Note typed so far; its keywords hint a category
+     * @return Number of ids written to {@code out}; 0 until the ranking is loaded
+     */
+    public synchronized int suggestCategories(@Nullable CharSequence note, int k, long[] out) {
+        if (!seeded) {
+            warmUp();
+            return 0;
+        }
+        return ranker.topK(System.currentTimeMillis(), hintFor(note), k, out);
+    }
+
+    /**
+     * Returns {@code categories} with the best {@code k} of them moved to the front, best first;
+     * the rest keep their order. Unchanged until the ranking is loaded.
+     */
+    public List<CategoryEntity> orderCategories(@NonNull List<CategoryEntity> categories,
+                                                @Nullable CharSequence note, int k) {
+        int count;
+        long[] top;
+        synchronized (this) {
+            if (topKeys.length < k) {
+                topKeys = new long[k];
+            }
+            count = suggestCategories(note, k, topKeys);
+            top = count == 0 ? null : Arrays.copyOf(topKeys, count);
+        }
+        if (top == null) return categories;
+
+        List<CategoryEntity> ordered = new ArrayList<>(categories.size());
+        for (long id : top) {
+            for (CategoryEntity category : categories) {
+                if (category.getId() == id) {
+                    ordered.add(category);
+                    break;
+                }
+            }
+        }
+        for (CategoryEntity category : categories) {
+            if (!contains(top, category.getId())) {
+                ordered.add(category);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Best {@code k} templates for an expense entered now, best first: the template's category
+     * score, plus its saved usage count, plus a bonus when its name or note contains the note
+     * typed so far. Until the ranking is loaded only usage and text match count.
+     */
+    public synchronized List<ExpenseTemplateEntity> suggestTemplates(
+            @NonNull List<ExpenseTemplateEntity> templates, @Nullable CharSequence note, int k) {
+        if (!seeded) warmUp();
+        int n = templates.size();
+        if (templateScores.length < n) {
+            templateScores = new double[n];
+            templateOrder = new int[n];
+        }
+        long now = System.currentTimeMillis();
+        long hint = hintFor(note);
+        String typed = note == null ? "" : note.toString().trim();
+        for (int i = 0; i < n; i++) {
+            ExpenseTemplateEntity template = templates.get(i);
+            Long categoryId = seeded ? expenseCategoryIds.get(template.getCategory()) : null;
+            double score = categoryId == null ? 0 : ranker.score(categoryId, now, hint);
+            score += W_TEMPLATE_USAGE * Math.log1p(template.getUsageCount());
+            if (!typed.isEmpty() && (containsIgnoreCase(template.getName(), typed)
+                    || containsIgnoreCase(template.getNote(), typed))) {
+                score += W_TEMPLATE_MATCH;
+            }
+            templateScores[i] = score;
+        }
+        int count = SuggestionRanker.selectTop(templateScores, n, k, templateOrder);
+        List<ExpenseTemplateEntity> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(templates.get(templateOrder[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Id of the expense category with this name (template categories are names).
+     *
+     * @return Null if unknown or the ranking is not loaded yet
+     */
+    @Nullable
+    public synchronized Long categoryIdOf(@Nullable String name) {
+        return seeded ? expenseCategoryIds.get(name) : null;
+    }
+
+    // ==================== Helpers ====================
+
+    /** Category hinted by the note's keywords; "Khác" (no keyword matched) is no hint. */
+    private long hintFor(@Nullable CharSequence note) {
+        if (note == null || note.length() == 0) return SuggestionRanker.NO_HINT;
+        String name = locationTags.suggestCategory(note.toString());
+        if (CategoryManager.FALLBACK_CATEGORY.equals(name)) return SuggestionRanker.NO_HINT;
+        Long id = expenseCategoryIds.get(name);
+        return id == null ? SuggestionRanker.NO_HINT : id;
+    }
+
+    private static boolean contains(long[] ids, long id) {
+        for (long value : ids) {
+            if (value == id) return true;
+        }
+        return false;
+    }
+
+    private static boolean containsIgnoreCase(@Nullable String text, String part) {
+        if (text == null) return false;
+        for (int i = 0; i + part.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, part, 0, part.length())) return true;
+        }
+        return false;
+    }
+}
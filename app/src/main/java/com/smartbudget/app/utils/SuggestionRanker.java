@@ -0,0 +1,260 @@
+package com.smartbudget.app.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Usage ranking of categories for quick-add, kept current from expense writes.
+ *
+ * <p>Each key (a category id) has a use count, an exponentially decayed use count (recency,
+ * half-life {@link #HALF_LIFE_MILLIS}) and hour-of-day / day-of-week histograms. {@link #record}
+ * and {@link #remove} update them in O(1); {@link #topK} scores every key against the query time
+ * and keeps the best k in a fixed buffer, so a query is a single pass over a few primitive arrays
+ * and allocates nothing - cheap enough to run on every keystroke.</p>
+ *
+ * <p>Score of a key at time t:</p>
+ * <pre>
+ * W_FREQUENCY * ln(1 + uses)
+ *   + W_RECENCY * m / (1 + m)          m = uses decayed to t
+ *   + W_HOUR    * share of uses in t's hour (neighbouring hours count half)
+ *   + W_WEEKDAY * share of uses on t's weekday
+ *   + W_HINT    if the key is the hinted one (note keywords)
+ * </pre>
+ *
+ * <p>Decayed counts are stored as {@code sum(exp(LAMBDA * (date - anchor)))} for a fixed anchor,
+ * so a new use adds one term and the query multiplies by a single {@code exp()}; the anchor is
+ * moved forward before the terms could overflow.</p>
+ *
+ * <p>Not thread-safe; {@code SuggestionEngine} guards it with a lock.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class SuggestionRanker {
+
+    /** Hint value meaning "no hinted key" */
+    public static final long NO_HINT = Long.MIN_VALUE;
+
+    static final double W_FREQUENCY = 1.0;
+    static final double W_RECENCY = 2.0;
+    static final double W_HOUR = 1.5;
+    static final double W_WEEKDAY = 0.75;
+    static final double W_HINT = 4.0;
+
+    static final long HALF_LIFE_MILLIS = 14 * EpochDays.DAY_MILLIS;
+
+    private static final long HOUR_MILLIS = 60 * 60 * 1000L;
+    private static final double LAMBDA = Math.log(2) / HALF_LIFE_MILLIS;
+    // exp(600) is still far from overflow; rebase the anchor past that
+    private static final double MAX_EXPONENT = 600;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] uses = new int[INITIAL_CAPACITY];
+    private double[] frequency = new double[INITIAL_CAPACITY]; // ln(1 + uses), kept with uses
+    private double[] decayed = new double[INITIAL_CAPACITY];
+    private int[] hours = new int[INITIAL_CAPACITY * 24];
+    private int[] weekdays = new int[INITIAL_CAPACITY * 7];
+    private int size;
+    private boolean anchored;
+    private long anchor;
+
+    // topK scratch, reused between calls
+    private double[] bestScores = new double[0];
+
+    // ==================== Updates ====================
+
+    /**
+     * Counts one use of {@code key} at {@code millis}.
+     */
+    public void record(long key, long millis) {
+        if (!anchored) {
+            anchored = true;
+            anchor = millis;
+        } else if (LAMBDA * (millis - anchor) > MAX_EXPONENT) {
+            rebase(millis);
+        }
+        int slot = slotOf(key);
+        uses[slot]++;
+        frequency[slot] = Math.log1p(uses[slot]);
+        decayed[slot] += weight(millis);
+        hours[slot * 24 + hourOf(millis)]++;
+        weekdays[slot * 7 + weekdayOf(millis)]++;
+    }
+
+    /**
+     * Takes back a use passed to {@link #record} (expense deleted or moved). Unknown keys are
+     * ignored.
+     */
+    public void remove(long key, long millis) {
+        Integer slot = slots.get(key);
+        if (slot == null || uses[slot] == 0) return;
+        uses[slot]--;
+        frequency[slot] = Math.log1p(uses[slot]);
+        decayed[slot] = uses[slot] == 0 ? 0 : Math.max(0, decayed[slot] - weight(millis));
+        int hour = slot * 24 + hourOf(millis);
+        int weekday = slot * 7 + weekdayOf(millis);
+        if (hours[hour] > 0) hours[hour]--;
+        if (weekdays[weekday] > 0) weekdays[weekday]--;
+    }
+
+    /** Forgets every use. */
+    public void clear() {
+        slots.clear();
+        size = 0;
+        anchored = false;
+        Arrays.fill(uses, 0);
+        Arrays.fill(frequency, 0);
+        Arrays.fill(decayed, 0);
+        Arrays.fill(hours, 0);
+        Arrays.fill(weekdays, 0);
+    }
+
+    /** Number of recorded uses of {@code key}. */
+    public int usesOf(long key) {
+        Integer slot = slots.get(key);
+        return slot == null ? 0 : uses[slot];
+    }
+
+    // ==================== Queries ====================
+
+    /**
+     * Score of {@code key} at {@code now}; 0 for a key without uses that is not hinted.
+     */
+    public double score(long key, long now, long hintKey) {
+        double hint = key == hintKey ? W_HINT : 0;
+        Integer slot = slots.get(key);
+        if (slot == null || uses[slot] == 0) return hint;
+        return scoreOf(slot, decayFactor(now), hourOf(now), weekdayOf(now)) + hint;
+    }
+
+    /**
+     * Writes the best {@code k} keys at {@code now} into {@code out}, best first. Only keys with
+     * uses take part, plus {@code hintKey} even if it was never used. Ties go to the lower key.
+     *
+     * @return Number of keys written, at most {@code min(k, out.length)}
+     */
+    public int topK(long now, long hintKey, int k, long[] out) {
+        k = Math.min(k, out.length);
+        if (k <= 0) return 0;
+        if (bestScores.length < k) {
+            bestScores = new double[k];
+        }
+        double factor = decayFactor(now);
+        int hour = hourOf(now);
+        int weekday = weekdayOf(now);
+
+        int count = 0;
+        boolean hintSeen = false;
+        for (int slot = 0; slot < size; slot++) {
+            if (uses[slot] == 0) continue;
+            long key = keys[slot];
+            double score = scoreOf(slot, factor, hour, weekday);
+            if (key == hintKey) {
+                score += W_HINT;
+                hintSeen = true;
+            }
+            count = offer(key, score, out, k, count);
+        }
+        if (!hintSeen && hintKey != NO_HINT) {
+            count = offer(hintKey, W_HINT, out, k, count);
+        }
+        return count;
+    }
+
+    /**
+     * Indices of the {@code k} largest of {@code scores[0..n)}, best first, ties to the lower
+     * index; for ranking small lists (templates) by {@link #score}.
+     *
+     * @return Number of indices written to {@code out}
+     */
+    public static int selectTop(double[] scores, int n, int k, int[] out) {
+        k = Math.min(k, Math.min(n, out.length));
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int pos = count;
+            while (pos > 0 && scores[out[pos - 1]] < scores[i]) pos--;
+            if (pos >= k) continue;
+            int last = Math.min(count, k - 1);
+            System.arraycopy(out, pos, out, pos + 1, last - pos);
+            out[pos] = i;
+            if (count < k) count++;
+        }
+        return count;
+    }
+
+    // ==================== Internals ====================
+
+    private double scoreOf(int slot, double factor, int hour, int weekday) {
+        int n = uses[slot];
+        double recent = decayed[slot] * factor;
+        int h = slot * 24;
+        int aroundHour = 2 * hours[h + hour]
+                + hours[h + (hour + 23) % 24]
+                + hours[h + (hour + 1) % 24];
+        return W_FREQUENCY * frequency[slot]
+                + W_RECENCY * recent / (1 + recent)
+                + W_HOUR * aroundHour / (2.0 * n)
+                + W_WEEKDAY * weekdays[slot * 7 + weekday] / (double) n;
+    }
+
+    /** Inserts (key, score) into the sorted buffer {@code out[0..count)} of capacity k. */
+    private int offer(long key, double score, long[] out, int k, int count) {
+        int pos = count;
+        while (pos > 0 && (bestScores[pos - 1] < score
+                || (bestScores[pos - 1] == score && out[pos - 1] > key))) {
+            pos--;
+        }
+        if (pos >= k) return count;
+        int last = Math.min(count, k - 1);
+        System.arraycopy(out, pos, out, pos + 1, last - pos);
+        System.arraycopy(bestScores, pos, bestScores, pos + 1, last - pos);
+        out[pos] = key;
+        bestScores[pos] = score;
+        return count < k ? count + 1 : count;
+    }
+
+    private int slotOf(long key) {
+        Integer slot = slots.get(key);
+        if (slot != null) return slot;
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            uses = Arrays.copyOf(uses, capacity);
+            frequency = Arrays.copyOf(frequency, capacity);
+            decayed = Arrays.copyOf(decayed, capacity);
+            hours = Arrays.copyOf(hours, capacity * 24);
+            weekdays = Arrays.copyOf(weekdays, capacity * 7);
+        }
+        keys[size] = key;
+        slots.put(key, size);
+        return size++;
+    }
+
+    private double weight(long millis) {
+        return Math.exp(LAMBDA * (millis - anchor));
+    }
+
+    private double decayFactor(long now) {
+        return anchored ? Math.exp(LAMBDA * (anchor - now)) : 0;
+    }
+
+    private void rebase(long newAnchor) {
+        double factor = Math.exp(LAMBDA * (anchor - newAnchor));
+        for (int i = 0; i < size; i++) {
+            decayed[i] *= factor;
+        }
+        anchor = newAnchor;
+    }
+
+    private static int hourOf(long millis) {
+        long local = millis + EpochDays.offsetAt(millis);
+        return (int) (Math.floorMod(local, EpochDays.DAY_MILLIS) / HOUR_MILLIS);
+    }
+
+    private static int weekdayOf(long millis) {
+        return EpochDays.dayOfWeek(EpochDays.dayIndex(millis));
+    }
+}
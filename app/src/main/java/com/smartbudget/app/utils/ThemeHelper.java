@@ -1,17 +1,18 @@
 package com.smartbudget.app.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
 /**
  * Theme customization helper.
  * Allows users to personalize their app appearance.
+ * Choices are kept in {@link AppPreferences}.
  */
 public class ThemeHelper {
 
-    private static final String PREFS_NAME = "theme_prefs";
-    private static final String KEY_THEME = "selected_theme";
-    private static final String KEY_ACCENT_COLOR = "accent_color";
+    private static final KeyValueStore.Key<String> KEY_THEME =
+            KeyValueStore.stringKey("theme.selected_theme", "system");
+    private static final KeyValueStore.Key<String> KEY_ACCENT_COLOR =
+            KeyValueStore.stringKey("theme.accent_color", "#2E7D32");
 
     public enum AppTheme {
         LIGHT("light", "☀️ Sáng"),
@@ -49,8 +50,7 @@ public class ThemeHelper {
      * Get current theme.
      */
     public static AppTheme getCurrentTheme(Context context) {
-        String themeId = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
-                .getString(KEY_THEME, AppTheme.SYSTEM.id);
+        String themeId = AppPreferences.get(context).get(KEY_THEME);
 
         for (AppTheme theme : AppTheme.values()) {
             if (theme.id.equals(themeId)) {
@@ -64,18 +64,14 @@ public class ThemeHelper {
      * Set theme.
      */
     public static void setTheme(Context context, AppTheme theme) {
-        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
-                .edit()
-                .putString(KEY_THEME, theme.id)
-                .apply();
+        AppPreferences.get(context).put(KEY_THEME, theme.id);
     }
 
     /**
      * Get current accent color.
      */
     public static AccentColor getCurrentAccentColor(Context context) {
-        String colorHex = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
-                .getString(KEY_ACCENT_COLOR, AccentColor.GREEN.colorHex);
+        String colorHex = AppPreferences.get(context).get(KEY_ACCENT_COLOR);
 
         for (AccentColor color : AccentColor.values()) {
             if (color.colorHex.equals(colorHex)) {
@@ -89,10 +85,7 @@ public class ThemeHelper {
      * Set accent color.
      */
     public static void setAccentColor(Context context, AccentColor color) {
-        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
-                .edit()
-                .putString(KEY_ACCENT_COLOR, color.colorHex)
-                .apply();
+        AppPreferences.get(context).put(KEY_ACCENT_COLOR, color.colorHex);
     }
 
     /**
@@ -1,31 +1,27 @@
 package com.smartbudget.app.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import androidx.appcompat.app.AppCompatDelegate;
 
 public class ThemeManager {
-    private static final String PREF_NAME = "theme_prefs";
-    private static final String KEY_THEME = "key_theme";
-    
     public static final int THEME_SYSTEM = AppCompatDelegate.MODE_NIGHT_FOLLOW_SYSTEM;
     public static final int THEME_LIGHT = AppCompatDelegate.MODE_NIGHT_NO;
     public static final int THEME_DARK = AppCompatDelegate.MODE_NIGHT_YES;
 
+    // Night mode, in AppPreferences (was theme_prefs/key_theme)
+    private static final KeyValueStore.Key<Integer> KEY_THEME = KeyValueStore.intKey("theme.key_theme", THEME_SYSTEM);
+
     public static void applyTheme(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        int themeMode = prefs.getInt(KEY_THEME, THEME_SYSTEM);
+        int themeMode = AppPreferences.get(context).get(KEY_THEME);
         AppCompatDelegate.setDefaultNightMode(themeMode);
     }
 
     public static void saveThemePreference(Context context, int themeMode) {
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        prefs.edit().putInt(KEY_THEME, themeMode).apply();
+        AppPreferences.get(context).put(KEY_THEME, themeMode);
         AppCompatDelegate.setDefaultNightMode(themeMode);
     }
     
     public static int getStoredTheme(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        return prefs.getInt(KEY_THEME, THEME_SYSTEM);
+        return AppPreferences.get(context).get(KEY_THEME);
     }
 }
@@ -0,0 +1,281 @@
+package com.smartbudget.app.utils;
+
+import android.database.Cursor;
+
+import com.smartbudget.app.data.local.entity.CategoryEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar, primitive in-memory store for transaction analytics.
+ *
+ * <p>Rows are kept in parallel arrays sorted by date ascending, so a date range maps to a
+ * contiguous row slice ({@link #lowerBound}). Categories are dictionary-encoded into dense
+ * indexes; the kernels below are plain loops over primitive arrays and allocate nothing.</p>
+ *
+ * <h3>Usage:</h3>
+ * <pre>
+ * TransactionFrame frame = expenseRepository.loadTransactionFrame(start, end); // background thread
+ * double[] byCategory = new double[frame.getCategoryCount()];
+ * frame.sumByCategory(0, frame.size(), byCategory);
+ * </pre>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+public final class TransactionFrame {
+
+    /** Category type stored for rows whose category is unknown or deleted. */
+    public static final int TYPE_UNKNOWN = -1;
+    public static final int TYPE_EXPENSE = 0;
+    public static final int TYPE_INCOME = 1;
+
+    // ==================== COLUMNS ====================
+
+    public final long[] dates;
+    public final double[] amounts;
+    public final int[] categoryIdx;
+    /** Local epoch day of each row (days since 1970-01-01 in the default zone). */
+    public final int[] dayIndex;
+
+    // Category dictionary - index -> name / type
+    private final String[] categoryNames;
+    private final int[] categoryTypes;
+
+    private final int size;
+
+    private TransactionFrame(int capacity, String[] categoryNames, int[] categoryTypes) {
+        this.dates = new long[capacity];
+        this.amounts = new double[capacity];
+        this.categoryIdx = new int[capacity];
+        this.dayIndex = new int[capacity];
+        this.categoryNames = categoryNames;
+        this.categoryTypes = categoryTypes;
+        this.size = capacity;
+    }
+
+    // ==================== FACTORIES ====================
+
+    /**
+     * Fills a frame straight from a Room cursor.
+     * Expected columns: {@code date}, {@code amount}, {@code categoryId}, ordered by date ascending
+     * (see ExpenseDao.getAnalyticsCursor). The cursor is closed by this method.
+     *
+     * @param cursor Expense rows
+     * @param categories All categories (used for the dictionary)
+     */
+    public static TransactionFrame fromCursor(Cursor cursor, List<CategoryEntity> categories) {
+        try {
+            int n = cursor.getCount();
+            int dictSize = categories.size();
+            long[] ids = new long[dictSize];
+            String[] names = new String[dictSize + 1];
+            int[] types = new int[dictSize + 1];
+
+            // Sort ids so lookups are a binary search instead of a boxed map
+            List<CategoryEntity> sorted = new ArrayList<>(categories);
+            Collections.sort(sorted, (a, b) -> Long.compare(a.getId(), b.getId()));
+            for (int i = 0; i < dictSize; i++) {
+                CategoryEntity cat = sorted.get(i);
+                ids[i] = cat.getId();
+                names[i] = cat.getName();
+                types[i] = cat.getType();
+            }
+            names[dictSize] = "Khác";
+            types[dictSize] = TYPE_UNKNOWN;
+
+            TransactionFrame frame = new TransactionFrame(n, names, types);
+            int dateCol = cursor.getColumnIndexOrThrow("date");
+            int amountCol = cursor.getColumnIndexOrThrow("amount");
+            int categoryCol = cursor.getColumnIndexOrThrow("categoryId");
+
+            int row = 0;
+            while (cursor.moveToNext() && row < n) {
+                long date = cursor.getLong(dateCol);
+                frame.dates[row] = date;
+                frame.amounts[row] = cursor.getDouble(amountCol);
+                if (cursor.isNull(categoryCol)) {
+                    frame.categoryIdx[row] = dictSize;
+                } else {
+                    int idx = Arrays.binarySearch(ids, cursor.getLong(categoryCol));
+                    frame.categoryIdx[row] = idx >= 0 ? idx : dictSize;
+                }
+                frame.dayIndex[row] = EpochDays.dayIndex(date);
+                row++;
+            }
+            return frame;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Builds a frame from boxed transactions (compatibility path for existing callers).
+     * Every category name is treated as an expense category.
+     */
+    public static TransactionFrame fromTransactions(List<PatternDetector.TransactionData> transactions) {
+        List<PatternDetector.TransactionData> sorted = new ArrayList<>(transactions);
+        Collections.sort(sorted, (a, b) -> Long.compare(a.date, b.date));
+
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        for (PatternDetector.TransactionData t : sorted) {
+            if (!dictionary.containsKey(t.category)) {
+                dictionary.put(t.category, names.size());
+                names.add(t.category);
+            }
+        }
+        int[] types = new int[names.size()];
+        Arrays.fill(types, TYPE_EXPENSE);
+
+        TransactionFrame frame = new TransactionFrame(sorted.size(), names.toArray(new String[0]), types);
+        for (int i = 0; i < sorted.size(); i++) {
+            PatternDetector.TransactionData t = sorted.get(i);
+            frame.dates[i] = t.date;
+            frame.amounts[i] = t.amount;
+            frame.categoryIdx[i] = dictionary.get(t.category);
+            frame.dayIndex[i] = EpochDays.dayIndex(t.date);
+        }
+        return frame;
+    }
+
+    // ==================== ACCESSORS ====================
+
+    public int size() {
+        return size;
+    }
+
+    public int getCategoryCount() {
+        return categoryNames.length;
+    }
+
+    public String getCategoryName(int idx) {
+        return categoryNames[idx];
+    }
+
+    public int getCategoryType(int idx) {
+        return categoryTypes[idx];
+    }
+
+    /**
+     * First row whose date is &gt;= the given timestamp (rows are sorted by date).
+     */
+    public int lowerBound(long date) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dates[mid] < date) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * First row whose local day is &gt;= the given epoch day.
+     */
+    public int lowerBoundDay(int epochDay) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dayIndex[mid] < epochDay) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // ==================== KERNELS ====================
+
+    /**
+     * Sum of amounts in rows [from, to).
+     */
+    public double sum(int from, int to) {
+        double total = 0;
+        for (int i = from; i < to; i++) {
+            total += amounts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Sum of amounts in rows [from, to) whose category has the given type.
+     */
+    public double sumByType(int from, int to, int type) {
+        double total = 0;
+        for (int i = from; i < to; i++) {
+            if (categoryTypes[categoryIdx[i]] == type) {
+                total += amounts[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Group-by category. {@code out} must have {@link #getCategoryCount()} slots and is overwritten.
+     */
+    public void sumByCategory(int from, int to, double[] out) {
+        Arrays.fill(out, 0);
+        for (int i = from; i < to; i++) {
+            out[categoryIdx[i]] += amounts[i];
+        }
+    }
+
+    /**
+     * Count of rows per category. {@code out} must have {@link #getCategoryCount()} slots.
+     */
+    public void countByCategory(int from, int to, int[] out) {
+        Arrays.fill(out, 0);
+        for (int i = from; i < to; i++) {
+            out[categoryIdx[i]]++;
+        }
+    }
+
+    /**
+     * Group-by day of week. Slots follow {@link java.util.Calendar#DAY_OF_WEEK} - 1
+     * (0 = Sunday ... 6 = Saturday); both arrays need 7 slots.
+     */
+    public void sumByDayOfWeek(int from, int to, double[] sums, int[] counts) {
+        Arrays.fill(sums, 0);
+        Arrays.fill(counts, 0);
+        for (int i = from; i < to; i++) {
+            int dow = EpochDays.dayOfWeek(dayIndex[i]);
+            sums[dow] += amounts[i];
+            counts[dow]++;
+        }
+    }
+
+    /**
+     * Group-by local day. Slot k accumulates epoch day {@code firstDay + k}; rows outside
+     * [firstDay, firstDay + out.length) are ignored.
+     */
+    public void sumByDay(int from, int to, int firstDay, double[] out) {
+        Arrays.fill(out, 0);
+        int slots = out.length;
+        for (int i = from; i < to; i++) {
+            int slot = dayIndex[i] - firstDay;
+            if (slot >= 0 && slot < slots) {
+                out[slot] += amounts[i];
+            }
+        }
+    }
+
+    /**
+     * Group-by month for rows of the given category type. Slot k accumulates month index
+     * {@code firstMonth + k} (see {@link EpochDays#monthIndexOfDay}).
+     */
+    public void sumByMonth(int from, int to, int type, int firstMonth, double[] out) {
+        Arrays.fill(out, 0);
+        int slots = out.length;
+        for (int i = from; i < to; i++) {
+            if (categoryTypes[categoryIdx[i]] != type) continue;
+            int slot = EpochDays.monthIndexOfDay(dayIndex[i]) - firstMonth;
+            if (slot >= 0 && slot < slots) {
+                out[slot] += amounts[i];
+            }
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.smartbudget.app.utils;
 
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
@@ -8,16 +7,28 @@ import android.graphics.Paint;
 import android.graphics.Path;
 import android.util.AttributeSet;
 import android.view.View;
-import android.view.animation.LinearInterpolator;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 /**
  * Animated wave view.
  * Creates beautiful flowing wave animation for backgrounds.
+ *
+ * <p>Driven by a {@link FrameTicker}, so it only animates while visible on screen. The number
+ * of segments per wave adapts to the measured frame time (see {@link #getFrameBudget()}).</p>
  */
 public class WaveView extends View {
 
+    // One full cycle of the phase, in seconds
+    private static final float CYCLE_SECONDS = 3f;
+    private static final float TWO_PI = (float) (2 * Math.PI);
+    private static final int MIN_SEGMENTS = 16;
+    private static final int SEGMENTS = 64;
+    private static final int MAX_SEGMENTS = 128;
+    // Segments narrower than this add nothing visible
+    private static final int MIN_SEGMENT_PX = 4;
+
     private Paint wavePaint1;
     private Paint wavePaint2;
     private Paint wavePaint3;
@@ -29,7 +40,8 @@ public class WaveView extends View {
     
     private float waveHeight = 80f;
     private int waveColor = Color.parseColor("#4CAF50");
-    private ValueAnimator animator;
+    private final FrameBudget budget = new FrameBudget(MIN_SEGMENTS, SEGMENTS, MAX_SEGMENTS);
+    private FrameTicker ticker;
 
     public WaveView(Context context) {
         super(context);
@@ -60,6 +72,12 @@ public class WaveView extends View {
         wavePaint3.setColor(adjustAlpha(waveColor, 0.7f));
 
         wavePath = new Path();
+        ticker = new FrameTicker(this, budget, (dt, level) -> {
+            phase1 = (phase1 + dt * TWO_PI / CYCLE_SECONDS) % TWO_PI;
+            phase2 = phase1 + 0.5f;
+            phase3 = phase1 + 1f;
+            return true;
+        });
     }
 
     private int adjustAlpha(int color, float factor) {
@@ -73,31 +91,20 @@ public class WaveView extends View {
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
-        startAnimation();
+        ticker.update();
     }
 
-    private void startAnimation() {
-        if (animator != null && animator.isRunning()) {
-            animator.cancel();
-        }
-
-        animator = ValueAnimator.ofFloat(0, (float) (2 * Math.PI));
-        animator.setDuration(3000);
-        animator.setRepeatCount(ValueAnimator.INFINITE);
-        animator.setInterpolator(new LinearInterpolator());
-        animator.addUpdateListener(animation -> {
-            phase1 = (float) animation.getAnimatedValue();
-            phase2 = phase1 + 0.5f;
-            phase3 = phase1 + 1f;
-            invalidate();
-        });
-        animator.start();
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        ticker.setViewVisible(isVisible);
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
-        
+        long start = System.nanoTime();
+
         int width = getWidth();
         int height = getHeight();
         int baseY = height - (int) (waveHeight * 2);
@@ -106,6 +113,7 @@ public class WaveView extends View {
         drawWave(canvas, wavePaint1, phase1, baseY, width, height, 1.0f);
         drawWave(canvas, wavePaint2, phase2, baseY + 20, width, height, 0.8f);
         drawWave(canvas, wavePaint3, phase3, baseY + 40, width, height, 0.6f);
+        budget.recordDraw(System.nanoTime() - start);
     }
 
     private void drawWave(Canvas canvas, Paint paint, float phase, int baseY, 
@@ -113,9 +121,12 @@ public class WaveView extends View {
         wavePath.reset();
         wavePath.moveTo(0, height);
 
-        for (int x = 0; x <= width; x += 10) {
-            float y = baseY + (float) (waveHeight * amplitude * 
-                    Math.sin((x / (float) width * 2 * Math.PI) + phase));
+        int segments = Math.max(1, Math.min(budget.getLevel(), width / MIN_SEGMENT_PX));
+        float step = width / (float) segments;
+        for (int i = 0; i <= segments; i++) {
+            float x = i * step;
+            float y = baseY + (float) (waveHeight * amplitude *
+                    Math.sin((i / (float) segments * TWO_PI) + phase));
             wavePath.lineTo(x, y);
         }
 
@@ -138,14 +149,16 @@ public class WaveView extends View {
     }
 
     public void stopAnimation() {
-        if (animator != null) {
-            animator.cancel();
-        }
+        ticker.setEnabled(false);
     }
 
-    @Override
-    protected void onDetachedFromWindow() {
-        super.onDetachedFromWindow();
-        stopAnimation();
+    public void resumeAnimation() {
+        ticker.setEnabled(true);
+    }
+
+    /** Frame-time metric and current segment budget of this view. */
+    @NonNull
+    public FrameBudget getFrameBudget() {
+        return budget;
     }
 }
@@ -0,0 +1,157 @@
+package com.smartbudget.app.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Times named operations and writes the results as JSON.
+ *
+ * <p>Each operation runs a few warm-up iterations, then is timed per iteration; the report
+ * keeps median, p90, min and max in microseconds. When {@code -Dbenchmark.baseline} points
+ * at an earlier report, the console summary shows the change of each median against it, so
+ * a query or index change can be judged by numbers.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+final class BenchmarkRecorder {
+
+    /** Timed body; may throw so the benchmarks can call I/O directly. */
+    interface Op {
+        void run() throws Exception;
+    }
+
+    static final class Result {
+        final String group;
+        final String name;
+        final int iterations;
+        final double medianMicros;
+        final double p90Micros;
+        final double minMicros;
+        final double maxMicros;
+        Double baselineMedianMicros;
+
+        Result(String group, String name, long[] nanos) {
+            long[] sorted = nanos.clone();
+            Arrays.sort(sorted);
+            this.group = group;
+            this.name = name;
+            this.iterations = sorted.length;
+            this.medianMicros = sorted[sorted.length / 2] / 1_000.0;
+            this.p90Micros = sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.9) - 1)] / 1_000.0;
+            this.minMicros = sorted[0] / 1_000.0;
+            this.maxMicros = sorted[sorted.length - 1] / 1_000.0;
+        }
+    }
+
+    private final int warmup;
+    private final int iterations;
+    private final List<Result> results = new ArrayList<>();
+    private final Map<String, Object> context = new LinkedHashMap<>();
+
+    BenchmarkRecorder(int warmup, int iterations) {
+        this.warmup = warmup;
+        this.iterations = iterations;
+    }
+
+    /** Warm-up and iteration counts from -Dbenchmark.warmup / -Dbenchmark.iterations. */
+    static BenchmarkRecorder fromSystemProperties() {
+        return new BenchmarkRecorder(
+                Integer.getInteger("benchmark.warmup", 3),
+                Integer.getInteger("benchmark.iterations", 15));
+    }
+
+    /** Extra top-level field in the report, e.g. the dataset description. */
+    void put(String key, Object value) {
+        context.put(key, value);
+    }
+
+    void measure(String group, String name, Op op) throws Exception {
+        measure(group, name, iterations, null, op);
+    }
+
+    /**
+     * @param iterations Timed iterations, for operations too slow for the default count
+     * @param setup      Untimed work before every iteration (warm-up included), or null
+     */
+    void measure(String group, String name, int iterations, Op setup, Op op) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            if (setup != null) setup.run();
+            op.run();
+        }
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            if (setup != null) setup.run();
+            long start = System.nanoTime();
+            op.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        results.add(new Result(group, name, nanos));
+    }
+
+    // ==================== Report ====================
+
+    /** Fills in baseline medians, prints a summary and writes the JSON report. */
+    void report(File output, File baseline) throws IOException {
+        Map<String, Double> previous = baseline != null && baseline.isFile() ? readMedians(baseline) : new HashMap<>();
+        StringBuilder summary = new StringBuilder("\n");
+        for (Result r : results) {
+            String key = r.group + "/" + r.name;
+            r.baselineMedianMicros = previous.get(key);
+            summary.append(String.format(Locale.US, "%-55s %12.1f us  p90 %12.1f us", key, r.medianMicros, r.p90Micros));
+            if (r.baselineMedianMicros != null && r.baselineMedianMicros > 0) {
+                summary.append(String.format(Locale.US, "  %+6.1f%%",
+                        (r.medianMicros / r.baselineMedianMicros - 1) * 100));
+            }
+            summary.append('\n');
+        }
+        System.out.println(summary);
+
+        Map<String, Object> report = new LinkedHashMap<>(context);
+        report.put("timestampMillis", System.currentTimeMillis());
+        report.put("jvm", System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+        report.put("warmup", warmup);
+        report.put("results", results);
+
+        File dir = output.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        try (Writer writer = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(report, writer);
+        }
+        System.out.println("Benchmark report: " + output.getAbsolutePath());
+    }
+
+    private static Map<String, Double> readMedians(File baseline) throws IOException {
+        Map<String, Double> medians = new HashMap<>();
+        try (Reader reader = Files.newBufferedReader(baseline.toPath(), StandardCharsets.UTF_8)) {
+            Report report = new Gson().fromJson(reader, Report.class);
+            if (report != null && report.results != null) {
+                for (Result r : report.results) {
+                    medians.put(r.group + "/" + r.name, r.medianMicros);
+                }
+            }
+        }
+        return medians;
+    }
+
+    // Shape of a report when read back as a baseline
+    private static final class Report {
+        List<Result> results;
+    }
+}
@@ -0,0 +1,393 @@
+package com.smartbudget.app.benchmark;
+
+import android.app.Application;
+import android.database.Cursor;
+import android.net.Uri;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.smartbudget.app.data.local.AppDatabase;
+import com.smartbudget.app.data.local.dao.BudgetDao;
+import com.smartbudget.app.data.local.dao.CategoryDao;
+import com.smartbudget.app.data.local.dao.DebtDao;
+import com.smartbudget.app.data.local.dao.ExpenseDao;
+import com.smartbudget.app.data.local.dao.ExpenseTemplateDao;
+import com.smartbudget.app.data.local.dao.LocationTagDao;
+import com.smartbudget.app.data.local.dao.SavingsGoalDao;
+import com.smartbudget.app.data.local.entity.DebtEntity;
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.data.local.entity.ExpenseTemplateEntity;
+import com.smartbudget.app.data.local.entity.LocationTagEntity;
+import com.smartbudget.app.data.repository.BudgetRepository;
+import com.smartbudget.app.data.repository.ExpenseRepository;
+import com.smartbudget.app.data.repository.SavingsGoalRepository;
+import com.smartbudget.app.utils.BackupManager;
+import com.smartbudget.app.utils.CsvImporter;
+import com.smartbudget.app.utils.EpochDays;
+import com.smartbudget.app.utils.SavingsProjection;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Room DAO, repository and import/backup benchmarks on the JVM.
+ *
+ * <p>Seeds a {@link SyntheticDataset} into an in-memory Room database (Robolectric's native
+ * SQLite) and times every ExpenseDao, BudgetDao and SavingsGoalDao query, the single-row
+ * writes of the stores that used to live in SharedPreferences, the repositories' aggregate
+ * paths, CsvImporter and BackupManager. LiveData queries are timed from observe to first
+ * value, which is what a screen waits for. Numbers are JVM numbers - compare runs with
+ * each other, not with a device.</p>
+ *
+ * <p>Excluded from the normal unit test run. Run with:</p>
+ * <pre>
+ * ./gradlew :app:testDebugUnitTest -Pbenchmark [-Pbenchmark.users=5 -Pbenchmark.years=5
+ *     -Pbenchmark.categories=20 -Pbenchmark.baseline=path/to/previous.json]
+ * </pre>
+ * The report is written to {@code app/build/benchmark/dao-benchmark.json}.
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+public class DaoBenchmark {
+
+    private static final int CSV_ROWS = 1_000;
+    private static final int SLOW_ITERATIONS = 3;
+    /** Rows per former SharedPreferences store; far more than a real user has */
+    private static final int STORE_ROWS = 500;
+
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutor = new InstantTaskExecutorRule();
+
+    private Application app;
+    private AppDatabase db;
+    private SyntheticDataset dataset;
+    private BenchmarkRecorder recorder;
+
+    // Query parameters, all inside the seeded range
+    private long monthStart;
+    private long monthEnd;
+    private long yearStart;
+    private long now;
+    private int month;
+    private int year;
+    private long categoryId;
+    private long expenseId;
+
+    @Before
+    public void setUp() {
+        app = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(app, AppDatabase.class)
+                .allowMainThreadQueries()
+                // Run LiveData queries on the calling thread so they can be timed
+                .setQueryExecutor(Runnable::run)
+                .setTransactionExecutor(Runnable::run)
+                .build();
+        AppDatabase.setInstanceForTesting(db);
+
+        dataset = SyntheticDataset.fromSystemProperties();
+        long seedStart = System.nanoTime();
+        dataset.seed(db);
+        System.out.printf("Seeded %s in %d ms%n", dataset, (System.nanoTime() - seedStart) / 1_000_000);
+
+        recorder = BenchmarkRecorder.fromSystemProperties();
+        recorder.put("dataset", dataset.toString());
+        recorder.put("users", dataset.users);
+        recorder.put("years", dataset.years);
+        recorder.put("categories", dataset.categories);
+        recorder.put("expenseRows", dataset.expenseRows);
+
+        int monthIndex = EpochDays.monthIndexOfDay(EpochDays.today());
+        monthStart = EpochDays.startOfMonth(monthIndex);
+        monthEnd = EpochDays.endOfMonth(monthIndex);
+        yearStart = EpochDays.startOfMonth(monthIndex - 11);
+        now = System.currentTimeMillis();
+        month = EpochDays.monthOf(monthIndex);
+        year = EpochDays.yearOf(monthIndex);
+        categoryId = dataset.expenseCategoryIds.get(0);
+        expenseId = dataset.expenseRows / 2;
+    }
+
+    @After
+    public void tearDown() {
+        AppDatabase.setInstanceForTesting(null);
+        db.close();
+    }
+
+    @Test
+    public void benchmarkAll() throws Exception {
+        expenseDao();
+        budgetDao();
+        savingsGoalDao();
+        localStores();
+        repositories();
+        importAndBackup();
+
+        String output = System.getProperty("benchmark.output", "build/benchmark/dao-benchmark.json");
+        String baseline = System.getProperty("benchmark.baseline");
+        recorder.report(new File(output), baseline != null && !baseline.isEmpty() ? new File(baseline) : null);
+    }
+
+    // ==================== ExpenseDao ====================
+
+    private void expenseDao() throws Exception {
+        ExpenseDao dao = db.expenseDao();
+        long offset = EpochDays.offsetAt(now);
+        String g = "ExpenseDao";
+
+        recorder.measure(g, "getAllExpenses", () -> first(dao.getAllExpenses()));
+        recorder.measure(g, "getAllExpensesSync", dao::getAllExpensesSync);
+        recorder.measure(g, "getExpenseById", () -> dao.getExpenseById(expenseId));
+        recorder.measure(g, "getExpenseByIdLive", () -> first(dao.getExpenseByIdLive(expenseId)));
+        recorder.measure(g, "getExpensesByDateRange.month", () -> first(dao.getExpensesByDateRange(monthStart, monthEnd)));
+        recorder.measure(g, "getExpensesByDateRange.year", () -> first(dao.getExpensesByDateRange(yearStart, monthEnd)));
+        recorder.measure(g, "getExpensesByCategory", () -> first(dao.getExpensesByCategory(categoryId)));
+        recorder.measure(g, "getRecentExpenses.10", () -> first(dao.getRecentExpenses(10)));
+        recorder.measure(g, "getTotalExpenseByDateRange", () -> first(dao.getTotalExpenseByDateRange(monthStart, monthEnd)));
+        recorder.measure(g, "getTotalIncomeByDateRange", () -> first(dao.getTotalIncomeByDateRange(monthStart, monthEnd)));
+        recorder.measure(g, "getTotalIncomeSync", () -> dao.getTotalIncomeSync(monthStart, monthEnd));
+        recorder.measure(g, "getTotalByDateRange", () -> dao.getTotalByDateRange(monthStart, monthEnd));
+        recorder.measure(g, "getTotalByCategoryAndDateRange",
+                () -> dao.getTotalByCategoryAndDateRange(categoryId, monthStart, monthEnd));
+        recorder.measure(g, "getExpenseTotalsByCategory", () -> first(dao.getExpenseTotalsByCategory(monthStart, monthEnd)));
+        recorder.measure(g, "getDailyExpenseTotals.year", () -> first(dao.getDailyExpenseTotals(yearStart, monthEnd, offset)));
+        recorder.measure(g, "getWeeklyExpenseTotals.year", () -> first(dao.getWeeklyExpenseTotals(yearStart, monthEnd, offset)));
+        recorder.measure(g, "getMonthlyExpenseTotals.all", () -> first(dao.getMonthlyExpenseTotals(0, now, offset)));
+        recorder.measure(g, "getAnalyticsCursor.year", () -> drain(dao.getAnalyticsCursor(yearStart, monthEnd)));
+        recorder.measure(g, "getExpensesWithReceipts", () -> first(dao.getExpensesWithReceipts()));
+        recorder.measure(g, "getReceiptPathsSync", dao::getReceiptPathsSync);
+        recorder.measure(g, "getUnsyncedExpenses", dao::getUnsyncedExpenses);
+        recorder.measure(g, "insert", () -> {
+            ExpenseEntity expense = new ExpenseEntity();
+            expense.setAmount(50_000);
+            expense.setCategoryId(categoryId);
+            expense.setDate(now);
+            dao.insert(expense);
+        });
+    }
+
+    // ==================== BudgetDao ====================
+
+    private void budgetDao() throws Exception {
+        BudgetDao dao = db.budgetDao();
+        String g = "BudgetDao";
+
+        recorder.measure(g, "findBudgetId", () -> dao.findBudgetId(categoryId, month, year));
+        recorder.measure(g, "getBudgetsByMonthYear", () -> first(dao.getBudgetsByMonthYear(month, year)));
+        recorder.measure(g, "getTotalBudget", () -> dao.getTotalBudget(month, year));
+        recorder.measure(g, "getTotalBudgetLive", () -> first(dao.getTotalBudgetLive(month, year)));
+        recorder.measure(g, "getBudgetByCategory", () -> dao.getBudgetByCategory(categoryId, month, year));
+        recorder.measure(g, "getBudgetByCategoryLive", () -> first(dao.getBudgetByCategoryLive(categoryId, month, year)));
+        recorder.measure(g, "getBudgetById", () -> dao.getBudgetById(1));
+        recorder.measure(g, "getAllBudgetsSync", dao::getAllBudgetsSync);
+    }
+
+    // ==================== SavingsGoalDao ====================
+
+    private void savingsGoalDao() throws Exception {
+        SavingsGoalDao dao = db.savingsGoalDao();
+        String g = "SavingsGoalDao";
+
+        recorder.measure(g, "getAllGoals", () -> first(dao.getAllGoals()));
+        recorder.measure(g, "getActiveGoals", () -> first(dao.getActiveGoals()));
+        recorder.measure(g, "getCompletedGoals", () -> first(dao.getCompletedGoals()));
+        recorder.measure(g, "getGoalById", () -> dao.getGoalById(1));
+        recorder.measure(g, "getGoalByIdLive", () -> first(dao.getGoalByIdLive(1)));
+        recorder.measure(g, "getTotalSavings", () -> first(dao.getTotalSavings()));
+        recorder.measure(g, "getActiveGoalCount", () -> first(dao.getActiveGoalCount()));
+        recorder.measure(g, "getActiveGoalsSync", dao::getActiveGoalsSync);
+        recorder.measure(g, "getCompletedGoalsSync", dao::getCompletedGoalsSync);
+        recorder.measure(g, "getTotalSavedSync", dao::getTotalSavedSync);
+        recorder.measure(g, "getGoalProgress", () -> first(dao.getGoalProgress(
+                SavingsProjection.windowStart(now))));
+    }
+
+    // ==================== Former SharedPreferences Stores ====================
+
+    /**
+     * Each of these used to parse, modify and rewrite a whole Gson list per call; now they are
+     * single-row updates and indexed top-N reads.
+     */
+    private void localStores() throws Exception {
+        ExpenseTemplateDao templates = db.expenseTemplateDao();
+        DebtDao debts = db.debtDao();
+        LocationTagDao locations = db.locationTagDao();
+        CategoryDao categories = db.categoryDao();
+        Random random = new Random(42);
+        long[] templateIds = new long[STORE_ROWS];
+        long[] debtIds = new long[STORE_ROWS];
+        long[] locationIds = new long[STORE_ROWS];
+        for (int i = 0; i < STORE_ROWS; i++) {
+            ExpenseTemplateEntity template = new ExpenseTemplateEntity("Mẫu " + i, "☕",
+                    (1 + random.nextInt(100)) * 5_000, "Ăn uống", null);
+            template.setUsageCount(random.nextInt(200));
+            templateIds[i] = templates.insert(template);
+            double amount = (1 + random.nextInt(500)) * 1_000_000;
+            debtIds[i] = debts.insert(new DebtEntity("Khoản " + i, "LOAN", amount,
+                    random.nextInt(360) / 10.0, amount / 24, 1 + random.nextInt(28)));
+            LocationTagEntity location = new LocationTagEntity("Địa điểm " + i, "📍");
+            location.setUsageCount(random.nextInt(200));
+            location.setTotalSpend(location.getUsageCount() * 50_000.0);
+            locationIds[i] = locations.insert(location);
+        }
+        String g = "LocalStores";
+
+        recorder.measure(g, "ExpenseTemplate.incrementUsage",
+                () -> templates.incrementUsage(templateIds[random.nextInt(STORE_ROWS)]));
+        recorder.measure(g, "ExpenseTemplate.getMostUsed.5", () -> templates.getMostUsed(5));
+        recorder.measure(g, "Debt.makePayment",
+                () -> debts.makePayment(debtIds[random.nextInt(STORE_ROWS)], 100_000));
+        recorder.measure(g, "Debt.getByInterestRateDesc", debts::getByInterestRateDesc);
+        recorder.measure(g, "Debt.getTotalRemaining", debts::getTotalRemaining);
+        recorder.measure(g, "LocationTag.recordSpend",
+                () -> locations.recordSpend(locationIds[random.nextInt(STORE_ROWS)], 50_000));
+        recorder.measure(g, "LocationTag.getTopSpending.5", () -> locations.getTopSpending(5));
+        recorder.measure(g, "Category.incrementUsage", () -> categories.incrementUsage("Ăn uống", 0));
+        recorder.measure(g, "Category.getMostUsed.5", () -> categories.getMostUsed(0, 5));
+        recorder.measure(g, "SavingsContributions.add", () -> db.savingsContributions().add(1, 10_000, now));
+    }
+
+    // ==================== Repositories ====================
+
+    private void repositories() throws Exception {
+        ExpenseRepository expenses = new ExpenseRepository(app);
+        BudgetRepository budgets = new BudgetRepository(app);
+        SavingsGoalRepository goals = new SavingsGoalRepository(app);
+        String g = "Repository";
+        try {
+            recorder.measure(g, "Expense.loadTransactionFrame.year", () -> expenses.loadTransactionFrame(yearStart, monthEnd));
+            recorder.measure(g, "Expense.loadTransactionFrame.all", () -> expenses.loadTransactionFrame(0, now));
+            for (ExpenseRepository.Granularity granularity : ExpenseRepository.Granularity.values()) {
+                // A new repository each time, so its time-series cache does not hide the query
+                recorder.measure(g, "Expense.getExpenseTimeSeries.year." + granularity, () -> first(
+                        new ExpenseRepository(app).getExpenseTimeSeries(yearStart, monthEnd, granularity)));
+            }
+            recorder.measure(g, "Budget.getTotalBudget", () -> first(budgets.getTotalBudget(month, year)));
+            recorder.measure(g, "Budget.getBudgetsByMonthYear", () -> first(budgets.getBudgetsByMonthYear(month, year)));
+            recorder.measure(g, "SavingsGoal.getTotalSavedSync", goals::getTotalSavedSync);
+            // Goals, totals and projections for the savings screen, in one query
+            recorder.measure(g, "SavingsGoal.getSnapshot", () -> first(goals.getSnapshot()));
+        } finally {
+            goals.shutdown();
+        }
+    }
+
+    // ==================== Import / Backup ====================
+
+    private void importAndBackup() throws Exception {
+        File dir = app.getCacheDir();
+        Uri csv = Uri.fromFile(dataset.writeCsv(dir, CSV_ROWS));
+        String g = "ImportBackup";
+
+        recorder.measure(g, "CsvImporter.importFromUri." + CSV_ROWS, SLOW_ITERATIONS, null, () -> {
+            AtomicReference<String> error = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(1);
+            new CsvImporter(app).importFromUri(csv, new CsvImporter.ImportCallback() {
+                @Override
+                public void onSuccess(int count) {
+                    done.countDown();
+                }
+
+                @Override
+                public void onError(String message) {
+                    error.set(message);
+                    done.countDown();
+                }
+
+                @Override
+                public void onProgress(int current, int total) {
+                }
+            });
+            await(done, error);
+        });
+
+        BackupManager backups = new BackupManager(app);
+        recorder.measure(g, "BackupManager.backupData", SLOW_ITERATIONS, null, () -> {
+            BackupResult result = new BackupResult();
+            backups.backupData(result);
+            await(result.done, result.error);
+        });
+
+        File[] files = backups.getAvailableBackups();
+        assertNotNull(files);
+        assertTrue("backup file missing", files.length > 0);
+        File backupFile = files[0];
+        recorder.measure(g, "BackupManager.restoreData", SLOW_ITERATIONS, () -> {
+            // Restore into empty tables every time, as after a reinstall
+            db.expenseDao().deleteAll();
+            db.budgetDao().deleteAll();
+            db.savingsGoalDao().deleteAll();
+        }, () -> {
+            BackupResult result = new BackupResult();
+            backups.restoreData(backupFile, result);
+            await(result.done, result.error);
+        });
+    }
+
+    private static final class BackupResult implements BackupManager.BackupCallback {
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<String> error = new AtomicReference<>();
+
+        @Override
+        public void onSuccess(String message) {
+            done.countDown();
+        }
+
+        @Override
+        public void onError(String message) {
+            error.set(message);
+            done.countDown();
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    /** Observes until the first value arrives (synchronous with the executors above). */
+    private static <T> T first(LiveData<T> liveData) {
+        AtomicReference<T> value = new AtomicReference<>();
+        Observer<T> observer = value::set;
+        liveData.observeForever(observer);
+        liveData.removeObserver(observer);
+        return value.get();
+    }
+
+    private static int drain(Cursor cursor) {
+        try {
+            int rows = 0;
+            while (cursor.moveToNext()) {
+                cursor.getLong(0);
+                cursor.getDouble(1);
+                rows++;
+            }
+            return rows;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static void await(CountDownLatch done, AtomicReference<String> error) throws InterruptedException {
+        assertTrue("timed out", done.await(5, TimeUnit.MINUTES));
+        if (error.get() != null) {
+            fail(error.get());
+        }
+    }
+}
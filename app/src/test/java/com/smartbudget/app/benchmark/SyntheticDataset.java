@@ -0,0 +1,202 @@
+package com.smartbudget.app.benchmark;
+
+import com.smartbudget.app.data.local.AppDatabase;
+import com.smartbudget.app.data.local.entity.BudgetEntity;
+import com.smartbudget.app.data.local.entity.CategoryEntity;
+import com.smartbudget.app.data.local.entity.ExpenseEntity;
+import com.smartbudget.app.data.local.entity.SavingsGoalEntity;
+import com.smartbudget.app.utils.EpochDays;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic data for the DAO benchmarks.
+ *
+ * <p>Each simulated user has a monthly salary, a few fixed bills and 1-6 everyday expenses
+ * a day, spread over {@code years} years ending today. All users share one database (the app
+ * is single-account), so {@code users} scales the row count while keeping a realistic mix of
+ * categories, receipts, budgets and savings goals. The same seed always produces the same
+ * rows relative to today.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+final class SyntheticDataset {
+
+    private static final String[] EXPENSE_NAMES = {
+            "Ăn uống", "Di chuyển", "Mua sắm", "Sức khỏe", "Giải trí", "Học tập", "Nhà cửa", "Điện nước", "Khác"};
+    private static final String[] INCOME_NAMES = {"Lương", "Quà tặng", "Đầu tư", "Thưởng"};
+    private static final String[] NOTES = {
+            "Cơm trưa", "Grab", "Cafe", "Siêu thị", "Xăng", "Tiền điện", "Sách", "Phim", "Thuốc", null};
+
+    final int users;
+    final int years;
+    final int categories;
+    final long seed;
+
+    int expenseRows;
+    int budgetRows;
+    int goalRows;
+    int contributionRows;
+    final List<Long> expenseCategoryIds = new ArrayList<>();
+    final List<Long> incomeCategoryIds = new ArrayList<>();
+
+    SyntheticDataset(int users, int years, int categories, long seed) {
+        this.users = users;
+        this.years = years;
+        this.categories = Math.max(categories, 2);
+        this.seed = seed;
+    }
+
+    /** Sizes from -Dbenchmark.users / .years / .categories / .seed, with small defaults. */
+    static SyntheticDataset fromSystemProperties() {
+        return new SyntheticDataset(
+                Integer.getInteger("benchmark.users", 1),
+                Integer.getInteger("benchmark.years", 3),
+                Integer.getInteger("benchmark.categories", 13),
+                Long.getLong("benchmark.seed", 42L));
+    }
+
+    // ==================== Seeding ====================
+
+    /** Inserts every row in one transaction. */
+    void seed(AppDatabase db) {
+        db.runInTransaction(() -> {
+            seedCategories(db);
+            seedExpenses(db);
+            seedBudgets(db);
+            seedGoals(db);
+        });
+    }
+
+    private void seedCategories(AppDatabase db) {
+        int incomeCount = Math.max(1, Math.min(INCOME_NAMES.length, categories / 4));
+        int expenseCount = categories - incomeCount;
+        for (int i = 0; i < expenseCount; i++) {
+            String name = i < EXPENSE_NAMES.length ? EXPENSE_NAMES[i] : "Danh mục " + (i + 1);
+            expenseCategoryIds.add(db.categoryDao().insert(
+                    new CategoryEntity(name, "📦", "#95979A", 0, i >= EXPENSE_NAMES.length)));
+        }
+        for (int i = 0; i < incomeCount; i++) {
+            incomeCategoryIds.add(db.categoryDao().insert(
+                    new CategoryEntity(INCOME_NAMES[i], "💰", "#10AC84", 1, false)));
+        }
+    }
+
+    private void seedExpenses(AppDatabase db) {
+        Random random = new Random(seed);
+        int today = EpochDays.today();
+        int firstDay = today - years * 365;
+        for (int user = 0; user < users; user++) {
+            for (int day = firstDay; day <= today; day++) {
+                long dayStart = EpochDays.startOfDay(day);
+                if (EpochDays.dayOfMonth(day) == 1) {
+                    insert(db, random, dayStart, incomeCategoryIds.get(0), 15_000_000 + random.nextInt(20) * 1_000_000);
+                    // Rent and utilities
+                    insert(db, random, dayStart, expenseCategoryIds.get(Math.min(6, expenseCategoryIds.size() - 1)), 5_000_000);
+                    insert(db, random, dayStart, expenseCategoryIds.get(Math.min(7, expenseCategoryIds.size() - 1)),
+                            500_000 + random.nextInt(500) * 1_000);
+                }
+                int count = 1 + random.nextInt(6);
+                for (int i = 0; i < count; i++) {
+                    // Skewed towards the first categories, like real spending
+                    int index = (int) (Math.pow(random.nextDouble(), 2) * expenseCategoryIds.size());
+                    long when = dayStart + 7 * 3_600_000L + random.nextInt(15 * 3_600) * 1_000L;
+                    insert(db, random, when, expenseCategoryIds.get(index), (5 + random.nextInt(300)) * 1_000);
+                }
+            }
+        }
+    }
+
+    private void insert(AppDatabase db, Random random, long date, long categoryId, double amount) {
+        ExpenseEntity expense = new ExpenseEntity();
+        expense.setDate(date);
+        expense.setCategoryId(categoryId);
+        expense.setAmount(amount);
+        expense.setNote(NOTES[random.nextInt(NOTES.length)]);
+        expense.setCreatedAt(date);
+        expense.setUpdatedAt(date);
+        expense.setSynced(random.nextInt(10) != 0);
+        if (random.nextInt(20) == 0) {
+            expense.setReceiptImagePath("receipts/" + Long.toHexString(random.nextLong()) + ".webp");
+        }
+        db.expenseDao().insert(expense);
+        expenseRows++;
+    }
+
+    private void seedBudgets(AppDatabase db) {
+        int month = EpochDays.monthIndexOfDay(EpochDays.today());
+        for (int m = month - years * 12; m <= month; m++) {
+            int calendarMonth = EpochDays.monthOf(m);
+            int year = EpochDays.yearOf(m);
+            db.budgetDao().insert(new BudgetEntity(null, 20_000_000, calendarMonth, year));
+            budgetRows++;
+            for (long categoryId : expenseCategoryIds) {
+                db.budgetDao().insert(new BudgetEntity(categoryId, 2_000_000, calendarMonth, year));
+                budgetRows++;
+            }
+        }
+    }
+
+    private void seedGoals(AppDatabase db) {
+        Random random = new Random(seed + 1);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < users * 8; i++) {
+            SavingsGoalEntity goal = new SavingsGoalEntity("Mục tiêu " + (i + 1),
+                    (10 + random.nextInt(90)) * 1_000_000, now + (random.nextInt(720) - 180) * EpochDays.DAY_MILLIS);
+            goal.setCreatedAt(now - 365 * EpochDays.DAY_MILLIS);
+            boolean completed = random.nextInt(4) == 0;
+            long id = db.savingsContributions().insertGoal(goal);
+            goalRows++;
+            // About two deposits a month over the last year
+            double saved = goal.getTargetAmount() * random.nextDouble();
+            int deposits = 1 + random.nextInt(24);
+            for (int d = 0; d < deposits; d++) {
+                db.savingsContributions().add(id, saved / deposits,
+                        now - (long) (random.nextDouble() * 365 * EpochDays.DAY_MILLIS));
+                contributionRows++;
+            }
+            if (completed) {
+                db.savingsGoalDao().markAsCompleted(id);
+            }
+        }
+    }
+
+    // ==================== Import Files ====================
+
+    /** CSV in the format CsvImporter expects, {@code rows} lines plus a header. */
+    File writeCsv(File dir, int rows) throws IOException {
+        Random random = new Random(seed + 2);
+        File file = new File(dir, "import_" + rows + ".csv");
+        try (Writer writer = new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)) {
+            writer.write("Date,Category,Type,Amount,Note\n");
+            int today = EpochDays.today();
+            for (int i = 0; i < rows; i++) {
+                int day = today - random.nextInt(365);
+                boolean income = random.nextInt(15) == 0;
+                String category = income ? INCOME_NAMES[0] : EXPENSE_NAMES[random.nextInt(EXPENSE_NAMES.length)];
+                writer.write(String.format(Locale.US, "%02d/%02d/%d,%s,%s,%d,Dòng %d%n",
+                        EpochDays.dayOfMonth(day),
+                        EpochDays.monthOf(EpochDays.monthIndexOfDay(day)),
+                        EpochDays.yearOf(EpochDays.monthIndexOfDay(day)),
+                        category, income ? "Income" : "Expense", (5 + random.nextInt(500)) * 1_000, i));
+            }
+        }
+        return file;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%d user(s), %d year(s), %d categories: %d expenses, %d budgets, %d goals, %d contributions",
+                users, years, categories, expenseRows, budgetRows, goalRows, contributionRows);
+    }
+}
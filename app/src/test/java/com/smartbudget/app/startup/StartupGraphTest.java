@@ -0,0 +1,166 @@
+package com.smartbudget.app.startup;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for StartupGraph.
+ * Tests dependency order, run-once semantics across threads, failures and tracing.
+ */
+public class StartupGraphTest {
+
+    @Test
+    public void testDependenciesRunFirst() {
+        List<String> order = new ArrayList<>();
+        StartupGraph graph = new StartupGraph(StartupGraph.NO_TRACE)
+                .add("db", () -> order.add("db"))
+                .add("prefs", () -> order.add("prefs"))
+                .add("dashboard", () -> order.add("dashboard"), "db", "prefs")
+                .add("ai", () -> order.add("ai"));
+
+        graph.ensure("dashboard");
+        assertEquals(java.util.Arrays.asList("db", "prefs", "dashboard"), order);
+        assertFalse("unrelated initializers stay lazy", graph.isDone("ai"));
+    }
+
+    @Test
+    public void testRunsOnceAcrossThreads() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        StartupGraph graph = new StartupGraph(StartupGraph.NO_TRACE)
+                .add("db", () -> {
+                    runs.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                graph.startAsync(pool, "db");
+            }
+            assertFalse(graph.await("db", 50));
+            release.countDown();
+            graph.ensure("db"); // Waits for the background run instead of starting another
+            assertTrue(graph.isDone("db"));
+            assertEquals(1, runs.get());
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testWhenDoneCallsBackOnce() {
+        List<String> calls = new ArrayList<>();
+        StartupGraph graph = new StartupGraph(StartupGraph.NO_TRACE)
+                .add("db", () -> calls.add("db"))
+                .add("dashboard", () -> calls.add("dashboard"), "db");
+
+        graph.whenDone("dashboard", () -> calls.add("ready"));
+        assertTrue("registering does not start it", calls.isEmpty());
+
+        graph.ensure("dashboard");
+        graph.whenDone("dashboard", () -> calls.add("late"));
+        assertEquals(java.util.Arrays.asList("db", "dashboard", "ready", "late"), calls);
+    }
+
+    @Test
+    public void testFailureReachesDependents() {
+        StartupGraph graph = new StartupGraph(StartupGraph.NO_TRACE)
+                .add("db", () -> {
+                    throw new IllegalArgumentException("disk full");
+                })
+                .add("dashboard", () -> fail("must not run"), "db");
+        try {
+            graph.ensure("dashboard");
+            fail("expected failure");
+        } catch (IllegalStateException expected) {
+            assertTrue(graph.isDone("db"));
+            assertTrue(graph.isDone("dashboard"));
+        }
+        try {
+            graph.ensure("db");
+            fail("failure must be remembered");
+        } catch (IllegalStateException expected) {
+            assertEquals("disk full", expected.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testBackgroundFailureIsReported() {
+        List<String> failures = new ArrayList<>();
+        StartupGraph graph = new StartupGraph(new StartupGraph.Tracer() {
+            @Override
+            public void begin(String name) {
+            }
+
+            @Override
+            public void end(String name, long durationNanos) {
+            }
+
+            @Override
+            public void failed(String name, Throwable error) {
+                failures.add(name + ": " + error.getCause().getMessage());
+            }
+        }).add("materialize", () -> {
+            throw new IllegalStateException("corrupt row");
+        }).add("schedule", () -> { });
+
+        graph.startAsync(Runnable::run, "materialize");
+        graph.startAsync(Runnable::run, "schedule");
+        assertEquals(Collections.singletonList("materialize: corrupt row"), failures);
+        assertTrue("independent initializers still run", graph.isDone("schedule"));
+    }
+
+    @Test
+    public void testUnknownDependencyRejected() {
+        StartupGraph graph = new StartupGraph(StartupGraph.NO_TRACE).add("db", () -> { });
+        try {
+            graph.add("dashboard", () -> { }, "database");
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // Dependencies must be registered first, which also rules out cycles
+        }
+        try {
+            graph.add("db", () -> { });
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // Duplicate name
+        }
+    }
+
+    @Test
+    public void testTracerAndTimings() {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        StartupGraph graph = new StartupGraph(new StartupGraph.Tracer() {
+            @Override
+            public void begin(String name) {
+                events.add("begin " + name);
+            }
+
+            @Override
+            public void end(String name, long durationNanos) {
+                events.add("end " + name);
+            }
+        }).add("db", () -> { }).add("dashboard", () -> { }, "db");
+
+        graph.ensure("dashboard");
+        assertEquals(java.util.Arrays.asList("begin db", "end db", "begin dashboard", "end dashboard"), events);
+        assertEquals(2, graph.getTimings().size());
+        assertTrue(graph.getTimings().get("db") >= 0f);
+    }
+}
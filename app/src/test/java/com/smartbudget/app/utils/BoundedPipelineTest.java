@@ -0,0 +1,201 @@
+package com.smartbudget.app.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for BoundedPipeline.
+ * Tests stage chaining, per-item error isolation, backpressure and stage overlap.
+ */
+public class BoundedPipelineTest {
+
+    private static class Collector implements BoundedPipeline.Listener<String> {
+        final Map<Integer, String> results = new ConcurrentHashMap<>();
+        final Map<Integer, String> errors = new ConcurrentHashMap<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicInteger completions = new AtomicInteger();
+
+        @Override
+        public void onResult(int index, String result) {
+            results.put(index, result);
+        }
+
+        @Override
+        public void onError(int index, String stage, Exception error) {
+            errors.put(index, stage);
+        }
+
+        @Override
+        public void onComplete() {
+            completions.incrementAndGet();
+            done.countDown();
+        }
+    }
+
+    @Test
+    public void testStagesTransformEveryItem() throws Exception {
+        Collector collector = new Collector();
+        BoundedPipeline<Integer, String> pipeline = BoundedPipeline.<Integer>builder("test", 2)
+                .stage("double", 2, (Integer x) -> x * 2)
+                .stage("format", 3, (Integer x) -> "v" + x)
+                .build(collector);
+        pipeline.start();
+        for (int i = 0; i < 50; i++) {
+            pipeline.submit(i);
+        }
+        pipeline.close();
+
+        assertTrue(collector.done.await(5, TimeUnit.SECONDS));
+        assertEquals(50, collector.results.size());
+        assertEquals("v84", collector.results.get(42));
+        assertEquals(1, collector.completions.get());
+    }
+
+    @Test
+    public void testFailingItemSkipsRemainingStages() throws Exception {
+        Collector collector = new Collector();
+        BoundedPipeline<Integer, String> pipeline = BoundedPipeline.<Integer>builder("test", 2)
+                .stage("check", 1, (Integer x) -> {
+                    if (x == 3) throw new IllegalArgumentException("bad item");
+                    return x;
+                })
+                .stage("format", 1, (Integer x) -> "v" + x)
+                .build(collector);
+        pipeline.start();
+        for (int i = 0; i < 6; i++) {
+            pipeline.submit(i);
+        }
+        pipeline.close();
+
+        assertTrue(collector.done.await(5, TimeUnit.SECONDS));
+        assertEquals(5, collector.results.size());
+        assertEquals("check", collector.errors.get(3));
+        assertFalse(collector.results.containsKey(3));
+    }
+
+    @Test
+    public void testBackpressureBoundsItemsInFlight() throws Exception {
+        AtomicInteger decoded = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Collector collector = new Collector();
+        BoundedPipeline<Integer, String> pipeline = BoundedPipeline.<Integer>builder("test", 1)
+                .stage("decode", 1, (Integer x) -> {
+                    int inFlight = decoded.incrementAndGet() - consumed.get();
+                    maxInFlight.accumulateAndGet(inFlight, Math::max);
+                    return x;
+                })
+                .stage("slow", 1, (Integer x) -> {
+                    release.await();
+                    consumed.incrementAndGet();
+                    return "v" + x;
+                })
+                .build(collector);
+        pipeline.start();
+
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 20; i++) pipeline.submit(i);
+                pipeline.close();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        producer.start();
+
+        Thread.sleep(200);
+        // slow stage holds 1, its queue holds 1, decode holds 1 blocked on put
+        assertTrue("decode ran ahead: " + decoded.get(), decoded.get() <= 3);
+        release.countDown();
+
+        assertTrue(collector.done.await(5, TimeUnit.SECONDS));
+        assertEquals(20, collector.results.size());
+        assertTrue(maxInFlight.get() <= 3);
+    }
+
+    @Test
+    public void testStagesOverlap() throws Exception {
+        // 8 items through two 20ms stages: serial would take ~320ms, pipelined ~180ms
+        Collector collector = new Collector();
+        BoundedPipeline<Integer, String> pipeline = BoundedPipeline.<Integer>builder("test", 2)
+                .stage("a", 1, (Integer x) -> {
+                    Thread.sleep(20);
+                    return x;
+                })
+                .stage("b", 1, (Integer x) -> {
+                    Thread.sleep(20);
+                    return "v" + x;
+                })
+                .build(collector);
+        long start = System.nanoTime();
+        pipeline.start();
+        for (int i = 0; i < 8; i++) pipeline.submit(i);
+        pipeline.close();
+        assertTrue(collector.done.await(5, TimeUnit.SECONDS));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(8, collector.results.size());
+        assertTrue("took " + elapsedMs + "ms", elapsedMs < 300);
+    }
+
+    @Test
+    public void testCancelCompletesOnce() throws Exception {
+        Collector collector = new Collector();
+        BoundedPipeline<Integer, String> pipeline = BoundedPipeline.<Integer>builder("test", 2)
+                .stage("block", 1, (Integer x) -> {
+                    Thread.sleep(10_000);
+                    return "v" + x;
+                })
+                .build(collector);
+        pipeline.start();
+        pipeline.submit(1);
+        pipeline.cancel();
+
+        assertTrue(collector.done.await(1, TimeUnit.SECONDS));
+        assertTrue(pipeline.isCancelled());
+        Thread.sleep(50);
+        assertEquals(1, collector.completions.get());
+        assertTrue(collector.results.isEmpty());
+    }
+
+    @Test
+    public void testCancelReleasesBlockedProducer() throws Exception {
+        Collector collector = new Collector();
+        BoundedPipeline<Integer, String> pipeline = BoundedPipeline.<Integer>builder("test", 1)
+                .stage("block", 1, (Integer x) -> {
+                    Thread.sleep(10_000);
+                    return "v" + x;
+                })
+                .build(collector);
+        pipeline.start();
+        CountDownLatch released = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                // The worker holds the first item and the queue holds the second; the third blocks
+                for (int i = 0; i < 10; i++) {
+                    pipeline.submit(i);
+                }
+            } catch (IllegalStateException | InterruptedException e) {
+                released.countDown();
+            }
+        });
+        producer.setDaemon(true);
+        producer.start();
+        Thread.sleep(100);
+        assertTrue(producer.isAlive());
+
+        pipeline.cancel();
+
+        assertTrue(released.await(1, TimeUnit.SECONDS));
+        producer.join(1000);
+        assertFalse(producer.isAlive());
+    }
+}
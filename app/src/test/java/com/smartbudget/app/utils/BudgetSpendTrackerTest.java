@@ -0,0 +1,139 @@
+package com.smartbudget.app.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for BudgetSpendTracker.
+ * Checks seeding, delta updates (including income and other months), threshold crossing,
+ * and deduplication across reseeds. The per-row cost of a bulk import is measured by
+ * BudgetSpendTrackerBenchmark in the microbenchmark module.
+ */
+public class BudgetSpendTrackerTest {
+
+    private static final int MONTH = 2024 * 12 + 5;
+    private static final long FOOD = 1L;
+    private static final long TRAVEL = 2L;
+    private static final long SALARY = 10L;
+
+    private static final BudgetSpendTracker.Budget TOTAL = new BudgetSpendTracker.Budget(100, null, 10_000_000);
+    private static final BudgetSpendTracker.Budget FOOD_BUDGET = new BudgetSpendTracker.Budget(101, FOOD, 3_000_000);
+
+    private BudgetSpendTracker tracker;
+
+    @Before
+    public void setUp() {
+        tracker = new BudgetSpendTracker();
+        seed(Collections.emptyList());
+        // Seeding marks every budget for the first check; nothing is over yet
+        assertTrue(tracker.collectAlerts().isEmpty());
+    }
+
+    // ==================== Sums ====================
+
+    @Test
+    public void testSeedAndDeltas() {
+        assertEquals(3_500_000, tracker.getTotalSpent(), 0.001);
+        assertEquals(2_000_000, tracker.getCategorySpent(FOOD), 0.001);
+
+        tracker.apply(FOOD, MONTH, 200_000);
+        tracker.apply(SALARY, MONTH, 15_000_000);   // income: category only
+        tracker.apply(TRAVEL, MONTH - 1, 900_000);  // another month: ignored
+        tracker.apply(null, MONTH, 50_000);         // no category: ignored, as in SQL
+
+        assertEquals(3_700_000, tracker.getTotalSpent(), 0.001);
+        assertEquals(2_200_000, tracker.getCategorySpent(FOOD), 0.001);
+        assertEquals(1_500_000, tracker.getCategorySpent(TRAVEL), 0.001);
+    }
+
+    @Test
+    public void testUnknownCategoryNeedsReseed() {
+        assertTrue(tracker.isSeededFor(MONTH));
+        assertFalse(tracker.apply(99L, MONTH, 1));
+        assertFalse(tracker.isSeededFor(MONTH));
+        assertFalse(tracker.isSeededFor(MONTH + 1));
+    }
+
+    // ==================== Thresholds ====================
+
+    @Test
+    public void testWarningThenExceededOncePerMonth() {
+        tracker.apply(FOOD, MONTH, 300_000);        // 2.3M / 3M = 76%
+        assertTrue(tracker.collectAlerts().isEmpty());
+
+        tracker.apply(FOOD, MONTH, 200_000);        // 83%
+        List<BudgetSpendTracker.Alert> alerts = tracker.collectAlerts();
+        assertEquals(1, alerts.size());
+        assertEquals(FOOD_BUDGET.id, alerts.get(0).budget.id);
+        assertEquals(BudgetSpendTracker.THRESHOLD_WARNING, alerts.get(0).threshold);
+        assertEquals(83, alerts.get(0).getPercent());
+
+        tracker.apply(FOOD, MONTH, 100_000);        // still between 80 and 100: deduplicated
+        assertTrue(tracker.collectAlerts().isEmpty());
+
+        tracker.apply(FOOD, MONTH, 600_000);        // 107%
+        alerts = tracker.collectAlerts();
+        assertEquals(1, alerts.size());
+        assertEquals(BudgetSpendTracker.THRESHOLD_EXCEEDED, alerts.get(0).threshold);
+
+        tracker.apply(FOOD, MONTH, -2_000_000);     // drops and comes back: no repeat
+        tracker.apply(FOOD, MONTH, 2_000_000);
+        assertTrue(tracker.collectAlerts().isEmpty());
+    }
+
+    @Test
+    public void testJumpStraightPastLimitReportsOnlyExceeded() {
+        tracker.apply(TRAVEL, MONTH, 7_000_000);    // total 10.5M / 10M
+        List<BudgetSpendTracker.Alert> alerts = tracker.collectAlerts();
+        assertEquals(1, alerts.size());
+        assertEquals(TOTAL.id, alerts.get(0).budget.id);
+        assertEquals(BudgetSpendTracker.THRESHOLD_EXCEEDED, alerts.get(0).threshold);
+        assertTrue(tracker.getReportedKeys().contains(BudgetSpendTracker.key(MONTH, TOTAL.id, 80)));
+    }
+
+    @Test
+    public void testReportedKeysSurviveReseedOfSameMonthOnly() {
+        tracker.apply(FOOD, MONTH, 500_000);
+        assertEquals(1, tracker.collectAlerts().size());
+
+        List<String> persisted = Arrays.asList(tracker.getReportedKeys().toArray(new String[0]));
+        Map<Long, Double> spent = spent();
+        spent.put(FOOD, 2_500_000.0);
+        tracker.reset(MONTH, spent, types(), Arrays.asList(TOTAL, FOOD_BUDGET), persisted);
+        assertTrue(tracker.collectAlerts().isEmpty());
+
+        tracker.reset(MONTH + 1, spent, types(), Arrays.asList(TOTAL, FOOD_BUDGET), persisted);
+        assertTrue(tracker.getReportedKeys().isEmpty());
+        assertEquals(1, tracker.collectAlerts().size());
+    }
+
+    // ==================== Helpers ====================
+
+    private void seed(List<String> reported) {
+        tracker.reset(MONTH, spent(), types(), Arrays.asList(TOTAL, FOOD_BUDGET), reported);
+    }
+
+    private static Map<Long, Double> spent() {
+        Map<Long, Double> spent = new HashMap<>();
+        spent.put(FOOD, 2_000_000.0);
+        spent.put(TRAVEL, 1_500_000.0);
+        spent.put(SALARY, 20_000_000.0);
+        return spent;
+    }
+
+    private static Map<Long, Boolean> types() {
+        Map<Long, Boolean> types = new HashMap<>();
+        types.put(FOOD, true);
+        types.put(TRAVEL, true);
+        types.put(SALARY, false);
+        return types;
+    }
+}
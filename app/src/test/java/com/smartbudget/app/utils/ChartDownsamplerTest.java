@@ -0,0 +1,71 @@
+package com.smartbudget.app.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ChartDownsampler.
+ * Tests the LTTB point selection: size, endpoints, ordering and preserved extremes.
+ */
+public class ChartDownsamplerTest {
+
+    @Test
+    public void testSmallSeriesIsKept() {
+        float[] y = {1, 5, 2, 8};
+        assertArrayEquals(new int[]{0, 1, 2, 3}, ChartDownsampler.lttb(y, 10));
+        assertArrayEquals(new int[]{0, 1, 2, 3}, ChartDownsampler.lttb(y, 4));
+    }
+
+    @Test
+    public void testSizeEndpointsAndOrder() {
+        float[] y = new float[3650]; // Ten years of daily totals
+        for (int i = 0; i < y.length; i++) {
+            y[i] = (float) (100_000 + 50_000 * Math.sin(i / 30.0) + (i * 7919 % 13) * 1_000);
+        }
+        int[] keep = ChartDownsampler.lttb(y, 300);
+
+        assertEquals(300, keep.length);
+        assertEquals(0, keep[0]);
+        assertEquals(y.length - 1, keep[keep.length - 1]);
+        for (int i = 1; i < keep.length; i++) {
+            assertTrue("indices must ascend at " + i, keep[i] > keep[i - 1]);
+        }
+    }
+
+    @Test
+    public void testSpikesSurvive() {
+        float[] y = new float[1000];
+        for (int i = 0; i < y.length; i++) y[i] = 10_000;
+        y[137] = 900_000;   // One big purchase
+        y[612] = 0;         // A dip
+
+        int[] keep = ChartDownsampler.lttb(y, 50);
+        assertTrue(contains(keep, 137));
+        assertTrue(contains(keep, 612));
+    }
+
+    @Test
+    public void testExplicitXMatchesIndexX() {
+        float[] x = new float[500];
+        float[] y = new float[500];
+        for (int i = 0; i < y.length; i++) {
+            x[i] = i;
+            y[i] = (i * 31 % 97) * 1_000f;
+        }
+        assertArrayEquals(ChartDownsampler.lttb(y, 40), ChartDownsampler.lttb(x, y, 40));
+    }
+
+    @Test
+    public void testMaxPointsForWidth() {
+        assertEquals(360, ChartDownsampler.maxPointsFor(1080));
+        assertEquals(3, ChartDownsampler.maxPointsFor(0));
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+package com.smartbudget.app.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Unit tests for EpochDays.
+ * Checks the day/month arithmetic against Calendar in a DST zone, and the label cache.
+ * Allocation against the Calendar-based helpers is measured by EpochDaysBenchmark in the
+ * microbenchmark module.
+ */
+public class EpochDaysTest {
+
+    private TimeZone originalZone;
+
+    @Before
+    public void setUp() {
+        originalZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        EpochDays.resetZone();
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(originalZone);
+        EpochDays.resetZone();
+    }
+
+    // ==================== Correctness Tests ====================
+
+    @Test
+    public void testStartOfDayMatchesCalendarAcrossDst() {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(2025, Calendar.JANUARY, 1);
+        for (int i = 0; i < 800; i++) {
+            long midnight = cal.getTimeInMillis();
+            int day = EpochDays.dayIndex(midnight + 13 * 3600_000L);
+            assertEquals(midnight, EpochDays.startOfDay(day));
+            assertEquals(cal.get(Calendar.DAY_OF_MONTH), EpochDays.dayOfMonth(day));
+            assertEquals(cal.get(Calendar.DAY_OF_WEEK), EpochDays.dayOfWeek(day) + 1);
+            cal.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    @Test
+    public void testMonthBoundaries() {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(2024, Calendar.FEBRUARY, 1);
+        int month = EpochDays.monthIndex(cal.getTimeInMillis());
+        assertEquals(2024, EpochDays.yearOf(month));
+        assertEquals(2, EpochDays.monthOf(month));
+        assertEquals(29, EpochDays.daysInMonth(month));
+        assertEquals(cal.getTimeInMillis(), EpochDays.startOfMonth(month));
+    }
+
+    @Test
+    public void testRelativeLabels() {
+        long now = System.currentTimeMillis();
+        assertEquals("Hôm nay", EpochDays.relativeLabel(now));
+        assertEquals("Hôm qua", EpochDays.relativeLabel(now - EpochDays.DAY_MILLIS));
+
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(2020, Calendar.MARCH, 7, 10, 30);
+        assertEquals("07/03/2020", EpochDays.relativeLabel(cal.getTimeInMillis()));
+        assertSame(EpochDays.relativeLabel(cal.getTimeInMillis()),
+                EpochDays.relativeLabel(cal.getTimeInMillis()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.smartbudget.app.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for FrameBudget.
+ * Tests level adaptation to slow and fast frames, bounds and the frame-time metric.
+ */
+public class FrameBudgetTest {
+
+    private static final long FRAME = FrameBudget.DEFAULT_FRAME_NANOS;
+
+    @Test
+    public void testSlowFramesLowerLevel() {
+        FrameBudget budget = new FrameBudget(5, 20, 30);
+        feed(budget, FRAME * 2, 0, FrameBudget.EVAL_FRAMES);
+        assertEquals(15, budget.getLevel());
+        feed(budget, FRAME * 2, 0, FrameBudget.EVAL_FRAMES * 20);
+        assertEquals(5, budget.getLevel());
+    }
+
+    @Test
+    public void testFastFramesRaiseLevelUpToMax() {
+        FrameBudget budget = new FrameBudget(5, 20, 22);
+        feed(budget, FRAME, 0, FrameBudget.EVAL_FRAMES);
+        assertEquals(21, budget.getLevel());
+        feed(budget, FRAME, 0, FrameBudget.EVAL_FRAMES * 10);
+        assertEquals(22, budget.getLevel());
+    }
+
+    @Test
+    public void testHeavyDrawLowersLevel() {
+        FrameBudget budget = new FrameBudget(5, 20, 30);
+        feed(budget, FRAME, FRAME / 2, FrameBudget.EVAL_FRAMES);
+        assertTrue(budget.getLevel() < 20);
+    }
+
+    @Test
+    public void testRefreshRateAndMetric() {
+        FrameBudget budget = new FrameBudget(5, 20, 30);
+        budget.setRefreshRate(120f);
+        assertEquals(8.33f, budget.getTargetFrameMillis(), 0.01f);
+
+        // 60 fps on a 120 Hz display is too slow
+        feed(budget, FRAME, 0, FrameBudget.EVAL_FRAMES);
+        assertEquals(15, budget.getLevel());
+        assertEquals(16.67f, budget.getAverageFrameMillis(), 0.01f);
+        assertEquals(FrameBudget.EVAL_FRAMES, budget.getFrameCount());
+        assertEquals(FrameBudget.EVAL_FRAMES, budget.getJankyFrameCount());
+    }
+
+    @Test
+    public void testResetForgetsPauseGap() {
+        FrameBudget budget = new FrameBudget(5, 20, 30);
+        feed(budget, FRAME, 0, 10);
+        budget.onFrame(5_000_000_000L); // Five seconds in the background
+        budget.resetAverages();
+        assertEquals(0f, budget.getAverageFrameMillis(), 0f);
+        feed(budget, FRAME, 0, FrameBudget.EVAL_FRAMES);
+        assertEquals(21, budget.getLevel());
+    }
+
+    private static void feed(FrameBudget budget, long interval, long draw, int frames) {
+        for (int i = 0; i < frames; i++) {
+            budget.recordDraw(draw);
+            budget.onFrame(interval);
+        }
+    }
+}
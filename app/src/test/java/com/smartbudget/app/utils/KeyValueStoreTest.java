@@ -0,0 +1,236 @@
+package com.smartbudget.app.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for KeyValueStore.
+ * Checks the file round trip, write coalescing, seeding from legacy values, puts racing the
+ * load, compareAndSet and recovery from a corrupt file.
+ */
+public class KeyValueStoreTest {
+
+    private static final KeyValueStore.Key<Integer> STREAK = KeyValueStore.intKey("streak.current_streak", 0);
+    private static final KeyValueStore.Key<String> LAST_OPEN = KeyValueStore.stringKey("streak.last_open_date", "");
+    private static final KeyValueStore.Key<Boolean> BADGE = KeyValueStore.booleanKey("achievement.FIRST_EXPENSE", false);
+    private static final KeyValueStore.Key<Long> SYNCED = KeyValueStore.longKey("sync.last", -1L);
+
+    private File dir;
+    private File file;
+    private ScheduledExecutorService io;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("kvstore").toFile();
+        file = new File(new File(dir, "files"), "store.kv");
+        io = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        io.shutdownNow();
+        io.awaitTermination(5, TimeUnit.SECONDS);
+        File tmp = new File(file.getPath() + ".tmp");
+        tmp.delete();
+        file.delete();
+        file.getParentFile().delete();
+        dir.delete();
+    }
+
+    private KeyValueStore newStore(KeyValueStore.Seed seed) {
+        // Long delay: only flushNow / flushSoon write during a test
+        return new KeyValueStore(file, io, 60_000, seed);
+    }
+
+    // ==================== Persistence ====================
+
+    @Test
+    public void testDefaultsWhenEmpty() {
+        KeyValueStore store = newStore(null);
+        assertEquals(Integer.valueOf(0), store.get(STREAK));
+        assertEquals("", store.get(LAST_OPEN));
+        assertFalse(store.get(BADGE));
+        assertEquals(Long.valueOf(-1L), store.get(SYNCED));
+        assertTrue(store.isLoaded());
+    }
+
+    @Test
+    public void testValuesSurviveReopen() throws Exception {
+        KeyValueStore store = newStore(null);
+        store.put(STREAK, 12);
+        store.put(LAST_OPEN, "2024-06-12");
+        store.put(BADGE, true);
+        store.put(SYNCED, 1_718_000_000_000L);
+        store.flushNow();
+
+        KeyValueStore reopened = newStore(null);
+        assertEquals(Integer.valueOf(12), reopened.get(STREAK));
+        assertEquals("2024-06-12", reopened.get(LAST_OPEN));
+        assertTrue(reopened.get(BADGE));
+        assertEquals(Long.valueOf(1_718_000_000_000L), reopened.get(SYNCED));
+    }
+
+    @Test
+    public void testPutNullRestoresDefault() throws Exception {
+        KeyValueStore store = newStore(null);
+        store.put(LAST_OPEN, "2024-06-12");
+        store.put(LAST_OPEN, null);
+        store.flushNow();
+
+        assertEquals("", newStore(null).get(LAST_OPEN));
+    }
+
+    @Test
+    public void testBurstOfPutsIsOneWrite() throws Exception {
+        KeyValueStore store = newStore(null);
+        for (int i = 1; i <= 1000; i++) {
+            store.put(STREAK, i);
+            store.put(LAST_OPEN, "day " + i);
+        }
+        assertEquals(0, store.getFileWrites());
+        store.flushNow();
+        assertEquals(1, store.getFileWrites());
+
+        // Nothing changed since: no second write
+        store.flushNow();
+        store.flushSoon();
+        store.flushNow();
+        assertEquals(1, store.getFileWrites());
+        assertEquals(Integer.valueOf(1000), newStore(null).get(STREAK));
+    }
+
+    @Test
+    public void testScheduledFlushWrites() throws Exception {
+        KeyValueStore store = new KeyValueStore(file, io, 10, null);
+        store.put(STREAK, 3);
+        store.put(STREAK, 4);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (store.getFileWrites() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, store.getFileWrites());
+        assertEquals(Integer.valueOf(4), newStore(null).get(STREAK));
+    }
+
+    // ==================== Load ====================
+
+    @Test
+    public void testSeedFillsMissingFile() throws Exception {
+        AtomicInteger persisted = new AtomicInteger();
+        KeyValueStore store = newStore(new KeyValueStore.Seed() {
+            @Override
+            public void populate(Map<String, Object> values) {
+                values.put(STREAK.getName(), 7);
+                values.put(BADGE.getName(), true);
+            }
+
+            @Override
+            public void persisted() {
+                persisted.incrementAndGet();
+            }
+        });
+        assertEquals(Integer.valueOf(7), store.get(STREAK));
+        assertTrue(store.get(BADGE));
+        assertEquals(1, persisted.get());
+        assertTrue(file.exists());
+
+        // File exists now: the seed is not consulted again
+        KeyValueStore reopened = newStore(new KeyValueStore.Seed() {
+            @Override
+            public void populate(Map<String, Object> values) {
+                fail("seeded twice");
+            }
+
+            @Override
+            public void persisted() {
+                fail("seeded twice");
+            }
+        });
+        assertEquals(Integer.valueOf(7), reopened.get(STREAK));
+    }
+
+    @Test
+    public void testPutBeforeLoadWins() throws Exception {
+        KeyValueStore first = newStore(null);
+        first.put(STREAK, 5);
+        first.put(LAST_OPEN, "2024-06-11");
+        first.flushNow();
+
+        KeyValueStore store = newStore(null);
+        store.put(STREAK, 6);
+        assertEquals(Integer.valueOf(6), store.get(STREAK));
+        assertEquals("2024-06-11", store.get(LAST_OPEN));
+    }
+
+    @Test
+    public void testCorruptFileFallsBackToSeed() throws Exception {
+        assertTrue(file.getParentFile().mkdirs());
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[]{0x53, 0x42, 0x4B, 0x56, 0, 0, 0, 1, 0, 0, 0, 9, 0});
+        }
+        KeyValueStore store = newStore(new KeyValueStore.Seed() {
+            @Override
+            public void populate(Map<String, Object> values) {
+                values.put(STREAK.getName(), 2);
+            }
+
+            @Override
+            public void persisted() {
+            }
+        });
+        assertEquals(Integer.valueOf(2), store.get(STREAK));
+    }
+
+    @Test
+    public void testWrongTypeReadsAsDefault() {
+        KeyValueStore store = newStore(new KeyValueStore.Seed() {
+            @Override
+            public void populate(Map<String, Object> values) {
+                values.put(STREAK.getName(), "twelve");
+            }
+
+            @Override
+            public void persisted() {
+            }
+        });
+        assertEquals(Integer.valueOf(0), store.get(STREAK));
+    }
+
+    // ==================== compareAndSet ====================
+
+    @Test
+    public void testCompareAndSetOnlyOnce() throws Exception {
+        KeyValueStore store = newStore(null);
+        assertTrue(store.compareAndSet(BADGE, false, true));
+        assertFalse(store.compareAndSet(BADGE, false, true));
+        assertTrue(store.get(BADGE));
+    }
+
+    @Test
+    public void testCompareAndSetUnderContention() throws Exception {
+        KeyValueStore store = newStore(null);
+        AtomicInteger winners = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                if (store.compareAndSet(BADGE, false, true)) winners.incrementAndGet();
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(1, winners.get());
+    }
+}
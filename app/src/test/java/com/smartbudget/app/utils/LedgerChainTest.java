@@ -0,0 +1,108 @@
+package com.smartbudget.app.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+/**
+ * Unit tests for LedgerChain.
+ * Checks canonical encoding, chaining from genesis, tamper and reorder detection, and
+ * verification of a tail from a checkpoint hash.
+ */
+public class LedgerChainTest {
+
+    // ==================== Encoding ====================
+
+    @Test
+    public void testEncodingIsUnambiguous() {
+        LedgerChain chain = new LedgerChain();
+        byte[] split1 = chain.payload().putString("1").putString("23").toByteArray();
+        byte[] split2 = chain.payload().putString("12").putString("3").toByteArray();
+        assertFalse(Arrays.equals(split1, split2));
+
+        byte[] nullNote = chain.payload().putString(null).toByteArray();
+        byte[] emptyNote = chain.payload().putString("").toByteArray();
+        assertFalse(Arrays.equals(nullNote, emptyNote));
+
+        byte[] noCategory = chain.payload().putLong((Long) null).toByteArray();
+        byte[] categoryZero = chain.payload().putLong(Long.valueOf(0)).toByteArray();
+        assertFalse(Arrays.equals(noCategory, categoryZero));
+    }
+
+    @Test
+    public void testEncodingGrowsAndIsStable() {
+        LedgerChain chain = new LedgerChain();
+        StringBuilder longNote = new StringBuilder();
+        for (int i = 0; i < 200; i++) longNote.append("Cà phê ");
+        byte[] first = chain.payload().putDouble(45_000).putString(longNote.toString()).toByteArray();
+        byte[] second = chain.payload().putDouble(45_000).putString(longNote.toString()).toByteArray();
+        assertArrayEquals(first, second);
+        assertTrue(first.length > 256);
+    }
+
+    // ==================== Chain ====================
+
+    @Test
+    public void testChainVerifiesAndDetectsTampering() {
+        LedgerChain chain = new LedgerChain();
+        int n = 50;
+        long[] seqs = new long[n];
+        byte[][] payloads = new byte[n][];
+        byte[][] hashes = new byte[n][];
+        build(chain, seqs, payloads, hashes);
+
+        assertEquals(-1, chain.verify(LedgerChain.GENESIS, seqs, payloads, hashes));
+
+        // Changed amount in entry 20
+        byte[] original = payloads[20];
+        payloads[20] = payload(chain, 20, 99_999);
+        assertEquals(20, chain.verify(LedgerChain.GENESIS, seqs, payloads, hashes));
+        payloads[20] = original;
+
+        // Entries 10 and 11 swapped, hashes included
+        swap(payloads, 10, 11);
+        swap(hashes, 10, 11);
+        assertEquals(10, chain.verify(LedgerChain.GENESIS, seqs, payloads, hashes));
+    }
+
+    @Test
+    public void testTailFromCheckpoint() {
+        LedgerChain chain = new LedgerChain();
+        int n = 30;
+        long[] seqs = new long[n];
+        byte[][] payloads = new byte[n][];
+        byte[][] hashes = new byte[n][];
+        build(chain, seqs, payloads, hashes);
+
+        // Checkpoint at entry 20: only entries 21.. need rehashing
+        int from = 20;
+        long[] tailSeqs = Arrays.copyOfRange(seqs, from, n);
+        byte[][] tailPayloads = Arrays.copyOfRange(payloads, from, n);
+        byte[][] tailHashes = Arrays.copyOfRange(hashes, from, n);
+        assertEquals(-1, new LedgerChain().verify(hashes[from - 1], tailSeqs, tailPayloads, tailHashes));
+        assertEquals(0, chain.verify(hashes[from - 2], tailSeqs, tailPayloads, tailHashes));
+        assertEquals(64, LedgerChain.toHex(hashes[0]).length());
+    }
+
+    private static void build(LedgerChain chain, long[] seqs, byte[][] payloads, byte[][] hashes) {
+        byte[] hash = LedgerChain.GENESIS;
+        for (int i = 0; i < seqs.length; i++) {
+            seqs[i] = i + 1;
+            payloads[i] = payload(chain, i, 10_000 + i);
+            hash = chain.next(hash, seqs[i], payloads[i]);
+            hashes[i] = hash;
+        }
+    }
+
+    private static byte[] payload(LedgerChain chain, long id, double amount) {
+        return chain.payload().putByte(1).putLong(id).putDouble(amount).putString("note " + id).toByteArray();
+    }
+
+    private static void swap(byte[][] array, int a, int b) {
+        byte[] tmp = array[a];
+        array[a] = array[b];
+        array[b] = tmp;
+    }
+}
@@ -0,0 +1,123 @@
+package com.smartbudget.app.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Unit tests for MaintenancePlan.
+ * Checks reminder slots around midnight and DST, once-per-slot gating of the reminder and the
+ * weekly report, late runs, and realignment.
+ */
+public class MaintenancePlanTest {
+
+    private static final long HOUR = 3600_000L;
+    private static final long MINUTE = 60_000L;
+
+    private TimeZone originalZone;
+
+    @Before
+    public void setUp() {
+        originalZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        EpochDays.resetZone();
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(originalZone);
+        EpochDays.resetZone();
+    }
+
+    // ==================== Slots ====================
+
+    @Test
+    public void testSlotBeforeAndAfterTime() {
+        long may15 = date(2024, Calendar.MAY, 15);
+        assertEquals(may15 + 20 * HOUR, MaintenancePlan.slotAtOrBefore(may15 + 20 * HOUR, 20, 0));
+        assertEquals(may15 + 20 * HOUR, MaintenancePlan.slotAtOrBefore(may15 + 23 * HOUR, 20, 0));
+        assertEquals(date(2024, Calendar.MAY, 14) + 20 * HOUR,
+                MaintenancePlan.slotAtOrBefore(may15 + 19 * HOUR, 20, 0));
+        assertEquals(30 * MINUTE, MaintenancePlan.delayUntilNextSlot(may15 + 19 * HOUR + 30 * MINUTE, 20, 0));
+        // Exactly at the slot: the next one is tomorrow
+        assertEquals(24 * HOUR, MaintenancePlan.delayUntilNextSlot(may15 + 20 * HOUR, 20, 0));
+    }
+
+    @Test
+    public void testNextSlotAcrossDst() {
+        // US DST starts 2024-03-10: that day has 23 hours
+        long mar9 = date(2024, Calendar.MARCH, 9) + 20 * HOUR;
+        assertEquals(date(2024, Calendar.MARCH, 10) + 19 * HOUR, MaintenancePlan.nextSlot(mar9, 20, 0));
+        assertEquals(23 * HOUR, MaintenancePlan.delayUntilNextSlot(mar9, 20, 0));
+    }
+
+    // ==================== Reminder ====================
+
+    @Test
+    public void testReminderOncePerSlot() {
+        long slot = date(2024, Calendar.MAY, 15) + 20 * HOUR;
+        long yesterday = slot - 24 * HOUR + 5 * MINUTE;
+        // WorkManager never runs early, but a realign or retry might come just before the slot
+        assertFalse(MaintenancePlan.isReminderDue(slot - MINUTE, yesterday, 20, 0));
+
+        long run = slot + 10 * MINUTE;
+        assertTrue(MaintenancePlan.isReminderDue(run, 0, 20, 0));
+        // A retry or a second run the same evening does not repeat it
+        assertFalse(MaintenancePlan.isReminderDue(run + HOUR, run, 20, 0));
+        // Next evening it is due again
+        assertTrue(MaintenancePlan.isReminderDue(run + 24 * HOUR, run, 20, 0));
+    }
+
+    @Test
+    public void testLateReminderAfterMidnightAndDropped() {
+        // 23:50 reminder, run delayed to 00:10: still today's reminder
+        long slot = date(2024, Calendar.MAY, 15) + 23 * HOUR + 50 * MINUTE;
+        assertTrue(MaintenancePlan.isReminderDue(slot + 20 * MINUTE, slot - 24 * HOUR, 23, 50));
+        // Five hours late: dropped
+        assertFalse(MaintenancePlan.isReminderDue(slot + 5 * HOUR, slot - 24 * HOUR, 23, 50));
+    }
+
+    @Test
+    public void testWeeklyReportOnSundaySlotOnly() {
+        long sunday = date(2024, Calendar.MAY, 19) + 20 * HOUR;
+        assertTrue(MaintenancePlan.isWeeklyReportDue(sunday + MINUTE, 0, 20, 0));
+        assertFalse(MaintenancePlan.isWeeklyReportDue(sunday + HOUR, sunday + MINUTE, 20, 0));
+        assertFalse(MaintenancePlan.isWeeklyReportDue(sunday - 24 * HOUR + MINUTE, 0, 20, 0));
+        // Sunday's slot run late, early Monday
+        assertTrue(MaintenancePlan.isWeeklyReportDue(sunday + 3 * HOUR + 30 * MINUTE, 0, 20, 0));
+    }
+
+    // ==================== Other Tasks ====================
+
+    @Test
+    public void testRealignOnlyWhenFarFromSlot() {
+        long slot = date(2024, Calendar.MAY, 15) + 20 * HOUR;
+        assertFalse(MaintenancePlan.needsRealign(slot + 5 * MINUTE, 20, 0));
+        assertFalse(MaintenancePlan.needsRealign(slot + MaintenancePlan.REALIGN_AFTER_MILLIS, 20, 0));
+        assertTrue(MaintenancePlan.needsRealign(slot + 3 * HOUR, 20, 0));
+        // Morning run after the device was off overnight
+        assertTrue(MaintenancePlan.needsRealign(slot + 13 * HOUR, 20, 0));
+    }
+
+    @Test
+    public void testIntervals() {
+        long now = date(2024, Calendar.MAY, 15);
+        assertTrue(MaintenancePlan.isBackupPruneDue(now, 0));
+        assertFalse(MaintenancePlan.isBackupPruneDue(now, now - 6 * 24 * HOUR));
+        assertTrue(MaintenancePlan.isBackupPruneDue(now, now - 7 * 24 * HOUR));
+        assertTrue(MaintenancePlan.isSyncDue(now, now - 21 * HOUR));
+        assertFalse(MaintenancePlan.isSyncDue(now, now - 2 * HOUR));
+    }
+
+    private static long date(int year, int month, int day) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(year, month, day);
+        return cal.getTimeInMillis();
+    }
+}
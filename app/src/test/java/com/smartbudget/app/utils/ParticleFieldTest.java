@@ -0,0 +1,77 @@
+package com.smartbudget.app.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ParticleField.
+ * Tests count changes, motion scaled by frame time and respawning below the view.
+ */
+public class ParticleFieldTest {
+
+    @Test
+    public void testCountIsClampedToCapacity() {
+        ParticleField field = new ParticleField(10, 3, 16, 36, 1L);
+        field.setBounds(400, 800);
+        field.setCount(25);
+        assertEquals(10, field.count());
+        field.setCount(4);
+        assertEquals(4, field.count());
+        field.setCount(-1);
+        assertEquals(0, field.count());
+    }
+
+    @Test
+    public void testSpawnedParticlesAreInRange() {
+        ParticleField field = new ParticleField(50, 6, 16, 36, 2L);
+        field.setBounds(400, 800);
+        field.setCount(50);
+        for (int i = 0; i < field.count(); i++) {
+            assertTrue(field.x[i] >= 0 && field.x[i] <= 400);
+            assertTrue(field.y[i] >= 0 && field.y[i] <= 800);
+            assertTrue(field.size[i] >= 16 && field.size[i] <= 36);
+            assertTrue(field.alpha[i] >= 0.3f && field.alpha[i] <= 0.7f);
+            assertTrue(field.sprite[i] >= 0 && field.sprite[i] < 6);
+        }
+    }
+
+    @Test
+    public void testMotionScalesWithFrameTime() {
+        // Same seed: one 32ms step covers the same rise as two 16ms steps
+        ParticleField once = field(3L);
+        ParticleField twice = field(3L);
+        once.step(0.032f);
+        twice.step(0.016f);
+        twice.step(0.016f);
+        for (int i = 0; i < once.count(); i++) {
+            assertEquals(once.y[i], twice.y[i], 0.01f);
+        }
+    }
+
+    @Test
+    public void testParticlesRiseAndRespawnBelow() {
+        ParticleField field = field(4L);
+        float[] before = field.y.clone();
+        field.step(0.016f);
+        for (int i = 0; i < field.count(); i++) {
+            assertTrue(field.y[i] < before[i]);
+        }
+
+        // Long enough for every particle to leave the top at least once
+        for (int frame = 0; frame < 60 * 30; frame++) {
+            field.step(1 / 60f);
+            for (int i = 0; i < field.count(); i++) {
+                assertTrue(field.y[i] >= -field.size[i]);
+                assertTrue(field.y[i] <= 800 + field.size[i]);
+            }
+        }
+    }
+
+    private static ParticleField field(long seed) {
+        ParticleField field = new ParticleField(15, 6, 16, 36, seed);
+        field.setBounds(400, 800);
+        field.setCount(15);
+        return field;
+    }
+}
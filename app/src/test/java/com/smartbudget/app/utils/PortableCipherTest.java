@@ -0,0 +1,101 @@
+package com.smartbudget.app.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unit tests for PortableCipher.
+ * Checks round trips with both key derivations, wrong passphrases, the header check and
+ * rejection of crafted headers. Uses few iterations to keep the tests fast.
+ */
+public class PortableCipherTest {
+
+    private static final char[] PASSPHRASE = "mật khẩu sao lưu".toCharArray();
+    private static final byte[] PLAIN = "{\"version\":2,\"expenses\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testRoundTripWithEitherPrf() throws IOException {
+        for (int prf : new int[]{PortableCipher.PRF_SHA256, PortableCipher.PRF_SHA1}) {
+            byte[] sealed = encrypt(PLAIN, PASSPHRASE, prf, 1000);
+            assertEquals(prf, sealed[PortableCipher.MAGIC.length]);
+            assertArrayEquals("prf " + prf, PLAIN, decrypt(sealed, PASSPHRASE));
+        }
+    }
+
+    @Test
+    public void testDefaultEncryptRoundTrips() throws IOException {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (OutputStream out = PortableCipher.encrypt(sink, PASSPHRASE)) {
+            out.write(PLAIN);
+        }
+        assertArrayEquals(PLAIN, decrypt(sink.toByteArray(), PASSPHRASE));
+        // The caller's passphrase is left intact
+        assertEquals('m', PASSPHRASE[0]);
+    }
+
+    @Test
+    public void testWrongPassphraseIsUnreadable() throws IOException {
+        byte[] sealed = encrypt(PLAIN, PASSPHRASE, PortableCipher.PRF_SHA256, 1000);
+        try {
+            decrypt(sealed, "mat khau sai".toCharArray());
+            fail("Decrypted with the wrong passphrase");
+        } catch (IOException expected) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testDetectsHeader() throws IOException {
+        byte[] sealed = encrypt(PLAIN, PASSPHRASE, PortableCipher.PRF_SHA256, 1000);
+        BufferedInputStream portable = new BufferedInputStream(new ByteArrayInputStream(sealed));
+        assertTrue(PortableCipher.isPortable(portable));
+        // Stream was reset
+        assertEquals('S', portable.read());
+
+        BufferedInputStream plain = new BufferedInputStream(new ByteArrayInputStream(PLAIN));
+        assertFalse(PortableCipher.isPortable(plain));
+        assertEquals('{', plain.read());
+    }
+
+    @Test
+    public void testRejectsCraftedIterationCount() throws IOException {
+        byte[] sealed = encrypt(PLAIN, PASSPHRASE, PortableCipher.PRF_SHA256, 1000);
+        ByteBuffer.wrap(sealed, PortableCipher.MAGIC.length + 1, 4).putInt(Integer.MAX_VALUE);
+        try {
+            decrypt(sealed, PASSPHRASE);
+            fail("Accepted an iteration count above the limit");
+        } catch (IOException expected) {
+            // Expected
+        }
+    }
+
+    private static byte[] encrypt(byte[] plain, char[] passphrase, int prf, int iterations) throws IOException {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (OutputStream out = PortableCipher.encrypt(sink, passphrase, prf, iterations)) {
+            out.write(plain);
+        }
+        return sink.toByteArray();
+    }
+
+    private static byte[] decrypt(byte[] sealed, char[] passphrase) throws IOException {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        try (InputStream in = PortableCipher.decrypt(new ByteArrayInputStream(sealed), passphrase)) {
+            byte[] buffer = new byte[5000];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                plain.write(buffer, 0, n);
+            }
+        }
+        return plain.toByteArray();
+    }
+}
@@ -0,0 +1,156 @@
+package com.smartbudget.app.utils;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Unit tests for the exchange-rate pieces that run without a database: minor-unit and rate
+ * arithmetic in CurrencyConverter, the RateSource CSV format (from a string and from a local
+ * stand-in HTTP server) and RateCache.
+ */
+public class RateSourceTest {
+
+    private static final String TABLE =
+            "# currency,date,rate\n"
+            + "currency,date,rate\n"
+            + "\n"
+            + "USD,2026-10-19,25310.5\n"
+            + " EUR , 2026-10-19 , 27480 \n";
+
+    // ==================== Arithmetic ====================
+
+    @Test
+    public void testMinorUnits() {
+        assertEquals(1234, CurrencyConverter.toMinor(12.34, "USD"));
+        assertEquals(-1234, CurrencyConverter.toMinor(-12.34, "USD"));
+        assertEquals(50000, CurrencyConverter.toMinor(50000.4, "VND"));
+        assertEquals(12.34, CurrencyConverter.fromMinor(1234, "USD"), 0.0);
+        assertEquals(165, CurrencyConverter.fromMinor(165, "JPY"), 0.0);
+        assertEquals(2, CurrencyConverter.minorDigits("XYZ"));
+    }
+
+    @Test
+    public void testRatesAndConversion() {
+        // 24500 đồng per dollar = 245 đồng per cent
+        long usd = CurrencyConverter.rateMicros(24500, "USD");
+        assertEquals(245_000_000L, usd);
+        assertEquals(302_330, CurrencyConverter.applyRate(1234, usd));
+        assertEquals(usd, CurrencyConverter.defaultRateMicros("USD"));
+        assertEquals(18_500_000L, CurrencyConverter.rateMicros(18.5, "KRW"));
+        assertEquals(-1, CurrencyConverter.defaultRateMicros("XYZ"));
+        // Half up: 3 * 0.5 = 1.5 -> 2
+        assertEquals(2, CurrencyConverter.applyRate(3, 500_000L));
+    }
+
+    @Test
+    public void testCurrencyKey() {
+        assertNotEquals(0, CurrencyConverter.currencyKey("USD"));
+        assertNotEquals(CurrencyConverter.currencyKey("USD"), CurrencyConverter.currencyKey("EUR"));
+        assertEquals(0, CurrencyConverter.currencyKey("usd"));
+        assertEquals(0, CurrencyConverter.currencyKey("US"));
+        assertEquals(0, CurrencyConverter.currencyKey(null));
+    }
+
+    // ==================== Sources ====================
+
+    @Test
+    public void testParse() throws IOException {
+        List<RateSource.Quote> quotes = RateSource.parse(new StringReader(TABLE));
+        assertEquals(2, quotes.size());
+        assertEquals("USD", quotes.get(0).currency);
+        assertEquals(25310.5, quotes.get(0).rate, 0.0);
+        assertEquals("EUR", quotes.get(1).currency);
+        assertEquals(RateSource.parseDay("2026-10-19"), quotes.get(1).day);
+        assertEquals(RateSource.parseDay("2026-10-18") + 1, quotes.get(1).day);
+    }
+
+    @Test
+    public void testParseRejectsBadLines() {
+        String[] bad = {"USD,2026-10-19", "usd,2026-10-19,1", "USD,2026-13-01,1", "USD,2026-10-19,0",
+                "USD,2026-10-19,abc"};
+        for (String line : bad) {
+            try {
+                RateSource.parse(new StringReader("USD,2026-10-18,25000\n" + line));
+                fail("accepted " + line);
+            } catch (IOException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().contains("line 2"));
+            }
+        }
+    }
+
+    @Test
+    public void testHttpSource() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/rates.csv", exchange -> {
+            byte[] body = TABLE.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            String base = "http://127.0.0.1:" + server.getAddress().getPort();
+            List<RateSource.Quote> quotes = new RateSource.HttpSource(new URL(base + "/rates.csv")).fetch();
+            assertEquals(2, quotes.size());
+            assertEquals(27480, quotes.get(1).rate, 0.0);
+
+            try {
+                new RateSource.HttpSource(new URL(base + "/missing")).fetch();
+                fail("404 accepted");
+            } catch (IOException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().contains("404"));
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    // ==================== Cache ====================
+
+    @Test
+    public void testCache() {
+        RateCache cache = new RateCache(16);
+        int usd = CurrencyConverter.currencyKey("USD");
+        int eur = CurrencyConverter.currencyKey("EUR");
+        assertEquals(RateCache.MISSING, cache.get(usd, 100));
+
+        cache.put(usd, 100, 245_000_000L);
+        cache.put(eur, 100, -1);
+        cache.put(usd, -5, 1);
+        assertEquals(245_000_000L, cache.get(usd, 100));
+        assertEquals(-1, cache.get(eur, 100));
+        assertEquals(1, cache.get(usd, -5));
+        assertEquals(RateCache.MISSING, cache.get(usd, 101));
+
+        cache.put(usd, 100, 250_000_000L);
+        assertEquals(250_000_000L, cache.get(usd, 100));
+        assertEquals(3, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(RateCache.MISSING, cache.get(usd, 100));
+    }
+
+    @Test
+    public void testCacheClearsWhenFull() {
+        RateCache cache = new RateCache(16);
+        int usd = CurrencyConverter.currencyKey("USD");
+        for (int day = 0; day < 1000; day++) {
+            cache.put(usd, day, day);
+            assertEquals(day, cache.get(usd, day));
+            assertTrue(cache.size() <= 24);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.smartbudget.app.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Unit tests for ReceiptImageOps.
+ * Runs the receipt preprocessing stages on generated sample images (JPEG with and without EXIF,
+ * low-contrast "receipt" pixels) on the JVM.
+ */
+public class ReceiptImageOpsTest {
+
+    // ==================== Downsampling Tests ====================
+
+    @Test
+    public void testSampleSizeKeepsOcrResolution() {
+        assertEquals(1, ReceiptImageOps.computeSampleSize(1600, 1200, 2048));
+        assertEquals(2, ReceiptImageOps.computeSampleSize(4000, 3000, 2048));   // 12 MP
+        assertEquals(4, ReceiptImageOps.computeSampleSize(8160, 6120, 2048));   // 50 MP
+        assertEquals(2040, ReceiptImageOps.sampledSize(8160, 4));
+        assertEquals(1531, ReceiptImageOps.sampledSize(6121, 4));
+    }
+
+    // ==================== EXIF Tests ====================
+
+    @Test
+    public void testExifOrientationFromSampleJpeg() throws IOException {
+        byte[] plain = sampleJpeg();
+        assertEquals(ReceiptImageOps.ORIENTATION_NORMAL,
+                ReceiptImageOps.readExifOrientation(new ByteArrayInputStream(plain)));
+
+        byte[] rotatedLittle = withExif(plain, ReceiptImageOps.ORIENTATION_ROTATE_90, true);
+        assertEquals(ReceiptImageOps.ORIENTATION_ROTATE_90,
+                ReceiptImageOps.readExifOrientation(new ByteArrayInputStream(rotatedLittle)));
+
+        byte[] rotatedBig = withExif(plain, ReceiptImageOps.ORIENTATION_ROTATE_270, false);
+        assertEquals(ReceiptImageOps.ORIENTATION_ROTATE_270,
+                ReceiptImageOps.readExifOrientation(new ByteArrayInputStream(rotatedBig)));
+
+        // The EXIF-tagged file must still be a valid JPEG
+        assertNotNull(ImageIO.read(new ByteArrayInputStream(rotatedLittle)));
+    }
+
+    @Test
+    public void testExifAfterLargeMetadataSegments() throws IOException {
+        // Edited gallery images: ~190 KB of ICC / XMP ahead of the Exif segment
+        byte[] rotated = withExif(sampleJpeg(), ReceiptImageOps.ORIENTATION_ROTATE_90, true);
+        byte[] padded = withAppSegments(rotated, 3, 64 * 1024 - 3);
+        assertTrue(padded.length > 3 * 64 * 1024);
+        assertEquals(ReceiptImageOps.ORIENTATION_ROTATE_90,
+                ReceiptImageOps.readExifOrientation(new ByteArrayInputStream(padded)));
+    }
+
+    @Test
+    public void testExifOnNonJpegInput() throws IOException {
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+        assertEquals(ReceiptImageOps.ORIENTATION_NORMAL,
+                ReceiptImageOps.readExifOrientation(new ByteArrayInputStream(png)));
+        assertEquals(ReceiptImageOps.ORIENTATION_NORMAL,
+                ReceiptImageOps.readExifOrientation(new ByteArrayInputStream(new byte[]{(byte) 0xFF, (byte) 0xD8})));
+    }
+
+    @Test
+    public void testRotationDegrees() {
+        assertEquals(0, ReceiptImageOps.rotationDegrees(ReceiptImageOps.ORIENTATION_NORMAL));
+        assertEquals(90, ReceiptImageOps.rotationDegrees(ReceiptImageOps.ORIENTATION_ROTATE_90));
+        assertEquals(180, ReceiptImageOps.rotationDegrees(ReceiptImageOps.ORIENTATION_ROTATE_180));
+        assertEquals(270, ReceiptImageOps.rotationDegrees(ReceiptImageOps.ORIENTATION_ROTATE_270));
+    }
+
+    // ==================== Grayscale / Contrast Tests ====================
+
+    @Test
+    public void testContrastNormalizationStretchesFadedReceipt() {
+        // Faded thermal receipt: gray text (110) on light gray paper (170)
+        int width = 200, height = 100;
+        int[] pixels = new int[width * height];
+        for (int i = 0; i < pixels.length; i++) {
+            int v = (i % 7 == 0) ? 110 : 170;
+            pixels[i] = 0xFF000000 | (v << 16) | (v << 8) | v;
+        }
+
+        int[] histogram = new int[256];
+        ReceiptImageOps.accumulateHistogram(pixels, 0, pixels.length, histogram);
+        int[] lut = ReceiptImageOps.contrastLut(histogram);
+        ReceiptImageOps.toGray(pixels, 0, pixels.length, lut);
+
+        assertEquals(0, pixels[0] & 0xFF);     // text -> black
+        assertEquals(255, pixels[1] & 0xFF);   // paper -> white
+        assertEquals(0xFF, pixels[1] >>> 24);
+    }
+
+    @Test
+    public void testFlatImageKeepsIdentityLut() {
+        int[] histogram = new int[256];
+        histogram[128] = 1000;
+        int[] lut = ReceiptImageOps.contrastLut(histogram);
+        for (int i = 0; i < 256; i++) {
+            assertEquals(i, lut[i]);
+        }
+    }
+
+    @Test
+    public void testGrayscaleOfSampleImage() throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(sampleJpeg()));
+        int[] row = image.getRGB(0, 0, image.getWidth(), 1, null, 0, image.getWidth());
+        ReceiptImageOps.toGray(row, 0, row.length, null);
+        for (int argb : row) {
+            assertEquals((argb >> 16) & 0xFF, argb & 0xFF);
+            assertEquals((argb >> 8) & 0xFF, argb & 0xFF);
+        }
+    }
+
+    // ==================== Sample Images ====================
+
+    private static byte[] sampleJpeg() throws IOException {
+        BufferedImage image = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 48; y++) {
+            for (int x = 0; x < 64; x++) {
+                image.setRGB(x, y, (x * 4) << 16 | (y * 5) << 8 | 0x80);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Inserts an APP1 Exif segment with a single orientation entry right after SOI.
+     */
+    private static byte[] withExif(byte[] jpeg, int orientation, boolean littleEndian) {
+        ByteArrayOutputStream tiff = new ByteArrayOutputStream();
+        if (littleEndian) {
+            tiff.write('I'); tiff.write('I');
+        } else {
+            tiff.write('M'); tiff.write('M');
+        }
+        writeShort(tiff, 42, littleEndian);
+        writeInt(tiff, 8, littleEndian);          // IFD0 offset
+        writeShort(tiff, 1, littleEndian);        // one entry
+        writeShort(tiff, 0x0112, littleEndian);   // Orientation
+        writeShort(tiff, 3, littleEndian);        // SHORT
+        writeInt(tiff, 1, littleEndian);          // count
+        writeShort(tiff, orientation, littleEndian);
+        writeShort(tiff, 0, littleEndian);        // value padding
+        writeInt(tiff, 0, littleEndian);          // no next IFD
+
+        byte[] body = tiff.toByteArray();
+        int length = 2 + 6 + body.length;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0xFF); out.write(0xD8);
+        out.write(0xFF); out.write(0xE1);
+        out.write(length >> 8); out.write(length & 0xFF);
+        out.write('E'); out.write('x'); out.write('i'); out.write('f'); out.write(0); out.write(0);
+        out.write(body, 0, body.length);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    /**
+     * Inserts {@code count} APP2 segments of {@code length} payload bytes right after SOI.
+     */
+    private static byte[] withAppSegments(byte[] jpeg, int count, int length) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0xFF); out.write(0xD8);
+        for (int i = 0; i < count; i++) {
+            out.write(0xFF); out.write(0xE2);
+            out.write((length + 2) >> 8); out.write((length + 2) & 0xFF);
+            out.write(new byte[length], 0, length);
+        }
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    private static void writeShort(ByteArrayOutputStream out, int v, boolean little) {
+        if (little) {
+            out.write(v & 0xFF); out.write((v >> 8) & 0xFF);
+        } else {
+            out.write((v >> 8) & 0xFF); out.write(v & 0xFF);
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int v, boolean little) {
+        if (little) {
+            writeShort(out, v & 0xFFFF, true); writeShort(out, v >>> 16, true);
+        } else {
+            writeShort(out, v >>> 16, false); writeShort(out, v & 0xFFFF, false);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.smartbudget.app.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Unit tests for ReceiptParser.
+ * Checks every field of the OCR corpus in test resources (receipts/corpus.txt), the amount
+ * tokenizer on edge cases, and concurrent parsing. Parse throughput is measured by
+ * ReceiptParserBenchmark in the microbenchmark module.
+ */
+public class ReceiptParserTest {
+
+    private static final String CORPUS = "receipts/corpus.txt";
+
+    // ==================== Corpus Tests ====================
+
+    @Test
+    public void testCorpusFields() throws IOException {
+        List<Case> cases = loadCorpus();
+        assertTrue("corpus too small", cases.size() >= 10);
+
+        List<String> failures = new ArrayList<>();
+        for (Case c : cases) {
+            ReceiptParser.ReceiptData data = ReceiptParser.parse(c.text);
+            for (Map.Entry<String, String> e : c.expect.entrySet()) {
+                String actual = actual(data, e.getKey());
+                if (!e.getValue().equals(actual)) {
+                    failures.add(c.name + "." + e.getKey() + ": expected " + e.getValue() + " but was " + actual
+                            + " (amount confidence " + data.getAmountConfidence() + ")");
+                }
+            }
+        }
+        assertTrue(String.join("\n", failures), failures.isEmpty());
+    }
+
+    // ==================== Field Tests ====================
+
+    @Test
+    public void testAmountFormats() {
+        assertEquals(1_250_000, ReceiptParser.parse("Tổng cộng: 1.250.000").getAmount(), 0.001);
+        assertEquals(1_250_000, ReceiptParser.parse("Total: 1,250,000").getAmount(), 0.001);
+        assertEquals(12_500.5, ReceiptParser.parse("Tổng cộng 12.500,50").getAmount(), 0.001);
+        assertEquals(50_000, ReceiptParser.parse("Tổng: 50k").getAmount(), 0.001);
+        assertEquals(125_000, ReceiptParser.parse("Thanh toán 125000 VND").getAmount(), 0.001);
+    }
+
+    @Test
+    public void testNoiseIsNotMoney() {
+        // Dates, times, percentages, phone numbers and unit sizes
+        ReceiptParser.ReceiptData data = ReceiptParser.parse(
+                "12/03/2024 14:30\nVAT 10%\nĐT 0909123456\nNước 500ml\nGạo 5kg");
+        assertEquals(0, data.getAmount(), 0.001);
+        assertEquals(0, data.getAmountConfidence(), 0.001);
+    }
+
+    @Test
+    public void testSubtotalIsNotTotal() {
+        ReceiptParser.ReceiptData data = ReceiptParser.parse("Subtotal 100.000\nVAT 8.000\nTotal 108.000");
+        assertEquals(108_000, data.getAmount(), 0.001);
+        assertEquals(100_000, data.getSubtotal(), 0.001);
+        assertEquals(8_000, data.getVat(), 0.001);
+        assertTrue(data.getAmountConfidence() >= ReceiptParser.HIGH_CONFIDENCE);
+    }
+
+    @Test
+    public void testInconsistentTotalLowersConfidence() {
+        ReceiptParser.ReceiptData consistent = ReceiptParser.parse(
+                "QUÁN A\nMón 1 40.000\nMón 2 60.000\nTổng cộng 100.000");
+        ReceiptParser.ReceiptData inconsistent = ReceiptParser.parse(
+                "QUÁN A\nMón 1 40.000\nMón 2 160.000\nTổng cộng 100.000");
+        assertTrue(consistent.isConfident());
+        assertFalse(inconsistent.isConfident());
+        assertTrue(inconsistent.getAmountConfidence() < consistent.getAmountConfidence());
+    }
+
+    @Test
+    public void testGuessedMerchantIsNotConfident() {
+        // Same consistent total, but a first line with no shop keyword or capitals
+        ReceiptParser.ReceiptData data = ReceiptParser.parse(
+                "Bách Hóa Xanh\nMón 1 40.000\nMón 2 60.000\nTổng cộng 100.000");
+        assertTrue(data.getAmountConfidence() >= ReceiptParser.HIGH_CONFIDENCE);
+        assertTrue(data.getMerchantConfidence() < ReceiptParser.HIGH_CONFIDENCE);
+        assertFalse(data.isConfident());
+    }
+
+    @Test
+    public void testItemsAndNote() {
+        ReceiptParser.ReceiptData data = ReceiptParser.parse(
+                "Cafe Mộc\n1. Bạc xỉu 2 x 30.000 60.000\n2. Bánh flan 15.000\nTổng 75.000");
+        assertEquals(2, data.getItems().size());
+        ReceiptParser.LineItem first = data.getItems().get(0);
+        assertEquals("Bạc xỉu", first.getName());
+        assertEquals(2, first.getQuantity());
+        assertEquals(60_000, first.getAmount(), 0.001);
+        assertEquals("- Bạc xỉu x2\n- Bánh flan", data.getItemsNote());
+    }
+
+    @Test
+    public void testEmptyInput() {
+        assertEquals(0, ReceiptParser.parse(null).getAmount(), 0.001);
+        ReceiptParser.ReceiptData empty = ReceiptParser.parse("");
+        assertNull(empty.getMerchant());
+        assertNull(empty.getItemsNote());
+        assertFalse(empty.isConfident());
+    }
+
+    @Test
+    public void testConcurrentParsesAgree() throws Exception {
+        List<Case> cases = loadCorpus();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Case c = cases.get(i % cases.size());
+                futures.add(pool.submit(() -> summary(ReceiptParser.parse(c.text))));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Case c = cases.get(i % cases.size());
+                assertEquals(summary(ReceiptParser.parse(c.text)), futures.get(i).get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    private static final class Case {
+        final String name;
+        final Map<String, String> expect = new LinkedHashMap<>();
+        final StringBuilder body = new StringBuilder();
+        String text;
+
+        Case(String name) {
+            this.name = name;
+        }
+    }
+
+    private List<Case> loadCorpus() throws IOException {
+        InputStream in = getClass().getClassLoader().getResourceAsStream(CORPUS);
+        assertNotNull("missing test resource " + CORPUS, in);
+        List<Case> cases = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            Case current = null;
+            boolean inBody = false;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("=== ")) {
+                    current = new Case(line.substring(4).trim());
+                    cases.add(current);
+                    inBody = false;
+                } else if (current == null) {
+                    continue; // File header comments
+                } else if (inBody) {
+                    current.body.append(line).append('\n');
+                } else if (line.equals("---")) {
+                    inBody = true;
+                } else if (line.startsWith("expect.")) {
+                    int colon = line.indexOf(':');
+                    current.expect.put(line.substring(7, colon).trim(), line.substring(colon + 1).trim());
+                }
+            }
+        }
+        for (Case c : cases) {
+            c.text = c.body.toString().trim();
+        }
+        return cases;
+    }
+
+    private static String actual(ReceiptParser.ReceiptData data, String field) {
+        switch (field) {
+            case "total": return number(data.getAmount());
+            case "subtotal": return number(data.getSubtotal());
+            case "vat": return number(data.getVat());
+            case "merchant": return data.getMerchant();
+            case "date": return data.getDate();
+            case "time": return data.getTime();
+            case "items": return String.valueOf(data.getItems().size());
+            case "confident": return String.valueOf(data.isConfident());
+            default: throw new IllegalArgumentException("Unknown corpus field " + field);
+        }
+    }
+
+    private static String number(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    private static String summary(ReceiptParser.ReceiptData data) {
+        return data.getAmount() + "|" + data.getMerchant() + "|" + data.getDate() + "|"
+                + data.getItems().size() + "|" + data.getAmountConfidence();
+    }
+}
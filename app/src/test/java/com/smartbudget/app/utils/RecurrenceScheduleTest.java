@@ -0,0 +1,118 @@
+package com.smartbudget.app.utils;
+
+import com.smartbudget.app.data.local.entity.RecurringExpenseEntity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Unit tests for RecurrenceSchedule.
+ * Checks day-of-month clamping for monthly and yearly schedules, weekly steps across a DST
+ * change, and catch-up of missed occurrences.
+ */
+public class RecurrenceScheduleTest {
+
+    private static final int MONTHLY = RecurringExpenseEntity.FREQ_MONTHLY;
+    private static final int WEEKLY = RecurringExpenseEntity.FREQ_WEEKLY;
+    private static final int YEARLY = RecurringExpenseEntity.FREQ_YEARLY;
+
+    private TimeZone originalZone;
+
+    @Before
+    public void setUp() {
+        originalZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        EpochDays.resetZone();
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(originalZone);
+        EpochDays.resetZone();
+    }
+
+    // ==================== Next Occurrence ====================
+
+    @Test
+    public void testMonthlyClampsToMonthEndAndReturnsToAnchor() {
+        long jan31 = date(2024, Calendar.JANUARY, 31);
+        long feb = RecurrenceSchedule.next(jan31, MONTHLY, 31);
+        assertEquals(date(2024, Calendar.FEBRUARY, 29), feb);
+        long mar = RecurrenceSchedule.next(feb, MONTHLY, 31);
+        assertEquals(date(2024, Calendar.MARCH, 31), mar);
+        assertEquals(date(2024, Calendar.APRIL, 30), RecurrenceSchedule.next(mar, MONTHLY, 31));
+    }
+
+    @Test
+    public void testYearlyLeapDay() {
+        long leap = date(2024, Calendar.FEBRUARY, 29);
+        long next = RecurrenceSchedule.next(leap, YEARLY, 29);
+        assertEquals(date(2025, Calendar.FEBRUARY, 28), next);
+        next = RecurrenceSchedule.next(next, YEARLY, 29);
+        next = RecurrenceSchedule.next(next, YEARLY, 29);
+        next = RecurrenceSchedule.next(next, YEARLY, 29);
+        assertEquals(date(2028, Calendar.FEBRUARY, 29), next);
+    }
+
+    @Test
+    public void testWeeklyAcrossDstIsMidnight() {
+        // US DST starts 2024-03-10
+        long sat = date(2024, Calendar.MARCH, 9) + 15 * 3600_000L;
+        assertEquals(date(2024, Calendar.MARCH, 16), RecurrenceSchedule.next(sat, WEEKLY, 0));
+    }
+
+    @Test
+    public void testFirstAfterSkipsToday() {
+        long now = date(2024, Calendar.MAY, 15) + 10 * 3600_000L;
+        assertEquals(date(2024, Calendar.MAY, 20), RecurrenceSchedule.firstAfter(now, MONTHLY, 20));
+        assertEquals(date(2024, Calendar.JUNE, 15), RecurrenceSchedule.firstAfter(now, MONTHLY, 15));
+        assertEquals(date(2024, Calendar.JUNE, 1), RecurrenceSchedule.firstAfter(now, MONTHLY, 1));
+        assertEquals(date(2025, Calendar.MAY, 15), RecurrenceSchedule.firstAfter(now, YEARLY, 15));
+    }
+
+    // ==================== Catch-up ====================
+
+    @Test
+    public void testCatchUpYearOfMonthly() {
+        long due = date(2023, Calendar.JUNE, 30);
+        long now = date(2024, Calendar.JUNE, 15) + 9 * 3600_000L;
+        long[] missed = RecurrenceSchedule.occurrencesUntil(due, now, MONTHLY, 30, RecurrenceSchedule.MAX_CATCH_UP);
+        assertEquals(12, missed.length);
+        assertEquals(due, missed[0]);
+        assertEquals(date(2024, Calendar.FEBRUARY, 29), missed[8]);
+        assertEquals(date(2024, Calendar.MAY, 30), missed[11]);
+        assertEquals(date(2024, Calendar.JUNE, 30), RecurrenceSchedule.next(missed[11], MONTHLY, 30));
+    }
+
+    @Test
+    public void testCatchUpIncludesToday() {
+        long today = date(2024, Calendar.JUNE, 15);
+        long[] due = RecurrenceSchedule.occurrencesUntil(today, today + 3600_000L, WEEKLY, 0, 10);
+        assertArrayEquals(new long[]{today}, due);
+    }
+
+    @Test
+    public void testCatchUpNothingDueAndLimit() {
+        long now = date(2024, Calendar.JUNE, 15);
+        assertEquals(0, RecurrenceSchedule.occurrencesUntil(now + 86_400_000L, now, MONTHLY, 16, 10).length);
+
+        long[] weekly = RecurrenceSchedule.occurrencesUntil(date(2014, Calendar.JUNE, 15), now, WEEKLY, 0, 100);
+        assertEquals(100, weekly.length);
+        for (int i = 1; i < weekly.length; i++) {
+            assertEquals(7, EpochDays.dayIndex(weekly[i]) - EpochDays.dayIndex(weekly[i - 1]));
+        }
+    }
+
+    private static long date(int year, int month, int day) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(year, month, day);
+        return cal.getTimeInMillis();
+    }
+}
@@ -0,0 +1,139 @@
+package com.smartbudget.app.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.TimeZone;
+
+/**
+ * Unit tests for SavingsProjection.
+ * Checks the required rates, the forecast from the recent pace, the rate window (including a
+ * window queried earlier) and the completed / overdue / stalled edge cases.
+ */
+public class SavingsProjectionTest {
+
+    private static final long DAY = EpochDays.DAY_MILLIS;
+    // 2024-06-12 12:00 UTC
+    private static final long NOW = 19886 * DAY + DAY / 2;
+    // Exactly RATE_WINDOW_DAYS back, so the window is a round 90 days
+    private static final long WINDOW = NOW - SavingsProjection.RATE_WINDOW_DAYS * DAY;
+
+    private TimeZone originalZone;
+
+    @Before
+    public void setUp() {
+        originalZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        EpochDays.resetZone();
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(originalZone);
+        EpochDays.resetZone();
+    }
+
+    @Test
+    public void testRequiredRateSpreadsRemainingOverDaysLeft() {
+        SavingsProjection p = SavingsProjection.project(1, 10_000_000, 4_000_000, false,
+                NOW - 30 * DAY, NOW + 60 * DAY, 0, WINDOW, NOW);
+
+        assertEquals(6_000_000, p.remaining, 1e-6);
+        assertEquals(60, p.daysLeft);
+        assertEquals(100_000, p.requiredDaily, 1e-6);
+        assertEquals(700_000, p.requiredWeekly, 1e-6);
+    }
+
+    @Test
+    public void testWeeklyNeverExceedsRemaining() {
+        SavingsProjection p = SavingsProjection.project(1, 1_000_000, 700_000, false,
+                NOW - 30 * DAY, NOW + 3 * DAY, 0, WINDOW, NOW);
+
+        assertEquals(100_000, p.requiredDaily, 1e-6);
+        assertEquals(300_000, p.requiredWeekly, 1e-6);
+    }
+
+    @Test
+    public void testForecastFromRecentPace() {
+        // 900k over the 90-day window = 10k a day; 600k left -> 60 days
+        SavingsProjection p = SavingsProjection.project(1, 2_000_000, 1_400_000, false,
+                NOW - 200 * DAY, NOW + 100 * DAY, 900_000, WINDOW, NOW);
+
+        assertEquals(10_000, p.observedDaily, 1e-6);
+        assertEquals(NOW + 60 * DAY, p.estimatedCompletion);
+        assertTrue(p.onTrack);
+    }
+
+    @Test
+    public void testYoungGoalUsesItsOwnAge() {
+        // Created 10 days ago: 100k in 10 days is 10k a day, not 100k / 90
+        SavingsProjection p = SavingsProjection.project(1, 1_000_000, 100_000, false,
+                NOW - 10 * DAY, NOW + 30 * DAY, 100_000, WINDOW, NOW);
+
+        assertEquals(10_000, p.observedDaily, 1e-6);
+        assertEquals(NOW + 90 * DAY, p.estimatedCompletion);
+        assertFalse(p.onTrack);
+    }
+
+    @Test
+    public void testPaceUsesTheQueriedWindow() {
+        // Sum queried 100 days back (screen left open for 10 days): 1M over 100 days, not 90
+        SavingsProjection p = SavingsProjection.project(1, 2_000_000, 1_400_000, false,
+                NOW - 200 * DAY, NOW + 100 * DAY, 1_000_000, NOW - 100 * DAY, NOW);
+
+        assertEquals(10_000, p.observedDaily, 1e-6);
+        assertEquals(NOW + 60 * DAY, p.estimatedCompletion);
+    }
+
+    @Test
+    public void testWindowStartIsLocalMidnight() {
+        long start = SavingsProjection.windowStart(NOW);
+        assertEquals(EpochDays.startOfDay(19886 - SavingsProjection.RATE_WINDOW_DAYS), start);
+        // Same start all day, so the snapshot is re-queried at most once a day
+        assertEquals(start, SavingsProjection.windowStart(NOW + DAY / 2 - 1));
+        assertEquals(start + DAY, SavingsProjection.windowStart(NOW + DAY / 2));
+    }
+
+    @Test
+    public void testNoRecentContributionsHasNoEstimate() {
+        SavingsProjection p = SavingsProjection.project(1, 1_000_000, 500_000, false,
+                NOW - 300 * DAY, NOW + 30 * DAY, 0, WINDOW, NOW);
+
+        assertEquals(SavingsProjection.NO_ESTIMATE, p.estimatedCompletion);
+        assertFalse(p.onTrack);
+
+        // A trickle that would take centuries is no estimate either
+        SavingsProjection trickle = SavingsProjection.project(1, 1e12, 0, false,
+                NOW - 300 * DAY, NOW + 30 * DAY, 1, WINDOW, NOW);
+        assertEquals(SavingsProjection.NO_ESTIMATE, trickle.estimatedCompletion);
+    }
+
+    @Test
+    public void testOverdueNeedsEverythingNow() {
+        SavingsProjection p = SavingsProjection.project(1, 1_000_000, 250_000, false,
+                NOW - 400 * DAY, NOW - 5 * DAY, 0, WINDOW, NOW);
+
+        assertEquals(-5, p.daysLeft);
+        assertEquals(750_000, p.requiredDaily, 1e-6);
+        assertEquals(750_000, p.requiredWeekly, 1e-6);
+    }
+
+    @Test
+    public void testReachedGoalNeedsNothing() {
+        SavingsProjection reached = SavingsProjection.project(1, 1_000_000, 1_200_000, false,
+                NOW - 40 * DAY, NOW + 30 * DAY, 300_000, WINDOW, NOW);
+        SavingsProjection completed = SavingsProjection.project(2, 1_000_000, 900_000, true,
+                NOW - 40 * DAY, NOW + 30 * DAY, 0, WINDOW, NOW);
+
+        for (SavingsProjection p : new SavingsProjection[]{reached, completed}) {
+            assertEquals(0, p.remaining, 1e-9);
+            assertEquals(0, p.requiredDaily, 1e-9);
+            assertEquals(0, p.requiredWeekly, 1e-9);
+            assertTrue(p.onTrack);
+        }
+        assertEquals(2, completed.goalId);
+    }
+}
@@ -0,0 +1,157 @@
+package com.smartbudget.app.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Unit tests for SegmentedGcm and FieldCipher.
+ * Checks round trips around segment boundaries, tamper/truncation detection, field sealing
+ * and reading values written by the old fixed-key AES/ECB helper.
+ */
+public class SegmentedGcmTest {
+
+    private static final SecretKey KEY = key(1);
+
+    // ==================== Streams ====================
+
+    @Test
+    public void testRoundTripAroundSegmentBoundaries() throws IOException {
+        int seg = SegmentedGcm.SEGMENT_SIZE;
+        for (int size : new int[]{0, 1, seg - 1, seg, seg + 1, 3 * seg, 3 * seg + 17}) {
+            byte[] plain = random(size, size);
+            byte[] sealed = encrypt(plain, KEY, 4096);
+            assertEquals("size " + size, SegmentedGcm.encryptedLength(size), sealed.length);
+            assertArrayEquals("size " + size, plain, decrypt(sealed, KEY));
+        }
+    }
+
+    @Test
+    public void testDetectsTamperingAndTruncation() throws IOException {
+        int seg = SegmentedGcm.SEGMENT_SIZE;
+        byte[] plain = random(2 * seg + 100, 7);
+        byte[] sealed = encrypt(plain, KEY, seg);
+
+        byte[] flipped = sealed.clone();
+        flipped[SegmentedGcm.HEADER_BYTES + seg + 40] ^= 1;
+        assertUnreadable(flipped, KEY);
+
+        // Cut exactly after the second full segment: still a valid-looking segment, not the last
+        int segmentBytes = seg + SegmentedGcm.TAG_BYTES;
+        assertUnreadable(Arrays.copyOf(sealed, SegmentedGcm.HEADER_BYTES + 2 * segmentBytes), KEY);
+        assertUnreadable(Arrays.copyOf(sealed, sealed.length - 1), KEY);
+
+        // Same nonce prefix, so only the segment index catches the reorder
+        byte[] swapped = sealed.clone();
+        System.arraycopy(sealed, SegmentedGcm.HEADER_BYTES, swapped, SegmentedGcm.HEADER_BYTES + segmentBytes, segmentBytes);
+        System.arraycopy(sealed, SegmentedGcm.HEADER_BYTES + segmentBytes, swapped, SegmentedGcm.HEADER_BYTES, segmentBytes);
+        assertUnreadable(swapped, KEY);
+
+        assertUnreadable(sealed, key(2));
+    }
+
+    @Test
+    public void testDetectsHeader() throws IOException {
+        byte[] sealed = encrypt("Date,Category".getBytes("UTF-8"), KEY, 64);
+        BufferedInputStream encrypted = new BufferedInputStream(new ByteArrayInputStream(sealed));
+        assertTrue(SegmentedGcm.isEncrypted(encrypted));
+        // Stream was reset
+        assertEquals('S', encrypted.read());
+
+        BufferedInputStream plain = new BufferedInputStream(new ByteArrayInputStream("{\"version\":1}".getBytes("UTF-8")));
+        assertFalse(SegmentedGcm.isEncrypted(plain));
+        assertEquals('{', plain.read());
+    }
+
+    // ==================== Fields ====================
+
+    @Test
+    public void testFieldSealAndLegacyMigration() throws GeneralSecurityException {
+        FieldCipher cipher = new FieldCipher(KEY);
+        byte[] first = cipher.sealString("Cà phê sáng");
+        byte[] second = cipher.sealString("Cà phê sáng");
+        // Random nonce: equal notes do not give equal ciphertexts
+        assertFalse(Arrays.equals(first, second));
+        assertEquals("Cà phê sáng", cipher.openString(first));
+        assertEquals("", cipher.openString(cipher.sealString("")));
+
+        first[first.length - 1] ^= 1;
+        try {
+            cipher.openString(first);
+            fail("Modified value was accepted");
+        } catch (GeneralSecurityException expected) {
+            // AEADBadTagException
+        }
+
+        byte[] legacy = sealLegacy("Tiền nhà tháng 5");
+        assertEquals("Tiền nhà tháng 5", FieldCipher.openLegacy(legacy));
+        assertEquals("Tiền nhà tháng 5", cipher.openString(cipher.sealString(FieldCipher.openLegacy(legacy))));
+    }
+
+    // ==================== Helpers ====================
+
+    /** What the old QuantumSecurity.encrypt wrote: AES/ECB under the key baked into the APK. */
+    private static byte[] sealLegacy(String plaintext) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE,
+                new SecretKeySpec("SmartBudgetQuant".getBytes(StandardCharsets.US_ASCII), "AES"));
+        return cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SecretKey key(int seed) {
+        return new SecretKeySpec(random(32, seed), "AES");
+    }
+
+    private static byte[] random(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    /** Writes in {@code chunk}-sized pieces, like a Writer flushing its buffer. */
+    private static byte[] encrypt(byte[] plain, SecretKey key, int chunk) throws IOException {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (OutputStream out = SegmentedGcm.encrypt(sink, key)) {
+            for (int i = 0; i < plain.length; i += chunk) {
+                out.write(plain, i, Math.min(chunk, plain.length - i));
+            }
+        }
+        return sink.toByteArray();
+    }
+
+    private static byte[] decrypt(byte[] sealed, SecretKey key) throws IOException {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        try (InputStream in = SegmentedGcm.decrypt(new ByteArrayInputStream(sealed), key)) {
+            byte[] buffer = new byte[5000];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                plain.write(buffer, 0, n);
+            }
+        }
+        return plain.toByteArray();
+    }
+
+    private static void assertUnreadable(byte[] sealed, SecretKey key) {
+        try {
+            decrypt(sealed, key);
+            fail("Corrupt stream was accepted");
+        } catch (IOException expected) {
+            // Tag mismatch or truncation
+        }
+    }
+}
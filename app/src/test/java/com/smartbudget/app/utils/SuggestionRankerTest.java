@@ -0,0 +1,175 @@
+package com.smartbudget.app.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.TimeZone;
+
+/**
+ * Unit tests for SuggestionRanker.
+ * Checks each signal (frequency, recency, hour, weekday, hint), that remove undoes record,
+ * anchor rebasing and template selection. The cost of a top-k query is measured by
+ * SuggestionRankerBenchmark in the microbenchmark module.
+ */
+public class SuggestionRankerTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final long DAY = EpochDays.DAY_MILLIS;
+    // Wednesday 2024-06-12 12:00 UTC
+    private static final long NOW = 19886 * DAY + 12 * HOUR;
+
+    private static final long FOOD = 1L;
+    private static final long TRAVEL = 2L;
+    private static final long SHOPPING = 3L;
+
+    private TimeZone originalZone;
+    private SuggestionRanker ranker;
+
+    @Before
+    public void setUp() {
+        originalZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        EpochDays.resetZone();
+        ranker = new SuggestionRanker();
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(originalZone);
+        EpochDays.resetZone();
+    }
+
+    // ==================== Signals ====================
+
+    @Test
+    public void testRecentUsesBeatOldBulk() {
+        for (int i = 0; i < 10; i++) ranker.record(FOOD, NOW - 200 * DAY);
+        for (int i = 0; i < 3; i++) ranker.record(TRAVEL, NOW - DAY);
+
+        long[] top = new long[2];
+        assertEquals(2, ranker.topK(NOW, SuggestionRanker.NO_HINT, 2, top));
+        assertEquals(TRAVEL, top[0]);
+        assertEquals(FOOD, top[1]);
+    }
+
+    @Test
+    public void testFrequencyBreaksEqualRecency() {
+        for (int i = 0; i < 2; i++) ranker.record(FOOD, NOW - 7 * DAY);
+        for (int i = 0; i < 6; i++) ranker.record(TRAVEL, NOW - 7 * DAY);
+
+        assertTrue(ranker.score(TRAVEL, NOW, SuggestionRanker.NO_HINT)
+                > ranker.score(FOOD, NOW, SuggestionRanker.NO_HINT));
+    }
+
+    @Test
+    public void testTimeOfDayFollowsHabit() {
+        // Breakfast at 08:00, taxi home at 20:00, on the same days
+        for (int d = 1; d <= 5; d++) {
+            ranker.record(FOOD, NOW - d * DAY - 4 * HOUR);
+            ranker.record(TRAVEL, NOW - d * DAY + 8 * HOUR);
+        }
+        long[] top = new long[1];
+        ranker.topK(NOW - 4 * HOUR, SuggestionRanker.NO_HINT, 1, top);
+        assertEquals(FOOD, top[0]);
+        ranker.topK(NOW + 8 * HOUR, SuggestionRanker.NO_HINT, 1, top);
+        assertEquals(TRAVEL, top[0]);
+        // Neighbouring hour still counts, at half weight
+        ranker.topK(NOW - 3 * HOUR, SuggestionRanker.NO_HINT, 1, top);
+        assertEquals(FOOD, top[0]);
+    }
+
+    @Test
+    public void testWeekdayFollowsHabit() {
+        // Shopping on Saturdays, food on Wednesdays, same hour
+        for (int w = 1; w <= 4; w++) {
+            ranker.record(SHOPPING, NOW - w * 7 * DAY - 4 * DAY);
+            ranker.record(FOOD, NOW - w * 7 * DAY);
+        }
+        long[] top = new long[1];
+        ranker.topK(NOW + 3 * DAY, SuggestionRanker.NO_HINT, 1, top);
+        assertEquals(SHOPPING, top[0]);
+        ranker.topK(NOW + 7 * DAY, SuggestionRanker.NO_HINT, 1, top);
+        assertEquals(FOOD, top[0]);
+    }
+
+    @Test
+    public void testHintAddsUnusedKey() {
+        for (int i = 0; i < 20; i++) ranker.record(FOOD, NOW - i * DAY);
+
+        long[] top = new long[3];
+        assertEquals(1, ranker.topK(NOW, SuggestionRanker.NO_HINT, 3, top));
+        assertEquals(2, ranker.topK(NOW, SHOPPING, 3, top));
+        assertEquals(FOOD, top[0]);
+        assertEquals(SHOPPING, top[1]);
+        assertEquals(SuggestionRanker.W_HINT, ranker.score(SHOPPING, NOW, SHOPPING), 1e-9);
+    }
+
+    @Test
+    public void testHintPromotesUsedKey() {
+        for (int i = 0; i < 10; i++) ranker.record(FOOD, NOW - DAY);
+        ranker.record(TRAVEL, NOW - 30 * DAY);
+
+        long[] top = new long[2];
+        ranker.topK(NOW, TRAVEL, 2, top);
+        assertEquals(TRAVEL, top[0]);
+    }
+
+    // ==================== Updates ====================
+
+    @Test
+    public void testRemoveUndoesRecord() {
+        ranker.record(FOOD, NOW - 3 * DAY);
+        ranker.record(TRAVEL, NOW - 2 * DAY);
+        double before = ranker.score(FOOD, NOW, SuggestionRanker.NO_HINT);
+
+        ranker.record(FOOD, NOW - HOUR);
+        ranker.remove(FOOD, NOW - HOUR);
+        assertEquals(before, ranker.score(FOOD, NOW, SuggestionRanker.NO_HINT), 1e-9);
+
+        ranker.remove(TRAVEL, NOW - 2 * DAY);
+        ranker.remove(99L, NOW); // unknown: ignored
+        assertEquals(0, ranker.usesOf(TRAVEL));
+        long[] top = new long[3];
+        assertEquals(1, ranker.topK(NOW, SuggestionRanker.NO_HINT, 3, top));
+        assertEquals(FOOD, top[0]);
+    }
+
+    @Test
+    public void testRebaseKeepsScores() {
+        ranker.record(FOOD, NOW);
+        // Far enough ahead to move the anchor
+        long later = NOW + 40L * 365 * DAY;
+        ranker.record(TRAVEL, later);
+
+        double expected = Math.log(2)
+                + SuggestionRanker.W_RECENCY * 0.5
+                + SuggestionRanker.W_HOUR
+                + SuggestionRanker.W_WEEKDAY;
+        assertEquals(expected, ranker.score(TRAVEL, later, SuggestionRanker.NO_HINT), 1e-9);
+        assertTrue(Double.isFinite(ranker.score(FOOD, later, SuggestionRanker.NO_HINT)));
+    }
+
+    @Test
+    public void testClearForgetsEverything() {
+        ranker.record(FOOD, NOW);
+        ranker.clear();
+        assertEquals(0, ranker.usesOf(FOOD));
+        assertEquals(0, ranker.topK(NOW, SuggestionRanker.NO_HINT, 3, new long[3]));
+    }
+
+    // ==================== Selection ====================
+
+    @Test
+    public void testSelectTopOrdersAndBreaksTiesByIndex() {
+        double[] scores = {1.0, 5.0, 3.0, 5.0, 0.5, 4.0};
+        int[] out = new int[6];
+        assertEquals(3, SuggestionRanker.selectTop(scores, scores.length, 3, out));
+        assertArrayEquals(new int[]{1, 3, 5}, java.util.Arrays.copyOf(out, 3));
+
+        assertEquals(2, SuggestionRanker.selectTop(scores, 2, 5, out));
+        assertArrayEquals(new int[]{1, 0}, java.util.Arrays.copyOf(out, 2));
+    }
+}
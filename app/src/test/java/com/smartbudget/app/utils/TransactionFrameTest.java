@@ -0,0 +1,103 @@
+package com.smartbudget.app.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Unit tests for TransactionFrame.
+ * Tests date arithmetic and the group-by / sum kernels against Calendar-based expectations.
+ */
+public class TransactionFrameTest {
+
+    private TransactionFrame frame;
+
+    @Before
+    public void setUp() {
+        List<PatternDetector.TransactionData> transactions = new ArrayList<>();
+        transactions.add(new PatternDetector.TransactionData(millis(2026, Calendar.JANUARY, 31), 300, "Ăn uống"));
+        transactions.add(new PatternDetector.TransactionData(millis(2026, Calendar.JANUARY, 3), 100, "Ăn uống"));
+        transactions.add(new PatternDetector.TransactionData(millis(2026, Calendar.FEBRUARY, 1), 50, "Di chuyển"));
+        transactions.add(new PatternDetector.TransactionData(millis(2026, Calendar.JANUARY, 4), 200, "Di chuyển"));
+        frame = TransactionFrame.fromTransactions(transactions);
+    }
+
+    // ==================== Date Arithmetic Tests ====================
+
+    @Test
+    public void testMonthIndexRoundTrip() {
+        for (int day = -800; day < 40000; day++) {
+            int month = EpochDays.monthIndexOfDay(day);
+            assertTrue(EpochDays.firstDayOfMonth(month) <= day);
+            assertTrue(EpochDays.firstDayOfMonth(month + 1) > day);
+        }
+    }
+
+    @Test
+    public void testDayOfWeekMatchesCalendar() {
+        long saturday = millis(2026, Calendar.JANUARY, 3);
+        int day = EpochDays.dayIndex(saturday);
+        assertEquals(Calendar.SATURDAY - 1, EpochDays.dayOfWeek(day));
+    }
+
+    // ==================== Kernel Tests ====================
+
+    @Test
+    public void testRowsAreSortedByDate() {
+        for (int i = 1; i < frame.size(); i++) {
+            assertTrue(frame.dates[i - 1] <= frame.dates[i]);
+        }
+    }
+
+    @Test
+    public void testMonthSlice() {
+        int january = 2026 * 12;
+        int from = frame.lowerBoundDay(EpochDays.firstDayOfMonth(january));
+        int to = frame.lowerBoundDay(EpochDays.firstDayOfMonth(january + 1));
+        assertEquals(3, to - from);
+        assertEquals(600, frame.sum(from, to), 0.001);
+    }
+
+    @Test
+    public void testSumByCategory() {
+        double[] totals = new double[frame.getCategoryCount()];
+        frame.sumByCategory(0, frame.size(), totals);
+        for (int c = 0; c < totals.length; c++) {
+            if ("Ăn uống".equals(frame.getCategoryName(c))) {
+                assertEquals(400, totals[c], 0.001);
+            } else {
+                assertEquals(250, totals[c], 0.001);
+            }
+        }
+    }
+
+    @Test
+    public void testSumByDayOfWeek() {
+        double[] sums = new double[7];
+        int[] counts = new int[7];
+        frame.sumByDayOfWeek(0, frame.size(), sums, counts);
+        assertEquals(400, sums[Calendar.SATURDAY - 1], 0.001);
+        assertEquals(250, sums[Calendar.SUNDAY - 1], 0.001);
+        assertEquals(2, counts[Calendar.SUNDAY - 1]);
+    }
+
+    @Test
+    public void testSumByMonth() {
+        double[] monthly = new double[2];
+        frame.sumByMonth(0, frame.size(), TransactionFrame.TYPE_EXPENSE, 2026 * 12, monthly);
+        assertEquals(600, monthly[0], 0.001);
+        assertEquals(50, monthly[1], 0.001);
+    }
+
+    private static long millis(int year, int month, int day) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(year, month, day, 12, 0);
+        return cal.getTimeInMillis();
+    }
+}
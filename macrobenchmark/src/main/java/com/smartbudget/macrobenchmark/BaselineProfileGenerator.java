@@ -0,0 +1,71 @@
+package com.smartbudget.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+/**
+ * Generates the Baseline Profile and the startup profile for {@code :app}.
+ *
+ * <p>Run with {@code ./gradlew :app:generateBaselineProfile} on a device with onboarding
+ * completed and some transactions (the list has to be long enough to scroll). The plugin
+ * copies {@code baseline-prof.txt} and {@code startup-prof.txt} into
+ * {@code app/src/release/generated/baselineProfiles/}. Each run adds one expense through the
+ * add-expense journey.</p>
+ *
+ * <p>Only the launch is marked as startup: classes loaded before the dashboard is shown go
+ * into the startup profile (primary dex), everything the journeys touch goes into the
+ * baseline profile (AOT compiled at install).</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    private static final int MAX_ITERATIONS = 15;
+    private static final int STABLE_ITERATIONS = 3;
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void startup() {
+        baselineProfileRule.collect(
+                Journeys.TARGET_PACKAGE,
+                MAX_ITERATIONS,
+                STABLE_ITERATIONS,
+                "startup",
+                true, // includeInStartupProfile
+                false,
+                rule -> true,
+                scope -> {
+                    Journeys.launchToDashboard(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+
+    @Test
+    public void criticalJourneys() {
+        baselineProfileRule.collect(
+                Journeys.TARGET_PACKAGE,
+                MAX_ITERATIONS,
+                STABLE_ITERATIONS,
+                "journeys",
+                false,
+                false,
+                rule -> true,
+                scope -> {
+                    Journeys.launchToDashboard(scope);
+                    Journeys.scrollTransactions(scope);
+                    Journeys.openReports(scope);
+                    Journeys.addExpense(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
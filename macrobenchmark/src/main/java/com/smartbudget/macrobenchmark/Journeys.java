@@ -0,0 +1,115 @@
+package com.smartbudget.macrobenchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.BySelector;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+/**
+ * Critical user journeys, driven with UiAutomator by view id.
+ * Shared by the profile generator and the benchmarks so both exercise the same code paths.
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+final class Journeys {
+
+    static final String TARGET_PACKAGE = "com.smartbudget.app";
+    private static final long TIMEOUT_MS = 5_000;
+
+    private Journeys() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /** Cold launch through the splash until the dashboard is shown. */
+    static void launchToDashboard(MacrobenchmarkScope scope) {
+        scope.pressHome();
+        scope.startActivityAndWait();
+        waitFor(scope.getDevice(), "bottom_navigation");
+    }
+
+    /** Dashboard "see all" -> transactions list, flung down and back up. */
+    static void scrollTransactions(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        UiObject2 dashboard = device.findObject(By.scrollable(true));
+        if (dashboard != null) {
+            dashboard.scrollUntil(Direction.DOWN, Until.hasObject(res("tv_see_all")));
+        }
+        UiObject2 seeAll = device.findObject(res("tv_see_all"));
+        if (seeAll == null) return;
+        seeAll.click();
+
+        // The search box only exists on the transactions screen
+        waitFor(device, "et_search");
+        UiObject2 list = device.findObject(res("rv_transactions"));
+        if (list != null) {
+            // Keep clear of the gesture navigation area
+            list.setGestureMargin(device.getDisplayWidth() / 5);
+            for (int i = 0; i < 3; i++) {
+                list.fling(Direction.DOWN);
+                device.waitForIdle();
+            }
+            list.fling(Direction.UP);
+            device.waitForIdle();
+        }
+        device.pressBack();
+        waitFor(device, "bottom_navigation");
+    }
+
+    /** Reports tab, switching through the weekly / monthly / yearly ranges. */
+    static void openReports(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        clickAndWait(device, "reportsFragment", "bar_chart");
+        for (String range : new String[]{"btn_weekly", "btn_yearly", "btn_monthly"}) {
+            UiObject2 button = device.findObject(res(range));
+            if (button != null) {
+                button.click();
+                device.waitForIdle();
+            }
+        }
+        clickAndWait(device, "dashboardFragment", "tv_see_all");
+    }
+
+    /** FAB -> add expense form -> amount, first category, save. Writes one expense. */
+    static void addExpense(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        clickAndWait(device, "fab_add", "et_amount");
+        device.findObject(res("et_amount")).setText("50000");
+
+        UiObject2 categories = device.findObject(res("rv_categories"));
+        if (categories != null && categories.getChildCount() > 0) {
+            categories.getChildren().get(0).click();
+        }
+        UiObject2 note = device.findObject(res("et_note"));
+        if (note != null) {
+            note.setText("Baseline profile");
+        }
+        UiObject2 save = device.findObject(res("btn_save"));
+        if (save != null) {
+            save.click();
+            waitFor(device, "fab_add");
+        }
+    }
+
+    private static void clickAndWait(UiDevice device, String clickId, String waitId) {
+        UiObject2 target = device.wait(Until.findObject(res(clickId)), TIMEOUT_MS);
+        if (target == null) {
+            throw new AssertionError("View not found: " + clickId);
+        }
+        target.click();
+        waitFor(device, waitId);
+    }
+
+    private static void waitFor(UiDevice device, String id) {
+        if (!device.wait(Until.hasObject(res(id)), TIMEOUT_MS)) {
+            throw new AssertionError("Timed out waiting for " + id);
+        }
+    }
+
+    private static BySelector res(String id) {
+        return By.res(TARGET_PACKAGE, id);
+    }
+}
@@ -0,0 +1,81 @@
+package com.smartbudget.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.Metric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+
+import kotlin.Unit;
+
+/**
+ * Cold-start benchmark for the app.
+ *
+ * <p>Each iteration kills the process, launches the launcher activity and waits until the
+ * dashboard's bottom navigation is on screen (splash included). Besides time to initial
+ * display it reports the {@code startup:*} trace sections written by {@code AppStartup}, so a
+ * regression can be pinned to one initializer. The app must have completed onboarding on the
+ * device, otherwise the run measures the onboarding screen.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    /** Worst case: nothing compiled ahead of time (first launch after install without a profile). */
+    @Test
+    public void coldStartNoCompilation() {
+        measure(new CompilationMode.None());
+    }
+
+    /** What users get from the Play Store: the baseline profile, when the app ships one. */
+    @Test
+    public void coldStartBaselineProfile() {
+        measure(new CompilationMode.Partial(BaselineProfileMode.UseIfAvailable));
+    }
+
+    private void measure(CompilationMode compilationMode) {
+        benchmarkRule.measureRepeated(
+                Journeys.TARGET_PACKAGE,
+                metrics(),
+                compilationMode,
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    // Splash leaves once the dashboard snapshot is loaded
+                    Journeys.launchToDashboard(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+
+    private static List<Metric> metrics() {
+        return Arrays.asList(
+                new StartupTimingMetric(),
+                new TraceSectionMetric("SmartBudgetApp.onCreate"),
+                new TraceSectionMetric("SplashActivity.onCreate"),
+                new TraceSectionMetric("startup:database"),
+                new TraceSectionMetric("startup:dashboardSnapshot"),
+                new TraceSectionMetric("startup:ai"),
+                new TraceSectionMetric("startup:firebaseAuth"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.smartbudget.microbenchmark;
+
+import com.smartbudget.app.utils.BillSplitter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Settlement of a shared bill; size is the number of participants.
+ *
+ * <p>{@code calculateSettlements} zeroes the balances it settles, so every invocation first
+ * restores them from a copy. The restore is a plain array walk and is part of the score.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class BillSplitterBenchmark {
+
+    @Param({"4", "32", "256"})
+    public int participants;
+
+    private List<BillSplitter.Participant> group;
+    private double[] balances;
+
+    @Setup
+    public void setUp() {
+        group = Inputs.participants(participants);
+        balances = new double[participants];
+        for (int i = 0; i < participants; i++) {
+            balances[i] = group.get(i).balance;
+        }
+    }
+
+    @Benchmark
+    public List<BillSplitter.Settlement> calculateSettlements() {
+        for (int i = 0; i < balances.length; i++) {
+            group.get(i).balance = balances[i];
+        }
+        return BillSplitter.calculateSettlements(group);
+    }
+}
@@ -0,0 +1,138 @@
+package com.smartbudget.microbenchmark;
+
+import com.smartbudget.app.utils.FieldCipher;
+import com.smartbudget.app.utils.SegmentedGcm;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encryption throughput: backup/CSV-sized payloads through the segmented AES-GCM streams, and
+ * expense-note-sized fields through FieldCipher against the old per-call AES/ECB helper.
+ *
+ * <p>Stream scores are files per second; multiply by {@code payloadBytes} for bytes per second.
+ * Allocation per operation should stay flat as the payload grows (constant-memory streaming).</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+@State(Scope.Thread)
+public class CryptoBenchmark {
+
+    /** Chunk size of the BufferedWriter / InputStreamReader in front of the streams */
+    private static final int IO_CHUNK = 8192;
+    private static final String NOTE = "Cơm trưa văn phòng với đồng nghiệp";
+
+    private final SecretKey key = new SecretKeySpec(bytes(32, Inputs.SEED), "AES");
+    private final FieldCipher fieldCipher = new FieldCipher(key);
+    private final byte[] chunk = new byte[IO_CHUNK];
+    private byte[] sealedNote;
+
+    /** A multi-megabyte payload and its encrypted form. */
+    @State(Scope.Benchmark)
+    public static class Payload {
+        @Param({"1048576", "8388608"})
+        public int payloadBytes;
+
+        byte[] plain;
+        byte[] sealed;
+
+        @Setup
+        public void setUp() throws IOException {
+            plain = bytes(payloadBytes, Inputs.SEED);
+            ByteArrayOutputStream sink = new ByteArrayOutputStream(payloadBytes + payloadBytes / 512);
+            try (OutputStream out = SegmentedGcm.encrypt(sink, new SecretKeySpec(bytes(32, Inputs.SEED), "AES"))) {
+                out.write(plain);
+            }
+            sealed = sink.toByteArray();
+        }
+    }
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        sealedNote = fieldCipher.sealString(NOTE);
+    }
+
+    // ==================== Streams ====================
+
+    @Benchmark
+    public long encryptStream(Payload payload) throws IOException {
+        CountingSink sink = new CountingSink();
+        try (OutputStream out = SegmentedGcm.encrypt(sink, key)) {
+            byte[] plain = payload.plain;
+            for (int i = 0; i < plain.length; i += IO_CHUNK) {
+                out.write(plain, i, Math.min(IO_CHUNK, plain.length - i));
+            }
+        }
+        return sink.count;
+    }
+
+    @Benchmark
+    public long decryptStream(Payload payload) throws IOException {
+        long total = 0;
+        try (InputStream in = SegmentedGcm.decrypt(new ByteArrayInputStream(payload.sealed), key)) {
+            int n;
+            while ((n = in.read(chunk)) > 0) {
+                total += n;
+            }
+        }
+        return total;
+    }
+
+    // ==================== Fields ====================
+
+    @Benchmark
+    public byte[] sealField() throws GeneralSecurityException {
+        return fieldCipher.sealString(NOTE);
+    }
+
+    @Benchmark
+    public String openField() throws GeneralSecurityException {
+        return fieldCipher.openString(sealedNote);
+    }
+
+    /** What QuantumSecurity.encrypt did per call: new Cipher and key spec, AES/ECB. */
+    @Benchmark
+    public byte[] legacyEncryptField() throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec("SmartBudgetQuant".getBytes(), "AES"));
+        return cipher.doFinal(NOTE.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] bytes(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    /** Discards output, like a file write, without holding megabytes per operation. */
+    private static final class CountingSink extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
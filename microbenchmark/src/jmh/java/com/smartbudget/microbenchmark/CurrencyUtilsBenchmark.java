@@ -0,0 +1,65 @@
+package com.smartbudget.microbenchmark;
+
+import com.smartbudget.app.utils.CurrencyUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Amount formatting and parsing, as done for every row of a transaction list.
+ *
+ * <p>Each invocation handles a batch of {@code BATCH} amounts (one screen of rows), reported
+ * per amount; {@code distinct} is how many different amounts the batch cycles through.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class CurrencyUtilsBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"1", "100", "10000"})
+    public int distinct;
+
+    private double[] amounts;
+    private String[] formatted;
+
+    @Setup
+    public void setUp() {
+        amounts = Inputs.amounts(distinct);
+        formatted = new String[distinct];
+        for (int i = 0; i < distinct; i++) {
+            formatted[i] = CurrencyUtils.formatVND(amounts[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void formatVND(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(CurrencyUtils.formatVND(amounts[i % distinct]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void formatVNDCompact(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(CurrencyUtils.formatVNDCompact(amounts[i % distinct]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void parseAmount(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(CurrencyUtils.parseAmount(formatted[i % distinct]));
+        }
+    }
+}
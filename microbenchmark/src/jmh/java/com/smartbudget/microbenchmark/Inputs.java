@@ -0,0 +1,153 @@
+package com.smartbudget.microbenchmark;
+
+import com.smartbudget.app.utils.BillSplitter;
+import com.smartbudget.app.utils.PatternDetector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic inputs shared by the benchmarks.
+ *
+ * <p>Every generator takes the input size and uses a fixed seed, so a given
+ * {@code @Param} value always produces the same data and results stay comparable with the
+ * baseline.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+final class Inputs {
+
+    static final long SEED = 42L;
+    static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    /** Fixed "now" (2024-06-15 UTC) so date-relative code sees the same months every run */
+    static final long NOW = 1_718_409_600_000L;
+
+    static final String[] CATEGORIES = {
+            "Ăn uống", "Di chuyển", "Mua sắm", "Giải trí", "Hóa đơn", "Y tế", "Giáo dục", "Du lịch"
+    };
+
+    private static final String[] NOTES = {
+            "ăn trưa với đồng nghiệp", "grab đi làm", "mua áo khoác", "xem phim cuối tuần",
+            "tiền điện tháng 5", "khám răng", "thưởng cuối năm", "deadline gấp, đặt đồ ăn",
+            "du lịch Đà Lạt", "lỡ mua đắt", "cà phê", "", "đổ xăng", "quà sinh nhật mẹ",
+    };
+
+    private static final String[] MERCHANTS = {
+            "CO.OPMART", "Circle K", "Highlands Coffee", "Bách Hóa Xanh", "WinMart"
+    };
+
+    private Inputs() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    // ==================== Transactions ====================
+
+    /** {@code count} expenses spread over the 365 days before {@link #NOW}, unsorted. */
+    static List<PatternDetector.TransactionData> transactions(int count) {
+        Random random = new Random(SEED);
+        List<PatternDetector.TransactionData> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long date = NOW - random.nextInt(365) * DAY_MILLIS - random.nextInt((int) DAY_MILLIS);
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            double amount = 10_000 + random.nextInt(200) * 5_000;
+            list.add(new PatternDetector.TransactionData(date, amount, category));
+        }
+        return list;
+    }
+
+    /** {@code count} notes, each joined from {@code phrases} typical note phrases. */
+    static String[] notes(int count, int phrases) {
+        Random random = new Random(SEED);
+        String[] notes = new String[count];
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.setLength(0);
+            for (int j = 0; j < phrases; j++) {
+                if (j > 0) sb.append(", ");
+                sb.append(NOTES[random.nextInt(NOTES.length)]);
+            }
+            notes[i] = sb.toString();
+        }
+        return notes;
+    }
+
+    static String[] categories(int count) {
+        Random random = new Random(SEED + 1);
+        String[] categories = new String[count];
+        for (int i = 0; i < count; i++) {
+            categories[i] = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        }
+        return categories;
+    }
+
+    /** Amounts from a few hundred dong up to a few billion, log-uniform. */
+    static double[] amounts(int count) {
+        Random random = new Random(SEED);
+        double[] amounts = new double[count];
+        for (int i = 0; i < count; i++) {
+            amounts[i] = Math.floor(Math.pow(10, 2 + random.nextDouble() * 8));
+        }
+        return amounts;
+    }
+
+    // ==================== Receipts ====================
+
+    /** OCR-like receipt text with {@code items} item lines plus header and totals. */
+    static String receipt(int items) {
+        Random random = new Random(SEED);
+        StringBuilder text = new StringBuilder();
+        text.append(MERCHANTS[random.nextInt(MERCHANTS.length)]).append('\n')
+                .append("123 Nguyễn Văn Linh, Q.7, TP.HCM\n")
+                .append("ĐT: 028 3776 1234\n")
+                .append("HÓA ĐƠN BÁN LẺ\n")
+                .append("Ngày: 15/06/2024 18:42\n")
+                .append("Thu ngân: 05\n");
+        long total = 0;
+        for (int i = 0; i < items; i++) {
+            int quantity = 1 + random.nextInt(3);
+            long price = (5 + random.nextInt(120)) * 1_000L;
+            total += quantity * price;
+            text.append("Mặt hàng ").append(i + 1).append(' ')
+                    .append(quantity).append(" x ").append(vnd(price))
+                    .append("  ").append(vnd(quantity * price))
+                    .append('\n');
+        }
+        text.append("Tổng tiền hàng: ").append(vnd(total)).append('\n')
+                .append("Giảm giá: 0\n")
+                .append("TỔNG CỘNG: ").append(vnd(total)).append('\n')
+                .append("Tiền khách đưa: 2.000.000\n")
+                .append("Cảm ơn quý khách!\n");
+        return text.toString();
+    }
+
+    /** 1234567 -> "1.234.567", the grouping printed on Vietnamese receipts */
+    private static String vnd(long amount) {
+        return String.format(Locale.US, "%,d", amount).replace(',', '.');
+    }
+
+    // ==================== Bills ====================
+
+    /** Participants with random paid amounts and an equal share owed; balances sum to zero. */
+    static List<BillSplitter.Participant> participants(int count) {
+        Random random = new Random(SEED);
+        List<String> names = new ArrayList<>(count);
+        double total = 0;
+        double[] paid = new double[count];
+        for (int i = 0; i < count; i++) {
+            names.add("Người " + (i + 1));
+            // Roughly a third of the group pays
+            paid[i] = random.nextInt(3) == 0 ? (1 + random.nextInt(50)) * 20_000 : 0;
+            total += paid[i];
+        }
+        List<BillSplitter.Participant> participants = BillSplitter.splitEqually(total, names);
+        for (int i = 0; i < count; i++) {
+            BillSplitter.Participant p = participants.get(i);
+            p.amountPaid = paid[i];
+            p.balance = p.amountPaid - p.amountOwed;
+        }
+        return participants;
+    }
+}
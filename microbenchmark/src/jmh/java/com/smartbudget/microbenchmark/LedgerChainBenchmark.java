@@ -0,0 +1,82 @@
+package com.smartbudget.microbenchmark;
+
+import com.smartbudget.app.utils.LedgerChain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Expense ledger hashing: encoding and chaining one entry, and verifying a run of entries
+ * (what {@code ExpenseLedger.verifyTail} does per page).
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+@State(Scope.Thread)
+public class LedgerChainBenchmark {
+
+    private final LedgerChain chain = new LedgerChain();
+    private byte[] tail = LedgerChain.GENESIS;
+    private long seq;
+
+    /** Chain of {@code entries} entries built with a separate LedgerChain. */
+    @State(Scope.Benchmark)
+    public static class Run {
+        @Param({"512", "4096"})
+        public int entries;
+
+        long[] seqs;
+        byte[][] payloads;
+        byte[][] hashes;
+
+        @Setup
+        public void setUp() {
+            LedgerChain builder = new LedgerChain();
+            seqs = new long[entries];
+            payloads = new byte[entries][];
+            hashes = new byte[entries][];
+            byte[] hash = LedgerChain.GENESIS;
+            for (int i = 0; i < entries; i++) {
+                seqs[i] = i + 1;
+                payloads[i] = encode(builder, i);
+                hash = builder.next(hash, seqs[i], payloads[i]);
+                hashes[i] = hash;
+            }
+        }
+    }
+
+    /** One append: encode the expense and chain it (the per-row cost of a batched insert). */
+    @Benchmark
+    public byte[] append() {
+        byte[] payload = encode(chain, (int) seq);
+        tail = chain.next(tail, ++seq, payload);
+        return tail;
+    }
+
+    @Benchmark
+    public int verify(Run run) {
+        return chain.verify(LedgerChain.GENESIS, run.seqs, run.payloads, run.hashes);
+    }
+
+    /** Same field layout as ExpenseLedger.encode */
+    private static byte[] encode(LedgerChain chain, int i) {
+        return chain.payload()
+                .putByte(2)
+                .putByte(1)
+                .putLong(100_000L + i)
+                .putLong(45_000L + i % 1000)
+                .putString("VND")
+                .putLong(Long.valueOf(1 + i % 9))
+                .putLong(1_718_409_600_000L + i * 3_600_000L)
+                .putString("Cơm trưa văn phòng")
+                .putString(null)
+                .putString(null)
+                .putLong((Long) null)
+                .putLong(1_718_409_600_000L)
+                .putLong(1_718_409_600_000L)
+                .toByteArray();
+    }
+}
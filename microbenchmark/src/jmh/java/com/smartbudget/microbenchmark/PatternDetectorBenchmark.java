@@ -0,0 +1,47 @@
+package com.smartbudget.microbenchmark;
+
+import com.smartbudget.app.utils.PatternDetector;
+import com.smartbudget.app.utils.TransactionFrame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * PatternDetector over a year of transactions.
+ *
+ * <p>{@code fromList} is the boxed compatibility path (sort + frame build + detection);
+ * {@code fromFrame} is detection alone on a prebuilt columnar frame.</p>
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class PatternDetectorBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private List<PatternDetector.TransactionData> transactions;
+    private TransactionFrame frame;
+
+    @Setup
+    public void setUp() {
+        transactions = Inputs.transactions(size);
+        frame = TransactionFrame.fromTransactions(transactions);
+    }
+
+    @Benchmark
+    public List<PatternDetector.Pattern> fromList() {
+        return PatternDetector.detectPatterns(transactions);
+    }
+
+    @Benchmark
+    public List<PatternDetector.Pattern> fromFrame() {
+        return PatternDetector.detectPatterns(frame);
+    }
+}
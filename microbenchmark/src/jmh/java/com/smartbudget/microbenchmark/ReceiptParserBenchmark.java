@@ -0,0 +1,34 @@
+package com.smartbudget.microbenchmark;
+
+import com.smartbudget.app.utils.ReceiptParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * OCR receipt parsing; size is the number of item lines on the receipt.
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class ReceiptParserBenchmark {
+
+    @Param({"5", "30", "200"})
+    public int items;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = Inputs.receipt(items);
+    }
+
+    @Benchmark
+    public ReceiptParser.ReceiptData parse() {
+        return ReceiptParser.parse(text);
+    }
+}
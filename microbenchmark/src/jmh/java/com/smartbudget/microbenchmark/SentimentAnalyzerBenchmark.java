@@ -0,0 +1,46 @@
+package com.smartbudget.microbenchmark;
+
+import com.smartbudget.app.utils.SentimentAnalyzer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Sentiment of a batch of transaction notes, reported per note; size is the number of
+ * phrases in each note.
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class SentimentAnalyzerBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({"1", "4", "16"})
+    public int phrases;
+
+    private String[] notes;
+    private String[] categories;
+    private double[] amounts;
+
+    @Setup
+    public void setUp() {
+        notes = Inputs.notes(BATCH, phrases);
+        categories = Inputs.categories(BATCH);
+        amounts = Inputs.amounts(BATCH);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void analyze(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) {
+            bh.consume(SentimentAnalyzer.analyze(notes[i], categories[i], amounts[i]));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.smartbudget.microbenchmark;
+
+import com.smartbudget.app.utils.SmartSearchHelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Natural-language search query parsing; size is the number of words in the query.
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class SmartSearchHelperBenchmark {
+
+    private static final String[] WORDS = {
+            "ăn uống", "trên", "50k", "tháng này", "cà phê", "dưới", "2 triệu", "chi", "grab",
+            "tuần trước", "mua sắm", "từ", "100 nghìn", "đến", "500k", "siêu thị", "thu", "lương"
+    };
+
+    @Param({"2", "8", "32"})
+    public int words;
+
+    private String query;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Inputs.SEED);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        query = sb.toString();
+    }
+
+    @Benchmark
+    public SmartSearchHelper.SearchQuery parseQuery() {
+        return SmartSearchHelper.parseQuery(query);
+    }
+}
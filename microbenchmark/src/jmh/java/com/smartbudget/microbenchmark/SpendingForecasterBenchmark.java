@@ -0,0 +1,38 @@
+package com.smartbudget.microbenchmark;
+
+import com.smartbudget.app.utils.SpendingForecaster;
+import com.smartbudget.app.utils.TransactionFrame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Month-end forecast from a columnar frame of a year of transactions.
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class SpendingForecasterBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param({"6"})
+    public int historyMonths;
+
+    private TransactionFrame frame;
+
+    @Setup
+    public void setUp() {
+        frame = TransactionFrame.fromTransactions(Inputs.transactions(size));
+    }
+
+    @Benchmark
+    public SpendingForecaster.Forecast forecastMonthEnd() {
+        return SpendingForecaster.forecastMonthEnd(frame, Inputs.NOW, historyMonths);
+    }
+}
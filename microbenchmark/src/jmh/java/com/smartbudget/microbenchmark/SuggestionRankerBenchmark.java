@@ -0,0 +1,55 @@
+package com.smartbudget.microbenchmark;
+
+import com.smartbudget.app.utils.SuggestionRanker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Quick-add suggestions: one top-k query (what each keystroke of the note field costs) and one
+ * recorded expense (the per-write cost in {@code SuggestionEngine.onExpenseWritten}).
+ *
+ * @author SmartBudget Development Team
+ * @version 1.0
+ */
+@State(Scope.Thread)
+public class SuggestionRankerBenchmark {
+
+    @Param({"10", "40"})
+    public int categories;
+
+    private final SuggestionRanker ranker = new SuggestionRanker();
+    private final long[] top = new long[5];
+    private long query;
+
+    /** A year of history: 5000 expenses spread over the categories. */
+    @Setup
+    public void setUp() {
+        Random random = new Random(Inputs.SEED);
+        for (int i = 0; i < 5000; i++) {
+            ranker.record(random.nextInt(categories),
+                    Inputs.NOW - (long) (random.nextDouble() * 365 * Inputs.DAY_MILLIS));
+        }
+    }
+
+    @Benchmark
+    public long topK() {
+        long now = Inputs.NOW + (++query & 0xFFFF) * 60_000L;
+        ranker.topK(now, query % categories, top.length, top);
+        return top[0];
+    }
+
+    @Benchmark
+    public int recordAndRemove() {
+        long when = Inputs.NOW + (++query & 0xFFFF) * 60_000L;
+        long key = query % categories;
+        ranker.record(key, when);
+        ranker.remove(key, when);
+        return ranker.usesOf(key);
+    }
+}